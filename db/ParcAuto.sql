@@ -39,6 +39,30 @@ CREATE TABLE `AFFECTATION` (
 
 -- --------------------------------------------------------
 
+--
+-- Structure de la table `ALERTE_EMISE`
+-- (journal des alertes déjà notifiées, par clé type:entité:échéance)
+--
+
+CREATE TABLE `ALERTE_EMISE` (
+                                `cle_alerte` varchar(120) NOT NULL,
+                                `date_emission` datetime NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- --------------------------------------------------------
+
+--
+-- Structure de la table `ALERTE_FILIGRANE`
+-- (instant de la dernière évaluation incrémentale du moteur d'alertes)
+--
+
+CREATE TABLE `ALERTE_FILIGRANE` (
+                                    `source` varchar(30) NOT NULL,
+                                    `date_filigrane` datetime DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- --------------------------------------------------------
+
 --
 -- Structure de la table `ASSURANCE`
 --
@@ -48,7 +72,23 @@ CREATE TABLE `ASSURANCE` (
                              `date_debut_assurance` datetime DEFAULT NULL,
                              `date_fin_assurance` datetime DEFAULT NULL,
                              `agence` varchar(100) DEFAULT NULL,
-                             `cout_assurance` decimal(12,2) DEFAULT NULL
+                             `cout_assurance` decimal(12,2) DEFAULT NULL,
+                             `date_maj` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- --------------------------------------------------------
+
+--
+-- Structure de la table `COUT_MENSUEL`
+-- (agrégats des coûts par véhicule, mois et catégorie, tenus à jour par l'application)
+--
+
+CREATE TABLE `COUT_MENSUEL` (
+                                `id_vehicule` int NOT NULL,
+                                `mois` date NOT NULL,
+                                `categorie` enum('Entretien','Carburant','FraisAnnexes','Assurance') NOT NULL,
+                                `montant` decimal(14,2) NOT NULL DEFAULT '0.00',
+                                `nb_operations` int NOT NULL DEFAULT '0'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 
 -- --------------------------------------------------------
@@ -87,7 +127,28 @@ CREATE TABLE `DOCUMENT_SOCIETAIRE` (
                                        `id_societaire` int NOT NULL,
                                        `type_doc` enum('CarteGrise','Assurance','ID','Permis') NOT NULL,
                                        `chemin_fichier` varchar(255) NOT NULL,
-                                       `date_upload` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP
+                                       `date_upload` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                       `date_expiration` datetime DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- --------------------------------------------------------
+
+--
+-- Structure de la table `ECHEANCE_ENTRETIEN`
+-- (projection du prochain entretien dû de chaque véhicule, tenue à jour par les services)
+--
+
+CREATE TABLE `ECHEANCE_ENTRETIEN` (
+                                      `id_vehicule` int NOT NULL,
+                                      `km_actuels` int NOT NULL,
+                                      `km_dernier_entretien` int NOT NULL,
+                                      `date_dernier_entretien` datetime DEFAULT NULL,
+                                      `km_prochain` int NOT NULL,
+                                      `date_prochain` datetime DEFAULT NULL,
+                                      `km_restants` int GENERATED ALWAYS AS (`km_prochain` - `km_actuels`) STORED,
+                                      `km_jour` decimal(10,2) NOT NULL DEFAULT '0.00',
+                                      `date_echeance` datetime DEFAULT NULL,
+                                      `date_maj` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 
 -- --------------------------------------------------------
@@ -279,7 +340,8 @@ CREATE TABLE `VEHICULES` (
                              `couleur` varchar(20) DEFAULT NULL,
                              `prix_vehicule` decimal(12,2) DEFAULT NULL,
                              `km_actuels` int DEFAULT NULL,
-                             `date_etat` datetime DEFAULT NULL
+                             `date_etat` datetime DEFAULT NULL,
+                             `date_maj` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 
 -- --------------------------------------------------------
@@ -305,7 +367,20 @@ ALTER TABLE `AFFECTATION`
     ADD PRIMARY KEY (`id`),
     ADD KEY `id_vehicule` (`id_vehicule`),
     ADD KEY `id_personnel` (`id_personnel`),
-    ADD KEY `id_sociétaire` (`id_societaire`);
+    ADD KEY `id_sociétaire` (`id_societaire`),
+    ADD KEY `idx_affectation_vehicule_periode` (`id_vehicule`,`date_debut`,`date_fin`);
+
+--
+-- Index pour la table `ALERTE_EMISE`
+--
+ALTER TABLE `ALERTE_EMISE`
+    ADD PRIMARY KEY (`cle_alerte`);
+
+--
+-- Index pour la table `ALERTE_FILIGRANE`
+--
+ALTER TABLE `ALERTE_FILIGRANE`
+    ADD PRIMARY KEY (`source`);
 
 --
 -- Index pour la table `ASSURANCE`
@@ -314,6 +389,13 @@ ALTER TABLE `ASSURANCE`
     ADD PRIMARY KEY (`num_carte_assurance`),
     ADD KEY `idx_fin_assurance` (`date_fin_assurance`);
 
+--
+-- Index pour la table `COUT_MENSUEL`
+--
+ALTER TABLE `COUT_MENSUEL`
+    ADD PRIMARY KEY (`id_vehicule`,`mois`,`categorie`),
+    ADD KEY `idx_cout_mensuel_mois` (`mois`,`categorie`,`montant`);
+
 --
 -- Index pour la table `COUVRIR`
 --
@@ -326,14 +408,26 @@ ALTER TABLE `COUVRIR`
 --
 ALTER TABLE `DEPENSE_MISSION`
     ADD PRIMARY KEY (`id`),
-    ADD KEY `id_mission` (`id_mission`);
+    ADD KEY `id_mission` (`id_mission`),
+    ADD KEY `idx_depense_mission_nature` (`id_mission`,`nature`,`montant`);
 
 --
 -- Index pour la table `DOCUMENT_SOCIETAIRE`
 --
 ALTER TABLE `DOCUMENT_SOCIETAIRE`
     ADD PRIMARY KEY (`id_doc`),
-    ADD KEY `id_sociétaire` (`id_societaire`);
+    ADD KEY `id_sociétaire` (`id_societaire`),
+    ADD KEY `idx_document_expiration` (`date_expiration`);
+
+--
+-- Index pour la table `ECHEANCE_ENTRETIEN`
+--
+ALTER TABLE `ECHEANCE_ENTRETIEN`
+    ADD PRIMARY KEY (`id_vehicule`),
+    ADD KEY `idx_echeance_km_restants` (`km_restants`),
+    ADD KEY `idx_echeance_date_prochain` (`date_prochain`),
+    ADD KEY `idx_echeance_date_echeance` (`date_echeance`),
+    ADD KEY `idx_echeance_maj` (`date_maj`);
 
 --
 -- Index pour la table `ENTRETIEN`
@@ -341,7 +435,9 @@ ALTER TABLE `DOCUMENT_SOCIETAIRE`
 ALTER TABLE `ENTRETIEN`
     ADD PRIMARY KEY (`id_entretien`),
     ADD KEY `id_vehicule` (`id_vehicule`),
-    ADD KEY `idx_sortie_entr` (`date_sortie_entr`);
+    ADD KEY `idx_sortie_entr` (`date_sortie_entr`),
+    ADD KEY `idx_entretien_vehicule_sortie` (`id_vehicule`,`date_sortie_entr`,`cout_entr`),
+    ADD KEY `idx_entretien_entree` (`date_entree_entr`);
 
 --
 -- Index pour la table `ETAT_VOITURE`
@@ -361,14 +457,17 @@ ALTER TABLE `FONCTION`
 --
 ALTER TABLE `MISSION`
     ADD PRIMARY KEY (`id_mission`),
-    ADD KEY `id_vehicule` (`id_vehicule`);
+    ADD KEY `id_vehicule` (`id_vehicule`),
+    ADD KEY `idx_mission_vehicule_periode` (`id_vehicule`,`date_debut_mission`,`date_fin_mission`),
+    ADD KEY `idx_mission_debut` (`date_debut_mission`);
 
 --
 -- Index pour la table `MOUVEMENT`
 --
 ALTER TABLE `MOUVEMENT`
     ADD PRIMARY KEY (`id`),
-    ADD KEY `id_sociétaire` (`id_societaire`);
+    ADD KEY `id_sociétaire` (`id_societaire`),
+    ADD KEY `idx_mouvement_date` (`date`);
 
 --
 -- Index pour la table `PERSONNEL`
@@ -408,7 +507,10 @@ ALTER TABLE `VEHICULES`
     ADD PRIMARY KEY (`id_vehicule`),
     ADD UNIQUE KEY `numero_chassi` (`numero_chassi`),
     ADD UNIQUE KEY `immatriculation` (`immatriculation`),
-    ADD KEY `id_etat_voiture` (`id_etat_voiture`);
+    ADD KEY `id_etat_voiture` (`id_etat_voiture`),
+    ADD KEY `idx_vehicules_acquisition` (`date_acquisition`),
+    ADD KEY `idx_vehicules_mise_en_service` (`date_mise_en_service`),
+    ADD KEY `idx_vehicules_maj` (`date_maj`);
 
 --
 -- AUTO_INCREMENT pour les tables déchargées
@@ -519,6 +621,12 @@ ALTER TABLE `AFFECTATION`
     ADD CONSTRAINT `AFFECTATION_ibfk_2` FOREIGN KEY (`id_personnel`) REFERENCES `PERSONNEL` (`id_personnel`) ON DELETE SET NULL ON UPDATE CASCADE,
     ADD CONSTRAINT `AFFECTATION_ibfk_3` FOREIGN KEY (`id_societaire`) REFERENCES `SOCIETAIRE_COMPTE` (`id_societaire`) ON DELETE SET NULL ON UPDATE CASCADE;
 
+--
+-- Contraintes pour la table `COUT_MENSUEL`
+--
+ALTER TABLE `COUT_MENSUEL`
+    ADD CONSTRAINT `COUT_MENSUEL_ibfk_1` FOREIGN KEY (`id_vehicule`) REFERENCES `VEHICULES` (`id_vehicule`) ON DELETE CASCADE;
+
 --
 -- Contraintes pour la table `COUVRIR`
 --
@@ -538,6 +646,12 @@ ALTER TABLE `DEPENSE_MISSION`
 ALTER TABLE `DOCUMENT_SOCIETAIRE`
     ADD CONSTRAINT `DOCUMENT_SOCIETAIRE_ibfk_1` FOREIGN KEY (`id_societaire`) REFERENCES `SOCIETAIRE_COMPTE` (`id_societaire`) ON DELETE CASCADE;
 
+--
+-- Contraintes pour la table `ECHEANCE_ENTRETIEN`
+--
+ALTER TABLE `ECHEANCE_ENTRETIEN`
+    ADD CONSTRAINT `ECHEANCE_ENTRETIEN_ibfk_1` FOREIGN KEY (`id_vehicule`) REFERENCES `VEHICULES` (`id_vehicule`) ON DELETE CASCADE;
+
 --
 -- Contraintes pour la table `ENTRETIEN`
 --
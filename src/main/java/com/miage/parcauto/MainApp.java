@@ -2,6 +2,10 @@ package main.java.com.miage.parcauto;
 
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -16,6 +20,13 @@ import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
 import main.java.com.miage.parcauto.dao.DbUtil;
+import main.java.com.miage.parcauto.dao.TriCurseur;
+import main.java.com.miage.parcauto.exception.OperationFailedException;
+import main.java.com.miage.parcauto.security.PasswordUtil;
+import main.java.com.miage.parcauto.service.BusNotifications;
+import main.java.com.miage.parcauto.service.PlanificateurAlertes;
+import main.java.com.miage.parcauto.service.ServicesAsynchrones;
+import main.java.com.miage.parcauto.service.impl.FinanceReportingServiceImpl;
 import main.java.com.miage.parcauto.util.ResourceManager;
 import main.java.com.miage.parcauto.util.ThemeManager;
 
@@ -38,6 +49,11 @@ public class MainApp extends Application {
     private static final String LOGIN_FXML = "/fxml/login.fxml";
     private static final String APP_ICON = "/images/logo.png";
 
+    // Commande de maintenance exécutée sans interface graphique
+    private static final String OPTION_RECONSTRUIRE_COUTS = "--reconstruire-couts";
+    private static final String OPTION_BANC_SERVICES = "--banc-services";
+    private static final int APPELS_BANC_DEFAUT = 500;
+
     // Fichiers de style
     private static final String[] CSS_FILES = {
             "/css/views/login.css" // Style spécifique à l'écran de login
@@ -66,6 +82,14 @@ public class MainApp extends Application {
      */
     public static void main(String[] args) {
         System.out.println("MainApp.main() appelé."); // Log de démarrage
+        if (args.length > 0 && OPTION_RECONSTRUIRE_COUTS.equals(args[0])) {
+            reconstruireCoutsMensuels();
+            return;
+        }
+        if (args.length > 0 && OPTION_BANC_SERVICES.equals(args[0])) {
+            comparerModesExecution(args.length > 1 ? Integer.parseInt(args[1]) : APPELS_BANC_DEFAUT);
+            return;
+        }
         // Rediriger System.err vers un fichier pour capturer les erreurs natives ou de
         // bas niveau
         try {
@@ -77,6 +101,70 @@ public class MainApp extends Application {
         launch(args);
     }
 
+    /**
+     * Reconstruit la table d'agrégats COUT_MENSUEL puis termine le processus
+     * (code de sortie 1 en cas d'échec).
+     */
+    private static void reconstruireCoutsMensuels() {
+        int statut = 0;
+        try {
+            int cellules = new FinanceReportingServiceImpl().reconstruireCoutsMensuels();
+            System.out.println("Coûts mensuels reconstruits: " + cellules + " cellule(s).");
+        } catch (OperationFailedException e) {
+            LOGGER.log(Level.SEVERE, "Échec de la reconstruction des coûts mensuels", e);
+            statut = 1;
+        } finally {
+            DbUtil.getInstance().shutdown();
+        }
+        System.exit(statut);
+    }
+
+    /**
+     * Banc d'essai des modes d'exécution des services : lance le même nombre d'appels simultanés
+     * (pages des listes véhicules, missions et entretiens, comme un tableau de bord) sur un pool
+     * de threads borné puis sur des threads virtuels avec budget de connexions, et affiche le
+     * débit et les latences p50/p99 de chaque mode. Termine le processus (code 1 en cas d'échec).
+     *
+     * @param appels le nombre d'appels simultanés par mode.
+     */
+    private static void comparerModesExecution(int appels) {
+        int statut = 0;
+        try {
+            for (boolean threadsVirtuels : new boolean[]{false, true}) {
+                ServicesAsynchrones services = ServicesAsynchrones.creer(threadsVirtuels);
+                try {
+                    List<CompletableFuture<?>> resultats = new ArrayList<>(appels);
+                    for (int i = 0; i < appels; i++) {
+                        switch (i % 3) {
+                            case 0:
+                                resultats.add(services.vehicules().appeler(
+                                        s -> s.getPageVehicules(null, 50, TriCurseur.ID_CROISSANT)));
+                                break;
+                            case 1:
+                                resultats.add(services.missions().appeler(
+                                        s -> s.getPageMissions(null, 50, TriCurseur.DATE_DECROISSANTE)));
+                                break;
+                            default:
+                                resultats.add(services.entretiens().appeler(
+                                        s -> s.getPageEntretiens(null, 50, TriCurseur.DATE_DECROISSANTE)));
+                                break;
+                        }
+                    }
+                    CompletableFuture.allOf(resultats.toArray(new CompletableFuture<?>[0])).join();
+                    System.out.println(services.getStats());
+                } finally {
+                    services.arreter();
+                }
+            }
+        } catch (CompletionException e) {
+            LOGGER.log(Level.SEVERE, "Échec du banc d'essai des services", e);
+            statut = 1;
+        } finally {
+            DbUtil.getInstance().shutdown();
+        }
+        System.exit(statut);
+    }
+
     /**
      * Initialise l'interface utilisateur de l'application.
      *
@@ -157,6 +245,14 @@ public class MainApp extends Application {
         testDatabaseConnection();
         System.out.println("testDatabaseConnection() appelé.");
 
+        // Évaluer périodiquement les alertes (assurances, entretiens, documents)
+        PlanificateurAlertes.demarrer();
+
+        // Étalonner le coût du hachage des mots de passe sans retarder l'affichage
+        Thread etalonnage = new Thread(PasswordUtil::calibrate, "parcauto-etalonnage-hachage");
+        etalonnage.setDaemon(true);
+        etalonnage.start();
+
         System.out.println("ThemeManager.getInstance() va être appelé.");
         // Initialiser le gestionnaire de thèmes
         ThemeManager.getInstance();
@@ -294,6 +390,11 @@ public class MainApp extends Application {
         System.out.println("MainApp.stop() appelé.");
         LOGGER.info("Fermeture de l'application...");
 
+        // Abandonner les appels de service en attente avant de fermer le pool
+        ServicesAsynchrones.arreterInstance();
+        PlanificateurAlertes.arreter();
+        BusNotifications.arreterInstance();
+
         // Fermer la connexion à la base de données
         try {
             DbUtil.getInstance().shutdown();
@@ -33,7 +33,11 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import main.java.com.miage.parcauto.dto.NotificationDTO;
+import main.java.com.miage.parcauto.service.BusNotifications;
+import main.java.com.miage.parcauto.service.EvenementNotification;
+import main.java.com.miage.parcauto.service.LivraisonFx;
 import main.java.com.miage.parcauto.service.NotificationService;
+import main.java.com.miage.parcauto.service.ServicesAsynchrones;
 import main.java.com.miage.parcauto.viewmodel.NotificationViewModel;
 
 /**
@@ -74,6 +78,9 @@ public class NotificationComponent extends StackPane {
             FXCollections.observableArrayList());
     private final NotificationService notificationService;
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final LivraisonFx<EvenementNotification> livraison = new LivraisonFx<>(this::appliquerEvenements, 200);
+    private BusNotifications.Abonnement abonnement;
+    private Integer idUtilisateurAbonne;
 
     /**
      * Constructeur par défaut.
@@ -83,6 +90,64 @@ public class NotificationComponent extends StackPane {
         loadFXML();
         configureListeners();
         setupNotificationUpdater();
+        Integer idUtilisateur = getIdUtilisateurCourant();
+        if (idUtilisateur != null) {
+            abonner(idUtilisateur);
+        }
+    }
+
+    /**
+     * Abonne le composant aux changements des notifications d'un utilisateur : les
+     * notifications créées, lues ou supprimées sont appliquées à la liste affichée sans la
+     * recharger. Remplace l'abonnement précédent.
+     *
+     * @param idUtilisateur ID de l'utilisateur dont afficher les notifications
+     */
+    public void abonner(Integer idUtilisateur) {
+        if (abonnement != null) {
+            abonnement.close();
+        }
+        abonnement = BusNotifications.getInstance().abonner(idUtilisateur, livraison::publier);
+        idUtilisateurAbonne = idUtilisateur;
+        updateNonLuesCount();
+    }
+
+    /**
+     * Applique, sur le thread JavaFX, les changements reçus du bus.
+     */
+    private void appliquerEvenements(List<EvenementNotification> evenements) {
+        ObservableList<NotificationViewModel> liste = notifications.get();
+        if (liste == null) {
+            return;
+        }
+        for (EvenementNotification evenement : evenements) {
+            switch (evenement.getType()) {
+                case CREATION:
+                    NotificationViewModel nouvelle = new NotificationViewModel(evenement.getNotification());
+                    if (liste.stream().noneMatch(n -> n.getIdNotification() == nouvelle.getIdNotification())) {
+                        liste.add(0, nouvelle);
+                        if (nouvelle.getType() != null) {
+                            showNotification(nouvelle.getType(), nouvelle.getTitre(), nouvelle.getMessage());
+                        }
+                    }
+                    break;
+                case LECTURE:
+                    for (NotificationViewModel notification : liste) {
+                        if (evenement.getIdsNotification().contains(notification.getIdNotification())) {
+                            notification.setVue(true);
+                        }
+                    }
+                    break;
+                case SUPPRESSION:
+                    liste.removeIf(n -> evenement.getIdsNotification().contains(n.getIdNotification()));
+                    break;
+                case LECTURE_TOUTES:
+                    liste.forEach(n -> n.setVue(true));
+                    break;
+                default:
+            }
+        }
+        updateNonLuesCount();
     }
 
     /**
@@ -147,7 +212,9 @@ public class NotificationComponent extends StackPane {
      */
     private void onNotificationsChanged(ListChangeListener.Change<? extends NotificationViewModel> change) {
         updateEmptyState();
-        updateNonLuesCount();
+        if (idUtilisateurAbonne == null) {
+            updateNonLuesCount();
+        } // Sinon le compteur est relu une fois par lot de changements reçus du bus
     }
 
     /**
@@ -161,9 +228,19 @@ public class NotificationComponent extends StackPane {
     }
 
     /**
-     * Compte le nombre de notifications non lues.
+     * Met à jour le compteur de notifications non lues : par une requête COUNT en arrière-plan
+     * si le composant est abonné à un utilisateur (la liste affichée peut n'en contenir qu'une
+     * partie), sinon d'après la liste affichée.
      */
     private void updateNonLuesCount() {
+        Integer idUtilisateur = idUtilisateurAbonne;
+        if (idUtilisateur != null) {
+            ServicesAsynchrones.getInstance().notifications()
+                    .appeler(service -> service.compterNotificationsNonLues(idUtilisateur))
+                    .thenAcceptAsync(nombre -> nonLuesCount.set((int) Math.min(nombre, Integer.MAX_VALUE)),
+                            ServicesAsynchrones.executeurFx());
+            return;
+        }
         if (notifications.get() == null) {
             nonLuesCount.set(0);
             return;
@@ -359,8 +436,9 @@ public class NotificationComponent extends StackPane {
     private void marquerToutesCommeLues() {
         Integer idUtilisateur = getIdUtilisateurCourant();
         if (idUtilisateur != null) {
-            notificationService.marquerToutesCommeVues(idUtilisateur);
-            // La mise à jour de l'UI est gérée par les listeners
+            // Une seule mise à jour en base ; l'UI est mise à jour par l'événement du bus
+            ServicesAsynchrones.getInstance().notifications()
+                    .appeler(service -> service.marquerToutesCommeLues(idUtilisateur));
         }
     }
 
@@ -422,6 +500,11 @@ public class NotificationComponent extends StackPane {
      * Nettoie les ressources utilisées par le composant.
      */
     public void cleanup() {
+        if (abonnement != null) {
+            abonnement.close();
+            abonnement = null;
+            idUtilisateurAbonne = null;
+        }
         scheduler.shutdown();
     }
 
@@ -0,0 +1,104 @@
+package main.java.com.miage.parcauto.dao;
+
+import main.java.com.miage.parcauto.dto.AlerteAssuranceDTO;
+import main.java.com.miage.parcauto.dto.AlerteDocumentDTO;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Interface DAO du moteur d'alertes : filigranes d'évaluation incrémentale, recherche des
+ * échéances (assurances, documents, entretiens) et journal des alertes déjà émises.
+ * Ne suit pas le modèle CRUD générique.
+ */
+public interface AlerteRepository {
+
+    /**
+     * @param conn la connexion à la base de données.
+     * @return l'heure du serveur de base de données, référence des colonnes date_maj.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    LocalDateTime now(Connection conn) throws SQLException;
+
+    /**
+     * Verrouille le filigrane d'une source jusqu'à la fin de la transaction (la ligne est créée
+     * au premier appel) : deux évaluations concurrentes sont ainsi sérialisées.
+     *
+     * @param conn la connexion à la base de données (transaction de l'appelant).
+     * @param source le nom de la source évaluée.
+     * @return l'instant de la dernière évaluation, vide si la source n'a jamais été évaluée.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    Optional<LocalDateTime> lockWatermark(Connection conn, String source) throws SQLException;
+
+    /**
+     * Enregistre l'instant de la dernière évaluation d'une source.
+     *
+     * @param conn la connexion à la base de données (transaction de l'appelant).
+     * @param source le nom de la source évaluée.
+     * @param filigrane l'instant de l'évaluation.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    void updateWatermark(Connection conn, String source, LocalDateTime filigrane) throws SQLException;
+
+    /**
+     * Recherche les assurances arrivant à échéance dans ]maintenant, horizon] qui sont entrées
+     * dans cette fenêtre depuis la dernière évaluation : échéance au-delà de l'ancien horizon, ou
+     * assurance modifiée depuis (colonne date_maj). Sans évaluation précédente, toute la fenêtre
+     * est retenue.
+     *
+     * @param conn la connexion à la base de données.
+     * @param depuis l'instant de la dernière évaluation, ou null.
+     * @param ancienHorizon l'horizon de la dernière évaluation, ou null.
+     * @param maintenant l'instant de l'évaluation.
+     * @param horizon la date d'échéance maximale retenue.
+     * @return les alertes, avec les véhicules couverts.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<AlerteAssuranceDTO> findAssurancesExpiring(Connection conn, LocalDateTime depuis, LocalDateTime ancienHorizon,
+                                                    LocalDateTime maintenant, LocalDateTime horizon) throws SQLException;
+
+    /**
+     * Recherche les documents des sociétaires expirant dans ]maintenant, horizon], selon la même
+     * fenêtre que {@link #findAssurancesExpiring} (un document ajouté depuis la dernière
+     * évaluation est retenu d'après sa date de dépôt).
+     *
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<AlerteDocumentDTO> findDocumentsExpiring(Connection conn, LocalDateTime depuis, LocalDateTime ancienHorizon,
+                                                  LocalDateTime maintenant, LocalDateTime horizon) throws SQLException;
+
+    /**
+     * Recherche les véhicules modifiés depuis un instant (kilométrage relevé, fin de mission...),
+     * d'après la colonne indexée date_maj.
+     *
+     * @param conn la connexion à la base de données.
+     * @param depuis l'instant de la dernière évaluation, ou null pour tous les véhicules.
+     * @return les identifiants des véhicules modifiés.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<Integer> findVehiculesModifiedSince(Connection conn, LocalDateTime depuis) throws SQLException;
+
+    /**
+     * @param conn la connexion à la base de données.
+     * @param cles les clés d'alertes candidates.
+     * @return celles déjà émises.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    Set<String> findEmittedKeys(Connection conn, Collection<String> cles) throws SQLException;
+
+    /**
+     * Journalise des alertes émises, par lots.
+     *
+     * @param conn la connexion à la base de données (transaction de l'appelant).
+     * @param cles les clés des alertes émises.
+     * @param dateEmission l'instant d'émission.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    void saveEmittedKeys(Connection conn, List<String> cles, LocalDateTime dateEmission) throws SQLException;
+}
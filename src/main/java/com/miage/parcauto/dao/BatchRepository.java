@@ -0,0 +1,51 @@
+package main.java.com.miage.parcauto.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Opérations d'écriture par lots (JDBC addBatch/executeBatch) pour les imports et les
+ * traitements de masse.
+ * <p>
+ * Les entités sont envoyées par lots de {@link DbUtil#getTailleLot()} lignes, dans la
+ * transaction de l'appelant. Avec l'option {@code rewriteBatchedStatements=true} de l'URL
+ * JDBC, MySQL Connector/J réécrit chaque lot d'insertions en une seule requête multi-lignes.
+ *
+ * @param <T> Le type de l'entité.
+ * @param <ID> Le type de l'identifiant de l'entité.
+ */
+public interface BatchRepository<T, ID> {
+
+    /**
+     * Insère des entités par lots et leur affecte les identifiants générés, dans l'ordre.
+     *
+     * @param conn la connexion à la base de données (transaction de l'appelant).
+     * @param entities les entités à créer.
+     * @return les entités créées, avec leur identifiant.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<T> saveAll(Connection conn, List<T> entities) throws SQLException;
+
+    /**
+     * Met à jour des entités existantes par lots.
+     *
+     * @param conn la connexion à la base de données (transaction de l'appelant).
+     * @param entities les entités à mettre à jour.
+     * @return le nombre de lignes mises à jour (les lots dont le pilote ne rapporte pas le
+     *         nombre de lignes comptent une ligne par entité).
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    int updateAll(Connection conn, List<T> entities) throws SQLException;
+
+    /**
+     * Supprime des entités par identifiant, en une requête {@code IN (...)} par lot.
+     *
+     * @param conn la connexion à la base de données (transaction de l'appelant).
+     * @param ids les identifiants des entités à supprimer.
+     * @return le nombre de lignes supprimées.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    int deleteAllById(Connection conn, Collection<ID> ids) throws SQLException;
+}
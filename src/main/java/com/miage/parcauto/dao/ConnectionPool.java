@@ -0,0 +1,477 @@
+package main.java.com.miage.parcauto.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool borné de connexions JDBC utilisé par {@link DbUtil}.
+ * <p>
+ * Les connexions remises aux appelants sont des proxys : {@code close()} rend la connexion
+ * physique au pool (après rollback des transactions non validées et remise en auto-commit)
+ * au lieu de fermer la socket MySQL. Le pool gère :
+ * <ul>
+ *     <li>une taille minimale maintenue et une taille maximale stricte ;</li>
+ *     <li>l'éviction des connexions inactives au-delà du délai configuré ;</li>
+ *     <li>la validation à l'emprunt ({@link Connection#isValid(int)}) ;</li>
+ *     <li>un délai d'attente maximal à l'emprunt ;</li>
+ *     <li>la détection de fuites (optionnelle) avec capture de la pile de l'emprunteur ;</li>
+ *     <li>des statistiques ({@link ConnectionPoolStats}) dont un histogramme de latence d'emprunt.</li>
+ * </ul>
+ */
+public class ConnectionPool {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    /** Bornes (ms) de l'histogramme de latence d'emprunt. */
+    private static final long[] LATENCY_BOUNDS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 5000};
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMs;
+    private final long idleTimeoutMs;
+    private final int validationTimeoutSec;
+    private final long validationBypassMs;
+    private final long leakDetectionThresholdMs;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown;
+
+    private final AtomicLong totalBorrows = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionsDiscarded = new AtomicLong();
+    private final AtomicLong maxBorrowMicros = new AtomicLong();
+    private final AtomicLong totalBorrowMicros = new AtomicLong();
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BOUNDS_MS.length + 1);
+
+    /**
+     * Crée le pool à partir des propriétés de {@code db.properties}.
+     * Clés reconnues (toutes optionnelles) : {@code db.pool.minSize}, {@code db.pool.maxSize},
+     * {@code db.pool.borrowTimeoutMs}, {@code db.pool.idleTimeoutMs}, {@code db.pool.validationTimeoutSec},
+     * {@code db.pool.validationBypassMs}, {@code db.pool.leakDetectionThresholdMs} (0 ou absent = désactivé ;
+     * activé, chaque emprunt capture la pile de l'appelant),
+     * {@code db.pool.housekeepingIntervalMs}.
+     *
+     * @param url        l'URL JDBC.
+     * @param username   l'utilisateur de la base.
+     * @param password   le mot de passe.
+     * @param properties les propriétés de configuration du pool.
+     */
+    public ConnectionPool(String url, String username, String password, Properties properties) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxSize = Math.max(1, intProperty(properties, "db.pool.maxSize", 10));
+        this.minSize = Math.min(maxSize, Math.max(0, intProperty(properties, "db.pool.minSize", 2)));
+        this.borrowTimeoutMs = longProperty(properties, "db.pool.borrowTimeoutMs", 5_000L);
+        this.idleTimeoutMs = longProperty(properties, "db.pool.idleTimeoutMs", 600_000L);
+        this.validationTimeoutSec = intProperty(properties, "db.pool.validationTimeoutSec", 2);
+        this.validationBypassMs = longProperty(properties, "db.pool.validationBypassMs", 500L);
+        this.leakDetectionThresholdMs = longProperty(properties, "db.pool.leakDetectionThresholdMs", 0L);
+        long housekeepingMs = Math.max(1_000L, longProperty(properties, "db.pool.housekeepingIntervalMs", 30_000L));
+
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "parcauto-db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, housekeepingMs, housekeepingMs, TimeUnit.MILLISECONDS);
+
+        LOGGER.info("Pool de connexions initialisé (min=" + minSize + ", max=" + maxSize
+                + ", timeout emprunt=" + borrowTimeoutMs + "ms, inactivité max=" + idleTimeoutMs + "ms)");
+        fillToMinimum();
+    }
+
+    /**
+     * Emprunte une connexion au pool. La connexion doit être fermée par l'appelant
+     * (directement ou via {@link DbUtil#close(Connection)}) pour être rendue au pool.
+     *
+     * @return une connexion valide.
+     * @throws SQLException si le pool est arrêté, si le délai d'attente est dépassé
+     *                      ou si une nouvelle connexion physique ne peut être ouverte.
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Le pool de connexions est arrêté.");
+        }
+        long debut = System.nanoTime();
+        waiters.incrementAndGet();
+        boolean acquis;
+        try {
+            acquis = permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Attente d'une connexion interrompue.", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+        if (!acquis) {
+            borrowTimeouts.incrementAndGet();
+            throw new SQLException("Aucune connexion disponible après " + borrowTimeoutMs + " ms (pool: "
+                    + getStats() + ").", "08001");
+        }
+
+        try {
+            PooledConnection pooled = takeValidConnection();
+            pooled.markBorrowed(leakDetectionThresholdMs > 0 ? new Throwable("Emprunt de la connexion") : null);
+            borrowed.add(pooled);
+            recordBorrowLatency(System.nanoTime() - debut);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Vérifie qu'une connexion peut être obtenue et qu'elle répond.
+     *
+     * @return true si la base est joignable.
+     */
+    public boolean testConnection() {
+        try (Connection conn = getConnection()) {
+            return conn.isValid(validationTimeoutSec);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Test de connexion échoué: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * @return un instantané des statistiques courantes du pool.
+     */
+    public ConnectionPoolStats getStats() {
+        long[] counts = new long[latencyBuckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = latencyBuckets.get(i);
+        }
+        return new ConnectionPoolStats(totalConnections.get(), borrowed.size(), idle.size(), waiters.get(), maxSize,
+                totalBorrows.get(), borrowTimeouts.get(), leaksDetected.get(), connectionsCreated.get(),
+                connectionsDiscarded.get(), maxBorrowMicros.get(), totalBorrowMicros.get(), LATENCY_BOUNDS_MS, counts);
+    }
+
+    /**
+     * Arrête le pool : ferme les connexions inactives et refuse tout nouvel emprunt.
+     * Les connexions encore empruntées sont fermées physiquement à leur restitution.
+     */
+    public void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+        if (!borrowed.isEmpty()) {
+            LOGGER.warning(borrowed.size() + " connexion(s) encore empruntée(s) à l'arrêt du pool.");
+        }
+        LOGGER.info("Pool de connexions arrêté: " + getStats());
+    }
+
+    private PooledConnection takeValidConnection() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+        totalConnections.incrementAndGet(); // Place garantie par le permis de l'appelant
+        return createPhysical();
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastReturnedAt < validationBypassMs) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeoutSec);
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Validation de connexion échouée: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Ouvre une connexion physique dont la place a déjà été réservée dans totalConnections ;
+     * la réservation est rendue si l'ouverture échoue.
+     */
+    private PooledConnection createPhysical() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, username, password);
+            connectionsCreated.incrementAndGet();
+            return new PooledConnection(physical);
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        if (!borrowed.remove(pooled)) {
+            return;
+        }
+        try {
+            boolean reutilisable = !shutdown && resetState(pooled.physical);
+            if (reutilisable) {
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                pooled.borrowStack = null;
+                idle.offerFirst(pooled);
+            } else {
+                discard(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean resetState(Connection physical) {
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Connexion écartée lors de sa restitution au pool: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        connectionsDiscarded.incrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Erreur lors de la fermeture d'une connexion physique: " + e.getMessage(), e);
+        }
+    }
+
+    private void housekeep() {
+        try {
+            long maintenant = System.currentTimeMillis();
+            if (idleTimeoutMs > 0) {
+                Iterator<PooledConnection> it = idle.descendingIterator();
+                while (it.hasNext() && totalConnections.get() > minSize) {
+                    PooledConnection pooled = it.next();
+                    if (maintenant - pooled.lastReturnedAt > idleTimeoutMs && idle.remove(pooled)) {
+                        discard(pooled);
+                    }
+                }
+            }
+            if (leakDetectionThresholdMs > 0) {
+                for (PooledConnection pooled : borrowed) {
+                    if (!pooled.leakReported && maintenant - pooled.borrowedAt > leakDetectionThresholdMs) {
+                        pooled.leakReported = true;
+                        leaksDetected.incrementAndGet();
+                        LOGGER.log(Level.WARNING, "Fuite de connexion probable: empruntée depuis "
+                                + (maintenant - pooled.borrowedAt) + " ms sans être rendue.", pooled.borrowStack);
+                    }
+                }
+            }
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Erreur lors de la maintenance du pool: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Pré-ouvre des connexions jusqu'au minimum. Chaque ouverture prend un permis et réserve sa
+     * place avant d'ouvrir : en concurrence avec des emprunts, le pool ne dépasse pas maxSize.
+     */
+    private void fillToMinimum() {
+        List<PooledConnection> nouvelles = new ArrayList<>();
+        while (!shutdown) {
+            if (!permits.tryAcquire()) {
+                break; // Toutes les places sont empruntées : rien à pré-ouvrir
+            }
+            try {
+                int total = totalConnections.get();
+                if (total >= minSize) {
+                    break;
+                }
+                if (!totalConnections.compareAndSet(total, total + 1)) {
+                    continue;
+                }
+                try {
+                    nouvelles.add(createPhysical());
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Impossible de pré-ouvrir une connexion: " + e.getMessage());
+                    break;
+                }
+            } finally {
+                permits.release();
+            }
+        }
+        for (PooledConnection pooled : nouvelles) {
+            idle.offerLast(pooled);
+        }
+    }
+
+    private void recordBorrowLatency(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        totalBorrows.incrementAndGet();
+        totalBorrowMicros.addAndGet(micros);
+        maxBorrowMicros.accumulateAndGet(micros, Math::max);
+        long millis = micros / 1000;
+        int bucket = LATENCY_BOUNDS_MS.length;
+        for (int i = 0; i < LATENCY_BOUNDS_MS.length; i++) {
+            if (millis <= LATENCY_BOUNDS_MS[i]) {
+                bucket = i;
+                break;
+            }
+        }
+        latencyBuckets.incrementAndGet(bucket);
+    }
+
+    private static int intProperty(Properties properties, String key, int defaut) {
+        String valeur = properties.getProperty(key);
+        if (valeur == null || valeur.trim().isEmpty()) {
+            return defaut;
+        }
+        try {
+            return Integer.parseInt(valeur.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur invalide pour " + key + ": '" + valeur + "', utilisation de " + defaut);
+            return defaut;
+        }
+    }
+
+    private static long longProperty(Properties properties, String key, long defaut) {
+        String valeur = properties.getProperty(key);
+        if (valeur == null || valeur.trim().isEmpty()) {
+            return defaut;
+        }
+        try {
+            return Long.parseLong(valeur.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur invalide pour " + key + ": '" + valeur + "', utilisation de " + defaut);
+            return defaut;
+        }
+    }
+
+    /**
+     * Connexion physique gérée par le pool et état de son emprunt courant.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile Throwable borrowStack;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        private void markBorrowed(Throwable stack) {
+            this.borrowedAt = System.currentTimeMillis();
+            this.borrowStack = stack;
+            this.leakReported = false;
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+    }
+
+    /**
+     * Poignée logique remise à l'appelant : une fois fermée, elle ne donne plus accès
+     * à la connexion physique, même si celle-ci a été réempruntée entre-temps.
+     * <p>
+     * Les appels sont sérialisés par un verrou explicite plutôt que par {@code synchronized},
+     * qui épinglerait un thread virtuel à son thread porteur pendant les entrées-sorties JDBC.
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final ReentrantLock verrou = new ReentrantLock();
+        private boolean closed;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            verrou.lock();
+            try {
+                switch (method.getName()) {
+                    case "close":
+                        if (!closed) {
+                            closed = true;
+                            release(pooled);
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed || pooled.physical.isClosed();
+                    case "toString":
+                        return "PooledConnection[" + pooled.physical + (closed ? ", rendue" : "") + "]";
+                    default:
+                        break;
+                }
+                if (closed) {
+                    throw new SQLException("La connexion a déjà été rendue au pool.", "08003");
+                }
+                try {
+                    return method.invoke(pooled.physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            } finally {
+                verrou.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package main.java.com.miage.parcauto.dao;
+
+import java.util.Arrays;
+
+/**
+ * Instantané immuable des statistiques du pool de connexions JDBC.
+ * Sert à dimensionner le pool (taille min/max, délai d'attente) selon la charge réelle.
+ */
+public final class ConnectionPoolStats {
+
+    private final int totalConnections;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int waitingThreads;
+    private final int maxSize;
+    private final long totalBorrows;
+    private final long borrowTimeouts;
+    private final long leaksDetected;
+    private final long connectionsCreated;
+    private final long connectionsDiscarded;
+    private final long maxBorrowMicros;
+    private final long totalBorrowMicros;
+    private final long[] latencyBucketBoundsMillis;
+    private final long[] latencyBucketCounts;
+
+    ConnectionPoolStats(int totalConnections, int activeConnections, int idleConnections, int waitingThreads,
+                        int maxSize, long totalBorrows, long borrowTimeouts, long leaksDetected,
+                        long connectionsCreated, long connectionsDiscarded, long maxBorrowMicros,
+                        long totalBorrowMicros, long[] latencyBucketBoundsMillis, long[] latencyBucketCounts) {
+        this.totalConnections = totalConnections;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.waitingThreads = waitingThreads;
+        this.maxSize = maxSize;
+        this.totalBorrows = totalBorrows;
+        this.borrowTimeouts = borrowTimeouts;
+        this.leaksDetected = leaksDetected;
+        this.connectionsCreated = connectionsCreated;
+        this.connectionsDiscarded = connectionsDiscarded;
+        this.maxBorrowMicros = maxBorrowMicros;
+        this.totalBorrowMicros = totalBorrowMicros;
+        this.latencyBucketBoundsMillis = latencyBucketBoundsMillis.clone();
+        this.latencyBucketCounts = latencyBucketCounts.clone();
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTotalBorrows() {
+        return totalBorrows;
+    }
+
+    public long getBorrowTimeouts() {
+        return borrowTimeouts;
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected;
+    }
+
+    public long getConnectionsCreated() {
+        return connectionsCreated;
+    }
+
+    public long getConnectionsDiscarded() {
+        return connectionsDiscarded;
+    }
+
+    /**
+     * @return la latence d'emprunt maximale observée, en millisecondes.
+     */
+    public double getMaxBorrowMillis() {
+        return maxBorrowMicros / 1000.0;
+    }
+
+    /**
+     * @return la latence d'emprunt moyenne, en millisecondes.
+     */
+    public double getMeanBorrowMillis() {
+        return totalBorrows == 0 ? 0 : (totalBorrowMicros / 1000.0) / totalBorrows;
+    }
+
+    /**
+     * Bornes supérieures (incluses, en ms) des classes de l'histogramme de latence.
+     * La dernière classe de {@link #getLatencyBucketCounts()} regroupe les emprunts au-delà de la dernière borne.
+     *
+     * @return une copie des bornes.
+     */
+    public long[] getLatencyBucketBoundsMillis() {
+        return latencyBucketBoundsMillis.clone();
+    }
+
+    /**
+     * @return une copie des effectifs de l'histogramme (une case de plus que le nombre de bornes).
+     */
+    public long[] getLatencyBucketCounts() {
+        return latencyBucketCounts.clone();
+    }
+
+    /**
+     * Estime un percentile de la latence d'emprunt à partir de l'histogramme.
+     *
+     * @param percentile le percentile souhaité, entre 0 et 100.
+     * @return la borne supérieure (ms) de la classe contenant ce percentile, ou -1 si au-delà de la dernière borne.
+     */
+    public long getBorrowPercentileMillis(double percentile) {
+        long total = Arrays.stream(latencyBucketCounts).sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rang = (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0);
+        long cumul = 0;
+        for (int i = 0; i < latencyBucketCounts.length; i++) {
+            cumul += latencyBucketCounts[i];
+            if (cumul >= rang) {
+                return i < latencyBucketBoundsMillis.length ? latencyBucketBoundsMillis[i] : -1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder histo = new StringBuilder();
+        for (int i = 0; i < latencyBucketCounts.length; i++) {
+            if (i > 0) histo.append(", ");
+            histo.append(i < latencyBucketBoundsMillis.length ? "<=" + latencyBucketBoundsMillis[i] + "ms" : ">"
+                    + latencyBucketBoundsMillis[latencyBucketBoundsMillis.length - 1] + "ms");
+            histo.append('=').append(latencyBucketCounts[i]);
+        }
+        return "ConnectionPoolStats{" +
+                "total=" + totalConnections + "/" + maxSize +
+                ", actives=" + activeConnections +
+                ", inactives=" + idleConnections +
+                ", enAttente=" + waitingThreads +
+                ", emprunts=" + totalBorrows +
+                ", timeouts=" + borrowTimeouts +
+                ", fuites=" + leaksDetected +
+                ", creees=" + connectionsCreated +
+                ", ecartees=" + connectionsDiscarded +
+                String.format(", latenceMoy=%.2fms, latenceMax=%.2fms", getMeanBorrowMillis(), getMaxBorrowMillis()) +
+                ", histogramme=[" + histo + "]" +
+                '}';
+    }
+}
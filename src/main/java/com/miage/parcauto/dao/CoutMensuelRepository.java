@@ -0,0 +1,106 @@
+package main.java.com.miage.parcauto.dao;
+
+import main.java.com.miage.parcauto.model.finance.CategorieCout;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Interface DAO pour la table d'agrégats COUT_MENSUEL (véhicule, mois, catégorie de coût).
+ * <p>
+ * Les agrégats sont recalculés depuis les tables sources (ENTRETIEN, DEPENSE_MISSION,
+ * ASSURANCE) pour les seules cellules touchées par une écriture, dans la transaction de
+ * celle-ci : un rollback annule donc aussi la mise à jour des agrégats.
+ */
+public interface CoutMensuelRepository {
+
+    /**
+     * Recalcule les coûts d'entretien d'un véhicule pour les mois indiqués.
+     * Un entretien est imputé au mois de sa date de sortie.
+     *
+     * @param conn la connexion à la base de données (transaction de l'appelant).
+     * @param idVehicule l'identifiant du véhicule.
+     * @param mois les mois à recalculer (l'intervalle du plus ancien au plus récent est recalculé).
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    void rafraichirEntretiens(Connection conn, Integer idVehicule, Set<YearMonth> mois) throws SQLException;
+
+    /**
+     * Recalcule les dépenses de mission (carburant, frais annexes) d'un véhicule pour les mois
+     * indiqués. Une dépense est imputée au mois de début de sa mission.
+     *
+     * @param conn la connexion à la base de données (transaction de l'appelant).
+     * @param idVehicule l'identifiant du véhicule.
+     * @param mois les mois à recalculer (l'intervalle du plus ancien au plus récent est recalculé).
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    void rafraichirDepensesMission(Connection conn, Integer idVehicule, Set<YearMonth> mois) throws SQLException;
+
+    /**
+     * Recalcule l'ensemble des coûts d'assurance d'un véhicule. Une prime couvrant plusieurs
+     * véhicules est répartie à parts égales entre eux, puis chaque part est ventilée sur les
+     * mois couverts au prorata de la durée du contrat. Lier ou délier un véhicule modifie donc
+     * la part de tous les véhicules du contrat, qui doivent tous être recalculés.
+     *
+     * @param conn la connexion à la base de données (transaction de l'appelant).
+     * @param idVehicule l'identifiant du véhicule.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    void rafraichirAssurances(Connection conn, Integer idVehicule) throws SQLException;
+
+    /**
+     * Vide et reconstruit entièrement la table d'agrégats (initialisation, reprise de données).
+     *
+     * @param conn la connexion à la base de données (transaction de l'appelant).
+     * @return le nombre de cellules (véhicule, mois, catégorie) écrites.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    int reconstruire(Connection conn) throws SQLException;
+
+    /**
+     * Somme les coûts par catégorie sur un intervalle de mois.
+     *
+     * @param conn la connexion à la base de données.
+     * @param debut le premier mois (inclus).
+     * @param fin le dernier mois (inclus).
+     * @param idVehicule l'identifiant du véhicule, ou null pour toute la flotte.
+     * @return les montants par catégorie ; chaque catégorie est présente, à zéro si aucun coût.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    Map<CategorieCout, BigDecimal> sommerParCategorie(Connection conn, YearMonth debut, YearMonth fin,
+                                                      Integer idVehicule) throws SQLException;
+
+    /**
+     * Somme les coûts de la flotte par mois et par catégorie sur un intervalle de mois.
+     *
+     * @param conn la connexion à la base de données.
+     * @param debut le premier mois (inclus).
+     * @param fin le dernier mois (inclus).
+     * @return les montants par mois (triés) puis par catégorie ; seuls les mois ayant des coûts sont présents.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    Map<YearMonth, Map<CategorieCout, BigDecimal>> sommerParMois(Connection conn, YearMonth debut, YearMonth fin)
+            throws SQLException;
+
+    /**
+     * Retourne les mois distincts des dates fournies, en ignorant les valeurs nulles.
+     *
+     * @param dates les dates (date de sortie d'entretien, date de début de mission...).
+     * @return l'ensemble trié des mois correspondants.
+     */
+    static Set<YearMonth> mois(LocalDateTime... dates) {
+        Set<YearMonth> mois = new TreeSet<>();
+        for (LocalDateTime date : dates) {
+            if (date != null) {
+                mois.add(YearMonth.from(date));
+            }
+        }
+        return mois;
+    }
+}
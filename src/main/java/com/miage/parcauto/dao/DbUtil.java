@@ -3,7 +3,6 @@ package main.java.com.miage.parcauto.dao;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -11,11 +10,19 @@ import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Point d'accès unique aux connexions JDBC de l'application.
+ * Les connexions proviennent d'un {@link ConnectionPool} borné, créé au premier emprunt :
+ * {@link #close(Connection)} rend la connexion au pool au lieu de fermer la socket.
+ */
 public class DbUtil {
 
     private static final Logger LOGGER = Logger.getLogger(DbUtil.class.getName());
     private static final Properties dbProperties = new Properties();
     private static final String DB_PROPERTIES_FILE = "db.properties";
+    private static final int TAILLE_LOT_DEFAUT = 500;
+    private static final DbUtil instance = new DbUtil();
+    private static volatile ConnectionPool pool;
 
     static {
         try (InputStream input = DbUtil.class.getClassLoader().getResourceAsStream(DB_PROPERTIES_FILE)) {
@@ -45,18 +52,136 @@ public class DbUtil {
         }
     }
 
+    private DbUtil() {
+    }
+
+    /**
+     * Obtient l'instance unique, utilisée pour les opérations de cycle de vie du pool.
+     *
+     * @return L'instance de DbUtil
+     */
+    public static DbUtil getInstance() {
+        return instance;
+    }
+
+    /**
+     * Emprunte une connexion au pool. Elle doit être rendue via {@link #close(Connection)}
+     * (ou {@code Connection.close()}) une fois l'opération terminée.
+     *
+     * @return une connexion JDBC valide.
+     * @throws SQLException si la configuration est incomplète ou si aucune connexion n'est disponible.
+     */
     public static Connection getConnection() throws SQLException {
-        String url = dbProperties.getProperty("db.url");
-        String user = dbProperties.getProperty("db.username");
-        String pass = dbProperties.getProperty("db.password");
-
-        if (url == null || url.trim().isEmpty() ||
-                user == null || user.trim().isEmpty() ||
-                pass == null) { // Le mot de passe peut être vide, mais la clé doit exister
-            LOGGER.log(Level.SEVERE, "Les propriétés de connexion (db.url, db.username, db.password) sont manquantes ou incomplètes dans " + DB_PROPERTIES_FILE);
-            throw new SQLException("Configuration de la base de données incomplète.");
+        return getPool().getConnection();
+    }
+
+    /**
+     * Taille des lots des écritures par lots (propriété {@code db.batch.size}, 500 par défaut).
+     *
+     * @return le nombre de lignes envoyées par appel à {@code executeBatch}.
+     */
+    public static int getTailleLot() {
+        String valeur = dbProperties.getProperty("db.batch.size");
+        if (valeur != null && !valeur.trim().isEmpty()) {
+            try {
+                int taille = Integer.parseInt(valeur.trim());
+                if (taille > 0) {
+                    return taille;
+                }
+            } catch (NumberFormatException e) {
+                LOGGER.log(Level.WARNING, "Valeur invalide pour db.batch.size: " + valeur);
+            }
+        }
+        return TAILLE_LOT_DEFAUT;
+    }
+
+    /**
+     * Lit une propriété de configuration de {@value #DB_PROPERTIES_FILE}.
+     *
+     * @param cle    la clé de la propriété.
+     * @param defaut la valeur retournée si la propriété est absente ou vide.
+     * @return la valeur (sans espaces de début et de fin) ou la valeur par défaut.
+     */
+    public static String getPropriete(String cle, String defaut) {
+        String valeur = dbProperties.getProperty(cle);
+        return valeur == null || valeur.trim().isEmpty() ? defaut : valeur.trim();
+    }
+
+    private static ConnectionPool getPool() throws SQLException {
+        ConnectionPool courant = pool;
+        if (courant == null) {
+            synchronized (DbUtil.class) {
+                courant = pool;
+                if (courant == null) {
+                    String url = dbProperties.getProperty("db.url");
+                    String user = dbProperties.getProperty("db.username");
+                    String pass = dbProperties.getProperty("db.password");
+
+                    if (url == null || url.trim().isEmpty() ||
+                            user == null || user.trim().isEmpty() ||
+                            pass == null) { // Le mot de passe peut être vide, mais la clé doit exister
+                        LOGGER.log(Level.SEVERE, "Les propriétés de connexion (db.url, db.username, db.password) sont manquantes ou incomplètes dans " + DB_PROPERTIES_FILE);
+                        throw new SQLException("Configuration de la base de données incomplète.");
+                    }
+                    courant = new ConnectionPool(url, user, pass, dbProperties);
+                    pool = courant;
+                }
+            }
+        }
+        return courant;
+    }
+
+    /**
+     * Vérifie que la base de données est joignable.
+     *
+     * @return true si une connexion valide a pu être obtenue.
+     */
+    public boolean testConnection() {
+        try {
+            return getPool().testConnection();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Test de connexion impossible: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Statistiques courantes du pool (connexions actives/inactives, attentes, latence d'emprunt).
+     *
+     * @return les statistiques, ou null si le pool n'a pas encore été initialisé.
+     */
+    public ConnectionPoolStats getPoolStats() {
+        ConnectionPool courant = pool;
+        return courant != null ? courant.getStats() : null;
+    }
+
+    /**
+     * Arrête le pool et ferme les connexions physiques inactives.
+     */
+    public void shutdown() {
+        synchronized (DbUtil.class) {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+        }
+    }
+
+    /**
+     * Annule la transaction en cours sur la connexion, sans propager d'erreur.
+     *
+     * @param connection la connexion (peut être null).
+     */
+    public static void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                if (!connection.isClosed() && !connection.getAutoCommit()) {
+                    connection.rollback();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Erreur lors du rollback de la transaction: " + e.getMessage(), e);
+            }
         }
-        return DriverManager.getConnection(url, user, pass);
     }
 
     public static void close(Connection connection) {
@@ -10,7 +10,7 @@ import java.util.List;
  * Interface DAO pour l'entité DepenseMission.
  * Fournit des opérations de persistance spécifiques pour les dépenses associées aux missions.
  */
-public interface DepenseMissionRepository extends Repository<DepenseMission, Integer> {
+public interface DepenseMissionRepository extends Repository<DepenseMission, Integer>, BatchRepository<DepenseMission, Integer> {
 
     /**
      * Recherche toutes les dépenses associées à une mission spécifique.
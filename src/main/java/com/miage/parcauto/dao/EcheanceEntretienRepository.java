@@ -0,0 +1,110 @@
+package main.java.com.miage.parcauto.dao;
+
+import main.java.com.miage.parcauto.dto.EcheanceEntretienDTO;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface DAO de la projection ECHEANCE_ENTRETIEN : prochain entretien dû de chaque
+ * véhicule. Les colonnes km_restants (kilomètres avant le seuil), date_prochain (échéance
+ * calendaire) et date_echeance (première échéance, seuil km projeté au rythme du véhicule)
+ * sont indexées : les recherches « dû dans N km / N jours » sont des lectures par plage.
+ * Ne suit pas le modèle CRUD générique.
+ */
+public interface EcheanceEntretienRepository {
+
+    /**
+     * @param conn la connexion à la base de données.
+     * @param idsVehicule les véhicules recherchés.
+     * @return les échéances projetées de ceux qui en ont une.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<EcheanceEntretienDTO> findByVehiculeIds(Connection conn, Collection<Integer> idsVehicule) throws SQLException;
+
+    /**
+     * Reconstitue depuis l'historique le dernier entretien des véhicules, pour initialiser leur
+     * projection : sortie du dernier entretien clôturé et kilométrage à cette date (relevé de la
+     * dernière mission clôturée avant elle), ou mise en service et 0 km à défaut. Le kilométrage
+     * actuel est renseigné ; les échéances restent à calculer.
+     *
+     * @param conn la connexion à la base de données.
+     * @param idsVehicule les véhicules à reconstituer.
+     * @return un élément par véhicule existant.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<EcheanceEntretienDTO> findHistoriqueByVehiculeIds(Connection conn, Collection<Integer> idsVehicule)
+            throws SQLException;
+
+    /**
+     * Calcule le kilométrage moyen par jour des véhicules d'après les relevés (km_reel) de leurs
+     * missions clôturées depuis une date : écart entre le premier et le dernier relevé rapporté
+     * au nombre de jours qui les séparent.
+     *
+     * @param conn la connexion à la base de données.
+     * @param idsVehicule les véhicules évalués.
+     * @param depuis la date de fin de mission la plus ancienne retenue.
+     * @return le kilométrage par jour des véhicules ayant au moins deux relevés.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    Map<Integer, Double> findKmParJour(Connection conn, Collection<Integer> idsVehicule, LocalDateTime depuis)
+            throws SQLException;
+
+    /**
+     * @param conn la connexion à la base de données.
+     * @return les véhicules qui n'ont pas encore de projection.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<Integer> findVehiculesSansEcheance(Connection conn) throws SQLException;
+
+    /**
+     * Crée ou remplace les projections des véhicules, par lots ; date_maj prend l'heure du
+     * serveur.
+     *
+     * @param conn la connexion à la base de données (transaction de l'appelant).
+     * @param echeances les projections à enregistrer.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    void saveAll(Connection conn, List<EcheanceEntretienDTO> echeances) throws SQLException;
+
+    /**
+     * Recherche les véhicules à moins de N km du prochain entretien (ou l'ayant dépassé).
+     *
+     * @param conn la connexion à la base de données.
+     * @param km le nombre de kilomètres restants maximal.
+     * @param modifieesDepuis ne retient que les projections mises à jour après cet instant, ou null.
+     * @return les échéances, de la plus proche à la plus lointaine.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<EcheanceEntretienDTO> findDueWithinKm(Connection conn, int km, LocalDateTime modifieesDepuis)
+            throws SQLException;
+
+    /**
+     * Recherche les véhicules dont l'échéance calendaire (date_prochain) est dans ]apres, jusqua],
+     * ou antérieure à jusqua pour les projections mises à jour après modifieesDepuis.
+     *
+     * @param conn la connexion à la base de données.
+     * @param apres la borne basse exclue, ou null pour ne pas borner.
+     * @param modifieesDepuis l'instant de mise à jour au-delà duquel la borne basse ne s'applique pas, ou null.
+     * @param jusqua la borne haute incluse.
+     * @return les échéances, par date.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<EcheanceEntretienDTO> findDueByDate(Connection conn, LocalDateTime apres, LocalDateTime modifieesDepuis,
+                                             LocalDateTime jusqua) throws SQLException;
+
+    /**
+     * Recherche les véhicules dont la première échéance projetée (date_echeance) est antérieure
+     * ou égale à une date.
+     *
+     * @param conn la connexion à la base de données.
+     * @param jusqua la date d'échéance maximale.
+     * @return les échéances, par date.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<EcheanceEntretienDTO> findEcheancesAvant(Connection conn, LocalDateTime jusqua) throws SQLException;
+}
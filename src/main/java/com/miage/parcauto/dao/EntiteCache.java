@@ -0,0 +1,190 @@
+package main.java.com.miage.parcauto.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache d'entités borné, avec éviction LRU et durée de vie (TTL), placé devant un repository.
+ * <p>
+ * Les entités sont mutables : le cache conserve et retourne des copies, de sorte qu'un appelant
+ * modifiant l'entité reçue n'altère pas la valeur partagée.
+ * <p>
+ * Cohérence avec les transactions : une écriture invalide l'entrée et enregistre la connexion
+ * écrivaine. Tant que cette connexion n'est pas rendue au pool (validation ou annulation
+ * terminée), l'entité n'est ni lue depuis le cache ni remise en cache, ce qui évite de publier
+ * une valeur non validée ou annulée. Un chargement commencé avant une écriture n'est pas mis
+ * en cache (jeton de version), pour ne pas réintroduire la valeur antérieure.
+ *
+ * @param <ID> Le type de l'identifiant.
+ * @param <T>  Le type de l'entité.
+ */
+public final class EntiteCache<ID, T> {
+
+    /** Jeton signalant qu'une écriture est en cours sur l'entité : ne pas utiliser le cache. */
+    public static final long JETON_INDISPONIBLE = -1;
+
+    private final String nom;
+    private final int tailleMax;
+    private final long dureeVieNanos;
+    private final UnaryOperator<T> copieur;
+    private final LinkedHashMap<ID, Entree<T>> entrees;
+    private final Map<ID, List<Connection>> ecrituresEnCours = new HashMap<>();
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    /**
+     * @param nom        le nom du cache (journaux et statistiques).
+     * @param tailleMax  le nombre maximal d'entités conservées.
+     * @param dureeVieMs la durée de vie d'une entrée, en millisecondes.
+     * @param copieur    la fonction de copie d'une entité.
+     */
+    public EntiteCache(String nom, int tailleMax, long dureeVieMs, UnaryOperator<T> copieur) {
+        if (tailleMax <= 0 || dureeVieMs <= 0) {
+            throw new IllegalArgumentException("Taille et durée de vie du cache " + nom + " doivent être positives.");
+        }
+        this.nom = nom;
+        this.tailleMax = tailleMax;
+        this.dureeVieNanos = dureeVieMs * 1_000_000;
+        this.copieur = copieur;
+        this.entrees = new LinkedHashMap<ID, Entree<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ID, Entree<T>> eldest) {
+                if (size() > EntiteCache.this.tailleMax) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Recherche une entité. Un échec (absente, expirée ou en cours d'écriture) compte comme un défaut.
+     *
+     * @param id l'identifiant.
+     * @return une copie de l'entité, ou null si elle doit être chargée.
+     */
+    public synchronized T get(ID id) {
+        Entree<T> entree = entrees.get(id);
+        if (entree != null && System.nanoTime() - entree.chargeeLe > dureeVieNanos) {
+            entrees.remove(id);
+            expirations++;
+            entree = null;
+        }
+        if (entree == null || ecritureEnCours(id)) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return copieur.apply(entree.valeur);
+    }
+
+    /**
+     * Prend un jeton avant de charger une entité depuis la base.
+     *
+     * @param id l'identifiant.
+     * @return le jeton à passer à {@link #mettre}, ou {@link #JETON_INDISPONIBLE} si l'entité
+     *         est en cours d'écriture.
+     */
+    public synchronized long jeton(ID id) {
+        return ecritureEnCours(id) ? JETON_INDISPONIBLE : version;
+    }
+
+    /**
+     * Met en cache une entité chargée, sauf si une écriture a eu lieu depuis la prise du jeton.
+     *
+     * @param id     l'identifiant.
+     * @param valeur l'entité chargée (copiée).
+     * @param jeton  le jeton obtenu avant le chargement.
+     */
+    public synchronized void mettre(ID id, T valeur, long jeton) {
+        if (valeur != null && jeton != JETON_INDISPONIBLE && jeton == version) {
+            entrees.put(id, new Entree<>(copieur.apply(valeur), System.nanoTime()));
+        }
+    }
+
+    /**
+     * Invalide une entité modifiée ou supprimée par la connexion donnée.
+     *
+     * @param id         l'identifiant.
+     * @param ecrivaine  la connexion de la transaction d'écriture.
+     */
+    public synchronized void invalider(ID id, Connection ecrivaine) {
+        version++;
+        if (entrees.remove(id) != null) {
+            invalidations++;
+        }
+        List<Connection> connexions = ecrituresEnCours.computeIfAbsent(id, cle -> new ArrayList<>(1));
+        if (!connexions.contains(ecrivaine)) {
+            connexions.add(ecrivaine);
+        }
+        if (ecrituresEnCours.size() > tailleMax) { // Purge des écritures terminées sur des entités non relues
+            ecrituresEnCours.values().removeIf(ecrivaines -> {
+                ecrivaines.removeIf(EntiteCache::estRendue);
+                return ecrivaines.isEmpty();
+            });
+        }
+    }
+
+    /**
+     * Vide le cache (les statistiques sont conservées).
+     */
+    public synchronized void vider() {
+        version++;
+        invalidations += entrees.size();
+        entrees.clear();
+    }
+
+    /**
+     * @return un instantané des statistiques du cache.
+     */
+    public synchronized EntiteCacheStats getStats() {
+        return new EntiteCacheStats(nom, entrees.size(), tailleMax, hits, misses, evictions, expirations, invalidations);
+    }
+
+    private boolean ecritureEnCours(ID id) {
+        List<Connection> connexions = ecrituresEnCours.get(id);
+        if (connexions == null) {
+            return false;
+        }
+        for (Iterator<Connection> it = connexions.iterator(); it.hasNext(); ) {
+            if (estRendue(it.next())) {
+                it.remove();
+            }
+        }
+        if (connexions.isEmpty()) {
+            ecrituresEnCours.remove(id);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean estRendue(Connection conn) {
+        try {
+            return conn.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static final class Entree<T> {
+        private final T valeur;
+        private final long chargeeLe;
+
+        private Entree(T valeur, long chargeeLe) {
+            this.valeur = valeur;
+            this.chargeeLe = chargeeLe;
+        }
+    }
+}
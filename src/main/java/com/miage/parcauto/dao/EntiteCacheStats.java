@@ -0,0 +1,92 @@
+package main.java.com.miage.parcauto.dao;
+
+/**
+ * Instantané immuable des statistiques d'un {@link EntiteCache}.
+ * Sert à juger de l'intérêt du cache (taux de succès) et à dimensionner sa taille et sa durée de vie.
+ */
+public final class EntiteCacheStats {
+
+    private final String nom;
+    private final int taille;
+    private final int tailleMax;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+
+    EntiteCacheStats(String nom, int taille, int tailleMax, long hits, long misses, long evictions,
+                     long expirations, long invalidations) {
+        this.nom = nom;
+        this.taille = taille;
+        this.tailleMax = tailleMax;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public int getTaille() {
+        return taille;
+    }
+
+    public int getTailleMax() {
+        return tailleMax;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return le nombre d'entrées retirées parce que le cache était plein (LRU).
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return le nombre d'entrées retirées parce que leur durée de vie était dépassée.
+     */
+    public long getExpirations() {
+        return expirations;
+    }
+
+    /**
+     * @return le nombre d'entrées retirées à la suite d'une écriture.
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * @return la part des lectures servies par le cache, entre 0 et 1.
+     */
+    public double getTauxSucces() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "EntiteCacheStats{" +
+                "nom=" + nom +
+                ", taille=" + taille + "/" + tailleMax +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                String.format(", tauxSucces=%.1f%%", getTauxSucces() * 100) +
+                ", evictions=" + evictions +
+                ", expirations=" + expirations +
+                ", invalidations=" + invalidations +
+                '}';
+    }
+}
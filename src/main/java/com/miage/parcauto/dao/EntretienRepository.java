@@ -1,18 +1,21 @@
 package main.java.com.miage.parcauto.dao;
 
+import main.java.com.miage.parcauto.dto.EntretienResumeDTO;
 import main.java.com.miage.parcauto.model.entretien.Entretien;
 import main.java.com.miage.parcauto.model.entretien.StatutOT;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface DAO pour l'entité Entretien.
  * Fournit des opérations de persistance spécifiques pour les entretiens des véhicules.
  */
-public interface EntretienRepository extends Repository<Entretien, Integer> {
+public interface EntretienRepository extends Repository<Entretien, Integer>, BatchRepository<Entretien, Integer>, KeysetRepository<Entretien> {
 
     /**
      * Recherche les entretiens associés à un véhicule spécifique.
@@ -24,6 +27,17 @@ public interface EntretienRepository extends Repository<Entretien, Integer> {
      */
     List<Entretien> findByVehiculeId(Connection conn, Integer idVehicule) throws SQLException;
 
+    /**
+     * Recherche les entretiens d'un ensemble de véhicules, en une requête {@code IN (...)} par lot
+     * d'identifiants au lieu d'une requête par véhicule.
+     *
+     * @param conn la connexion à la base de données.
+     * @param idsVehicules les identifiants des véhicules.
+     * @return les entretiens regroupés par identifiant de véhicule (les véhicules sans entretiens sont absents).
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    Map<Integer, List<Entretien>> findByVehiculeIds(Connection conn, Collection<Integer> idsVehicules) throws SQLException;
+
     /**
      * Recherche les entretiens planifiés ou réalisés dans un intervalle de dates donné.
      * La recherche se base sur la date de planification (date_prevue).
@@ -46,4 +60,17 @@ public interface EntretienRepository extends Repository<Entretien, Integer> {
      * @throws SQLException si une erreur d'accès à la base de données se produit.
      */
     List<Entretien> findByVehiculeIdAndStatut(Connection conn, Integer idVehicule, StatutOT statut) throws SQLException;
-}
\ No newline at end of file
+
+    /**
+     * Lit une page de la liste des entretiens en ne chargeant que les colonnes affichées
+     * (projection), avec la même pagination par curseur que {@link #findPageAfter}.
+     *
+     * @param conn la connexion à la base de données.
+     * @param jeton le jeton de continuation de la page précédente, ou null pour la première page.
+     * @param size le nombre maximal de lignes de la page.
+     * @param tri l'ordre de parcours.
+     * @return la page de résumés.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    PageCurseur<EntretienResumeDTO> findResumesAfter(Connection conn, String jeton, int size, TriCurseur tri) throws SQLException;
+}
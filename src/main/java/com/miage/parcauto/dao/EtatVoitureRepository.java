@@ -10,7 +10,7 @@ import java.util.Optional;
  * Interface DAO pour l'entité EtatVoiture.
  * Fournit des opérations de persistance spécifiques pour les états des véhicules.
  */
-public interface EtatVoitureRepository extends Repository<EtatVoiture, Integer> {
+public interface EtatVoitureRepository extends JdbcRepository<EtatVoiture, Integer> {
 
     /**
      * Recherche un état de voiture par son libellé.
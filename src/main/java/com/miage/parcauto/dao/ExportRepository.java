@@ -0,0 +1,54 @@
+package main.java.com.miage.parcauto.dao;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Interface DAO pour les exports volumineux.
+ * Les requêtes sont exécutées avec un curseur en lecture seule, à sens unique, dont les
+ * lignes sont lues au fil de l'eau depuis le serveur : la mémoire consommée ne dépend pas
+ * du nombre de lignes. Le curseur est fermé au retour de la méthode.
+ */
+public interface ExportRepository {
+
+    /**
+     * Traitement appliqué à un curseur ouvert, positionné avant la première ligne.
+     */
+    @FunctionalInterface
+    interface TraitementCurseur {
+        void traiter(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /**
+     * Parcourt tous les véhicules avec leur état, triés par identifiant.
+     *
+     * @param conn la connexion à la base de données (aucune autre requête ne doit y être
+     *             exécutée pendant le parcours).
+     * @param traitement le traitement du curseur.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     * @throws IOException si le traitement échoue en écriture.
+     */
+    void parcourirVehicules(Connection conn, TraitementCurseur traitement) throws SQLException, IOException;
+
+    /**
+     * Parcourt tous les entretiens, triés par véhicule puis par date d'entrée.
+     *
+     * @param conn la connexion à la base de données.
+     * @param traitement le traitement du curseur.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     * @throws IOException si le traitement échoue en écriture.
+     */
+    void parcourirEntretiens(Connection conn, TraitementCurseur traitement) throws SQLException, IOException;
+
+    /**
+     * Parcourt toutes les missions, triées par véhicule puis par date de début.
+     *
+     * @param conn la connexion à la base de données.
+     * @param traitement le traitement du curseur.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     * @throws IOException si le traitement échoue en écriture.
+     */
+    void parcourirMissions(Connection conn, TraitementCurseur traitement) throws SQLException, IOException;
+}
@@ -1,11 +1,15 @@
 package main.java.com.miage.parcauto.dao;
 
 import main.java.com.miage.parcauto.dto.BilanFinancierDTO;
+import main.java.com.miage.parcauto.dto.BilanFlotteDTO;
 import main.java.com.miage.parcauto.dto.CoutEntretienDTO;
+import main.java.com.miage.parcauto.dto.TcoVehiculeDTO;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -26,6 +30,19 @@ public interface FinanceRepository {
      */
     BilanFinancierDTO getBilanPeriode(Connection conn, LocalDate debut, LocalDate fin) throws SQLException;
 
+    /**
+     * Calcule le bilan de la flotte en un seul aller-retour : nombre de véhicules et
+     * kilométrage cumulé par état (groupés sur id_etat_voiture), et coût des entretiens du mois
+     * lu dans les agrégats COUT_MENSUEL. Les compteurs par état sont renseignés d'après les
+     * libellés d'ETAT_VOITURE.
+     *
+     * @param conn la connexion à la base de données.
+     * @param mois le mois dont on totalise les coûts d'entretien.
+     * @return le bilan de la flotte.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    BilanFlotteDTO getBilanFlotte(Connection conn, YearMonth mois) throws SQLException;
+
     /**
      * Calcule les coûts d'entretien par véhicule pour une année donnée.
      *
@@ -36,4 +53,23 @@ public interface FinanceRepository {
      */
     List<CoutEntretienDTO> getCoutEntretienParVehiculePourAnnee(Connection conn, int annee) throws SQLException;
 
-}
\ No newline at end of file
+    /**
+     * Agrège, en une seule requête groupée par véhicule, les coûts entrant dans le TCO :
+     * entretiens (datés par leur sortie), dépenses de mission ventilées carburant / autres
+     * (datées par le début de la mission) et assurances (proratisées sur la période, et
+     * réparties à parts égales entre les véhicules couverts par un même contrat).
+     * Les champs d'acquisition (prix, dates, kilométrage) sont renseignés tels quels ;
+     * la dépréciation et le TCO total restent à calculer par l'appelant.
+     *
+     * @param conn la connexion à la base de données.
+     * @param debut la date de début de la période (incluse), ou null avec {@code fin} pour tout l'historique.
+     * @param fin la date de fin de la période (incluse), ou null avec {@code debut} pour tout l'historique.
+     * @param idsVehicules les véhicules à restreindre (lus par lots {@code IN (...)}), ou null pour toute la flotte.
+     * @return une ligne par véhicule, triée par identifiant (dans chaque lot).
+     * @throws IllegalArgumentException si une seule des deux bornes est fournie.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<TcoVehiculeDTO> getCoutsTcoParVehicule(Connection conn, LocalDate debut, LocalDate fin,
+                                                Collection<Integer> idsVehicules) throws SQLException;
+
+}
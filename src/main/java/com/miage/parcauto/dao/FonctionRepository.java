@@ -10,7 +10,7 @@ import java.util.Optional;
  * Interface DAO pour l'entité Fonction.
  * Fournit des opérations de persistance spécifiques pour les fonctions du personnel.
  */
-public interface FonctionRepository extends Repository<Fonction, Integer> {
+public interface FonctionRepository extends JdbcRepository<Fonction, Integer> {
 
     /**
      * Recherche une fonction par son libellé.
@@ -0,0 +1,85 @@
+package main.java.com.miage.parcauto.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Opérations CRUD d'un repository JDBC. Chaque opération s'exécute sur la connexion fournie
+ * par l'appelant (la couche service), qui gère la transaction et la fermeture de la connexion.
+ *
+ * @param <T> Le type de l'entité.
+ * @param <ID> Le type de l'identifiant de l'entité.
+ */
+public interface JdbcRepository<T, ID> {
+
+    /**
+     * Récupère une entité par son identifiant.
+     *
+     * @param conn la connexion à la base de données.
+     * @param id l'identifiant de l'entité.
+     * @return un Optional contenant l'entité si trouvée, sinon un Optional vide.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    Optional<T> findById(Connection conn, ID id) throws SQLException;
+
+    /**
+     * Récupère toutes les entités.
+     *
+     * @param conn la connexion à la base de données.
+     * @return la liste de toutes les entités.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<T> findAll(Connection conn) throws SQLException;
+
+    /**
+     * Récupère les entités de manière paginée.
+     *
+     * @param conn la connexion à la base de données.
+     * @param page le numéro de la page (commence à 1).
+     * @param size le nombre d'éléments par page.
+     * @return la liste des entités de la page.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<T> findAll(Connection conn, int page, int size) throws SQLException;
+
+    /**
+     * Crée une entité.
+     *
+     * @param conn la connexion à la base de données.
+     * @param entity l'entité à créer.
+     * @return l'entité créée, avec son identifiant généré.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    T save(Connection conn, T entity) throws SQLException;
+
+    /**
+     * Met à jour une entité existante.
+     *
+     * @param conn la connexion à la base de données.
+     * @param entity l'entité à mettre à jour.
+     * @return l'entité mise à jour.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    T update(Connection conn, T entity) throws SQLException;
+
+    /**
+     * Supprime une entité par son identifiant.
+     *
+     * @param conn la connexion à la base de données.
+     * @param id l'identifiant de l'entité à supprimer.
+     * @return true si une ligne a été supprimée, false sinon.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    boolean delete(Connection conn, ID id) throws SQLException;
+
+    /**
+     * Compte le nombre total d'entités.
+     *
+     * @param conn la connexion à la base de données.
+     * @return le nombre total d'entités.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    long count(Connection conn) throws SQLException;
+}
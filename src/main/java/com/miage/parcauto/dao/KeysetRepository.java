@@ -0,0 +1,28 @@
+package main.java.com.miage.parcauto.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Pagination par curseur (« keyset ») : chaque page reprend après la dernière clé lue au lieu
+ * de sauter {@code OFFSET} lignes. Le coût d'une page reste constant quelle que soit sa
+ * profondeur, et l'ordre est stable même si des lignes sont insérées entre deux pages.
+ *
+ * @param <T> Le type de l'entité.
+ */
+public interface KeysetRepository<T> {
+
+    /**
+     * Lit la page qui suit le jeton donné.
+     *
+     * @param conn la connexion à la base de données.
+     * @param jeton le jeton de continuation de la page précédente ({@link PageCurseur#getJetonSuivant()}),
+     *        ou null pour la première page.
+     * @param size le nombre maximal d'éléments de la page.
+     * @param tri l'ordre de parcours ; il doit être le même pour toutes les pages d'un parcours.
+     * @return la page, avec le jeton de la page suivante s'il en reste une.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     * @throws IllegalArgumentException si le jeton est invalide ou a été émis pour un autre tri.
+     */
+    PageCurseur<T> findPageAfter(Connection conn, String jeton, int size, TriCurseur tri) throws SQLException;
+}
@@ -1,18 +1,21 @@
 package main.java.com.miage.parcauto.dao;
 
+import main.java.com.miage.parcauto.dto.MissionResumeDTO;
 import main.java.com.miage.parcauto.model.mission.Mission;
 import main.java.com.miage.parcauto.model.mission.StatutMission;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface DAO pour l'entité Mission.
  * Fournit des opérations de persistance spécifiques pour les missions des véhicules.
  */
-public interface MissionRepository extends Repository<Mission, Integer> {
+public interface MissionRepository extends Repository<Mission, Integer>, BatchRepository<Mission, Integer>, KeysetRepository<Mission> {
 
     /**
      * Recherche les missions actives (non clôturées) pour un véhicule spécifique.
@@ -45,6 +48,17 @@ public interface MissionRepository extends Repository<Mission, Integer> {
      */
     List<Mission> findByVehiculeId(Connection conn, Integer idVehicule) throws SQLException;
 
+    /**
+     * Recherche les missions d'un ensemble de véhicules, en une requête {@code IN (...)} par lot
+     * d'identifiants au lieu d'une requête par véhicule.
+     *
+     * @param conn la connexion à la base de données.
+     * @param idsVehicules les identifiants des véhicules.
+     * @return les missions regroupés par identifiant de véhicule (les véhicules sans missions sont absents).
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    Map<Integer, List<Mission>> findByVehiculeIds(Connection conn, Collection<Integer> idsVehicules) throws SQLException;
+
     /**
      * Recherche les missions pour un véhicule spécifique et un statut donné.
      *
@@ -55,4 +69,17 @@ public interface MissionRepository extends Repository<Mission, Integer> {
      * @throws SQLException si une erreur d'accès à la base de données se produit.
      */
     List<Mission> findByVehiculeIdAndStatus(Connection conn, Integer idVehicule, StatutMission statut) throws SQLException;
-}
\ No newline at end of file
+
+    /**
+     * Lit une page de la liste des missions en ne chargeant que les colonnes affichées
+     * (projection), avec la même pagination par curseur que {@link #findPageAfter}.
+     *
+     * @param conn la connexion à la base de données.
+     * @param jeton le jeton de continuation de la page précédente, ou null pour la première page.
+     * @param size le nombre maximal de lignes de la page.
+     * @param tri l'ordre de parcours.
+     * @return la page de résumés.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    PageCurseur<MissionResumeDTO> findResumesAfter(Connection conn, String jeton, int size, TriCurseur tri) throws SQLException;
+}
@@ -1,5 +1,6 @@
 package main.java.com.miage.parcauto.dao;
 
+import main.java.com.miage.parcauto.dto.MouvementResumeDTO;
 import main.java.com.miage.parcauto.model.finance.Mouvement;
 import main.java.com.miage.parcauto.model.finance.TypeMouvement;
 
@@ -12,7 +13,7 @@ import java.util.List;
  * Interface DAO pour l'entité Mouvement.
  * Fournit des opérations de persistance spécifiques pour les mouvements financiers des comptes sociétaires.
  */
-public interface MouvementRepository extends Repository<Mouvement, Integer> {
+public interface MouvementRepository extends Repository<Mouvement, Integer>, BatchRepository<Mouvement, Integer>, KeysetRepository<Mouvement> {
 
     /**
      * Recherche tous les mouvements associés à un compte sociétaire spécifique.
@@ -45,4 +46,17 @@ public interface MouvementRepository extends Repository<Mouvement, Integer> {
      * @throws SQLException si une erreur d'accès à la base de données se produit.
      */
     List<Mouvement> findByDateRange(Connection conn, LocalDateTime debut, LocalDateTime fin) throws SQLException;
-}
\ No newline at end of file
+
+    /**
+     * Lit une page de la liste des mouvements en ne chargeant que les colonnes affichées
+     * (projection), avec la même pagination par curseur que {@link #findPageAfter}.
+     *
+     * @param conn la connexion à la base de données.
+     * @param jeton le jeton de continuation de la page précédente, ou null pour la première page.
+     * @param size le nombre maximal de lignes de la page.
+     * @param tri l'ordre de parcours.
+     * @return la page de résumés.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    PageCurseur<MouvementResumeDTO> findResumesAfter(Connection conn, String jeton, int size, TriCurseur tri) throws SQLException;
+}
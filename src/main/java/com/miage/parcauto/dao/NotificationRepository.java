@@ -4,13 +4,14 @@ import main.java.com.miage.parcauto.model.notification.Notification;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Interface DAO pour l'entité Notification.
  * Fournit des opérations de persistance pour les notifications système ou utilisateur.
  */
-public interface NotificationRepository extends Repository<Notification, Integer> {
+public interface NotificationRepository extends Repository<Notification, Integer>, BatchRepository<Notification, Integer>, KeysetRepository<Notification> {
 
     /**
      * Recherche toutes les notifications pour un utilisateur spécifique.
@@ -41,4 +42,39 @@ public interface NotificationRepository extends Repository<Notification, Integer
      * @throws SQLException si une erreur d'accès à la base de données se produit.
      */
     int markAsRead(Connection conn, List<Integer> idsNotification) throws SQLException;
+
+    /**
+     * Marque comme lues celles des notifications données qui appartiennent à l'utilisateur, en
+     * une lecture verrouillante puis une mise à jour par lot d'identifiants. Les identifiants
+     * d'autres utilisateurs, et les notifications déjà lues, sont ignorés.
+     *
+     * @param conn la connexion à la base de données.
+     * @param idUtilisateur l'identifiant de l'utilisateur propriétaire.
+     * @param idsNotification les IDs des notifications à marquer comme lues.
+     * @return les IDs des notifications passées de non lues à lues, lus dans la transaction de
+     *         la mise à jour (à valider par l'appelant).
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<Integer> markAsRead(Connection conn, Integer idUtilisateur, Collection<Integer> idsNotification) throws SQLException;
+
+    /**
+     * Marque comme lues toutes les notifications non lues d'un utilisateur.
+     *
+     * @param conn la connexion à la base de données.
+     * @param idUtilisateur l'identifiant de l'utilisateur.
+     * @return le nombre de notifications mises à jour.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    int markAllAsRead(Connection conn, Integer idUtilisateur) throws SQLException;
+
+    /**
+     * Compte les notifications d'un utilisateur selon leur état de lecture.
+     *
+     * @param conn la connexion à la base de données.
+     * @param idUtilisateur l'identifiant de l'utilisateur.
+     * @param estLu true pour compter les notifications lues, false pour les non lues.
+     * @return le nombre de notifications correspondantes.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    long countByUtilisateurIdAndEstLu(Connection conn, Integer idUtilisateur, boolean estLu) throws SQLException;
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package main.java.com.miage.parcauto.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page d'une pagination par curseur : les éléments et le jeton opaque permettant de lire la
+ * page suivante.
+ *
+ * @param <T> Le type des éléments.
+ */
+public final class PageCurseur<T> {
+
+    private final List<T> elements;
+    private final String jetonSuivant;
+
+    public PageCurseur(List<T> elements, String jetonSuivant) {
+        this.elements = Collections.unmodifiableList(elements);
+        this.jetonSuivant = jetonSuivant;
+    }
+
+    public List<T> getElements() {
+        return elements;
+    }
+
+    /**
+     * @return le jeton à passer à {@link KeysetRepository#findPageAfter} pour la page suivante,
+     *         ou null s'il s'agit de la dernière page.
+     */
+    public String getJetonSuivant() {
+        return jetonSuivant;
+    }
+
+    public boolean hasPageSuivante() {
+        return jetonSuivant != null;
+    }
+}
@@ -6,12 +6,13 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Interface DAO pour l'entité Personnel.
  * Fournit des opérations de persistance spécifiques pour les membres du personnel.
  */
-public interface PersonnelRepository extends Repository<Personnel, Integer> {
+public interface PersonnelRepository extends JdbcRepository<Personnel, Integer>, BatchRepository<Personnel, Integer> {
 
     /**
      * Recherche un membre du personnel par son matricule.
@@ -52,4 +53,22 @@ public interface PersonnelRepository extends Repository<Personnel, Integer> {
      * @throws SQLException si une erreur d'accès à la base de données se produit.
      */
     List<Personnel> findByFonctionId(Connection conn, Integer idFonction) throws SQLException;
-}
\ No newline at end of file
+
+    /**
+     * Charge tous les matricules existants (contrôle d'unicité des imports en masse).
+     *
+     * @param conn la connexion à la base de données.
+     * @return l'ensemble des matricules.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    Set<String> findAllMatricules(Connection conn) throws SQLException;
+
+    /**
+     * Charge toutes les adresses email existantes (contrôle d'unicité des imports en masse).
+     *
+     * @param conn la connexion à la base de données.
+     * @return l'ensemble des adresses email.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    Set<String> findAllEmails(Connection conn) throws SQLException;
+}
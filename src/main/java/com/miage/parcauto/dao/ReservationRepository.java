@@ -0,0 +1,24 @@
+package main.java.com.miage.parcauto.dao;
+
+import main.java.com.miage.parcauto.model.planning.Reservation;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Interface DAO de lecture des périodes d'occupation des véhicules
+ * (missions non clôturées et affectations), pour alimenter l'index de planning.
+ */
+public interface ReservationRepository {
+
+    /**
+     * Charge toutes les périodes d'occupation en cours ou à venir, en ne lisant que
+     * les colonnes nécessaires (identifiant, véhicule, dates).
+     *
+     * @param conn la connexion à la base de données.
+     * @return la liste des réservations.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<Reservation> findAllActives(Connection conn) throws SQLException;
+}
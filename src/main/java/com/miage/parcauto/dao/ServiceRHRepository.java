@@ -10,7 +10,7 @@ import java.util.Optional;
  * Interface DAO pour l'entité Service (RH).
  * Fournit des opérations de persistance spécifiques pour les services/départements de l'entreprise.
  */
-public interface ServiceRHRepository extends Repository<Service, Integer> {
+public interface ServiceRHRepository extends JdbcRepository<Service, Integer> {
 
     /**
      * Recherche un service par son libellé.
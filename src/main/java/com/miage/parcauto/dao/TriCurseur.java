@@ -0,0 +1,22 @@
+package main.java.com.miage.parcauto.dao;
+
+/**
+ * Ordre de parcours d'une pagination par curseur (voir {@link KeysetRepository}).
+ * Les tris par date sont départagés par l'identifiant, ce qui rend l'ordre total et stable
+ * d'une page à l'autre ; les dates nulles viennent en premier en ordre croissant et en dernier
+ * en ordre décroissant (ordre de MySQL).
+ */
+public enum TriCurseur {
+    ID_CROISSANT,
+    ID_DECROISSANT,
+    DATE_CROISSANTE,
+    DATE_DECROISSANTE;
+
+    public boolean isParDate() {
+        return this == DATE_CROISSANTE || this == DATE_DECROISSANTE;
+    }
+
+    public boolean isDecroissant() {
+        return this == ID_DECROISSANT || this == DATE_DECROISSANTE;
+    }
+}
@@ -1,9 +1,12 @@
 package main.java.com.miage.parcauto.dao;
 
+import main.java.com.miage.parcauto.model.utilisateur.Role;
 import main.java.com.miage.parcauto.model.utilisateur.Utilisateur;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -31,4 +34,15 @@ public interface UtilisateurRepository extends Repository<Utilisateur, Integer>
      * @throws SQLException si une erreur d'accès à la base de données se produit.
      */
     Optional<Utilisateur> findByIdPersonnel(Connection conn, Integer idPersonnel) throws SQLException;
+
+    /**
+     * Recherche les identifiants des utilisateurs ayant l'un des rôles donnés (destinataires
+     * des alertes, par exemple).
+     *
+     * @param conn la connexion à la base de données.
+     * @param roles les rôles recherchés.
+     * @return les identifiants des utilisateurs correspondants.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<Integer> findIdsByRoles(Connection conn, Collection<Role> roles) throws SQLException;
 }
\ No newline at end of file
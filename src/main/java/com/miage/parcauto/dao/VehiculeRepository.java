@@ -1,5 +1,6 @@
 package main.java.com.miage.parcauto.dao;
 
+import main.java.com.miage.parcauto.dto.VehiculeResumeDTO;
 import main.java.com.miage.parcauto.model.vehicule.Vehicule;
 import main.java.com.miage.parcauto.model.vehicule.Energie;
 // L'import de EtatVoiture n'est pas nécessaire ici si on utilise que l'ID dans findByEtatVoitureId
@@ -8,14 +9,16 @@ import main.java.com.miage.parcauto.model.vehicule.Energie;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Interface DAO pour l'entité Vehicule.
  * Fournit des opérations de persistance spécifiques pour les véhicules du parc.
  */
-public interface VehiculeRepository extends Repository<Vehicule, Integer> {
+public interface VehiculeRepository extends JdbcRepository<Vehicule, Integer>, BatchRepository<Vehicule, Integer>, KeysetRepository<Vehicule> {
 
     /**
      * Recherche les véhicules par leur état.
@@ -30,17 +33,17 @@ public interface VehiculeRepository extends Repository<Vehicule, Integer> {
     List<Vehicule> findByEtatVoitureId(Connection conn, Integer idEtatVoiture) throws SQLException;
 
     /**
-     * Recherche les véhicules nécessitant une maintenance.
-     * La logique exacte (par exemple, km_actuels >= km_prochain_entretien - kmSeuil)
-     * dépendra de la structure de la table et des informations disponibles.
+     * Recherche les véhicules nécessitant une maintenance d'après leur échéance projetée
+     * (ECHEANCE_ENTRETIEN) : à moins de kmMarge km du seuil kilométrique, ou dont l'échéance
+     * calendaire est antérieure à dateLimite. Deux lectures par plage sur les colonnes indexées.
      *
      * @param conn la connexion à la base de données.
-     * @param kmSeuilProchainEntretien le seuil de kilométrage avant le prochain entretien.
-     *        La signification exacte de ce paramètre dépend de la requête SQL sous-jacente.
+     * @param kmMarge le nombre de kilomètres restants maximal.
+     * @param dateLimite la date d'échéance calendaire maximale.
      * @return une liste des véhicules nécessitant une maintenance.
      * @throws SQLException si une erreur d'accès à la base de données se produit.
      */
-    List<Vehicule> findRequiringMaintenance(Connection conn, int kmSeuilProchainEntretien) throws SQLException;
+    List<Vehicule> findRequiringMaintenance(Connection conn, int kmMarge, LocalDateTime dateLimite) throws SQLException;
 
     /**
      * Recherche un véhicule par son numéro d'immatriculation.
@@ -71,4 +74,73 @@ public interface VehiculeRepository extends Repository<Vehicule, Integer> {
      * @throws SQLException si une erreur d'accès à la base de données se produit.
      */
     List<Vehicule> findByEnergie(Connection conn, Energie energie) throws SQLException;
-}
\ No newline at end of file
+
+    /**
+     * Recherche, en une seule requête (anti-jointure), les véhicules dans l'état donné
+     * qui n'ont ni mission non clôturée ni affectation chevauchant la période.
+     *
+     * @param conn la connexion à la base de données.
+     * @param libelleEtat le libellé de l'état requis (ex: "Disponible").
+     * @param debut le début de la période.
+     * @param fin la fin de la période.
+     * @return la liste des véhicules libres sur la période.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    List<Vehicule> findDisponibles(Connection conn, String libelleEtat, LocalDateTime debut, LocalDateTime fin) throws SQLException;
+
+    /**
+     * Vérifie en une seule requête qu'un véhicule est dans l'état donné et libre sur la période.
+     *
+     * @param conn la connexion à la base de données.
+     * @param idVehicule l'identifiant du véhicule.
+     * @param libelleEtat le libellé de l'état requis (ex: "Disponible").
+     * @param debut le début de la période.
+     * @param fin la fin de la période.
+     * @param idMissionIgnoree l'identifiant d'une mission à ignorer dans la détection de conflit
+     *        (la mission en cours de modification), ou null.
+     * @return true si le véhicule est disponible.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    boolean isDisponible(Connection conn, Integer idVehicule, String libelleEtat, LocalDateTime debut, LocalDateTime fin,
+                         Integer idMissionIgnoree) throws SQLException;
+
+    /**
+     * Charge les identifiants de tous les véhicules (contrôle de référence des imports en masse).
+     *
+     * @param conn la connexion à la base de données.
+     * @return l'ensemble des identifiants.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    Set<Integer> findAllIds(Connection conn) throws SQLException;
+
+    /**
+     * Charge toutes les immatriculations existantes (contrôle d'unicité des imports en masse).
+     *
+     * @param conn la connexion à la base de données.
+     * @return l'ensemble des immatriculations.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    Set<String> findAllImmatriculations(Connection conn) throws SQLException;
+
+    /**
+     * Charge tous les numéros de châssis existants (contrôle d'unicité des imports en masse).
+     *
+     * @param conn la connexion à la base de données.
+     * @return l'ensemble des numéros de châssis.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    Set<String> findAllNumerosChassis(Connection conn) throws SQLException;
+
+    /**
+     * Lit une page de la liste des véhicules en ne chargeant que les colonnes affichées
+     * (projection), avec la même pagination par curseur que {@link #findPageAfter}.
+     *
+     * @param conn la connexion à la base de données.
+     * @param jeton le jeton de continuation de la page précédente, ou null pour la première page.
+     * @param size le nombre maximal de lignes de la page.
+     * @param tri l'ordre de parcours.
+     * @return la page de résumés.
+     * @throws SQLException si une erreur d'accès à la base de données se produit.
+     */
+    PageCurseur<VehiculeResumeDTO> findResumesAfter(Connection conn, String jeton, int size, TriCurseur tri) throws SQLException;
+}
@@ -0,0 +1,192 @@
+package main.java.com.miage.parcauto.dao.impl;
+
+import main.java.com.miage.parcauto.dao.AlerteRepository;
+import main.java.com.miage.parcauto.dto.AlerteAssuranceDTO;
+import main.java.com.miage.parcauto.dto.AlerteDocumentDTO;
+import main.java.com.miage.parcauto.exception.DataAccessException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class AlerteRepositoryImpl implements AlerteRepository {
+
+    @Override
+    public LocalDateTime now(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT CURRENT_TIMESTAMP");
+             ResultSet rs = pstmt.executeQuery()) {
+            rs.next();
+            return rs.getTimestamp(1).toLocalDateTime();
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la lecture de l'heure du serveur", e);
+        }
+    }
+
+    @Override
+    public Optional<LocalDateTime> lockWatermark(Connection conn, String source) throws SQLException {
+        try {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT IGNORE INTO ALERTE_FILIGRANE (source, date_filigrane) VALUES (?, NULL)")) {
+                pstmt.setString(1, source);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT date_filigrane FROM ALERTE_FILIGRANE WHERE source = ? FOR UPDATE")) {
+                pstmt.setString(1, source);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    Timestamp filigrane = rs.next() ? rs.getTimestamp("date_filigrane") : null;
+                    return Optional.ofNullable(filigrane != null ? filigrane.toLocalDateTime() : null);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors du verrouillage du filigrane des alertes: " + source, e);
+        }
+    }
+
+    @Override
+    public void updateWatermark(Connection conn, String source, LocalDateTime filigrane) throws SQLException {
+        String sql = "UPDATE ALERTE_FILIGRANE SET date_filigrane = ? WHERE source = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, Timestamp.valueOf(filigrane));
+            pstmt.setString(2, source);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la mise à jour du filigrane des alertes: " + source, e);
+        }
+    }
+
+    @Override
+    public List<AlerteAssuranceDTO> findAssurancesExpiring(Connection conn, LocalDateTime depuis,
+                                                           LocalDateTime ancienHorizon, LocalDateTime maintenant,
+                                                           LocalDateTime horizon) throws SQLException {
+        // Parcours de l'index idx_fin_assurance sur la fenêtre ; date_maj ne filtre que ses lignes
+        String sql = "SELECT a.num_carte_assurance, a.agence, a.date_fin_assurance, " +
+                "v.immatriculation, v.marque, v.modele " +
+                "FROM ASSURANCE a " +
+                "LEFT JOIN COUVRIR c ON c.num_carte_assurance = a.num_carte_assurance " +
+                "LEFT JOIN VEHICULES v ON v.id_vehicule = c.id_vehicule " +
+                "WHERE a.date_fin_assurance > ? AND a.date_fin_assurance <= ?" +
+                (depuis != null ? " AND (a.date_fin_assurance > ? OR a.date_maj > ?)" : "") +
+                " ORDER BY a.date_fin_assurance, a.num_carte_assurance, v.id_vehicule";
+        Map<Integer, AlerteAssuranceDTO> alertes = new LinkedHashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            lierFenetre(pstmt, depuis, ancienHorizon, maintenant, horizon);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int numCarte = rs.getInt("num_carte_assurance");
+                    AlerteAssuranceDTO alerte = alertes.get(numCarte);
+                    if (alerte == null) {
+                        alerte = new AlerteAssuranceDTO();
+                        alerte.setNumCarteAssurance(numCarte);
+                        alerte.setAgenceAssurance(rs.getString("agence"));
+                        alerte.setDateFinAssurance(rs.getTimestamp("date_fin_assurance").toLocalDateTime());
+                        alerte.setVehiculesConcernesInfo(new ArrayList<>());
+                        alertes.put(numCarte, alerte);
+                    }
+                    String immatriculation = rs.getString("immatriculation");
+                    if (immatriculation != null) {
+                        alerte.getVehiculesConcernesInfo().add(rs.getString("marque") + " " + rs.getString("modele")
+                                + " (" + immatriculation + ")");
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la recherche des assurances arrivant à échéance", e);
+        }
+        return new ArrayList<>(alertes.values());
+    }
+
+    @Override
+    public List<AlerteDocumentDTO> findDocumentsExpiring(Connection conn, LocalDateTime depuis,
+                                                         LocalDateTime ancienHorizon, LocalDateTime maintenant,
+                                                         LocalDateTime horizon) throws SQLException {
+        String sql = "SELECT d.id_doc, d.id_societaire, d.type_doc, d.date_expiration, s.nom " +
+                "FROM DOCUMENT_SOCIETAIRE d " +
+                "JOIN SOCIETAIRE_COMPTE s ON s.id_societaire = d.id_societaire " +
+                "WHERE d.date_expiration > ? AND d.date_expiration <= ?" +
+                (depuis != null ? " AND (d.date_expiration > ? OR d.date_upload > ?)" : "") +
+                " ORDER BY d.date_expiration, d.id_doc";
+        List<AlerteDocumentDTO> alertes = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            lierFenetre(pstmt, depuis, ancienHorizon, maintenant, horizon);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    AlerteDocumentDTO alerte = new AlerteDocumentDTO();
+                    alerte.setIdDocument(rs.getInt("id_doc"));
+                    alerte.setIdSocietaire(rs.getInt("id_societaire"));
+                    alerte.setNomSocietaire(rs.getString("nom"));
+                    alerte.setTypeDocument(rs.getString("type_doc"));
+                    alerte.setDateExpiration(rs.getTimestamp("date_expiration").toLocalDateTime());
+                    alertes.add(alerte);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la recherche des documents arrivant à expiration", e);
+        }
+        return alertes;
+    }
+
+    private void lierFenetre(PreparedStatement pstmt, LocalDateTime depuis, LocalDateTime ancienHorizon,
+                             LocalDateTime maintenant, LocalDateTime horizon) throws SQLException {
+        pstmt.setTimestamp(1, Timestamp.valueOf(maintenant));
+        pstmt.setTimestamp(2, Timestamp.valueOf(horizon));
+        if (depuis != null) {
+            pstmt.setTimestamp(3, Timestamp.valueOf(ancienHorizon));
+            pstmt.setTimestamp(4, Timestamp.valueOf(depuis));
+        }
+    }
+
+    @Override
+    public List<Integer> findVehiculesModifiedSince(Connection conn, LocalDateTime depuis) throws SQLException {
+        String sql = "SELECT id_vehicule FROM VEHICULES" + (depuis != null ? " WHERE date_maj > ?" : "");
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            if (depuis != null) {
+                pstmt.setTimestamp(1, Timestamp.valueOf(depuis));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt("id_vehicule"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la recherche des véhicules modifiés depuis " + depuis, e);
+        }
+        return ids;
+    }
+
+    @Override
+    public Set<String> findEmittedKeys(Connection conn, Collection<String> cles) throws SQLException {
+        try {
+            return new HashSet<>(TraitementParLots.lire(conn, "SELECT cle_alerte FROM ALERTE_EMISE WHERE cle_alerte",
+                    cles, rs -> rs.getString("cle_alerte")));
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la recherche des alertes déjà émises", e);
+        }
+    }
+
+    @Override
+    public void saveEmittedKeys(Connection conn, List<String> cles, LocalDateTime dateEmission) throws SQLException {
+        Timestamp date = Timestamp.valueOf(dateEmission);
+        try {
+            TraitementParLots.mettreAJour(conn, "INSERT IGNORE INTO ALERTE_EMISE (cle_alerte, date_emission) VALUES (?, ?)",
+                    cles, (pstmt, cle) -> {
+                        pstmt.setString(1, cle);
+                        pstmt.setTimestamp(2, date);
+                    });
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la journalisation de " + cles.size() + " alertes émises", e);
+        }
+    }
+}
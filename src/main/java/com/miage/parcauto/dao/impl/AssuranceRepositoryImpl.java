@@ -2,7 +2,7 @@ package main.java.com.miage.parcauto.dao.impl;
 
 import main.java.com.miage.parcauto.dao.AssuranceRepository;
 import main.java.com.miage.parcauto.model.assurance.Assurance;
-import main.java.com.miage.parcauto.util.DbUtil;
+import main.java.com.miage.parcauto.dao.DbUtil;
 import main.java.com.miage.parcauto.exception.DataAccessException;
 
 import java.sql.*;
@@ -0,0 +1,111 @@
+package main.java.com.miage.parcauto.dao.impl;
+
+import main.java.com.miage.parcauto.dao.DbUtil;
+import main.java.com.miage.parcauto.dao.EntiteCache;
+import main.java.com.miage.parcauto.dao.EntiteCacheStats;
+import main.java.com.miage.parcauto.dao.PersonnelRepository;
+import main.java.com.miage.parcauto.dao.VehiculeRepository;
+import main.java.com.miage.parcauto.model.rh.Personnel;
+import main.java.com.miage.parcauto.model.vehicule.Vehicule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Caches d'entités partagés placés devant {@link VehiculeRepository} et {@link PersonnelRepository}.
+ * <p>
+ * Le cache est facultatif et désactivé par défaut : il s'active par déploiement avec la
+ * propriété {@code db.cache.enabled=true} de db.properties ({@code db.cache.maxSize} entités
+ * par cache, durée de vie {@code db.cache.ttlMs}). Les repositories décorés de tous les services
+ * partagent les mêmes caches, de sorte qu'une écriture faite par un service invalide l'entité
+ * pour tous les autres.
+ */
+public final class CachesEntites {
+
+    private static final Logger LOGGER = Logger.getLogger(CachesEntites.class.getName());
+    private static final int TAILLE_MAX_DEFAUT = 1000;
+    private static final long DUREE_VIE_MS_DEFAUT = 60_000;
+
+    private static final boolean actif = Boolean.parseBoolean(DbUtil.getPropriete("db.cache.enabled", "false"));
+    private static final EntiteCache<Integer, Vehicule> vehicules = actif
+            ? new EntiteCache<>("VEHICULES", tailleMax(), dureeVieMs(), VehiculeRepositoryEnCache::copier) : null;
+    private static final EntiteCache<Integer, Personnel> personnel = actif
+            ? new EntiteCache<>("PERSONNEL", tailleMax(), dureeVieMs(), PersonnelRepositoryEnCache::copier) : null;
+
+    static {
+        LOGGER.info(actif
+                ? "Cache d'entités activé (taille max " + tailleMax() + ", durée de vie " + dureeVieMs() + " ms)"
+                : "Cache d'entités désactivé (db.cache.enabled)");
+    }
+
+    private CachesEntites() {
+    }
+
+    /**
+     * @return true si le cache d'entités est activé pour ce déploiement.
+     */
+    public static boolean isActif() {
+        return actif;
+    }
+
+    /**
+     * Place le cache des véhicules devant un repository, s'il est activé.
+     *
+     * @param repository le repository à décorer.
+     * @return le repository décoré, ou le repository lui-même si le cache est désactivé.
+     */
+    public static VehiculeRepository vehicules(VehiculeRepository repository) {
+        return actif ? new VehiculeRepositoryEnCache(repository, vehicules) : repository;
+    }
+
+    /**
+     * Place le cache du personnel devant un repository, s'il est activé.
+     *
+     * @param repository le repository à décorer.
+     * @return le repository décoré, ou le repository lui-même si le cache est désactivé.
+     */
+    public static PersonnelRepository personnel(PersonnelRepository repository) {
+        return actif ? new PersonnelRepositoryEnCache(repository, personnel) : repository;
+    }
+
+    /**
+     * @return les statistiques (taux de succès, évictions...) de chaque cache, vide si désactivé.
+     */
+    public static List<EntiteCacheStats> getStats() {
+        List<EntiteCacheStats> stats = new ArrayList<>();
+        if (actif) {
+            stats.add(vehicules.getStats());
+            stats.add(personnel.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Vide les caches, par exemple après une modification faite hors de l'application.
+     */
+    public static void vider() {
+        if (actif) {
+            vehicules.vider();
+            personnel.vider();
+        }
+    }
+
+    private static int tailleMax() {
+        try {
+            return Integer.parseInt(DbUtil.getPropriete("db.cache.maxSize", String.valueOf(TAILLE_MAX_DEFAUT)));
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur invalide pour db.cache.maxSize, utilisation de " + TAILLE_MAX_DEFAUT);
+            return TAILLE_MAX_DEFAUT;
+        }
+    }
+
+    private static long dureeVieMs() {
+        try {
+            return Long.parseLong(DbUtil.getPropriete("db.cache.ttlMs", String.valueOf(DUREE_VIE_MS_DEFAUT)));
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur invalide pour db.cache.ttlMs, utilisation de " + DUREE_VIE_MS_DEFAUT);
+            return DUREE_VIE_MS_DEFAUT;
+        }
+    }
+}
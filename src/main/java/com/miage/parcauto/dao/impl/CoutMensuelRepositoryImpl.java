@@ -0,0 +1,291 @@
+package main.java.com.miage.parcauto.dao.impl;
+
+import main.java.com.miage.parcauto.dao.CoutMensuelRepository;
+import main.java.com.miage.parcauto.exception.DataAccessException;
+import main.java.com.miage.parcauto.model.finance.CategorieCout;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Implémentation JDBC de {@link CoutMensuelRepository}.
+ * Les cellules sont recalculées par « suppression puis INSERT ... SELECT » sur l'intervalle
+ * touché, ce qui reste correct quel que soit le type d'écriture (création, modification
+ * de date ou de véhicule, suppression).
+ */
+public class CoutMensuelRepositoryImpl implements CoutMensuelRepository {
+
+    private static final int TAILLE_LOT = 500;
+
+    private static final String MOIS_ENTRETIEN = "DATE_FORMAT(date_sortie_entr, '%Y-%m-01')";
+    private static final String MOIS_MISSION = "DATE_FORMAT(m.date_debut_mission, '%Y-%m-01')";
+
+    private static final String INSERT_ENTRETIENS = "INSERT INTO COUT_MENSUEL (id_vehicule, mois, categorie, montant, nb_operations) " +
+            "SELECT id_vehicule, " + MOIS_ENTRETIEN + ", 'Entretien', SUM(cout_entr), COUNT(*) FROM ENTRETIEN " +
+            "WHERE cout_entr IS NOT NULL AND date_sortie_entr IS NOT NULL ";
+    private static final String GROUP_BY_ENTRETIENS = "GROUP BY id_vehicule, " + MOIS_ENTRETIEN;
+
+    private static final String INSERT_DEPENSES = "INSERT INTO COUT_MENSUEL (id_vehicule, mois, categorie, montant, nb_operations) " +
+            "SELECT m.id_vehicule, " + MOIS_MISSION + ", dm.nature, SUM(dm.montant), COUNT(*) " +
+            "FROM DEPENSE_MISSION dm JOIN MISSION m ON m.id_mission = dm.id_mission " +
+            "WHERE m.date_debut_mission IS NOT NULL ";
+    private static final String GROUP_BY_DEPENSES = "GROUP BY m.id_vehicule, " + MOIS_MISSION + ", dm.nature";
+
+    // Une prime couvrant plusieurs véhicules est répartie à parts égales entre eux, comme pour le TCO
+    private static final String SELECT_CONTRATS = "SELECT c.id_vehicule, a.date_debut_assurance, a.date_fin_assurance, " +
+            "ROUND(a.cout_assurance / n.nb_vehicules, 2) AS cout_assurance " +
+            "FROM COUVRIR c JOIN ASSURANCE a ON a.num_carte_assurance = c.num_carte_assurance " +
+            "JOIN (SELECT num_carte_assurance, COUNT(*) AS nb_vehicules FROM COUVRIR " +
+            "GROUP BY num_carte_assurance) n ON n.num_carte_assurance = c.num_carte_assurance " +
+            "WHERE a.cout_assurance IS NOT NULL AND a.date_debut_assurance IS NOT NULL AND a.date_fin_assurance IS NOT NULL ";
+
+    private static final String INSERT_CELLULE = "INSERT INTO COUT_MENSUEL (id_vehicule, mois, categorie, montant, nb_operations) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    @Override
+    public void rafraichirEntretiens(Connection conn, Integer idVehicule, Set<YearMonth> mois) throws SQLException {
+        if (idVehicule == null || mois == null || mois.isEmpty()) {
+            return;
+        }
+        TreeSet<YearMonth> tries = new TreeSet<>(mois);
+        Timestamp debut = Timestamp.valueOf(tries.first().atDay(1).atStartOfDay());
+        Timestamp fin = Timestamp.valueOf(tries.last().plusMonths(1).atDay(1).atStartOfDay());
+        try {
+            supprimer(conn, idVehicule, debut, fin, CategorieCout.ENTRETIEN);
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_ENTRETIENS +
+                    "AND id_vehicule = ? AND date_sortie_entr >= ? AND date_sortie_entr < ? " + GROUP_BY_ENTRETIENS)) {
+                pstmt.setInt(1, idVehicule);
+                pstmt.setTimestamp(2, debut);
+                pstmt.setTimestamp(3, fin);
+                pstmt.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors du recalcul des coûts d'entretien mensuels du véhicule ID: " + idVehicule, e);
+        }
+    }
+
+    @Override
+    public void rafraichirDepensesMission(Connection conn, Integer idVehicule, Set<YearMonth> mois) throws SQLException {
+        if (idVehicule == null || mois == null || mois.isEmpty()) {
+            return;
+        }
+        TreeSet<YearMonth> tries = new TreeSet<>(mois);
+        Timestamp debut = Timestamp.valueOf(tries.first().atDay(1).atStartOfDay());
+        Timestamp fin = Timestamp.valueOf(tries.last().plusMonths(1).atDay(1).atStartOfDay());
+        try {
+            supprimer(conn, idVehicule, debut, fin, CategorieCout.CARBURANT, CategorieCout.FRAIS_ANNEXES);
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_DEPENSES +
+                    "AND m.id_vehicule = ? AND m.date_debut_mission >= ? AND m.date_debut_mission < ? " + GROUP_BY_DEPENSES)) {
+                pstmt.setInt(1, idVehicule);
+                pstmt.setTimestamp(2, debut);
+                pstmt.setTimestamp(3, fin);
+                pstmt.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors du recalcul des dépenses de mission mensuelles du véhicule ID: " + idVehicule, e);
+        }
+    }
+
+    @Override
+    public void rafraichirAssurances(Connection conn, Integer idVehicule) throws SQLException {
+        if (idVehicule == null) {
+            return;
+        }
+        try {
+            supprimer(conn, idVehicule, null, null, CategorieCout.ASSURANCE);
+            try (PreparedStatement pstmt = conn.prepareStatement(SELECT_CONTRATS + "AND c.id_vehicule = ?")) {
+                pstmt.setInt(1, idVehicule);
+                inserer(conn, ventilerAssurances(pstmt));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors du recalcul des coûts d'assurance mensuels du véhicule ID: " + idVehicule, e);
+        }
+    }
+
+    @Override
+    public int reconstruire(Connection conn) throws SQLException {
+        int cellules = 0;
+        try {
+            // DELETE plutôt que TRUNCATE, qui validerait implicitement la transaction
+            try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM COUT_MENSUEL")) {
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_ENTRETIENS + GROUP_BY_ENTRETIENS)) {
+                cellules += pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_DEPENSES + GROUP_BY_DEPENSES)) {
+                cellules += pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(SELECT_CONTRATS)) {
+                cellules += inserer(conn, ventilerAssurances(pstmt));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la reconstruction des coûts mensuels.", e);
+        }
+        return cellules;
+    }
+
+    @Override
+    public Map<CategorieCout, BigDecimal> sommerParCategorie(Connection conn, YearMonth debut, YearMonth fin,
+                                                             Integer idVehicule) throws SQLException {
+        Map<CategorieCout, BigDecimal> sommes = new EnumMap<>(CategorieCout.class);
+        for (CategorieCout categorie : CategorieCout.values()) {
+            sommes.put(categorie, BigDecimal.ZERO);
+        }
+        String sql = "SELECT categorie, SUM(montant) AS total FROM COUT_MENSUEL WHERE mois >= ? AND mois <= ? " +
+                (idVehicule != null ? "AND id_vehicule = ? " : "") + "GROUP BY categorie";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDate(1, Date.valueOf(debut.atDay(1)));
+            pstmt.setDate(2, Date.valueOf(fin.atDay(1)));
+            if (idVehicule != null) {
+                pstmt.setInt(3, idVehicule);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    sommes.put(CategorieCout.fromLibelle(rs.getString("categorie")), rs.getBigDecimal("total"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la somme des coûts mensuels de " + debut + " à " + fin, e);
+        }
+        return sommes;
+    }
+
+    @Override
+    public Map<YearMonth, Map<CategorieCout, BigDecimal>> sommerParMois(Connection conn, YearMonth debut, YearMonth fin)
+            throws SQLException {
+        Map<YearMonth, Map<CategorieCout, BigDecimal>> sommes = new TreeMap<>();
+        String sql = "SELECT mois, categorie, SUM(montant) AS total FROM COUT_MENSUEL " +
+                "WHERE mois >= ? AND mois <= ? GROUP BY mois, categorie";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDate(1, Date.valueOf(debut.atDay(1)));
+            pstmt.setDate(2, Date.valueOf(fin.atDay(1)));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    YearMonth mois = YearMonth.from(rs.getDate("mois").toLocalDate());
+                    sommes.computeIfAbsent(mois, m -> new EnumMap<>(CategorieCout.class))
+                            .put(CategorieCout.fromLibelle(rs.getString("categorie")), rs.getBigDecimal("total"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la somme des coûts par mois de " + debut + " à " + fin, e);
+        }
+        return sommes;
+    }
+
+    private void supprimer(Connection conn, Integer idVehicule, Timestamp debut, Timestamp fin,
+                           CategorieCout... categories) throws SQLException {
+        StringBuilder sql = new StringBuilder("DELETE FROM COUT_MENSUEL WHERE id_vehicule = ? AND categorie IN (");
+        for (int i = 0; i < categories.length; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(')');
+        if (debut != null) {
+            sql.append(" AND mois >= ? AND mois < ?");
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            pstmt.setInt(index++, idVehicule);
+            for (CategorieCout categorie : categories) {
+                pstmt.setString(index++, categorie.getLibelle());
+            }
+            if (debut != null) {
+                pstmt.setTimestamp(index++, debut);
+                pstmt.setTimestamp(index, fin);
+            }
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Ventile la part de prime de chaque véhicule sur les mois couverts, au prorata du temps
+     * couvert dans chaque mois. Le reliquat d'arrondi est porté sur le dernier mois pour que la
+     * somme des parts mensuelles égale exactement la part du véhicule.
+     */
+    private Map<Integer, Map<YearMonth, Cellule>> ventilerAssurances(PreparedStatement pstmt) throws SQLException {
+        Map<Integer, Map<YearMonth, Cellule>> cellules = new TreeMap<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                Map<YearMonth, Cellule> parMois = cellules.computeIfAbsent(rs.getInt("id_vehicule"), id -> new TreeMap<>());
+                LocalDateTime debut = rs.getTimestamp("date_debut_assurance").toLocalDateTime();
+                LocalDateTime fin = rs.getTimestamp("date_fin_assurance").toLocalDateTime();
+                BigDecimal prime = rs.getBigDecimal("cout_assurance");
+                if (!fin.isAfter(debut)) {
+                    parMois.computeIfAbsent(YearMonth.from(debut), m -> new Cellule()).ajouter(prime);
+                    continue;
+                }
+                BigDecimal dureeTotale = BigDecimal.valueOf(Duration.between(debut, fin).getSeconds());
+                BigDecimal reparti = BigDecimal.ZERO;
+                for (YearMonth mois = YearMonth.from(debut); ; mois = mois.plusMonths(1)) {
+                    LocalDateTime debutMois = mois.atDay(1).atStartOfDay();
+                    LocalDateTime finMois = mois.plusMonths(1).atDay(1).atStartOfDay();
+                    LocalDateTime debutPart = debut.isAfter(debutMois) ? debut : debutMois;
+                    boolean dernier = !fin.isAfter(finMois);
+                    BigDecimal part;
+                    if (dernier) {
+                        part = prime.subtract(reparti);
+                    } else {
+                        part = prime.multiply(BigDecimal.valueOf(Duration.between(debutPart, finMois).getSeconds()))
+                                .divide(dureeTotale, 2, RoundingMode.HALF_UP);
+                        reparti = reparti.add(part);
+                    }
+                    parMois.computeIfAbsent(mois, m -> new Cellule()).ajouter(part);
+                    if (dernier) {
+                        break;
+                    }
+                }
+            }
+        }
+        return cellules;
+    }
+
+    private int inserer(Connection conn, Map<Integer, Map<YearMonth, Cellule>> cellules) throws SQLException {
+        int total = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_CELLULE)) {
+            int enAttente = 0;
+            for (Map.Entry<Integer, Map<YearMonth, Cellule>> vehicule : cellules.entrySet()) {
+                for (Map.Entry<YearMonth, Cellule> cellule : vehicule.getValue().entrySet()) {
+                    pstmt.setInt(1, vehicule.getKey());
+                    pstmt.setDate(2, Date.valueOf(cellule.getKey().atDay(1)));
+                    pstmt.setString(3, CategorieCout.ASSURANCE.getLibelle());
+                    pstmt.setBigDecimal(4, cellule.getValue().montant);
+                    pstmt.setInt(5, cellule.getValue().operations);
+                    pstmt.addBatch();
+                    total++;
+                    if (++enAttente == TAILLE_LOT) {
+                        pstmt.executeBatch();
+                        enAttente = 0;
+                    }
+                }
+            }
+            if (enAttente > 0) {
+                pstmt.executeBatch();
+            }
+        }
+        return total;
+    }
+
+    private static final class Cellule {
+        private BigDecimal montant = BigDecimal.ZERO;
+        private int operations;
+
+        private void ajouter(BigDecimal part) {
+            montant = montant.add(part);
+            operations++;
+        }
+    }
+}
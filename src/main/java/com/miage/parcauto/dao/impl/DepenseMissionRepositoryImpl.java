@@ -4,7 +4,7 @@ import main.java.com.miage.parcauto.dao.DepenseMissionRepository;
 import main.java.com.miage.parcauto.model.mission.DepenseMission;
 import main.java.com.miage.parcauto.model.mission.NatureDepenseMission;
 import main.java.com.miage.parcauto.exception.DataAccessException;
-import main.java.com.miage.parcauto.util.DbUtil; // Assurez-vous que DbUtil gère correctement les connexions
+import main.java.com.miage.parcauto.dao.DbUtil;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -13,6 +13,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -97,19 +98,30 @@ public class DepenseMissionRepositoryImpl implements DepenseMissionRepository {
         return depenses;
     }
 
+    private static final String SQL_INSERT = "INSERT INTO DEPENSE_MISSION (id_mission, nature, montant, date_depense, justificatif, observation) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE DEPENSE_MISSION SET id_mission = ?, nature = ?, montant = ?, date_depense = ?, justificatif = ?, observation = ? WHERE id_depense = ?";
+
+    private void lierDepense(PreparedStatement pstmt, DepenseMission depense) throws SQLException {
+        pstmt.setInt(1, depense.getIdMission());
+        pstmt.setString(2, depense.getNature() != null ? depense.getNature().name() : null); // Utiliser .name()
+                                                                                             // pour Enum
+        pstmt.setBigDecimal(3, depense.getMontant());
+        pstmt.setTimestamp(4,
+                depense.getDateDepense() != null ? Timestamp.valueOf(depense.getDateDepense()) : null);
+        pstmt.setString(5, depense.getJustificatif());
+        pstmt.setString(6, depense.getObservation());
+    }
+
+    private void lierDepenseMiseAJour(PreparedStatement pstmt, DepenseMission depense) throws SQLException {
+        lierDepense(pstmt, depense);
+        pstmt.setInt(7, depense.getIdDepense());
+    }
+
     @Override
     public DepenseMission save(DepenseMission depense) {
-        String sql = "INSERT INTO DEPENSE_MISSION (id_mission, nature, montant, date_depense, justificatif, observation) VALUES (?, ?, ?, ?, ?, ?)";
         try (Connection conn = DbUtil.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setInt(1, depense.getIdMission());
-            pstmt.setString(2, depense.getNature() != null ? depense.getNature().name() : null); // Utiliser .name()
-                                                                                                 // pour Enum
-            pstmt.setBigDecimal(3, depense.getMontant());
-            pstmt.setTimestamp(4,
-                    depense.getDateDepense() != null ? Timestamp.valueOf(depense.getDateDepense()) : null);
-            pstmt.setString(5, depense.getJustificatif());
-            pstmt.setString(6, depense.getObservation());
+                PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            lierDepense(pstmt, depense);
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -131,18 +143,9 @@ public class DepenseMissionRepositoryImpl implements DepenseMissionRepository {
 
     @Override
     public DepenseMission update(DepenseMission depense) {
-        String sql = "UPDATE DEPENSE_MISSION SET id_mission = ?, nature = ?, montant = ?, date_depense = ?, justificatif = ?, observation = ? WHERE id_depense = ?";
         try (Connection conn = DbUtil.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, depense.getIdMission());
-            pstmt.setString(2, depense.getNature() != null ? depense.getNature().name() : null); // Utiliser .name()
-                                                                                                 // pour Enum
-            pstmt.setBigDecimal(3, depense.getMontant());
-            pstmt.setTimestamp(4,
-                    depense.getDateDepense() != null ? Timestamp.valueOf(depense.getDateDepense()) : null);
-            pstmt.setString(5, depense.getJustificatif());
-            pstmt.setString(6, depense.getObservation());
-            pstmt.setInt(7, depense.getIdDepense());
+                PreparedStatement pstmt = conn.prepareStatement(SQL_UPDATE)) {
+            lierDepenseMiseAJour(pstmt, depense);
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -158,6 +161,36 @@ public class DepenseMissionRepositoryImpl implements DepenseMissionRepository {
         return depense;
     }
 
+    @Override
+    public List<DepenseMission> saveAll(Connection conn, List<DepenseMission> depenses) throws SQLException {
+        try {
+            return TraitementParLots.inserer(conn, SQL_INSERT, depenses, this::lierDepense, DepenseMission::setIdDepense);
+        } catch (SQLException e) {
+            throw new DataAccessException(
+                    "Erreur lors de la sauvegarde par lots de " + depenses.size() + " dépenses de mission", e);
+        }
+    }
+
+    @Override
+    public int updateAll(Connection conn, List<DepenseMission> depenses) throws SQLException {
+        try {
+            return TraitementParLots.mettreAJour(conn, SQL_UPDATE, depenses, this::lierDepenseMiseAJour);
+        } catch (SQLException e) {
+            throw new DataAccessException(
+                    "Erreur lors de la mise à jour par lots de " + depenses.size() + " dépenses de mission", e);
+        }
+    }
+
+    @Override
+    public int deleteAllById(Connection conn, Collection<Integer> ids) throws SQLException {
+        try {
+            return TraitementParLots.supprimer(conn, "DEPENSE_MISSION", "id_depense", ids);
+        } catch (SQLException e) {
+            throw new DataAccessException(
+                    "Erreur lors de la suppression par lots de " + ids.size() + " dépenses de mission", e);
+        }
+    }
+
     @Override
     public boolean delete(Integer id) {
         String sql = "DELETE FROM DEPENSE_MISSION WHERE id_depense = ?";
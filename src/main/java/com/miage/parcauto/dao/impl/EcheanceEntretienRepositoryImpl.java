@@ -0,0 +1,224 @@
+package main.java.com.miage.parcauto.dao.impl;
+
+import main.java.com.miage.parcauto.dao.EcheanceEntretienRepository;
+import main.java.com.miage.parcauto.dto.EcheanceEntretienDTO;
+import main.java.com.miage.parcauto.exception.DataAccessException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class EcheanceEntretienRepositoryImpl implements EcheanceEntretienRepository {
+
+    private static final String SQL_SELECT = "SELECT p.*, v.immatriculation, v.marque, v.modele " +
+            "FROM ECHEANCE_ENTRETIEN p JOIN VEHICULES v ON v.id_vehicule = p.id_vehicule ";
+
+    private static final String SQL_UPSERT = "INSERT INTO ECHEANCE_ENTRETIEN (id_vehicule, km_actuels, km_dernier_entretien, " +
+            "date_dernier_entretien, km_prochain, date_prochain, km_jour, date_echeance, date_maj) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP) " +
+            "ON DUPLICATE KEY UPDATE km_actuels = VALUES(km_actuels), km_dernier_entretien = VALUES(km_dernier_entretien), " +
+            "date_dernier_entretien = VALUES(date_dernier_entretien), km_prochain = VALUES(km_prochain), " +
+            "date_prochain = VALUES(date_prochain), km_jour = VALUES(km_jour), date_echeance = VALUES(date_echeance), " +
+            "date_maj = VALUES(date_maj)";
+
+    private EcheanceEntretienDTO mapResultSetToEcheance(ResultSet rs) throws SQLException {
+        EcheanceEntretienDTO echeance = new EcheanceEntretienDTO();
+        echeance.setIdVehicule(rs.getInt("id_vehicule"));
+        echeance.setVehiculeInfo(rs.getString("marque") + " " + rs.getString("modele")
+                + " (" + rs.getString("immatriculation") + ")");
+        echeance.setKmActuels(rs.getInt("km_actuels"));
+        echeance.setKmDernierEntretien(rs.getInt("km_dernier_entretien"));
+        echeance.setDateDernierEntretien(date(rs.getTimestamp("date_dernier_entretien")));
+        echeance.setKmProchainEntretien(rs.getInt("km_prochain"));
+        echeance.setDateProchainEntretien(date(rs.getTimestamp("date_prochain")));
+        echeance.setKmParJour(rs.getDouble("km_jour"));
+        echeance.setDateEcheance(date(rs.getTimestamp("date_echeance")));
+        echeance.setDateMaj(date(rs.getTimestamp("date_maj")));
+        return echeance;
+    }
+
+    private static LocalDateTime date(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static Timestamp timestamp(LocalDateTime date) {
+        return date != null ? Timestamp.valueOf(date) : null;
+    }
+
+    @Override
+    public List<EcheanceEntretienDTO> findByVehiculeIds(Connection conn, Collection<Integer> idsVehicule)
+            throws SQLException {
+        try {
+            return TraitementParLots.lire(conn, SQL_SELECT + "WHERE p.id_vehicule", idsVehicule,
+                    this::mapResultSetToEcheance);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la lecture des échéances d'entretien de "
+                    + idsVehicule.size() + " véhicules", e);
+        }
+    }
+
+    @Override
+    public List<EcheanceEntretienDTO> findHistoriqueByVehiculeIds(Connection conn, Collection<Integer> idsVehicule)
+            throws SQLException {
+        // Dernier entretien clôturé de chaque véhicule ; le kilométrage à sa sortie est le relevé
+        // de la dernière mission clôturée avant elle (le déclencheur de clôture recopie km_reel)
+        String requete = "SELECT v.id_vehicule, v.immatriculation, v.marque, v.modele, " +
+                "COALESCE(v.km_actuels, 0) AS km_actuels, " +
+                "COALESCE(e.date_sortie_entr, v.date_mise_en_service) AS date_base, " +
+                "CASE WHEN e.id_entretien IS NULL THEN 0 ELSE COALESCE((SELECT MAX(m.km_reel) FROM MISSION m " +
+                "WHERE m.id_vehicule = v.id_vehicule AND m.status = 'Cloturee' " +
+                "AND m.date_fin_mission <= e.date_sortie_entr), 0) END AS km_base " +
+                "FROM VEHICULES v " +
+                "LEFT JOIN ENTRETIEN e ON e.id_vehicule = v.id_vehicule AND e.statut_ot = 'Cloture' " +
+                "AND NOT EXISTS (SELECT 1 FROM ENTRETIEN e2 WHERE e2.id_vehicule = e.id_vehicule " +
+                "AND e2.statut_ot = 'Cloture' AND e2.date_sortie_entr > e.date_sortie_entr) " +
+                "WHERE v.id_vehicule";
+        Map<Integer, EcheanceEntretienDTO> historiques = new LinkedHashMap<>();
+        try {
+            for (EcheanceEntretienDTO historique : TraitementParLots.lire(conn, requete, idsVehicule,
+                    this::mapResultSetToHistorique)) {
+                // Deux entretiens clôturés à la même date : un seul historique
+                historiques.putIfAbsent(historique.getIdVehicule(), historique);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la reconstitution du dernier entretien de "
+                    + idsVehicule.size() + " véhicules", e);
+        }
+        return new ArrayList<>(historiques.values());
+    }
+
+    private EcheanceEntretienDTO mapResultSetToHistorique(ResultSet rs) throws SQLException {
+        EcheanceEntretienDTO historique = new EcheanceEntretienDTO();
+        historique.setIdVehicule(rs.getInt("id_vehicule"));
+        historique.setVehiculeInfo(rs.getString("marque") + " " + rs.getString("modele")
+                + " (" + rs.getString("immatriculation") + ")");
+        historique.setKmActuels(rs.getInt("km_actuels"));
+        historique.setKmDernierEntretien(rs.getInt("km_base"));
+        historique.setDateDernierEntretien(date(rs.getTimestamp("date_base")));
+        return historique;
+    }
+
+    @Override
+    public Map<Integer, Double> findKmParJour(Connection conn, Collection<Integer> idsVehicule, LocalDateTime depuis)
+            throws SQLException {
+        Map<Integer, Double> kmParJour = new HashMap<>();
+        try {
+            for (Map.Entry<Integer, Double> ligne : TraitementParLots.lire(conn,
+                    "SELECT id_vehicule, (MAX(km_reel) - MIN(km_reel)) " +
+                            "/ GREATEST(TIMESTAMPDIFF(DAY, MIN(date_fin_mission), MAX(date_fin_mission)), 1) AS km_jour " +
+                            "FROM MISSION WHERE status = 'Cloturee' AND km_reel IS NOT NULL AND date_fin_mission >= ? " +
+                            "AND id_vehicule", List.of(Timestamp.valueOf(depuis)), idsVehicule,
+                    " GROUP BY id_vehicule HAVING COUNT(*) >= 2",
+                    rs -> Map.entry(rs.getInt("id_vehicule"), rs.getDouble("km_jour")))) {
+                kmParJour.put(ligne.getKey(), ligne.getValue());
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors du calcul du kilométrage journalier de "
+                    + idsVehicule.size() + " véhicules", e);
+        }
+        return kmParJour;
+    }
+
+    @Override
+    public List<Integer> findVehiculesSansEcheance(Connection conn) throws SQLException {
+        String sql = "SELECT v.id_vehicule FROM VEHICULES v " +
+                "LEFT JOIN ECHEANCE_ENTRETIEN p ON p.id_vehicule = v.id_vehicule WHERE p.id_vehicule IS NULL";
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt("id_vehicule"));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la recherche des véhicules sans échéance d'entretien", e);
+        }
+        return ids;
+    }
+
+    @Override
+    public void saveAll(Connection conn, List<EcheanceEntretienDTO> echeances) throws SQLException {
+        try {
+            TraitementParLots.mettreAJour(conn, SQL_UPSERT, echeances, (pstmt, echeance) -> {
+                pstmt.setInt(1, echeance.getIdVehicule());
+                pstmt.setInt(2, echeance.getKmActuels());
+                pstmt.setInt(3, echeance.getKmDernierEntretien());
+                pstmt.setTimestamp(4, timestamp(echeance.getDateDernierEntretien()));
+                pstmt.setInt(5, echeance.getKmProchainEntretien());
+                pstmt.setTimestamp(6, timestamp(echeance.getDateProchainEntretien()));
+                pstmt.setDouble(7, echeance.getKmParJour());
+                pstmt.setTimestamp(8, timestamp(echeance.getDateEcheance()));
+            });
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de l'enregistrement de " + echeances.size()
+                    + " échéances d'entretien", e);
+        }
+    }
+
+    @Override
+    public List<EcheanceEntretienDTO> findDueWithinKm(Connection conn, int km, LocalDateTime modifieesDepuis)
+            throws SQLException {
+        String sql = SQL_SELECT + "WHERE p.km_restants <= ?" + (modifieesDepuis != null ? " AND p.date_maj > ?" : "")
+                + " ORDER BY p.km_restants, p.id_vehicule";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, km);
+            if (modifieesDepuis != null) {
+                pstmt.setTimestamp(2, Timestamp.valueOf(modifieesDepuis));
+            }
+            return lire(pstmt);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la recherche des entretiens dus dans " + km + " km", e);
+        }
+    }
+
+    @Override
+    public List<EcheanceEntretienDTO> findDueByDate(Connection conn, LocalDateTime apres, LocalDateTime modifieesDepuis,
+                                                    LocalDateTime jusqua) throws SQLException {
+        String sql = SQL_SELECT + "WHERE p.date_prochain <= ?";
+        if (apres != null) {
+            sql += modifieesDepuis != null ? " AND (p.date_prochain > ? OR p.date_maj > ?)" : " AND p.date_prochain > ?";
+        }
+        sql += " ORDER BY p.date_prochain, p.id_vehicule";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, Timestamp.valueOf(jusqua));
+            if (apres != null) {
+                pstmt.setTimestamp(2, Timestamp.valueOf(apres));
+                if (modifieesDepuis != null) {
+                    pstmt.setTimestamp(3, Timestamp.valueOf(modifieesDepuis));
+                }
+            }
+            return lire(pstmt);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la recherche des entretiens dus avant le " + jusqua, e);
+        }
+    }
+
+    @Override
+    public List<EcheanceEntretienDTO> findEcheancesAvant(Connection conn, LocalDateTime jusqua) throws SQLException {
+        String sql = SQL_SELECT + "WHERE p.date_echeance <= ? ORDER BY p.date_echeance, p.id_vehicule";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, Timestamp.valueOf(jusqua));
+            return lire(pstmt);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la recherche des échéances d'entretien avant le " + jusqua, e);
+        }
+    }
+
+    private List<EcheanceEntretienDTO> lire(PreparedStatement pstmt) throws SQLException {
+        List<EcheanceEntretienDTO> echeances = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                echeances.add(mapResultSetToEcheance(rs));
+            }
+        }
+        return echeances;
+    }
+}
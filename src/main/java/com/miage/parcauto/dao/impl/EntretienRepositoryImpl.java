@@ -1,6 +1,9 @@
 package main.java.com.miage.parcauto.dao.impl;
 
 import main.java.com.miage.parcauto.dao.EntretienRepository;
+import main.java.com.miage.parcauto.dao.PageCurseur;
+import main.java.com.miage.parcauto.dao.TriCurseur;
+import main.java.com.miage.parcauto.dto.EntretienResumeDTO;
 import main.java.com.miage.parcauto.model.entretien.Entretien;
 import main.java.com.miage.parcauto.model.entretien.StatutOT;
 import main.java.com.miage.parcauto.model.entretien.TypeEntretien;
@@ -15,11 +18,22 @@ import java.sql.Timestamp;
 import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class EntretienRepositoryImpl implements EntretienRepository {
 
+    private final PaginationCurseur<Entretien> pagination = new PaginationCurseur<>("ENTRETIEN", "id_entretien", "date_entree_entr",
+            this::mapResultSetToEntretien, Entretien::getIdEntretien, Entretien::getDateEntree);
+    private final PaginationCurseur<EntretienResumeDTO> paginationResumes = new PaginationCurseur<>(
+            "ENTRETIEN e JOIN VEHICULES v ON v.id_vehicule = e.id_vehicule",
+            "e.id_entretien, e.id_vehicule, v.immatriculation, e.date_entree_entr, e.date_sortie_entr, e.motif_entr, e.type, e.statut_ot, e.cout_entr",
+            "e.id_entretien", "e.date_entree_entr", this::mapResultSetToResume,
+            EntretienResumeDTO::getIdEntretien, EntretienResumeDTO::getDateEntree);
+
     private Entretien mapResultSetToEntretien(ResultSet rs) throws SQLException {
         Entretien entretien = new Entretien();
         entretien.setIdEntretien(rs.getInt("id_entretien"));
@@ -40,6 +54,22 @@ public class EntretienRepositoryImpl implements EntretienRepository {
         return entretien;
     }
 
+    private EntretienResumeDTO mapResultSetToResume(ResultSet rs) throws SQLException {
+        EntretienResumeDTO resume = new EntretienResumeDTO();
+        resume.setIdEntretien(rs.getInt("id_entretien"));
+        resume.setIdVehicule(rs.getInt("id_vehicule"));
+        resume.setImmatriculation(rs.getString("immatriculation"));
+        Timestamp entree = rs.getTimestamp("date_entree_entr");
+        resume.setDateEntree(entree != null ? entree.toLocalDateTime() : null);
+        Timestamp sortie = rs.getTimestamp("date_sortie_entr");
+        resume.setDateSortie(sortie != null ? sortie.toLocalDateTime() : null);
+        resume.setMotif(rs.getString("motif_entr"));
+        resume.setType(rs.getString("type"));
+        resume.setStatutOT(rs.getString("statut_ot"));
+        resume.setCout(rs.getBigDecimal("cout_entr"));
+        return resume;
+    }
+
     @Override
     public Optional<Entretien> findById(Connection conn, Integer id) throws SQLException {
         String sql = "SELECT * FROM ENTRETIEN WHERE id_entretien = ?";
@@ -74,7 +104,7 @@ public class EntretienRepositoryImpl implements EntretienRepository {
     @Override
     public List<Entretien> findAll(Connection conn, int page, int size) throws SQLException {
         List<Entretien> entretiens = new ArrayList<>();
-        String sql = "SELECT * FROM ENTRETIEN LIMIT ? OFFSET ?";
+        String sql = "SELECT * FROM ENTRETIEN ORDER BY id_entretien LIMIT ? OFFSET ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, size);
             pstmt.setInt(2, (page - 1) * size);
@@ -89,33 +119,66 @@ public class EntretienRepositoryImpl implements EntretienRepository {
         return entretiens;
     }
 
+    @Override
+    public PageCurseur<Entretien> findPageAfter(Connection conn, String jeton, int size, TriCurseur tri) throws SQLException {
+        try {
+            return pagination.page(conn, jeton, size, tri);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la lecture paginée (curseur) des entretiens", e);
+        }
+    }
+
+    @Override
+    public PageCurseur<EntretienResumeDTO> findResumesAfter(Connection conn, String jeton, int size, TriCurseur tri)
+            throws SQLException {
+        try {
+            return paginationResumes.page(conn, jeton, size, tri);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la lecture de la liste des entretiens", e);
+        }
+    }
+
+    private static final String SQL_INSERT = "INSERT INTO ENTRETIEN (id_vehicule, type, statut_ot, date_prevue, date_realisation, libelle, details, prestataire, pieces_detachees, cout_estime, cout_reel, km_vehicule, km_prochain_entretien, observation) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE ENTRETIEN SET id_vehicule = ?, type = ?, statut_ot = ?, date_prevue = ?, date_realisation = ?, libelle = ?, details = ?, prestataire = ?, pieces_detachees = ?, cout_estime = ?, cout_reel = ?, km_vehicule = ?, km_prochain_entretien = ?, observation = ? WHERE id_entretien = ?";
+
+    private void lierEntretien(PreparedStatement pstmt, Entretien entretien, String statutParDefaut) throws SQLException {
+        pstmt.setInt(1, entretien.getIdVehicule());
+        pstmt.setString(2, entretien.getType() != null ? entretien.getType().getValeur() : null);
+        pstmt.setString(3, entretien.getStatutOt() != null ? entretien.getStatutOt().getValeur() : statutParDefaut);
+        pstmt.setTimestamp(4,
+                entretien.getDatePrevue() != null ? Timestamp.valueOf(entretien.getDatePrevue()) : null);
+        pstmt.setTimestamp(5,
+                entretien.getDateRealisation() != null ? Timestamp.valueOf(entretien.getDateRealisation()) : null);
+        pstmt.setString(6, entretien.getLibelle());
+        pstmt.setString(7, entretien.getDetails());
+        pstmt.setString(8, entretien.getPrestataire());
+        pstmt.setString(9, entretien.getPiecesDetachees());
+        pstmt.setBigDecimal(10, entretien.getCoutEstime());
+        pstmt.setBigDecimal(11, entretien.getCoutReel());
+        if (entretien.getKmVehicule() != null)
+            pstmt.setInt(12, entretien.getKmVehicule());
+        else
+            pstmt.setNull(12, Types.INTEGER);
+        if (entretien.getKmProchainEntretien() != null)
+            pstmt.setInt(13, entretien.getKmProchainEntretien());
+        else
+            pstmt.setNull(13, Types.INTEGER);
+        pstmt.setString(14, entretien.getObservation());
+    }
+
+    private void lierEntretienCreation(PreparedStatement pstmt, Entretien entretien) throws SQLException {
+        lierEntretien(pstmt, entretien, StatutOT.OUVERT.getValeur()); // Défaut si non fourni
+    }
+
+    private void lierEntretienMiseAJour(PreparedStatement pstmt, Entretien entretien) throws SQLException {
+        lierEntretien(pstmt, entretien, null);
+        pstmt.setInt(15, entretien.getIdEntretien());
+    }
+
     @Override
     public Entretien save(Connection conn, Entretien entretien) throws SQLException {
-        String sql = "INSERT INTO ENTRETIEN (id_vehicule, type, statut_ot, date_prevue, date_realisation, libelle, details, prestataire, pieces_detachees, cout_estime, cout_reel, km_vehicule, km_prochain_entretien, observation) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setInt(1, entretien.getIdVehicule());
-            pstmt.setString(2, entretien.getType() != null ? entretien.getType().getValeur() : null);
-            pstmt.setString(3, entretien.getStatutOt() != null ? entretien.getStatutOt().getValeur()
-                    : StatutOT.OUVERT.getValeur()); // Défaut si non fourni
-            pstmt.setTimestamp(4,
-                    entretien.getDatePrevue() != null ? Timestamp.valueOf(entretien.getDatePrevue()) : null);
-            pstmt.setTimestamp(5,
-                    entretien.getDateRealisation() != null ? Timestamp.valueOf(entretien.getDateRealisation()) : null);
-            pstmt.setString(6, entretien.getLibelle());
-            pstmt.setString(7, entretien.getDetails());
-            pstmt.setString(8, entretien.getPrestataire());
-            pstmt.setString(9, entretien.getPiecesDetachees());
-            pstmt.setBigDecimal(10, entretien.getCoutEstime());
-            pstmt.setBigDecimal(11, entretien.getCoutReel());
-            if (entretien.getKmVehicule() != null)
-                pstmt.setInt(12, entretien.getKmVehicule());
-            else
-                pstmt.setNull(12, Types.INTEGER);
-            if (entretien.getKmProchainEntretien() != null)
-                pstmt.setInt(13, entretien.getKmProchainEntretien());
-            else
-                pstmt.setNull(13, Types.INTEGER);
-            pstmt.setString(14, entretien.getObservation());
+        try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            lierEntretienCreation(pstmt, entretien);
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -136,31 +199,8 @@ public class EntretienRepositoryImpl implements EntretienRepository {
 
     @Override
     public Entretien update(Connection conn, Entretien entretien) throws SQLException {
-        String sql = "UPDATE ENTRETIEN SET id_vehicule = ?, type = ?, statut_ot = ?, date_prevue = ?, date_realisation = ?, libelle = ?, details = ?, prestataire = ?, pieces_detachees = ?, cout_estime = ?, cout_reel = ?, km_vehicule = ?, km_prochain_entretien = ?, observation = ? WHERE id_entretien = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, entretien.getIdVehicule());
-            pstmt.setString(2, entretien.getType() != null ? entretien.getType().getValeur() : null);
-            pstmt.setString(3, entretien.getStatutOt() != null ? entretien.getStatutOt().getValeur() : null);
-            pstmt.setTimestamp(4,
-                    entretien.getDatePrevue() != null ? Timestamp.valueOf(entretien.getDatePrevue()) : null);
-            pstmt.setTimestamp(5,
-                    entretien.getDateRealisation() != null ? Timestamp.valueOf(entretien.getDateRealisation()) : null);
-            pstmt.setString(6, entretien.getLibelle());
-            pstmt.setString(7, entretien.getDetails());
-            pstmt.setString(8, entretien.getPrestataire());
-            pstmt.setString(9, entretien.getPiecesDetachees());
-            pstmt.setBigDecimal(10, entretien.getCoutEstime());
-            pstmt.setBigDecimal(11, entretien.getCoutReel());
-            if (entretien.getKmVehicule() != null)
-                pstmt.setInt(12, entretien.getKmVehicule());
-            else
-                pstmt.setNull(12, Types.INTEGER);
-            if (entretien.getKmProchainEntretien() != null)
-                pstmt.setInt(13, entretien.getKmProchainEntretien());
-            else
-                pstmt.setNull(13, Types.INTEGER);
-            pstmt.setString(14, entretien.getObservation());
-            pstmt.setInt(15, entretien.getIdEntretien());
+        try (PreparedStatement pstmt = conn.prepareStatement(SQL_UPDATE)) {
+            lierEntretienMiseAJour(pstmt, entretien);
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -174,6 +214,34 @@ public class EntretienRepositoryImpl implements EntretienRepository {
         return entretien;
     }
 
+    @Override
+    public List<Entretien> saveAll(Connection conn, List<Entretien> entretiens) throws SQLException {
+        try {
+            return TraitementParLots.inserer(conn, SQL_INSERT, entretiens, this::lierEntretienCreation,
+                    Entretien::setIdEntretien);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la sauvegarde par lots de " + entretiens.size() + " entretiens", e);
+        }
+    }
+
+    @Override
+    public int updateAll(Connection conn, List<Entretien> entretiens) throws SQLException {
+        try {
+            return TraitementParLots.mettreAJour(conn, SQL_UPDATE, entretiens, this::lierEntretienMiseAJour);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la mise à jour par lots de " + entretiens.size() + " entretiens", e);
+        }
+    }
+
+    @Override
+    public int deleteAllById(Connection conn, Collection<Integer> ids) throws SQLException {
+        try {
+            return TraitementParLots.supprimer(conn, "ENTRETIEN", "id_entretien", ids);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la suppression par lots de " + ids.size() + " entretiens", e);
+        }
+    }
+
     @Override
     public boolean delete(Connection conn, Integer id) throws SQLException {
         String sql = "DELETE FROM ENTRETIEN WHERE id_entretien = ?";
@@ -218,6 +286,18 @@ public class EntretienRepositoryImpl implements EntretienRepository {
         return entretiens;
     }
 
+    @Override
+    public Map<Integer, List<Entretien>> findByVehiculeIds(Connection conn, Collection<Integer> idsVehicules)
+            throws SQLException {
+        try {
+            return TraitementParLots.lire(conn, "SELECT * FROM ENTRETIEN WHERE id_vehicule", idsVehicules, this::mapResultSetToEntretien)
+                    .stream()
+                    .collect(Collectors.groupingBy(Entretien::getIdVehicule));
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la recherche des entretiens de " + idsVehicules.size() + " véhicules", e);
+        }
+    }
+
     @Override
     public List<Entretien> findScheduledBetween(Connection conn, LocalDateTime debut, LocalDateTime fin)
             throws SQLException {
@@ -18,7 +18,7 @@ public class EtatVoitureRepositoryImpl implements EtatVoitureRepository {
     private EtatVoiture mapResultSetToEtatVoiture(ResultSet rs) throws SQLException {
         EtatVoiture etatVoiture = new EtatVoiture();
         etatVoiture.setIdEtatVoiture(rs.getInt("id_etat_voiture"));
-        etatVoiture.setLibelle(rs.getString("lib_etat_voiture"));
+        etatVoiture.setLibEtatVoiture(rs.getString("lib_etat_voiture"));
         return etatVoiture;
     }
 
@@ -71,7 +71,7 @@ public class EtatVoitureRepositoryImpl implements EtatVoitureRepository {
     public EtatVoiture save(Connection conn, EtatVoiture etatVoiture) throws SQLException {
         String sql = "INSERT INTO ETAT_VOITURE (lib_etat_voiture) VALUES (?)";
         try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, etatVoiture.getLibelle());
+            pstmt.setString(1, etatVoiture.getLibEtatVoiture());
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
                 throw new DataAccessException("La création de l'état de voiture a échoué, aucune ligne affectée.");
@@ -85,8 +85,9 @@ public class EtatVoitureRepositoryImpl implements EtatVoitureRepository {
             }
         } catch (SQLException e) {
             throw new DataAccessException(
-                    "Erreur lors de la sauvegarde de l'état de voiture: " + etatVoiture.getLibelle(), e);
+                    "Erreur lors de la sauvegarde de l'état de voiture: " + etatVoiture.getLibEtatVoiture(), e);
         }
+        ReferentielCache.getInstance().invalider();
         return etatVoiture;
     }
 
@@ -94,7 +95,7 @@ public class EtatVoitureRepositoryImpl implements EtatVoitureRepository {
     public EtatVoiture update(Connection conn, EtatVoiture etatVoiture) throws SQLException {
         String sql = "UPDATE ETAT_VOITURE SET lib_etat_voiture = ? WHERE id_etat_voiture = ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, etatVoiture.getLibelle());
+            pstmt.setString(1, etatVoiture.getLibEtatVoiture());
             pstmt.setInt(2, etatVoiture.getIdEtatVoiture());
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -105,6 +106,7 @@ public class EtatVoitureRepositoryImpl implements EtatVoitureRepository {
             throw new DataAccessException(
                     "Erreur lors de la mise à jour de l'état de voiture: " + etatVoiture.getIdEtatVoiture(), e);
         }
+        ReferentielCache.getInstance().invalider();
         return etatVoiture;
     }
 
@@ -114,6 +116,7 @@ public class EtatVoitureRepositoryImpl implements EtatVoitureRepository {
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             int affectedRows = pstmt.executeUpdate();
+            ReferentielCache.getInstance().invalider();
             return affectedRows > 0;
         } catch (SQLException e) {
             throw new DataAccessException("Erreur lors de la suppression de l'état de voiture: " + id, e);
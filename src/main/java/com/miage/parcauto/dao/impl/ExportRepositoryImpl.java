@@ -0,0 +1,66 @@
+package main.java.com.miage.parcauto.dao.impl;
+
+import main.java.com.miage.parcauto.dao.ExportRepository;
+import main.java.com.miage.parcauto.exception.DataAccessException;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class ExportRepositoryImpl implements ExportRepository {
+
+    /**
+     * Avec MySQL Connector/J, une taille de lot de Integer.MIN_VALUE sur un curseur
+     * TYPE_FORWARD_ONLY / CONCUR_READ_ONLY active la lecture ligne à ligne au lieu du
+     * chargement complet du résultat en mémoire.
+     */
+    private static final int FETCH_SIZE_STREAMING = Integer.MIN_VALUE;
+
+    private static final String SQL_VEHICULES = "SELECT v.id_vehicule AS `ID`, v.immatriculation AS `Immatriculation`, " +
+            "v.marque AS `Marque`, v.modele AS `Modele`, v.energie AS `Energie`, ev.lib_etat_voiture AS `Etat`, " +
+            "v.date_acquisition AS `Date Acquisition`, v.prix_vehicule AS `Prix`, v.km_actuels AS `Km Actuels` " +
+            "FROM VEHICULES v LEFT JOIN ETAT_VOITURE ev ON ev.id_etat_voiture = v.id_etat_voiture " +
+            "ORDER BY v.id_vehicule";
+
+    private static final String SQL_ENTRETIENS = "SELECT e.id_entretien AS `ID Entretien`, v.immatriculation AS `Immatriculation`, " +
+            "e.date_entree_entr AS `Date Entree`, e.date_sortie_entr AS `Date Sortie`, e.motif_entr AS `Motif`, " +
+            "e.type AS `Type`, e.lieu_entr AS `Lieu`, e.cout_entr AS `Cout Reel`, e.statut_ot AS `Statut` " +
+            "FROM ENTRETIEN e JOIN VEHICULES v ON v.id_vehicule = e.id_vehicule " +
+            "ORDER BY e.id_vehicule, e.date_entree_entr";
+
+    private static final String SQL_MISSIONS = "SELECT m.id_mission AS `ID Mission`, v.immatriculation AS `Immatriculation`, " +
+            "m.lib_mission AS `Libelle`, m.site AS `Site`, m.date_debut_mission AS `Date Debut`, " +
+            "m.date_fin_mission AS `Date Fin`, m.km_prevu AS `Km Prevu`, m.km_reel AS `Km Reel`, " +
+            "m.status AS `Statut`, m.cout_total AS `Cout Total` " +
+            "FROM MISSION m JOIN VEHICULES v ON v.id_vehicule = m.id_vehicule " +
+            "ORDER BY m.id_vehicule, m.date_debut_mission";
+
+    @Override
+    public void parcourirVehicules(Connection conn, TraitementCurseur traitement) throws SQLException, IOException {
+        parcourir(conn, SQL_VEHICULES, traitement, "véhicules");
+    }
+
+    @Override
+    public void parcourirEntretiens(Connection conn, TraitementCurseur traitement) throws SQLException, IOException {
+        parcourir(conn, SQL_ENTRETIENS, traitement, "entretiens");
+    }
+
+    @Override
+    public void parcourirMissions(Connection conn, TraitementCurseur traitement) throws SQLException, IOException {
+        parcourir(conn, SQL_MISSIONS, traitement, "missions");
+    }
+
+    private void parcourir(Connection conn, String sql, TraitementCurseur traitement, String libelle)
+            throws SQLException, IOException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(FETCH_SIZE_STREAMING);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                traitement.traiter(rs);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors du parcours des " + libelle + " pour l'export.", e);
+        }
+    }
+}
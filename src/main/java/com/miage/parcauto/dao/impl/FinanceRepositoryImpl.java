@@ -2,113 +2,172 @@ package main.java.com.miage.parcauto.dao.impl;
 
 import main.java.com.miage.parcauto.dao.FinanceRepository;
 import main.java.com.miage.parcauto.dto.BilanFinancierDTO;
+import main.java.com.miage.parcauto.dto.BilanFlotteDTO;
 import main.java.com.miage.parcauto.dto.CoutEntretienDTO;
+import main.java.com.miage.parcauto.dto.TcoVehiculeDTO;
 import main.java.com.miage.parcauto.exception.DataAccessException;
+import main.java.com.miage.parcauto.model.finance.CategorieCout;
+import main.java.com.miage.parcauto.model.vehicule.EtatVoiture;
 
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 public class FinanceRepositoryImpl implements FinanceRepository {
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Lit la table d'agrégats COUT_MENSUEL : la période est étendue aux mois entiers
+     * qu'elle recouvre.
+     */
     @Override
     public BilanFinancierDTO getBilanPeriode(Connection conn, LocalDate debut, LocalDate fin) throws SQLException {
         BilanFinancierDTO bilan = new BilanFinancierDTO();
-        Timestamp tsDebut = Timestamp.valueOf(debut.atStartOfDay());
-        Timestamp tsFin = Timestamp.valueOf(fin.plusDays(1).atStartOfDay()); // Exclusif pour la fin
-
-        // Note: Le calcul des revenus de mission est complexe s'il n'y a pas de champ
-        // "prix" dans Mission.
-        // On va supposer pour l'instant que ce calcul est soit simplifié, soit non
-        // inclus directement ici.
-        // Pour cet exemple, nous allons nous concentrer sur les coûts.
-        // Vous devrez adapter cette requête en fonction de comment les revenus sont
-        // modélisés.
-
-        // Coûts des entretiens
-        String sqlCoutsEntretiens = "SELECT SUM(cout_reel) FROM ENTRETIEN WHERE date_realisation >= ? AND date_realisation < ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sqlCoutsEntretiens)) {
-            pstmt.setTimestamp(1, tsDebut);
-            pstmt.setTimestamp(2, tsFin);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    BigDecimal cout = rs.getBigDecimal(1);
-                    bilan.setTotalCoutsEntretiens(cout != null ? cout : BigDecimal.ZERO);
-                }
-            }
-        } catch (SQLException e) {
-            throw new DataAccessException("Erreur lors du calcul des coûts d'entretiens pour le bilan.", e);
-        }
+        bilan.setDateDebut(debut);
+        bilan.setDateFin(fin);
+        BigDecimal depensesVehicules = BigDecimal.ZERO;
+        BigDecimal depensesMissions = BigDecimal.ZERO;
 
-        // Coûts des assurances (prorata complexe, ici simplifié: assurances actives
-        // pendant la période)
-        String sqlCoutsAssurances = "SELECT SUM(prix) FROM ASSURANCE WHERE date_debut < ? AND date_fin > ?"; // Simplifié
-        try (PreparedStatement pstmt = conn.prepareStatement(sqlCoutsAssurances)) {
-            pstmt.setTimestamp(1, tsFin);
-            pstmt.setTimestamp(2, tsDebut);
+        // Les revenus (mensualités des sociétaires) ne sont pas rattachés aux véhicules :
+        // le bilan ne porte ici que sur les coûts.
+        String sql = "SELECT categorie, SUM(montant) AS total FROM COUT_MENSUEL " +
+                "WHERE mois >= ? AND mois <= ? GROUP BY categorie";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDate(1, Date.valueOf(YearMonth.from(debut).atDay(1)));
+            pstmt.setDate(2, Date.valueOf(YearMonth.from(fin).atDay(1)));
             try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    BigDecimal cout = rs.getBigDecimal(1);
-                    bilan.setTotalCoutsAssurances(cout != null ? cout : BigDecimal.ZERO);
+                while (rs.next()) {
+                    BigDecimal total = rs.getBigDecimal("total");
+                    switch (CategorieCout.fromLibelle(rs.getString("categorie"))) {
+                        case CARBURANT:
+                        case FRAIS_ANNEXES:
+                            depensesMissions = depensesMissions.add(total);
+                            break;
+                        default: // Entretiens et assurances
+                            depensesVehicules = depensesVehicules.add(total);
+                    }
                 }
             }
         } catch (SQLException e) {
-            throw new DataAccessException("Erreur lors du calcul des coûts d'assurances pour le bilan.", e);
+            throw new DataAccessException("Erreur lors du calcul du bilan du " + debut + " au " + fin, e);
         }
 
-        // Coûts des dépenses de mission (carburant, frais annexes)
-        String sqlDepensesMissions = "SELECT SUM(montant) FROM DEPENSE_MISSION WHERE date_depense >= ? AND date_depense < ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sqlDepensesMissions)) {
-            pstmt.setTimestamp(1, tsDebut);
-            pstmt.setTimestamp(2, tsFin);
+        bilan.setTotalDepensesVehicules(depensesVehicules);
+        bilan.setTotalDepensesMissions(depensesMissions);
+        bilan.setSoldeGlobal(bilan.getTotalRevenus().subtract(depensesVehicules).subtract(depensesMissions));
+        return bilan;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Le coût du mois vient d'une ligne de COUT_MENSUEL par véhicule (index sur mois et
+     * catégorie) ; il est joint à chaque groupe d'états pour tenir en une seule requête, et reste
+     * lu lorsque la flotte est vide.
+     */
+    @Override
+    public BilanFlotteDTO getBilanFlotte(Connection conn, YearMonth mois) throws SQLException {
+        String sql = "SELECT g.id_etat_voiture, g.lib_etat_voiture, g.nb_vehicules, g.km_total, c.cout_entretiens " +
+                "FROM (SELECT COALESCE(SUM(montant), 0) AS cout_entretiens FROM COUT_MENSUEL " +
+                "WHERE mois = ? AND categorie = ?) c " +
+                "LEFT JOIN (SELECT v.id_etat_voiture, ev.lib_etat_voiture, COUNT(*) AS nb_vehicules, " +
+                "COALESCE(SUM(v.km_actuels), 0) AS km_total FROM VEHICULES v " +
+                "LEFT JOIN ETAT_VOITURE ev ON ev.id_etat_voiture = v.id_etat_voiture " +
+                "GROUP BY v.id_etat_voiture, ev.lib_etat_voiture) g ON 1 = 1 " +
+                "ORDER BY g.id_etat_voiture";
+        BilanFlotteDTO bilan = new BilanFlotteDTO();
+        Map<String, Integer> repartition = new LinkedHashMap<>();
+        int total = 0;
+        long kilometrage = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDate(1, Date.valueOf(mois.atDay(1)));
+            pstmt.setString(2, CategorieCout.ENTRETIEN.getLibelle());
             try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    BigDecimal cout = rs.getBigDecimal(1);
-                    bilan.setTotalDepensesMissions(cout != null ? cout : BigDecimal.ZERO);
+                while (rs.next()) {
+                    bilan.setCoutTotalEntretiensMoisEnCours(rs.getBigDecimal("cout_entretiens"));
+                    int nombre = rs.getInt("nb_vehicules");
+                    if (nombre == 0) {
+                        continue; // Flotte vide : seule la ligne des coûts est renvoyée
+                    }
+                    total += nombre;
+                    kilometrage += rs.getLong("km_total");
+                    String libelle = rs.getString("lib_etat_voiture");
+                    repartition.merge(libelle != null ? libelle : "Non renseigné", nombre, Integer::sum);
+                    int idEtat = rs.getInt("id_etat_voiture");
+                    if (!rs.wasNull()) {
+                        affecterCompteurEtat(bilan, idEtat, nombre);
+                    }
                 }
             }
         } catch (SQLException e) {
-            throw new DataAccessException("Erreur lors du calcul des dépenses de missions pour le bilan.", e);
+            throw new DataAccessException("Erreur lors du calcul du bilan de la flotte pour " + mois, e);
         }
-
-        // Calcul du résultat net (simplifié ici, car revenus non calculés)
-        // resultatNet = Revenus - (Entretiens + Assurances + DepensesMissions)
-        bilan.setResultatNet(
-                bilan.getTotalRevenusMissions()
-                        .subtract(bilan.getTotalCoutsEntretiens())
-                        .subtract(bilan.getTotalCoutsAssurances())
-                        .subtract(bilan.getTotalDepensesMissions()));
-
+        bilan.setNombreTotalVehicules(total);
+        bilan.setKilometrageTotalFlotte(kilometrage);
+        bilan.setRepartitionParEtat(repartition);
         return bilan;
     }
 
+    private static void affecterCompteurEtat(BilanFlotteDTO bilan, int idEtat, int nombre) {
+        switch (idEtat) {
+            case EtatVoiture.ID_DISPONIBLE:
+                bilan.setNombreVehiculesDisponibles(bilan.getNombreVehiculesDisponibles() + nombre);
+                break;
+            case EtatVoiture.ID_EN_MISSION:
+                bilan.setNombreVehiculesEnMission(bilan.getNombreVehiculesEnMission() + nombre);
+                break;
+            case EtatVoiture.ID_EN_ENTRETIEN:
+                bilan.setNombreVehiculesEnEntretien(bilan.getNombreVehiculesEnEntretien() + nombre);
+                break;
+            case EtatVoiture.ID_HORS_SERVICE:
+                bilan.setNombreVehiculesHorsService(bilan.getNombreVehiculesHorsService() + nombre);
+                break;
+            default: // Autres états (attribué, panne...) : visibles dans la répartition
+        }
+    }
+
     @Override
     public List<CoutEntretienDTO> getCoutEntretienParVehiculePourAnnee(Connection conn, int annee) throws SQLException {
         List<CoutEntretienDTO> couts = new ArrayList<>();
-        String sql = "SELECT v.id_vehicule, v.immatriculation, v.marque, v.modele, SUM(e.cout_reel) as cout_total, COUNT(e.id_entretien) as nb_entretiens "
-                +
-                "FROM VEHICULES v " +
-                "JOIN ENTRETIEN e ON v.id_vehicule = e.id_vehicule " +
-                "WHERE YEAR(e.date_realisation) = ? AND e.cout_reel IS NOT NULL " +
+        // Intervalle sur la clé (mois) plutôt que YEAR(...) pour profiter de l'index
+        String sql = "SELECT v.id_vehicule, v.immatriculation, v.marque, v.modele, " +
+                "SUM(c.montant) AS cout_total, SUM(c.nb_operations) AS nb_entretiens " +
+                "FROM COUT_MENSUEL c JOIN VEHICULES v ON v.id_vehicule = c.id_vehicule " +
+                "WHERE c.categorie = 'Entretien' AND c.mois >= ? AND c.mois < ? " +
                 "GROUP BY v.id_vehicule, v.immatriculation, v.marque, v.modele " +
                 "ORDER BY cout_total DESC";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, annee);
+            pstmt.setDate(1, Date.valueOf(LocalDate.of(annee, 1, 1)));
+            pstmt.setDate(2, Date.valueOf(LocalDate.of(annee + 1, 1, 1)));
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     CoutEntretienDTO dto = new CoutEntretienDTO();
                     dto.setIdVehicule(rs.getInt("id_vehicule"));
                     dto.setImmatriculationVehicule(rs.getString("immatriculation"));
-                    dto.setMarqueVehicule(rs.getString("marque"));
-                    dto.setModeleVehicule(rs.getString("modele"));
-                    dto.setCoutTotalEntretien(rs.getBigDecimal("cout_total"));
-                    dto.setNombreEntretiens(rs.getInt("nb_entretiens"));
+                    dto.setVehiculeInfo(rs.getString("marque") + " " + rs.getString("modele"));
+                    dto.setAnnee(annee);
+                    dto.setPeriodeDebut(LocalDate.of(annee, 1, 1));
+                    dto.setPeriodeFin(LocalDate.of(annee, 12, 31));
+                    BigDecimal total = rs.getBigDecimal("cout_total");
+                    int nombre = rs.getInt("nb_entretiens");
+                    dto.setCoutTotalEntretiens(total);
+                    dto.setTotalCoutsEntretien(total);
+                    dto.setNombreEntretiens(nombre);
+                    dto.setCoutMoyenParEntretien(nombre > 0
+                            ? total.divide(BigDecimal.valueOf(nombre), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO);
                     couts.add(dto);
                 }
             }
@@ -118,4 +177,126 @@ public class FinanceRepositoryImpl implements FinanceRepository {
         }
         return couts;
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<TcoVehiculeDTO> getCoutsTcoParVehicule(Connection conn, LocalDate debut, LocalDate fin,
+                                                       Collection<Integer> idsVehicules) throws SQLException {
+        if ((debut == null) != (fin == null)) {
+            throw new IllegalArgumentException("La période doit être bornée des deux côtés, ou absente.");
+        }
+        boolean periode = debut != null;
+        Timestamp tsDebut = periode ? Timestamp.valueOf(debut.atStartOfDay()) : null;
+        Timestamp tsFin = periode ? Timestamp.valueOf(fin.plusDays(1).atStartOfDay()) : null; // Exclusif pour la fin
+        List<Object> parametres = new ArrayList<>();
+
+        // Chaque sous-requête est agrégée par véhicule avant la jointure, ce qui évite le
+        // produit cartésien entre entretiens, dépenses et assurances d'un même véhicule.
+        StringBuilder sql = new StringBuilder(
+                "SELECT v.id_vehicule, v.immatriculation, v.marque, v.modele, v.prix_vehicule, " +
+                "v.date_acquisition, v.date_ammortissement, v.km_actuels, " +
+                "COALESCE(e.cout_entretiens, 0) AS cout_entretiens, " +
+                "COALESCE(d.cout_carburant, 0) AS cout_carburant, " +
+                "COALESCE(d.cout_autres, 0) AS cout_autres, " +
+                "COALESCE(a.cout_assurances, 0) AS cout_assurances " +
+                "FROM VEHICULES v ");
+
+        sql.append("LEFT JOIN (SELECT id_vehicule, SUM(cout_entr) AS cout_entretiens FROM ENTRETIEN " +
+                "WHERE cout_entr IS NOT NULL ");
+        if (periode) {
+            sql.append("AND date_sortie_entr >= ? AND date_sortie_entr < ? ");
+            parametres.add(tsDebut);
+            parametres.add(tsFin);
+        }
+        sql.append("GROUP BY id_vehicule) e ON e.id_vehicule = v.id_vehicule ");
+
+        sql.append("LEFT JOIN (SELECT m.id_vehicule, " +
+                "SUM(CASE WHEN dm.nature = 'Carburant' THEN dm.montant ELSE 0 END) AS cout_carburant, " +
+                "SUM(CASE WHEN dm.nature <> 'Carburant' THEN dm.montant ELSE 0 END) AS cout_autres " +
+                "FROM DEPENSE_MISSION dm JOIN MISSION m ON m.id_mission = dm.id_mission ");
+        if (periode) {
+            sql.append("WHERE m.date_debut_mission >= ? AND m.date_debut_mission < ? ");
+            parametres.add(tsDebut);
+            parametres.add(tsFin);
+        }
+        sql.append("GROUP BY m.id_vehicule) d ON d.id_vehicule = v.id_vehicule ");
+
+        // Une prime couvrant plusieurs véhicules est répartie à parts égales entre eux
+        String assurancesPartagees = "FROM COUVRIR c " +
+                "JOIN ASSURANCE a ON a.num_carte_assurance = c.num_carte_assurance " +
+                "JOIN (SELECT num_carte_assurance, COUNT(*) AS nb_vehicules FROM COUVRIR " +
+                "GROUP BY num_carte_assurance) n ON n.num_carte_assurance = c.num_carte_assurance ";
+        if (periode) {
+            // Prorata de la part au nombre de secondes du contrat comprises dans la période
+            sql.append("LEFT JOIN (SELECT c.id_vehicule, ROUND(SUM(a.cout_assurance / n.nb_vehicules * COALESCE(" +
+                    "TIMESTAMPDIFF(SECOND, GREATEST(a.date_debut_assurance, ?), LEAST(a.date_fin_assurance, ?)) " +
+                    "/ NULLIF(TIMESTAMPDIFF(SECOND, a.date_debut_assurance, a.date_fin_assurance), 0), 1)), 2) " +
+                    "AS cout_assurances " + assurancesPartagees +
+                    "WHERE a.cout_assurance IS NOT NULL AND a.date_debut_assurance < ? AND a.date_fin_assurance > ? ");
+            parametres.add(tsDebut);
+            parametres.add(tsFin);
+            parametres.add(tsFin);
+            parametres.add(tsDebut);
+        } else {
+            sql.append("LEFT JOIN (SELECT c.id_vehicule, ROUND(SUM(a.cout_assurance / n.nb_vehicules), 2) " +
+                    "AS cout_assurances " + assurancesPartagees);
+        }
+        sql.append("GROUP BY c.id_vehicule) a ON a.id_vehicule = v.id_vehicule ");
+
+        List<String> conditions = new ArrayList<>();
+        if (periode) {
+            conditions.add("(v.date_acquisition IS NULL OR v.date_acquisition < ?)");
+            parametres.add(tsFin);
+        }
+        if (idsVehicules != null) {
+            conditions.add("v.id_vehicule"); // Complétée par la liste IN (...) de chaque lot
+        }
+        if (!conditions.isEmpty()) {
+            sql.append("WHERE ").append(String.join(" AND ", conditions));
+        }
+
+        try {
+            if (idsVehicules != null) {
+                return TraitementParLots.lire(conn, sql.toString(), parametres, idsVehicules,
+                        " ORDER BY v.id_vehicule", this::lireLigneTco);
+            }
+            List<TcoVehiculeDTO> lignes = new ArrayList<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql.append(" ORDER BY v.id_vehicule").toString())) {
+                int index = 1;
+                for (Object parametre : parametres) {
+                    pstmt.setObject(index++, parametre);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        lignes.add(lireLigneTco(rs));
+                    }
+                }
+            }
+            return lignes;
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de l'agrégation des coûts TCO par véhicule.", e);
+        }
+    }
+
+    private TcoVehiculeDTO lireLigneTco(ResultSet rs) throws SQLException {
+        TcoVehiculeDTO ligne = new TcoVehiculeDTO();
+        ligne.setIdVehicule(rs.getInt("id_vehicule"));
+        ligne.setImmatriculation(rs.getString("immatriculation"));
+        ligne.setMarque(rs.getString("marque"));
+        ligne.setModele(rs.getString("modele"));
+        ligne.setVehiculeInfo(rs.getString("marque") + " " + rs.getString("modele")
+                + " (" + rs.getString("immatriculation") + ")");
+        BigDecimal prix = rs.getBigDecimal("prix_vehicule");
+        ligne.setCoutAchat(prix != null ? prix : BigDecimal.ZERO);
+        Timestamp acquisition = rs.getTimestamp("date_acquisition");
+        ligne.setDateAcquisition(acquisition != null ? acquisition.toLocalDateTime() : null);
+        Timestamp amortissement = rs.getTimestamp("date_ammortissement");
+        ligne.setDateAmortissement(amortissement != null ? amortissement.toLocalDateTime() : null);
+        int km = rs.getInt("km_actuels");
+        ligne.setKmActuels(rs.wasNull() ? null : km);
+        ligne.setCoutTotalEntretiens(rs.getBigDecimal("cout_entretiens"));
+        ligne.setCoutTotalCarburant(rs.getBigDecimal("cout_carburant"));
+        ligne.setCoutTotalAutresDepenses(rs.getBigDecimal("cout_autres"));
+        ligne.setCoutTotalAssurances(rs.getBigDecimal("cout_assurances"));
+        return ligne;
+    }
+}
@@ -18,13 +18,13 @@ public class FonctionRepositoryImpl implements FonctionRepository {
     private Fonction mapResultSetToFonction(ResultSet rs) throws SQLException {
         Fonction fonction = new Fonction();
         fonction.setIdFonction(rs.getInt("id_fonction"));
-        fonction.setLibelle(rs.getString("libelle"));
+        fonction.setLibFonction(rs.getString("lib_fonction"));
         return fonction;
     }
 
     @Override
     public Optional<Fonction> findById(Connection conn, Integer id) throws SQLException {
-        String sql = "SELECT id_fonction, libelle FROM FONCTION WHERE id_fonction = ?";
+        String sql = "SELECT id_fonction, lib_fonction FROM FONCTION WHERE id_fonction = ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -39,7 +39,7 @@ public class FonctionRepositoryImpl implements FonctionRepository {
     @Override
     public List<Fonction> findAll(Connection conn) throws SQLException {
         List<Fonction> fonctions = new ArrayList<>();
-        String sql = "SELECT id_fonction, libelle FROM FONCTION";
+        String sql = "SELECT id_fonction, lib_fonction FROM FONCTION";
         try (Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
@@ -52,7 +52,7 @@ public class FonctionRepositoryImpl implements FonctionRepository {
     @Override
     public List<Fonction> findAll(Connection conn, int page, int size) throws SQLException {
         List<Fonction> fonctions = new ArrayList<>();
-        String sql = "SELECT id_fonction, libelle FROM FONCTION LIMIT ? OFFSET ?";
+        String sql = "SELECT id_fonction, lib_fonction FROM FONCTION LIMIT ? OFFSET ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, size);
             pstmt.setInt(2, (page - 1) * size);
@@ -69,9 +69,9 @@ public class FonctionRepositoryImpl implements FonctionRepository {
 
     @Override
     public Fonction save(Connection conn, Fonction fonction) throws SQLException {
-        String sql = "INSERT INTO FONCTION (libelle) VALUES (?)";
+        String sql = "INSERT INTO FONCTION (lib_fonction) VALUES (?)";
         try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, fonction.getLibelle());
+            pstmt.setString(1, fonction.getLibFonction());
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
                 throw new DataAccessException("La création de la fonction a échoué, aucune ligne affectée.");
@@ -84,16 +84,17 @@ public class FonctionRepositoryImpl implements FonctionRepository {
                 }
             }
         } catch (SQLException e) {
-            throw new DataAccessException("Erreur lors de la sauvegarde de la fonction: " + fonction.getLibelle(), e);
+            throw new DataAccessException("Erreur lors de la sauvegarde de la fonction: " + fonction.getLibFonction(), e);
         }
+        ReferentielCache.getInstance().invalider();
         return fonction;
     }
 
     @Override
     public Fonction update(Connection conn, Fonction fonction) throws SQLException {
-        String sql = "UPDATE FONCTION SET libelle = ? WHERE id_fonction = ?";
+        String sql = "UPDATE FONCTION SET lib_fonction = ? WHERE id_fonction = ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, fonction.getLibelle());
+            pstmt.setString(1, fonction.getLibFonction());
             pstmt.setInt(2, fonction.getIdFonction());
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -104,6 +105,7 @@ public class FonctionRepositoryImpl implements FonctionRepository {
             throw new DataAccessException("Erreur lors de la mise à jour de la fonction: " + fonction.getIdFonction(),
                     e);
         }
+        ReferentielCache.getInstance().invalider();
         return fonction;
     }
 
@@ -113,6 +115,7 @@ public class FonctionRepositoryImpl implements FonctionRepository {
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             int affectedRows = pstmt.executeUpdate();
+            ReferentielCache.getInstance().invalider();
             return affectedRows > 0;
         } catch (SQLException e) {
             throw new DataAccessException("Erreur lors de la suppression de la fonction: " + id, e);
@@ -135,7 +138,7 @@ public class FonctionRepositoryImpl implements FonctionRepository {
 
     @Override
     public Optional<Fonction> findByLibelle(Connection conn, String libelle) throws SQLException {
-        String sql = "SELECT id_fonction, libelle FROM FONCTION WHERE libelle = ?";
+        String sql = "SELECT id_fonction, lib_fonction FROM FONCTION WHERE lib_fonction = ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, libelle);
             try (ResultSet rs = pstmt.executeQuery()) {
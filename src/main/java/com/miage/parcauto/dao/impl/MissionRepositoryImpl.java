@@ -1,6 +1,9 @@
 package main.java.com.miage.parcauto.dao.impl;
 
 import main.java.com.miage.parcauto.dao.MissionRepository;
+import main.java.com.miage.parcauto.dao.PageCurseur;
+import main.java.com.miage.parcauto.dao.TriCurseur;
+import main.java.com.miage.parcauto.dto.MissionResumeDTO;
 import main.java.com.miage.parcauto.model.mission.Mission;
 import main.java.com.miage.parcauto.model.mission.StatutMission;
 import main.java.com.miage.parcauto.exception.DataAccessException;
@@ -14,11 +17,22 @@ import java.sql.Timestamp;
 import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class MissionRepositoryImpl implements MissionRepository {
 
+    private final PaginationCurseur<Mission> pagination = new PaginationCurseur<>("MISSION", "id_mission", "date_debut_mission",
+            this::mapResultSetToMission, Mission::getIdMission, Mission::getDateDebut);
+    private final PaginationCurseur<MissionResumeDTO> paginationResumes = new PaginationCurseur<>(
+            "MISSION m JOIN VEHICULES v ON v.id_vehicule = m.id_vehicule",
+            "m.id_mission, m.id_vehicule, v.immatriculation, m.lib_mission, m.site, m.date_debut_mission, m.date_fin_mission, m.status",
+            "m.id_mission", "m.date_debut_mission", this::mapResultSetToResume,
+            MissionResumeDTO::getIdMission, MissionResumeDTO::getDateDebut);
+
     private Mission mapResultSetToMission(ResultSet rs) throws SQLException {
         Mission mission = new Mission();
         mission.setIdMission(rs.getInt("id_mission"));
@@ -43,6 +57,21 @@ public class MissionRepositoryImpl implements MissionRepository {
         return mission;
     }
 
+    private MissionResumeDTO mapResultSetToResume(ResultSet rs) throws SQLException {
+        MissionResumeDTO resume = new MissionResumeDTO();
+        resume.setIdMission(rs.getInt("id_mission"));
+        resume.setIdVehicule(rs.getInt("id_vehicule"));
+        resume.setImmatriculation(rs.getString("immatriculation"));
+        resume.setLibMission(rs.getString("lib_mission"));
+        resume.setSite(rs.getString("site"));
+        Timestamp debut = rs.getTimestamp("date_debut_mission");
+        resume.setDateDebut(debut != null ? debut.toLocalDateTime() : null);
+        Timestamp fin = rs.getTimestamp("date_fin_mission");
+        resume.setDateFin(fin != null ? fin.toLocalDateTime() : null);
+        resume.setStatus(rs.getString("status"));
+        return resume;
+    }
+
     @Override
     public Optional<Mission> findById(Connection conn, Integer id) throws SQLException {
         String sql = "SELECT * FROM MISSION WHERE id_mission = ?";
@@ -77,7 +106,7 @@ public class MissionRepositoryImpl implements MissionRepository {
     @Override
     public List<Mission> findAll(Connection conn, int page, int size) throws SQLException {
         List<Mission> missions = new ArrayList<>();
-        String sql = "SELECT * FROM MISSION LIMIT ? OFFSET ?";
+        String sql = "SELECT * FROM MISSION ORDER BY id_mission LIMIT ? OFFSET ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, size);
             pstmt.setInt(2, (page - 1) * size);
@@ -92,31 +121,64 @@ public class MissionRepositoryImpl implements MissionRepository {
         return missions;
     }
 
+    @Override
+    public PageCurseur<Mission> findPageAfter(Connection conn, String jeton, int size, TriCurseur tri) throws SQLException {
+        try {
+            return pagination.page(conn, jeton, size, tri);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la lecture paginée (curseur) des missions", e);
+        }
+    }
+
+    @Override
+    public PageCurseur<MissionResumeDTO> findResumesAfter(Connection conn, String jeton, int size, TriCurseur tri)
+            throws SQLException {
+        try {
+            return paginationResumes.page(conn, jeton, size, tri);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la lecture de la liste des missions", e);
+        }
+    }
+
+    private static final String SQL_INSERT = "INSERT INTO MISSION (id_vehicule, id_personnel, id_compte_societaire, status, date_debut, date_fin, motif, destination, km_depart, km_retour, observation) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE MISSION SET id_vehicule = ?, id_personnel = ?, id_compte_societaire = ?, status = ?, date_debut = ?, date_fin = ?, motif = ?, destination = ?, km_depart = ?, km_retour = ?, observation = ? WHERE id_mission = ?";
+
+    private void lierMission(PreparedStatement pstmt, Mission mission, String statusParDefaut) throws SQLException {
+        pstmt.setInt(1, mission.getIdVehicule());
+        pstmt.setInt(2, mission.getIdPersonnel());
+        if (mission.getIdCompteSocietaire() != null)
+            pstmt.setInt(3, mission.getIdCompteSocietaire());
+        else
+            pstmt.setNull(3, Types.INTEGER);
+        pstmt.setString(4, mission.getStatus() != null ? mission.getStatus().getValeur() : statusParDefaut);
+        pstmt.setTimestamp(5, mission.getDateDebut() != null ? Timestamp.valueOf(mission.getDateDebut()) : null);
+        pstmt.setTimestamp(6, mission.getDateFin() != null ? Timestamp.valueOf(mission.getDateFin()) : null);
+        pstmt.setString(7, mission.getMotif());
+        pstmt.setString(8, mission.getDestination());
+        if (mission.getKmDepart() != null)
+            pstmt.setInt(9, mission.getKmDepart());
+        else
+            pstmt.setNull(9, Types.INTEGER);
+        if (mission.getKmRetour() != null)
+            pstmt.setInt(10, mission.getKmRetour());
+        else
+            pstmt.setNull(10, Types.INTEGER);
+        pstmt.setString(11, mission.getObservation());
+    }
+
+    private void lierMissionCreation(PreparedStatement pstmt, Mission mission) throws SQLException {
+        lierMission(pstmt, mission, StatutMission.PLANIFIEE.getValeur()); // Défaut si non fourni
+    }
+
+    private void lierMissionMiseAJour(PreparedStatement pstmt, Mission mission) throws SQLException {
+        lierMission(pstmt, mission, null);
+        pstmt.setInt(12, mission.getIdMission());
+    }
+
     @Override
     public Mission save(Connection conn, Mission mission) throws SQLException {
-        String sql = "INSERT INTO MISSION (id_vehicule, id_personnel, id_compte_societaire, status, date_debut, date_fin, motif, destination, km_depart, km_retour, observation) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setInt(1, mission.getIdVehicule());
-            pstmt.setInt(2, mission.getIdPersonnel());
-            if (mission.getIdCompteSocietaire() != null)
-                pstmt.setInt(3, mission.getIdCompteSocietaire());
-            else
-                pstmt.setNull(3, Types.INTEGER);
-            pstmt.setString(4, mission.getStatus() != null ? mission.getStatus().getValeur()
-                    : StatutMission.PLANIFIEE.getValeur()); // Défaut si non fourni
-            pstmt.setTimestamp(5, mission.getDateDebut() != null ? Timestamp.valueOf(mission.getDateDebut()) : null);
-            pstmt.setTimestamp(6, mission.getDateFin() != null ? Timestamp.valueOf(mission.getDateFin()) : null);
-            pstmt.setString(7, mission.getMotif());
-            pstmt.setString(8, mission.getDestination());
-            if (mission.getKmDepart() != null)
-                pstmt.setInt(9, mission.getKmDepart());
-            else
-                pstmt.setNull(9, Types.INTEGER);
-            if (mission.getKmRetour() != null)
-                pstmt.setInt(10, mission.getKmRetour());
-            else
-                pstmt.setNull(10, Types.INTEGER);
-            pstmt.setString(11, mission.getObservation());
+        try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            lierMissionCreation(pstmt, mission);
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -137,29 +199,8 @@ public class MissionRepositoryImpl implements MissionRepository {
 
     @Override
     public Mission update(Connection conn, Mission mission) throws SQLException {
-        String sql = "UPDATE MISSION SET id_vehicule = ?, id_personnel = ?, id_compte_societaire = ?, status = ?, date_debut = ?, date_fin = ?, motif = ?, destination = ?, km_depart = ?, km_retour = ?, observation = ? WHERE id_mission = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, mission.getIdVehicule());
-            pstmt.setInt(2, mission.getIdPersonnel());
-            if (mission.getIdCompteSocietaire() != null)
-                pstmt.setInt(3, mission.getIdCompteSocietaire());
-            else
-                pstmt.setNull(3, Types.INTEGER);
-            pstmt.setString(4, mission.getStatus() != null ? mission.getStatus().getValeur() : null);
-            pstmt.setTimestamp(5, mission.getDateDebut() != null ? Timestamp.valueOf(mission.getDateDebut()) : null);
-            pstmt.setTimestamp(6, mission.getDateFin() != null ? Timestamp.valueOf(mission.getDateFin()) : null);
-            pstmt.setString(7, mission.getMotif());
-            pstmt.setString(8, mission.getDestination());
-            if (mission.getKmDepart() != null)
-                pstmt.setInt(9, mission.getKmDepart());
-            else
-                pstmt.setNull(9, Types.INTEGER);
-            if (mission.getKmRetour() != null)
-                pstmt.setInt(10, mission.getKmRetour());
-            else
-                pstmt.setNull(10, Types.INTEGER);
-            pstmt.setString(11, mission.getObservation());
-            pstmt.setInt(12, mission.getIdMission());
+        try (PreparedStatement pstmt = conn.prepareStatement(SQL_UPDATE)) {
+            lierMissionMiseAJour(pstmt, mission);
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -172,6 +213,33 @@ public class MissionRepositoryImpl implements MissionRepository {
         return mission;
     }
 
+    @Override
+    public List<Mission> saveAll(Connection conn, List<Mission> missions) throws SQLException {
+        try {
+            return TraitementParLots.inserer(conn, SQL_INSERT, missions, this::lierMissionCreation, Mission::setIdMission);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la sauvegarde par lots de " + missions.size() + " missions", e);
+        }
+    }
+
+    @Override
+    public int updateAll(Connection conn, List<Mission> missions) throws SQLException {
+        try {
+            return TraitementParLots.mettreAJour(conn, SQL_UPDATE, missions, this::lierMissionMiseAJour);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la mise à jour par lots de " + missions.size() + " missions", e);
+        }
+    }
+
+    @Override
+    public int deleteAllById(Connection conn, Collection<Integer> ids) throws SQLException {
+        try {
+            return TraitementParLots.supprimer(conn, "MISSION", "id_mission", ids);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la suppression par lots de " + ids.size() + " missions", e);
+        }
+    }
+
     @Override
     public boolean delete(Connection conn, Integer id) throws SQLException {
         String sql = "DELETE FROM MISSION WHERE id_mission = ?";
@@ -265,6 +333,18 @@ public class MissionRepositoryImpl implements MissionRepository {
         return missions;
     }
 
+    @Override
+    public Map<Integer, List<Mission>> findByVehiculeIds(Connection conn, Collection<Integer> idsVehicules)
+            throws SQLException {
+        try {
+            return TraitementParLots.lire(conn, "SELECT * FROM MISSION WHERE id_vehicule", idsVehicules, this::mapResultSetToMission)
+                    .stream()
+                    .collect(Collectors.groupingBy(Mission::getIdVehicule));
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la recherche des missions de " + idsVehicules.size() + " véhicules", e);
+        }
+    }
+
     @Override
     public List<Mission> findByVehiculeIdAndStatus(Connection conn, Integer idVehicule, StatutMission statut)
             throws SQLException {
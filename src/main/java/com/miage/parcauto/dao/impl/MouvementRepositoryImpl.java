@@ -1,6 +1,9 @@
 package main.java.com.miage.parcauto.dao.impl;
 
 import main.java.com.miage.parcauto.dao.MouvementRepository;
+import main.java.com.miage.parcauto.dao.PageCurseur;
+import main.java.com.miage.parcauto.dao.TriCurseur;
+import main.java.com.miage.parcauto.dto.MouvementResumeDTO;
 import main.java.com.miage.parcauto.model.finance.Mouvement;
 import main.java.com.miage.parcauto.model.finance.TypeMouvement;
 import main.java.com.miage.parcauto.exception.DataAccessException;
@@ -13,11 +16,20 @@ import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public class MouvementRepositoryImpl implements MouvementRepository {
 
+    private final PaginationCurseur<Mouvement> pagination = new PaginationCurseur<>("MOUVEMENT", "id", "`date`",
+            this::mapResultSetToMouvement, Mouvement::getId, Mouvement::getDateMouvement);
+    private final PaginationCurseur<MouvementResumeDTO> paginationResumes = new PaginationCurseur<>(
+            "MOUVEMENT mv JOIN SOCIETAIRE_COMPTE sc ON sc.id_societaire = mv.id_societaire",
+            "mv.id, mv.id_societaire, sc.nom, sc.numero, mv.`date`, mv.type, mv.montant",
+            "mv.id", "mv.`date`", this::mapResultSetToResume,
+            MouvementResumeDTO::getIdMouvement, MouvementResumeDTO::getDate);
+
     private Mouvement mapResultSetToMouvement(ResultSet rs) throws SQLException {
         Mouvement mouvement = new Mouvement();
         mouvement.setIdMouvement(rs.getInt("id_mouvement"));
@@ -31,6 +43,19 @@ public class MouvementRepositoryImpl implements MouvementRepository {
         return mouvement;
     }
 
+    private MouvementResumeDTO mapResultSetToResume(ResultSet rs) throws SQLException {
+        MouvementResumeDTO resume = new MouvementResumeDTO();
+        resume.setIdMouvement(rs.getInt("id"));
+        resume.setIdSocietaire(rs.getInt("id_societaire"));
+        resume.setNomSocietaire(rs.getString("nom"));
+        resume.setNumeroCompte(rs.getString("numero"));
+        Timestamp date = rs.getTimestamp("date");
+        resume.setDate(date != null ? date.toLocalDateTime() : null);
+        resume.setType(rs.getString("type"));
+        resume.setMontant(rs.getBigDecimal("montant"));
+        return resume;
+    }
+
     @Override
     public Optional<Mouvement> findById(Connection conn, Integer id) throws SQLException {
         String sql = "SELECT * FROM MOUVEMENT WHERE id_mouvement = ?";
@@ -65,7 +90,7 @@ public class MouvementRepositoryImpl implements MouvementRepository {
     @Override
     public List<Mouvement> findAll(Connection conn, int page, int size) throws SQLException {
         List<Mouvement> mouvements = new ArrayList<>();
-        String sql = "SELECT * FROM MOUVEMENT LIMIT ? OFFSET ?";
+        String sql = "SELECT * FROM MOUVEMENT ORDER BY id LIMIT ? OFFSET ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, size);
             pstmt.setInt(2, (page - 1) * size);
@@ -80,17 +105,51 @@ public class MouvementRepositoryImpl implements MouvementRepository {
         return mouvements;
     }
 
+    @Override
+    public PageCurseur<Mouvement> findPageAfter(Connection conn, String jeton, int size, TriCurseur tri) throws SQLException {
+        try {
+            return pagination.page(conn, jeton, size, tri);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la lecture paginée (curseur) des mouvements", e);
+        }
+    }
+
+    @Override
+    public PageCurseur<MouvementResumeDTO> findResumesAfter(Connection conn, String jeton, int size, TriCurseur tri)
+            throws SQLException {
+        try {
+            return paginationResumes.page(conn, jeton, size, tri);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la lecture de la liste des mouvements", e);
+        }
+    }
+
+    private static final String SQL_INSERT = "INSERT INTO MOUVEMENT (id_compte_societaire, type, montant, date_mouvement, libelle, reference_transaction) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE MOUVEMENT SET id_compte_societaire = ?, type = ?, montant = ?, date_mouvement = ?, libelle = ?, reference_transaction = ? WHERE id_mouvement = ?";
+
+    private void lierMouvement(PreparedStatement pstmt, Mouvement mouvement, Timestamp dateParDefaut) throws SQLException {
+        pstmt.setInt(1, mouvement.getIdCompteSocietaire());
+        pstmt.setString(2, mouvement.getType() != null ? mouvement.getType().getValeur() : null);
+        pstmt.setBigDecimal(3, mouvement.getMontant());
+        pstmt.setTimestamp(4, mouvement.getDateMouvement() != null ? Timestamp.valueOf(mouvement.getDateMouvement())
+                : dateParDefaut);
+        pstmt.setString(5, mouvement.getLibelle());
+        pstmt.setString(6, mouvement.getReferenceTransaction());
+    }
+
+    private void lierMouvementCreation(PreparedStatement pstmt, Mouvement mouvement) throws SQLException {
+        lierMouvement(pstmt, mouvement, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private void lierMouvementMiseAJour(PreparedStatement pstmt, Mouvement mouvement) throws SQLException {
+        lierMouvement(pstmt, mouvement, null);
+        pstmt.setInt(7, mouvement.getIdMouvement());
+    }
+
     @Override
     public Mouvement save(Connection conn, Mouvement mouvement) throws SQLException {
-        String sql = "INSERT INTO MOUVEMENT (id_compte_societaire, type, montant, date_mouvement, libelle, reference_transaction) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setInt(1, mouvement.getIdCompteSocietaire());
-            pstmt.setString(2, mouvement.getType() != null ? mouvement.getType().getValeur() : null);
-            pstmt.setBigDecimal(3, mouvement.getMontant());
-            pstmt.setTimestamp(4, mouvement.getDateMouvement() != null ? Timestamp.valueOf(mouvement.getDateMouvement())
-                    : Timestamp.valueOf(LocalDateTime.now()));
-            pstmt.setString(5, mouvement.getLibelle());
-            pstmt.setString(6, mouvement.getReferenceTransaction());
+        try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            lierMouvementCreation(pstmt, mouvement);
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -111,16 +170,8 @@ public class MouvementRepositoryImpl implements MouvementRepository {
 
     @Override
     public Mouvement update(Connection conn, Mouvement mouvement) throws SQLException {
-        String sql = "UPDATE MOUVEMENT SET id_compte_societaire = ?, type = ?, montant = ?, date_mouvement = ?, libelle = ?, reference_transaction = ? WHERE id_mouvement = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, mouvement.getIdCompteSocietaire());
-            pstmt.setString(2, mouvement.getType() != null ? mouvement.getType().getValeur() : null);
-            pstmt.setBigDecimal(3, mouvement.getMontant());
-            pstmt.setTimestamp(4,
-                    mouvement.getDateMouvement() != null ? Timestamp.valueOf(mouvement.getDateMouvement()) : null);
-            pstmt.setString(5, mouvement.getLibelle());
-            pstmt.setString(6, mouvement.getReferenceTransaction());
-            pstmt.setInt(7, mouvement.getIdMouvement());
+        try (PreparedStatement pstmt = conn.prepareStatement(SQL_UPDATE)) {
+            lierMouvementMiseAJour(pstmt, mouvement);
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -134,6 +185,34 @@ public class MouvementRepositoryImpl implements MouvementRepository {
         return mouvement;
     }
 
+    @Override
+    public List<Mouvement> saveAll(Connection conn, List<Mouvement> mouvements) throws SQLException {
+        try {
+            return TraitementParLots.inserer(conn, SQL_INSERT, mouvements, this::lierMouvementCreation,
+                    Mouvement::setIdMouvement);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la sauvegarde par lots de " + mouvements.size() + " mouvements", e);
+        }
+    }
+
+    @Override
+    public int updateAll(Connection conn, List<Mouvement> mouvements) throws SQLException {
+        try {
+            return TraitementParLots.mettreAJour(conn, SQL_UPDATE, mouvements, this::lierMouvementMiseAJour);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la mise à jour par lots de " + mouvements.size() + " mouvements", e);
+        }
+    }
+
+    @Override
+    public int deleteAllById(Connection conn, Collection<Integer> ids) throws SQLException {
+        try {
+            return TraitementParLots.supprimer(conn, "MOUVEMENT", "id_mouvement", ids);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la suppression par lots de " + ids.size() + " mouvements", e);
+        }
+    }
+
     @Override
     public boolean delete(Connection conn, Integer id) throws SQLException {
         String sql = "DELETE FROM MOUVEMENT WHERE id_mouvement = ?";
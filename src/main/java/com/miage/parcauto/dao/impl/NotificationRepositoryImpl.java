@@ -1,6 +1,8 @@
 package main.java.com.miage.parcauto.dao.impl;
 
 import main.java.com.miage.parcauto.dao.NotificationRepository;
+import main.java.com.miage.parcauto.dao.PageCurseur;
+import main.java.com.miage.parcauto.dao.TriCurseur;
 import main.java.com.miage.parcauto.model.notification.Notification;
 import main.java.com.miage.parcauto.exception.DataAccessException;
 
@@ -12,12 +14,15 @@ import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.StringJoiner;
 
 public class NotificationRepositoryImpl implements NotificationRepository {
 
+    private final PaginationCurseur<Notification> pagination = new PaginationCurseur<>("NOTIFICATION", "id_notification", "date_creation",
+            this::mapResultSetToNotification, Notification::getIdNotification, Notification::getDateCreation);
+
     private Notification mapResultSetToNotification(ResultSet rs) throws SQLException {
         Notification notification = new Notification();
         notification.setIdNotification(rs.getInt("id_notification"));
@@ -67,7 +72,7 @@ public class NotificationRepositoryImpl implements NotificationRepository {
     @Override
     public List<Notification> findAll(Connection conn, int page, int size) throws SQLException {
         List<Notification> notifications = new ArrayList<>();
-        String sql = "SELECT * FROM NOTIFICATION ORDER BY date_creation DESC LIMIT ? OFFSET ?";
+        String sql = "SELECT * FROM NOTIFICATION ORDER BY date_creation DESC, id_notification DESC LIMIT ? OFFSET ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, size);
             pstmt.setInt(2, (page - 1) * size);
@@ -82,6 +87,35 @@ public class NotificationRepositoryImpl implements NotificationRepository {
         return notifications;
     }
 
+    @Override
+    public PageCurseur<Notification> findPageAfter(Connection conn, String jeton, int size, TriCurseur tri) throws SQLException {
+        try {
+            return pagination.page(conn, jeton, size, tri);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la lecture paginée (curseur) des notifications", e);
+        }
+    }
+
+    private static final String SQL_INSERT_LOT = "INSERT INTO NOTIFICATION (id_utilisateur, titre, message, date_creation, est_lu, type_notification, id_entite_liee, type_entite_liee) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE_LOT = "UPDATE NOTIFICATION SET id_utilisateur = ?, titre = ?, message = ?, date_creation = ?, est_lu = ?, type_notification = ?, id_entite_liee = ?, type_entite_liee = ? WHERE id_notification = ?";
+
+    private void lierNotification(PreparedStatement pstmt, Notification notification) throws SQLException {
+        pstmt.setInt(1, notification.getIdUtilisateur());
+        pstmt.setString(2, notification.getTitre());
+        pstmt.setString(3, notification.getMessage());
+        pstmt.setTimestamp(4, Timestamp.valueOf(notification.getDateCreation() != null
+                ? notification.getDateCreation() : LocalDateTime.now()));
+        pstmt.setBoolean(5, Boolean.TRUE.equals(notification.isEstLue()));
+        pstmt.setString(6, notification.getTypeNotification());
+        pstmt.setObject(7, notification.getIdEntiteLiee());
+        pstmt.setString(8, notification.getTypeEntiteLiee());
+    }
+
+    private void lierNotificationMiseAJour(PreparedStatement pstmt, Notification notification) throws SQLException {
+        lierNotification(pstmt, notification);
+        pstmt.setInt(9, notification.getIdNotification());
+    }
+
     @Override
     public Notification save(Connection conn, Notification notification) throws SQLException {
         String sql = "INSERT INTO NOTIFICATION (id_utilisateur, message, date_creation, est_lu) VALUES (?, ?, ?, ?)";
@@ -134,6 +168,34 @@ public class NotificationRepositoryImpl implements NotificationRepository {
         return notification;
     }
 
+    @Override
+    public List<Notification> saveAll(Connection conn, List<Notification> notifications) throws SQLException {
+        try {
+            return TraitementParLots.inserer(conn, SQL_INSERT_LOT, notifications, this::lierNotification,
+                    Notification::setIdNotification);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la sauvegarde par lots de " + notifications.size() + " notifications", e);
+        }
+    }
+
+    @Override
+    public int updateAll(Connection conn, List<Notification> notifications) throws SQLException {
+        try {
+            return TraitementParLots.mettreAJour(conn, SQL_UPDATE_LOT, notifications, this::lierNotificationMiseAJour);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la mise à jour par lots de " + notifications.size() + " notifications", e);
+        }
+    }
+
+    @Override
+    public int deleteAllById(Connection conn, Collection<Integer> ids) throws SQLException {
+        try {
+            return TraitementParLots.supprimer(conn, "NOTIFICATION", "id_notification", ids);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la suppression par lots de " + ids.size() + " notifications", e);
+        }
+    }
+
     @Override
     public boolean delete(Connection conn, Integer id) throws SQLException {
         String sql = "DELETE FROM NOTIFICATION WHERE id_notification = ?";
@@ -200,22 +262,57 @@ public class NotificationRepositoryImpl implements NotificationRepository {
 
     @Override
     public int markAsRead(Connection conn, List<Integer> idsNotification) throws SQLException {
-        if (idsNotification == null || idsNotification.isEmpty()) {
-            return 0;
+        try {
+            return TraitementParLots.mettreAJour(conn,
+                    "UPDATE NOTIFICATION SET est_lu = TRUE WHERE id_notification", List.of(), idsNotification);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors du marquage des notifications comme lues.", e);
         }
-        StringJoiner sj = new StringJoiner(",", "(", ")");
-        for (Integer id : idsNotification) {
-            sj.add("?");
+    }
+
+    @Override
+    public List<Integer> markAsRead(Connection conn, Integer idUtilisateur, Collection<Integer> idsNotification)
+            throws SQLException {
+        try {
+            // Verrouille les lignes lues : la mise à jour porte exactement sur ces identifiants
+            List<Integer> nonLues = TraitementParLots.lire(conn,
+                    "SELECT id_notification FROM NOTIFICATION WHERE id_utilisateur = ? AND est_lu = FALSE AND id_notification",
+                    List.of(idUtilisateur), idsNotification, " FOR UPDATE", rs -> rs.getInt(1));
+            if (!nonLues.isEmpty()) {
+                TraitementParLots.mettreAJour(conn,
+                        "UPDATE NOTIFICATION SET est_lu = TRUE WHERE id_notification", List.of(), nonLues);
+            }
+            return nonLues;
+        } catch (SQLException e) {
+            throw new DataAccessException(
+                    "Erreur lors du marquage des notifications comme lues pour l'utilisateur ID: " + idUtilisateur, e);
         }
-        String sql = "UPDATE NOTIFICATION SET est_lu = TRUE WHERE id_notification IN " + sj.toString();
+    }
+
+    @Override
+    public int markAllAsRead(Connection conn, Integer idUtilisateur) throws SQLException {
+        String sql = "UPDATE NOTIFICATION SET est_lu = TRUE WHERE id_utilisateur = ? AND est_lu = FALSE";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            int index = 1;
-            for (Integer id : idsNotification) {
-                pstmt.setInt(index++, id);
-            }
+            pstmt.setInt(1, idUtilisateur);
             return pstmt.executeUpdate();
         } catch (SQLException e) {
-            throw new DataAccessException("Erreur lors du marquage des notifications comme lues.", e);
+            throw new DataAccessException(
+                    "Erreur lors du marquage de toutes les notifications comme lues pour l'utilisateur ID: " + idUtilisateur, e);
+        }
+    }
+
+    @Override
+    public long countByUtilisateurIdAndEstLu(Connection conn, Integer idUtilisateur, boolean estLu) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM NOTIFICATION WHERE id_utilisateur = ? AND est_lu = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, idUtilisateur);
+            pstmt.setBoolean(2, estLu);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors du comptage des notifications pour l'utilisateur ID: "
+                    + idUtilisateur + " et état lu: " + estLu, e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+package main.java.com.miage.parcauto.dao.impl;
+
+import main.java.com.miage.parcauto.dao.PageCurseur;
+import main.java.com.miage.parcauto.dao.TriCurseur;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Mécanique commune de la pagination par curseur des repositories (voir
+ * {@link main.java.com.miage.parcauto.dao.KeysetRepository}).
+ * <p>
+ * Une page est lue avec un prédicat de reprise sur (date, id) ou (id) et un {@code ORDER BY}
+ * de même ordre, servis par la clé primaire ou par un index sur la colonne de date (qui
+ * contient implicitement la clé primaire sous InnoDB). Le jeton encode le tri et la dernière
+ * clé lue ; il est opaque pour l'appelant.
+ * <p>
+ * La source peut être une jointure et la liste de colonnes une projection (écrans de liste) :
+ * les colonnes d'id et de date sont alors qualifiées par l'alias de la table paginée.
+ */
+final class PaginationCurseur<T> {
+
+    private static final String VERSION_JETON = "c1";
+    private static final int TAILLE_MAX_PAGE = 1000;
+
+    /**
+     * Lecture d'une entité à partir de la ligne courante.
+     */
+    @FunctionalInterface
+    interface Lecture<T> {
+        T lire(ResultSet rs) throws SQLException;
+    }
+
+    private final String source;
+    private final String colonnes;
+    private final String colonneId;
+    private final String colonneDate;
+    private final Lecture<T> lecture;
+    private final Function<T, Integer> cleId;
+    private final Function<T, LocalDateTime> cleDate;
+
+    PaginationCurseur(String table, String colonneId, String colonneDate, Lecture<T> lecture,
+                      Function<T, Integer> cleId, Function<T, LocalDateTime> cleDate) {
+        this(table, "*", colonneId, colonneDate, lecture, cleId, cleDate);
+    }
+
+    /**
+     * @param source   la table ou la jointure ({@code FROM}).
+     * @param colonnes la liste de colonnes lues ({@code SELECT}).
+     */
+    PaginationCurseur(String source, String colonnes, String colonneId, String colonneDate, Lecture<T> lecture,
+                      Function<T, Integer> cleId, Function<T, LocalDateTime> cleDate) {
+        this.source = source;
+        this.colonnes = colonnes;
+        this.colonneId = colonneId;
+        this.colonneDate = colonneDate;
+        this.lecture = lecture;
+        this.cleId = cleId;
+        this.cleDate = cleDate;
+    }
+
+    PageCurseur<T> page(Connection conn, String jeton, int taille, TriCurseur tri) throws SQLException {
+        if (taille <= 0 || taille > TAILLE_MAX_PAGE) {
+            throw new IllegalArgumentException("Taille de page invalide: " + taille + " (1 à " + TAILLE_MAX_PAGE + ")");
+        }
+        Cle apres = jeton != null ? decoder(jeton, tri) : null;
+        List<Object> parametres = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(colonnes).append(" FROM ").append(source);
+        if (apres != null) {
+            sql.append(" WHERE ").append(predicatReprise(tri, apres, parametres));
+        }
+        String sens = tri.isDecroissant() ? " DESC" : " ASC";
+        sql.append(" ORDER BY ");
+        if (tri.isParDate()) {
+            sql.append(colonneDate).append(sens).append(", ");
+        }
+        sql.append(colonneId).append(sens).append(" LIMIT ?");
+        parametres.add(taille + 1); // Une ligne de plus : indique s'il reste une page
+
+        List<T> elements = new ArrayList<>(taille + 1);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < parametres.size(); i++) {
+                pstmt.setObject(i + 1, parametres.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    elements.add(lecture.lire(rs));
+                }
+            }
+        }
+        if (elements.size() <= taille) {
+            return new PageCurseur<>(elements, null);
+        }
+        elements.remove(taille);
+        T dernier = elements.get(taille - 1);
+        return new PageCurseur<>(elements, encoder(tri, cleId.apply(dernier), tri.isParDate() ? cleDate.apply(dernier) : null));
+    }
+
+    private String predicatReprise(TriCurseur tri, Cle apres, List<Object> parametres) {
+        String comparaison = tri.isDecroissant() ? " < " : " > ";
+        String suiteId = colonneId + comparaison + "?";
+        if (!tri.isParDate()) {
+            parametres.add(apres.id);
+            return suiteId;
+        }
+        if (apres.date == null) {
+            // Les dates nulles viennent en tête en ordre croissant, en queue en ordre décroissant
+            parametres.add(apres.id);
+            return tri.isDecroissant()
+                    ? colonneDate + " IS NULL AND " + suiteId
+                    : "((" + colonneDate + " IS NULL AND " + suiteId + ") OR " + colonneDate + " IS NOT NULL)";
+        }
+        Timestamp date = Timestamp.valueOf(apres.date);
+        parametres.add(date);
+        parametres.add(date);
+        parametres.add(apres.id);
+        String reprise = colonneDate + comparaison + "? OR (" + colonneDate + " = ? AND " + suiteId + ")";
+        return tri.isDecroissant() ? "(" + reprise + " OR " + colonneDate + " IS NULL)" : "(" + reprise + ")";
+    }
+
+    private static String encoder(TriCurseur tri, Integer id, LocalDateTime date) {
+        String brut = VERSION_JETON + ";" + tri.name() + ";" + id + ";" + (date != null ? date : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cle decoder(String jeton, TriCurseur tri) {
+        String brut;
+        try {
+            brut = new String(Base64.getUrlDecoder().decode(jeton), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Jeton de pagination invalide.", e);
+        }
+        try {
+            String[] parties = brut.split(";", -1);
+            if (parties.length != 4 || !VERSION_JETON.equals(parties[0])) {
+                throw new IllegalArgumentException("Jeton de pagination invalide.");
+            }
+            if (!tri.name().equals(parties[1])) {
+                throw new IllegalArgumentException("Jeton de pagination émis pour le tri " + parties[1] + ", pas " + tri);
+            }
+            return new Cle(Integer.parseInt(parties[2]), parties[3].isEmpty() ? null : LocalDateTime.parse(parties[3]));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Jeton de pagination invalide.", e);
+        }
+    }
+
+    private static final class Cle {
+        private final int id;
+        private final LocalDateTime date;
+
+        private Cle(int id, LocalDateTime date) {
+            this.id = id;
+            this.date = date;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package main.java.com.miage.parcauto.dao.impl;
+
+import main.java.com.miage.parcauto.dao.EntiteCache;
+import main.java.com.miage.parcauto.dao.PersonnelRepository;
+import main.java.com.miage.parcauto.model.rh.Personnel;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Décorateur de {@link PersonnelRepository} servant {@code findById} depuis un {@link EntiteCache}.
+ * Les écritures invalident les membres du personnel concernés avant d'être transmises ; les
+ * autres recherches sont déléguées telles quelles. Obtenu via {@link CachesEntites#personnel}.
+ */
+final class PersonnelRepositoryEnCache implements PersonnelRepository {
+
+    private final PersonnelRepository delegue;
+    private final EntiteCache<Integer, Personnel> cache;
+
+    PersonnelRepositoryEnCache(PersonnelRepository delegue, EntiteCache<Integer, Personnel> cache) {
+        this.delegue = delegue;
+        this.cache = cache;
+    }
+
+    static Personnel copier(Personnel source) {
+        Personnel copie = new Personnel();
+        copie.setIdPersonnel(source.getIdPersonnel());
+        copie.setIdService(source.getIdService());
+        copie.setIdFonction(source.getIdFonction());
+        copie.setIdVehicule(source.getIdVehicule());
+        copie.setMatricule(source.getMatricule());
+        copie.setNom(source.getNom());
+        copie.setPrenom(source.getPrenom());
+        copie.setEmail(source.getEmail());
+        copie.setTelephone(source.getTelephone());
+        copie.setAdresse(source.getAdresse());
+        copie.setDateNaissance(source.getDateNaissance());
+        copie.setSexe(source.getSexe());
+        copie.setDateAttributionVehicule(source.getDateAttributionVehicule());
+        copie.setObservation(source.getObservation());
+        return copie;
+    }
+
+    @Override
+    public Optional<Personnel> findById(Connection conn, Integer id) throws SQLException {
+        if (id == null) {
+            return delegue.findById(conn, id);
+        }
+        Personnel enCache = cache.get(id);
+        if (enCache != null) {
+            return Optional.of(enCache);
+        }
+        long jeton = cache.jeton(id);
+        Optional<Personnel> personnel = delegue.findById(conn, id);
+        personnel.ifPresent(p -> cache.mettre(id, p, jeton));
+        return personnel;
+    }
+
+    @Override
+    public List<Personnel> findAll(Connection conn) throws SQLException {
+        return delegue.findAll(conn);
+    }
+
+    @Override
+    public List<Personnel> findAll(Connection conn, int page, int size) throws SQLException {
+        return delegue.findAll(conn, page, size);
+    }
+
+    @Override
+    public Personnel save(Connection conn, Personnel personnel) throws SQLException {
+        return delegue.save(conn, personnel); // Nouvel identifiant : rien à invalider
+    }
+
+    @Override
+    public Personnel update(Connection conn, Personnel personnel) throws SQLException {
+        cache.invalider(personnel.getIdPersonnel(), conn);
+        return delegue.update(conn, personnel);
+    }
+
+    @Override
+    public List<Personnel> saveAll(Connection conn, List<Personnel> personnels) throws SQLException {
+        return delegue.saveAll(conn, personnels);
+    }
+
+    @Override
+    public int updateAll(Connection conn, List<Personnel> personnels) throws SQLException {
+        personnels.forEach(p -> cache.invalider(p.getIdPersonnel(), conn));
+        return delegue.updateAll(conn, personnels);
+    }
+
+    @Override
+    public int deleteAllById(Connection conn, Collection<Integer> ids) throws SQLException {
+        ids.forEach(id -> cache.invalider(id, conn));
+        return delegue.deleteAllById(conn, ids);
+    }
+
+    @Override
+    public boolean delete(Connection conn, Integer id) throws SQLException {
+        cache.invalider(id, conn);
+        return delegue.delete(conn, id);
+    }
+
+    @Override
+    public long count(Connection conn) throws SQLException {
+        return delegue.count(conn);
+    }
+
+    @Override
+    public Optional<Personnel> findByMatricule(Connection conn, String matricule) throws SQLException {
+        return delegue.findByMatricule(conn, matricule);
+    }
+
+    @Override
+    public Optional<Personnel> findByEmail(Connection conn, String email) throws SQLException {
+        return delegue.findByEmail(conn, email);
+    }
+
+    @Override
+    public List<Personnel> findByServiceId(Connection conn, Integer idService) throws SQLException {
+        return delegue.findByServiceId(conn, idService);
+    }
+
+    @Override
+    public List<Personnel> findByFonctionId(Connection conn, Integer idFonction) throws SQLException {
+        return delegue.findByFonctionId(conn, idFonction);
+    }
+
+    @Override
+    public Set<String> findAllMatricules(Connection conn) throws SQLException {
+        return delegue.findAllMatricules(conn);
+    }
+
+    @Override
+    public Set<String> findAllEmails(Connection conn) throws SQLException {
+        return delegue.findAllEmails(conn);
+    }
+}
@@ -6,6 +6,7 @@ import main.java.com.miage.parcauto.model.rh.Sexe;
 import main.java.com.miage.parcauto.exception.DataAccessException;
 
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -13,25 +14,32 @@ import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public class PersonnelRepositoryImpl implements PersonnelRepository {
 
     private Personnel mapResultSetToPersonnel(ResultSet rs) throws SQLException {
         Personnel personnel = new Personnel();
         personnel.setIdPersonnel(rs.getInt("id_personnel"));
-        personnel.setIdService(rs.getInt("id_service"));
-        personnel.setIdFonction(rs.getInt("id_fonction"));
+        personnel.setIdService((Integer) rs.getObject("id_service"));
+        personnel.setIdFonction((Integer) rs.getObject("id_fonction"));
+        personnel.setIdVehicule((Integer) rs.getObject("id_vehicule"));
         personnel.setMatricule(rs.getString("matricule"));
-        personnel.setNom(rs.getString("nom"));
-        personnel.setPrenom(rs.getString("prenom"));
+        personnel.setNom(rs.getString("nom_personnel"));
+        personnel.setPrenom(rs.getString("prenom_personnel"));
         personnel.setEmail(rs.getString("email"));
+        personnel.setTelephone(rs.getString("telephone"));
+        personnel.setAdresse(rs.getString("adresse"));
+        Date dateNaissance = rs.getDate("date_naissance");
+        personnel.setDateNaissance(dateNaissance != null ? dateNaissance.toLocalDate() : null);
         String sexeStr = rs.getString("sexe");
         personnel.setSexe(sexeStr != null ? Sexe.valueOf(sexeStr) : null);
-        personnel.setDateEmbauche(
-                rs.getTimestamp("date_embauche") != null ? rs.getTimestamp("date_embauche").toLocalDateTime() : null);
-        personnel.setObservation(rs.getString("observation"));
+        Timestamp dateAttribution = rs.getTimestamp("date_attribution");
+        personnel.setDateAttributionVehicule(dateAttribution != null ? dateAttribution.toLocalDateTime() : null);
         return personnel;
     }
 
@@ -84,27 +92,43 @@ public class PersonnelRepositoryImpl implements PersonnelRepository {
         return personnels;
     }
 
+    private static final String SQL_INSERT = "INSERT INTO PERSONNEL (id_service, id_fonction, id_vehicule, matricule, nom_personnel, prenom_personnel, email, telephone, adresse, date_naissance, sexe, date_attribution) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE PERSONNEL SET id_service = ?, id_fonction = ?, id_vehicule = ?, matricule = ?, nom_personnel = ?, prenom_personnel = ?, email = ?, telephone = ?, adresse = ?, date_naissance = ?, sexe = ?, date_attribution = ? WHERE id_personnel = ?";
+
+    private void lierPersonnel(PreparedStatement pstmt, Personnel personnel) throws SQLException {
+        lierEntier(pstmt, 1, personnel.getIdService());
+        lierEntier(pstmt, 2, personnel.getIdFonction());
+        lierEntier(pstmt, 3, personnel.getIdVehicule());
+        pstmt.setString(4, personnel.getMatricule());
+        pstmt.setString(5, personnel.getNom());
+        pstmt.setString(6, personnel.getPrenom());
+        pstmt.setString(7, personnel.getEmail());
+        pstmt.setString(8, personnel.getTelephone());
+        pstmt.setString(9, personnel.getAdresse());
+        pstmt.setDate(10, personnel.getDateNaissance() != null ? Date.valueOf(personnel.getDateNaissance()) : null);
+        pstmt.setString(11, personnel.getSexe() != null ? personnel.getSexe().name() : null); // SQL : enum('M','F')
+        pstmt.setTimestamp(12,
+                personnel.getDateAttributionVehicule() != null
+                        ? Timestamp.valueOf(personnel.getDateAttributionVehicule())
+                        : null);
+    }
+
+    private void lierEntier(PreparedStatement pstmt, int index, Integer valeur) throws SQLException {
+        if (valeur != null)
+            pstmt.setInt(index, valeur);
+        else
+            pstmt.setNull(index, Types.INTEGER);
+    }
+
+    private void lierPersonnelMiseAJour(PreparedStatement pstmt, Personnel personnel) throws SQLException {
+        lierPersonnel(pstmt, personnel);
+        pstmt.setInt(13, personnel.getIdPersonnel());
+    }
+
     @Override
     public Personnel save(Connection conn, Personnel personnel) throws SQLException {
-        String sql = "INSERT INTO PERSONNEL (id_service, id_fonction, matricule, nom, prenom, date_naissance, sexe, adresse, telephone, email, date_embauche, observation) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setInt(1, personnel.getIdService());
-            pstmt.setInt(2, personnel.getIdFonction());
-            pstmt.setString(3, personnel.getMatricule());
-            pstmt.setString(4, personnel.getNom());
-            pstmt.setString(5, personnel.getPrenom());
-            pstmt.setTimestamp(6,
-                    personnel.getDateNaissance() != null
-                            ? Timestamp.valueOf(personnel.getDateNaissance().atStartOfDay())
-                            : null);
-            pstmt.setString(7, personnel.getSexe() != null ? personnel.getSexe().getValeur() : null);
-            pstmt.setString(8, personnel.getAdresse());
-            pstmt.setString(9, personnel.getTelephone());
-            pstmt.setString(10, personnel.getEmail());
-            pstmt.setTimestamp(11,
-                    personnel.getDateEmbauche() != null ? Timestamp.valueOf(personnel.getDateEmbauche().atStartOfDay())
-                            : null);
-            pstmt.setString(12, personnel.getObservation());
+        try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            lierPersonnel(pstmt, personnel);
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -126,26 +150,8 @@ public class PersonnelRepositoryImpl implements PersonnelRepository {
 
     @Override
     public Personnel update(Connection conn, Personnel personnel) throws SQLException {
-        String sql = "UPDATE PERSONNEL SET id_service = ?, id_fonction = ?, matricule = ?, nom = ?, prenom = ?, date_naissance = ?, sexe = ?, adresse = ?, telephone = ?, email = ?, date_embauche = ?, observation = ? WHERE id_personnel = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, personnel.getIdService());
-            pstmt.setInt(2, personnel.getIdFonction());
-            pstmt.setString(3, personnel.getMatricule());
-            pstmt.setString(4, personnel.getNom());
-            pstmt.setString(5, personnel.getPrenom());
-            pstmt.setTimestamp(6,
-                    personnel.getDateNaissance() != null
-                            ? Timestamp.valueOf(personnel.getDateNaissance().atStartOfDay())
-                            : null);
-            pstmt.setString(7, personnel.getSexe() != null ? personnel.getSexe().getValeur() : null);
-            pstmt.setString(8, personnel.getAdresse());
-            pstmt.setString(9, personnel.getTelephone());
-            pstmt.setString(10, personnel.getEmail());
-            pstmt.setTimestamp(11,
-                    personnel.getDateEmbauche() != null ? Timestamp.valueOf(personnel.getDateEmbauche().atStartOfDay())
-                            : null);
-            pstmt.setString(12, personnel.getObservation());
-            pstmt.setInt(13, personnel.getIdPersonnel());
+        try (PreparedStatement pstmt = conn.prepareStatement(SQL_UPDATE)) {
+            lierPersonnelMiseAJour(pstmt, personnel);
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -159,6 +165,37 @@ public class PersonnelRepositoryImpl implements PersonnelRepository {
         return personnel;
     }
 
+    @Override
+    public List<Personnel> saveAll(Connection conn, List<Personnel> personnels) throws SQLException {
+        try {
+            return TraitementParLots.inserer(conn, SQL_INSERT, personnels, this::lierPersonnel,
+                    Personnel::setIdPersonnel);
+        } catch (SQLException e) {
+            throw new DataAccessException(
+                    "Erreur lors de la sauvegarde par lots de " + personnels.size() + " membres du personnel", e);
+        }
+    }
+
+    @Override
+    public int updateAll(Connection conn, List<Personnel> personnels) throws SQLException {
+        try {
+            return TraitementParLots.mettreAJour(conn, SQL_UPDATE, personnels, this::lierPersonnelMiseAJour);
+        } catch (SQLException e) {
+            throw new DataAccessException(
+                    "Erreur lors de la mise à jour par lots de " + personnels.size() + " membres du personnel", e);
+        }
+    }
+
+    @Override
+    public int deleteAllById(Connection conn, Collection<Integer> ids) throws SQLException {
+        try {
+            return TraitementParLots.supprimer(conn, "PERSONNEL", "id_personnel", ids);
+        } catch (SQLException e) {
+            throw new DataAccessException(
+                    "Erreur lors de la suppression par lots de " + ids.size() + " membres du personnel", e);
+        }
+    }
+
     @Override
     public boolean delete(Connection conn, Integer id) throws SQLException {
         String sql = "DELETE FROM PERSONNEL WHERE id_personnel = ?";
@@ -255,4 +292,32 @@ public class PersonnelRepositoryImpl implements PersonnelRepository {
         }
         return personnels;
     }
-}
\ No newline at end of file
+
+    @Override
+    public Set<String> findAllMatricules(Connection conn) throws SQLException {
+        try {
+            return chargerValeurs(conn, "SELECT matricule FROM PERSONNEL WHERE matricule IS NOT NULL");
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors du chargement des matricules du personnel", e);
+        }
+    }
+
+    @Override
+    public Set<String> findAllEmails(Connection conn) throws SQLException {
+        try {
+            return chargerValeurs(conn, "SELECT email FROM PERSONNEL WHERE email IS NOT NULL");
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors du chargement des emails du personnel", e);
+        }
+    }
+
+    private Set<String> chargerValeurs(Connection conn, String sql) throws SQLException {
+        Set<String> valeurs = new HashSet<>();
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                valeurs.add(rs.getString(1));
+            }
+        }
+        return valeurs;
+    }
+}
@@ -0,0 +1,246 @@
+package main.java.com.miage.parcauto.dao.impl;
+
+import main.java.com.miage.parcauto.dao.DbUtil;
+import main.java.com.miage.parcauto.dao.EtatVoitureRepository;
+import main.java.com.miage.parcauto.dao.FonctionRepository;
+import main.java.com.miage.parcauto.dao.ServiceRHRepository;
+import main.java.com.miage.parcauto.model.rh.Fonction;
+import main.java.com.miage.parcauto.model.rh.Service;
+import main.java.com.miage.parcauto.model.vehicule.EtatVoiture;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache des tables de référence ETAT_VOITURE, FONCTION et SERVICE.
+ * <p>
+ * Les trois tables sont chargées ensemble dans un {@link Referentiel} immuable, partagé sans
+ * verrou par tous les lecteurs. Les écritures passant par les repositories de ces tables
+ * invalident le cache, rechargé à la lecture suivante ; une durée de validité borne en outre
+ * l'obsolescence d'un instantané chargé pendant une écriture non encore validée.
+ */
+public final class ReferentielCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ReferentielCache.class.getName());
+    private static final long DUREE_VALIDITE_NANOS = 10L * 60 * 1_000_000_000; // 10 minutes
+    private static final ReferentielCache instance = new ReferentielCache(new EtatVoitureRepositoryImpl(),
+            new FonctionRepositoryImpl(), new ServiceRHRepositoryImpl());
+
+    private final EtatVoitureRepository etatVoitureRepository;
+    private final FonctionRepository fonctionRepository;
+    private final ServiceRHRepository serviceRHRepository;
+    private final Object verrouChargement = new Object();
+    private volatile Referentiel courant;
+    private volatile long chargeLe;
+
+    public ReferentielCache(EtatVoitureRepository etatVoitureRepository, FonctionRepository fonctionRepository,
+                            ServiceRHRepository serviceRHRepository) {
+        this.etatVoitureRepository = etatVoitureRepository;
+        this.fonctionRepository = fonctionRepository;
+        this.serviceRHRepository = serviceRHRepository;
+    }
+
+    /**
+     * @return L'instance partagée, invalidée par les repositories des tables de référence.
+     */
+    public static ReferentielCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Retourne le référentiel, chargé si nécessaire avec la connexion fournie.
+     *
+     * @param conn la connexion à la base de données.
+     * @return le référentiel courant.
+     * @throws SQLException si le chargement échoue.
+     */
+    public Referentiel get(Connection conn) throws SQLException {
+        Referentiel referentiel = courant;
+        if (referentiel != null && !expire()) {
+            return referentiel;
+        }
+        synchronized (verrouChargement) {
+            if (courant == null || expire()) {
+                courant = charger(conn);
+                chargeLe = System.nanoTime();
+            }
+            return courant;
+        }
+    }
+
+    /**
+     * Retourne le référentiel, chargé si nécessaire avec une connexion du pool. En cas d'échec
+     * du chargement, le dernier référentiel connu (ou un référentiel vide) est retourné : les
+     * libellés sont alors absents mais l'appelant n'est pas interrompu (affichage).
+     *
+     * @return le référentiel courant.
+     */
+    public Referentiel get() {
+        Referentiel referentiel = courant;
+        if (referentiel != null && !expire()) {
+            return referentiel;
+        }
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            return get(conn);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Chargement des tables de référence impossible: " + e.getMessage(), e);
+            return courant != null ? courant : Referentiel.VIDE;
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
+    /**
+     * Invalide le référentiel : il sera rechargé à la prochaine lecture.
+     */
+    public void invalider() {
+        courant = null;
+    }
+
+    private boolean expire() {
+        return System.nanoTime() - chargeLe > DUREE_VALIDITE_NANOS;
+    }
+
+    private Referentiel charger(Connection conn) throws SQLException {
+        Referentiel referentiel = new Referentiel(etatVoitureRepository.findAll(conn), fonctionRepository.findAll(conn),
+                serviceRHRepository.findAll(conn));
+        LOGGER.fine("Tables de référence chargées: " + referentiel.etats.size() + " état(s), "
+                + referentiel.fonctions.size() + " fonction(s), " + referentiel.services.size() + " service(s)");
+        return referentiel;
+    }
+
+    private static String cle(String libelle) {
+        return libelle.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, Integer> indexer(Map<Integer, String> libelles) {
+        Map<String, Integer> ids = new HashMap<>();
+        libelles.forEach((id, libelle) -> {
+            if (libelle != null) {
+                ids.putIfAbsent(cle(libelle), id);
+            }
+        });
+        return Collections.unmodifiableMap(ids);
+    }
+
+    /**
+     * Instantané immuable des tables de référence : correspondances id → entité, id → libellé
+     * et libellé → id (libellé comparé sans tenir compte de la casse). Les entités retournées
+     * sont des copies.
+     */
+    public static final class Referentiel {
+
+        static final Referentiel VIDE = new Referentiel(List.of(), List.of(), List.of());
+
+        private final Map<Integer, String> etats;
+        private final Map<String, Integer> idsEtats;
+        private final Map<Integer, String> fonctions;
+        private final Map<String, Integer> idsFonctions;
+        private final Map<Integer, Service> services;
+        private final Map<Integer, String> libellesServices;
+        private final Map<String, Integer> idsServices;
+
+        private Referentiel(List<EtatVoiture> etatsVoiture, List<Fonction> listeFonctions, List<Service> listeServices) {
+            Map<Integer, String> e = new HashMap<>();
+            etatsVoiture.forEach(etat -> e.put(etat.getIdEtatVoiture(), etat.getLibEtatVoiture()));
+            Map<Integer, String> f = new HashMap<>();
+            listeFonctions.forEach(fonction -> f.put(fonction.getIdFonction(), fonction.getLibFonction()));
+            Map<Integer, Service> s = new HashMap<>();
+            Map<Integer, String> ls = new HashMap<>();
+            listeServices.forEach(service -> {
+                s.put(service.getIdService(), new Service(service.getIdService(), service.getLibService(),
+                        service.getLocalisationService()));
+                ls.put(service.getIdService(), service.getLibService());
+            });
+            this.etats = Collections.unmodifiableMap(e);
+            this.idsEtats = indexer(e);
+            this.fonctions = Collections.unmodifiableMap(f);
+            this.idsFonctions = indexer(f);
+            this.services = Collections.unmodifiableMap(s);
+            this.libellesServices = Collections.unmodifiableMap(ls);
+            this.idsServices = indexer(ls);
+        }
+
+        public Optional<EtatVoiture> getEtatVoiture(Integer id) {
+            return etats.containsKey(id) ? Optional.of(new EtatVoiture(id, etats.get(id))) : Optional.empty();
+        }
+
+        public boolean contientEtatVoiture(Integer id) {
+            return id != null && etats.containsKey(id);
+        }
+
+        public String getLibelleEtatVoiture(Integer id) {
+            return id != null ? etats.get(id) : null;
+        }
+
+        public Optional<Integer> getIdEtatVoiture(String libelle) {
+            return libelle != null ? Optional.ofNullable(idsEtats.get(cle(libelle))) : Optional.empty();
+        }
+
+        /**
+         * @return Tous les libellés d'état par identifiant (résolution en masse des listes).
+         */
+        public Map<Integer, String> getLibellesEtatsVoiture() {
+            return etats;
+        }
+
+        public Optional<Fonction> getFonction(Integer id) {
+            return fonctions.containsKey(id) ? Optional.of(new Fonction(id, fonctions.get(id))) : Optional.empty();
+        }
+
+        public boolean contientFonction(Integer id) {
+            return id != null && fonctions.containsKey(id);
+        }
+
+        public String getLibelleFonction(Integer id) {
+            return id != null ? fonctions.get(id) : null;
+        }
+
+        public Optional<Integer> getIdFonction(String libelle) {
+            return libelle != null ? Optional.ofNullable(idsFonctions.get(cle(libelle))) : Optional.empty();
+        }
+
+        /**
+         * @return Tous les libellés de fonction par identifiant (résolution en masse des listes).
+         */
+        public Map<Integer, String> getLibellesFonctions() {
+            return fonctions;
+        }
+
+        public Optional<Service> getService(Integer id) {
+            Service service = id != null ? services.get(id) : null;
+            return service != null
+                    ? Optional.of(new Service(service.getIdService(), service.getLibService(), service.getLocalisationService()))
+                    : Optional.empty();
+        }
+
+        public boolean contientService(Integer id) {
+            return id != null && services.containsKey(id);
+        }
+
+        public String getLibelleService(Integer id) {
+            return id != null ? libellesServices.get(id) : null;
+        }
+
+        public Optional<Integer> getIdService(String libelle) {
+            return libelle != null ? Optional.ofNullable(idsServices.get(cle(libelle))) : Optional.empty();
+        }
+
+        /**
+         * @return Tous les libellés de service par identifiant (résolution en masse des listes).
+         */
+        public Map<Integer, String> getLibellesServices() {
+            return libellesServices;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package main.java.com.miage.parcauto.dao.impl;
+
+import main.java.com.miage.parcauto.dao.ReservationRepository;
+import main.java.com.miage.parcauto.exception.DataAccessException;
+import main.java.com.miage.parcauto.model.planning.Reservation;
+import main.java.com.miage.parcauto.model.planning.TypeReservation;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReservationRepositoryImpl implements ReservationRepository {
+
+    @Override
+    public List<Reservation> findAllActives(Connection conn) throws SQLException {
+        List<Reservation> reservations = new ArrayList<>();
+        String sql = "SELECT 'MISSION' AS type_reservation, id_mission AS id_reference, id_vehicule, " +
+                "date_debut_mission AS debut, date_fin_mission AS fin FROM MISSION " +
+                "WHERE status <> 'Cloturee' AND date_debut_mission IS NOT NULL " +
+                "UNION ALL " +
+                "SELECT 'AFFECTATION', id, id_vehicule, date_debut, date_fin FROM AFFECTATION";
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                Timestamp fin = rs.getTimestamp("fin");
+                reservations.add(new Reservation(
+                        TypeReservation.valueOf(rs.getString("type_reservation")),
+                        rs.getInt("id_reference"),
+                        rs.getInt("id_vehicule"),
+                        rs.getTimestamp("debut").toLocalDateTime(),
+                        fin != null ? fin.toLocalDateTime() : null));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors du chargement des réservations de véhicules", e);
+        }
+        return reservations;
+    }
+}
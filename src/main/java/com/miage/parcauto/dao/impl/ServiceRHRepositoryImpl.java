@@ -18,13 +18,14 @@ public class ServiceRHRepositoryImpl implements ServiceRHRepository {
     private Service mapResultSetToService(ResultSet rs) throws SQLException {
         Service service = new Service();
         service.setIdService(rs.getInt("id_service"));
-        service.setLibelle(rs.getString("libelle"));
+        service.setLibService(rs.getString("lib_service"));
+        service.setLocalisationService(rs.getString("localisation_service"));
         return service;
     }
 
     @Override
     public Optional<Service> findById(Connection conn, Integer id) throws SQLException {
-        String sql = "SELECT id_service, libelle FROM SERVICE WHERE id_service = ?";
+        String sql = "SELECT id_service, lib_service, localisation_service FROM SERVICE WHERE id_service = ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -39,7 +40,7 @@ public class ServiceRHRepositoryImpl implements ServiceRHRepository {
     @Override
     public List<Service> findAll(Connection conn) throws SQLException {
         List<Service> services = new ArrayList<>();
-        String sql = "SELECT id_service, libelle FROM SERVICE";
+        String sql = "SELECT id_service, lib_service, localisation_service FROM SERVICE";
         try (Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
@@ -52,7 +53,7 @@ public class ServiceRHRepositoryImpl implements ServiceRHRepository {
     @Override
     public List<Service> findAll(Connection conn, int page, int size) throws SQLException {
         List<Service> services = new ArrayList<>();
-        String sql = "SELECT id_service, libelle FROM SERVICE LIMIT ? OFFSET ?";
+        String sql = "SELECT id_service, lib_service, localisation_service FROM SERVICE LIMIT ? OFFSET ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, size);
             pstmt.setInt(2, (page - 1) * size);
@@ -69,9 +70,10 @@ public class ServiceRHRepositoryImpl implements ServiceRHRepository {
 
     @Override
     public Service save(Connection conn, Service service) throws SQLException {
-        String sql = "INSERT INTO SERVICE (libelle) VALUES (?)";
+        String sql = "INSERT INTO SERVICE (lib_service, localisation_service) VALUES (?, ?)";
         try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, service.getLibelle());
+            pstmt.setString(1, service.getLibService());
+            pstmt.setString(2, service.getLocalisationService());
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
                 throw new DataAccessException("La création du service RH a échoué, aucune ligne affectée.");
@@ -84,17 +86,19 @@ public class ServiceRHRepositoryImpl implements ServiceRHRepository {
                 }
             }
         } catch (SQLException e) {
-            throw new DataAccessException("Erreur lors de la sauvegarde du service RH: " + service.getLibelle(), e);
+            throw new DataAccessException("Erreur lors de la sauvegarde du service RH: " + service.getLibService(), e);
         }
+        ReferentielCache.getInstance().invalider();
         return service;
     }
 
     @Override
     public Service update(Connection conn, Service service) throws SQLException {
-        String sql = "UPDATE SERVICE SET libelle = ? WHERE id_service = ?";
+        String sql = "UPDATE SERVICE SET lib_service = ?, localisation_service = ? WHERE id_service = ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, service.getLibelle());
-            pstmt.setInt(2, service.getIdService());
+            pstmt.setString(1, service.getLibService());
+            pstmt.setString(2, service.getLocalisationService());
+            pstmt.setInt(3, service.getIdService());
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
                 throw new DataAccessException("La mise à jour du service RH avec ID " + service.getIdService()
@@ -103,6 +107,7 @@ public class ServiceRHRepositoryImpl implements ServiceRHRepository {
         } catch (SQLException e) {
             throw new DataAccessException("Erreur lors de la mise à jour du service RH: " + service.getIdService(), e);
         }
+        ReferentielCache.getInstance().invalider();
         return service;
     }
 
@@ -112,6 +117,7 @@ public class ServiceRHRepositoryImpl implements ServiceRHRepository {
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             int affectedRows = pstmt.executeUpdate();
+            ReferentielCache.getInstance().invalider();
             return affectedRows > 0;
         } catch (SQLException e) {
             throw new DataAccessException("Erreur lors de la suppression du service RH: " + id, e);
@@ -134,7 +140,7 @@ public class ServiceRHRepositoryImpl implements ServiceRHRepository {
 
     @Override
     public Optional<Service> findByLibelle(Connection conn, String libelle) throws SQLException {
-        String sql = "SELECT id_service, libelle FROM SERVICE WHERE libelle = ?";
+        String sql = "SELECT id_service, lib_service, localisation_service FROM SERVICE WHERE lib_service = ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, libelle);
             try (ResultSet rs = pstmt.executeQuery()) {
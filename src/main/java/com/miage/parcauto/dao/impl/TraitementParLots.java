@@ -0,0 +1,214 @@
+package main.java.com.miage.parcauto.dao.impl;
+
+import main.java.com.miage.parcauto.dao.DbUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Mécanique commune des écritures par lots des repositories (voir
+ * {@link main.java.com.miage.parcauto.dao.BatchRepository}) et des lectures par ensemble
+ * d'identifiants.
+ */
+final class TraitementParLots {
+
+    /**
+     * Affectation des paramètres d'une requête pour une entité.
+     */
+    @FunctionalInterface
+    interface Liaison<T> {
+        void lier(PreparedStatement pstmt, T entite) throws SQLException;
+    }
+
+    private TraitementParLots() {
+    }
+
+    /**
+     * Exécute une insertion par lots et affecte les clés générées aux entités, dans l'ordre.
+     *
+     * @throws SQLException si l'insertion échoue ou si le nombre de clés générées ne correspond pas.
+     */
+    static <T> List<T> inserer(Connection conn, String sql, List<T> entites, Liaison<T> liaison,
+                               ObjIntConsumer<T> affecterId) throws SQLException {
+        if (entites == null || entites.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int tailleLot = DbUtil.getTailleLot();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int debut = 0; debut < entites.size(); debut += tailleLot) {
+                List<T> lot = entites.subList(debut, Math.min(debut + tailleLot, entites.size()));
+                for (T entite : lot) {
+                    liaison.lier(pstmt, entite);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                int i = 0;
+                try (ResultSet cles = pstmt.getGeneratedKeys()) {
+                    while (cles.next() && i < lot.size()) {
+                        affecterId.accept(lot.get(i++), cles.getInt(1));
+                    }
+                }
+                if (i != lot.size()) {
+                    throw new SQLException("Clés générées incomplètes: " + i + " obtenue(s) pour " + lot.size()
+                            + " ligne(s) insérée(s).");
+                }
+            }
+        }
+        return entites;
+    }
+
+    /**
+     * Exécute une mise à jour par lots.
+     *
+     * @return le nombre de lignes mises à jour.
+     */
+    static <T> int mettreAJour(Connection conn, String sql, List<T> entites, Liaison<T> liaison) throws SQLException {
+        if (entites == null || entites.isEmpty()) {
+            return 0;
+        }
+        int tailleLot = DbUtil.getTailleLot();
+        int total = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int enAttente = 0;
+            for (T entite : entites) {
+                liaison.lier(pstmt, entite);
+                pstmt.addBatch();
+                if (++enAttente == tailleLot) {
+                    total += compter(pstmt.executeBatch());
+                    enAttente = 0;
+                }
+            }
+            if (enAttente > 0) {
+                total += compter(pstmt.executeBatch());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Supprime des lignes par identifiant, une requête {@code IN (...)} par lot.
+     *
+     * @return le nombre de lignes supprimées.
+     */
+    static <ID> int supprimer(Connection conn, String table, String colonneId, Collection<ID> ids) throws SQLException {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        List<ID> liste = new ArrayList<>(ids);
+        int tailleLot = DbUtil.getTailleLot();
+        int total = 0;
+        for (int debut = 0; debut < liste.size(); debut += tailleLot) {
+            List<ID> lot = liste.subList(debut, Math.min(debut + tailleLot, liste.size()));
+            String sql = "DELETE FROM " + table + " WHERE " + colonneId + " IN ("
+                    + String.join(", ", Collections.nCopies(lot.size(), "?")) + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < lot.size(); i++) {
+                    pstmt.setObject(i + 1, lot.get(i));
+                }
+                total += pstmt.executeUpdate();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Met à jour les lignes dont une colonne prend l'une des valeurs données, une requête
+     * {@code IN (...)} par lot.
+     *
+     * @param requete    le début de la requête, jusqu'à la colonne filtrée incluse
+     *                   (ex. {@code UPDATE NOTIFICATION SET est_lu = TRUE WHERE id_utilisateur = ? AND id_notification}).
+     * @param parametres les paramètres de la requête précédant la liste de valeurs.
+     * @return le nombre de lignes mises à jour.
+     */
+    static <ID> int mettreAJour(Connection conn, String requete, List<?> parametres, Collection<ID> valeurs)
+            throws SQLException {
+        if (valeurs == null || valeurs.isEmpty()) {
+            return 0;
+        }
+        List<ID> liste = new ArrayList<>(valeurs);
+        int tailleLot = DbUtil.getTailleLot();
+        int total = 0;
+        for (int debut = 0; debut < liste.size(); debut += tailleLot) {
+            List<ID> lot = liste.subList(debut, Math.min(debut + tailleLot, liste.size()));
+            String sql = requete + " IN (" + String.join(", ", Collections.nCopies(lot.size(), "?")) + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                for (Object parametre : parametres) {
+                    pstmt.setObject(index++, parametre);
+                }
+                for (ID valeur : lot) {
+                    pstmt.setObject(index++, valeur);
+                }
+                total += pstmt.executeUpdate();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Lit les lignes dont une colonne prend l'une des valeurs données, une requête
+     * {@code IN (...)} par lot (par exemple les entretiens d'un ensemble de véhicules).
+     *
+     * @param requete le début de la requête, jusqu'à la colonne filtrée incluse
+     *                (ex. {@code SELECT * FROM ENTRETIEN WHERE id_vehicule}).
+     * @return les lignes lues, lot après lot.
+     */
+    static <ID, T> List<T> lire(Connection conn, String requete, Collection<ID> valeurs,
+                                PaginationCurseur.Lecture<T> lecture) throws SQLException {
+        return lire(conn, requete, List.of(), valeurs, "", lecture);
+    }
+
+    /**
+     * Variante de {@link #lire(Connection, String, Collection, PaginationCurseur.Lecture)} pour
+     * une requête paramétrée avant la liste de valeurs et poursuivie après elle.
+     *
+     * @param parametres les paramètres de la requête précédant la liste de valeurs.
+     * @param suite      la fin de la requête après la liste de valeurs (ex. {@code GROUP BY id_vehicule}).
+     * @return les lignes lues, lot après lot (un regroupement s'applique à chaque lot).
+     */
+    static <ID, T> List<T> lire(Connection conn, String requete, List<?> parametres, Collection<ID> valeurs,
+                                String suite, PaginationCurseur.Lecture<T> lecture) throws SQLException {
+        List<T> resultats = new ArrayList<>();
+        if (valeurs == null || valeurs.isEmpty()) {
+            return resultats;
+        }
+        List<ID> liste = new ArrayList<>(valeurs);
+        int tailleLot = DbUtil.getTailleLot();
+        for (int debut = 0; debut < liste.size(); debut += tailleLot) {
+            List<ID> lot = liste.subList(debut, Math.min(debut + tailleLot, liste.size()));
+            String sql = requete + " IN (" + String.join(", ", Collections.nCopies(lot.size(), "?")) + ")" + suite;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                for (Object parametre : parametres) {
+                    pstmt.setObject(index++, parametre);
+                }
+                for (ID valeur : lot) {
+                    pstmt.setObject(index++, valeur);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        resultats.add(lecture.lire(rs));
+                    }
+                }
+            }
+        }
+        return resultats;
+    }
+
+    private static int compter(int[] resultats) {
+        int total = 0;
+        for (int resultat : resultats) {
+            // SUCCESS_NO_INFO : le pilote n'a pas détaillé le nombre de lignes du lot réécrit
+            total += resultat == Statement.SUCCESS_NO_INFO ? 1 : Math.max(resultat, 0);
+        }
+        return total;
+    }
+}
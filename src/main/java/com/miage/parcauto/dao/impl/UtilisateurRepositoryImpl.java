@@ -13,8 +13,10 @@ import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class UtilisateurRepositoryImpl implements UtilisateurRepository {
 
@@ -219,4 +221,14 @@ public class UtilisateurRepositoryImpl implements UtilisateurRepository {
         }
         return Optional.empty();
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<Integer> findIdsByRoles(Connection conn, Collection<Role> roles) throws SQLException {
+        try {
+            return TraitementParLots.lire(conn, "SELECT id_utilisateur FROM UTILISATEUR WHERE role", roles.stream()
+                    .map(Role::name).collect(Collectors.toList()), rs -> rs.getInt("id_utilisateur"));
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la recherche des utilisateurs par rôle: " + roles, e);
+        }
+    }
+}
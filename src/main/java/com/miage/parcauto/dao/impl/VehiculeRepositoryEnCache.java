@@ -0,0 +1,181 @@
+package main.java.com.miage.parcauto.dao.impl;
+
+import main.java.com.miage.parcauto.dao.EntiteCache;
+import main.java.com.miage.parcauto.dao.PageCurseur;
+import main.java.com.miage.parcauto.dao.TriCurseur;
+import main.java.com.miage.parcauto.dao.VehiculeRepository;
+import main.java.com.miage.parcauto.dto.VehiculeResumeDTO;
+import main.java.com.miage.parcauto.model.vehicule.Energie;
+import main.java.com.miage.parcauto.model.vehicule.Vehicule;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Décorateur de {@link VehiculeRepository} servant {@code findById} depuis un {@link EntiteCache}.
+ * Les écritures invalident les véhicules concernés avant d'être transmises ; les autres
+ * recherches sont déléguées telles quelles. Obtenu via {@link CachesEntites#vehicules}.
+ */
+final class VehiculeRepositoryEnCache implements VehiculeRepository {
+
+    private final VehiculeRepository delegue;
+    private final EntiteCache<Integer, Vehicule> cache;
+
+    VehiculeRepositoryEnCache(VehiculeRepository delegue, EntiteCache<Integer, Vehicule> cache) {
+        this.delegue = delegue;
+        this.cache = cache;
+    }
+
+    static Vehicule copier(Vehicule source) {
+        Vehicule copie = new Vehicule();
+        copie.setIdVehicule(source.getIdVehicule());
+        copie.setIdEtatVoiture(source.getIdEtatVoiture());
+        copie.setEnergie(source.getEnergie());
+        copie.setNumeroChassis(source.getNumeroChassis());
+        copie.setImmatriculation(source.getImmatriculation());
+        copie.setMarque(source.getMarque());
+        copie.setModele(source.getModele());
+        copie.setNbPlaces(source.getNbPlaces());
+        copie.setDateAcquisition(source.getDateAcquisition());
+        copie.setDateAmmortissement(source.getDateAmmortissement());
+        copie.setDateMiseEnService(source.getDateMiseEnService());
+        copie.setPuissance(source.getPuissance());
+        copie.setCouleur(source.getCouleur());
+        copie.setPrixVehicule(source.getPrixVehicule());
+        copie.setKmActuels(source.getKmActuels());
+        copie.setDateEtat(source.getDateEtat());
+        return copie;
+    }
+
+    @Override
+    public Optional<Vehicule> findById(Connection conn, Integer id) throws SQLException {
+        if (id == null) {
+            return delegue.findById(conn, id);
+        }
+        Vehicule enCache = cache.get(id);
+        if (enCache != null) {
+            return Optional.of(enCache);
+        }
+        long jeton = cache.jeton(id);
+        Optional<Vehicule> vehicule = delegue.findById(conn, id);
+        vehicule.ifPresent(v -> cache.mettre(id, v, jeton));
+        return vehicule;
+    }
+
+    @Override
+    public List<Vehicule> findAll(Connection conn) throws SQLException {
+        return delegue.findAll(conn);
+    }
+
+    @Override
+    public List<Vehicule> findAll(Connection conn, int page, int size) throws SQLException {
+        return delegue.findAll(conn, page, size);
+    }
+
+    @Override
+    public PageCurseur<Vehicule> findPageAfter(Connection conn, String jeton, int size, TriCurseur tri) throws SQLException {
+        return delegue.findPageAfter(conn, jeton, size, tri);
+    }
+
+    @Override
+    public PageCurseur<VehiculeResumeDTO> findResumesAfter(Connection conn, String jeton, int size, TriCurseur tri)
+            throws SQLException {
+        return delegue.findResumesAfter(conn, jeton, size, tri);
+    }
+
+    @Override
+    public Vehicule save(Connection conn, Vehicule vehicule) throws SQLException {
+        return delegue.save(conn, vehicule); // Nouvel identifiant : rien à invalider
+    }
+
+    @Override
+    public Vehicule update(Connection conn, Vehicule vehicule) throws SQLException {
+        cache.invalider(vehicule.getIdVehicule(), conn);
+        return delegue.update(conn, vehicule);
+    }
+
+    @Override
+    public List<Vehicule> saveAll(Connection conn, List<Vehicule> vehicules) throws SQLException {
+        return delegue.saveAll(conn, vehicules);
+    }
+
+    @Override
+    public int updateAll(Connection conn, List<Vehicule> vehicules) throws SQLException {
+        vehicules.forEach(v -> cache.invalider(v.getIdVehicule(), conn));
+        return delegue.updateAll(conn, vehicules);
+    }
+
+    @Override
+    public int deleteAllById(Connection conn, Collection<Integer> ids) throws SQLException {
+        ids.forEach(id -> cache.invalider(id, conn));
+        return delegue.deleteAllById(conn, ids);
+    }
+
+    @Override
+    public boolean delete(Connection conn, Integer id) throws SQLException {
+        cache.invalider(id, conn);
+        return delegue.delete(conn, id);
+    }
+
+    @Override
+    public long count(Connection conn) throws SQLException {
+        return delegue.count(conn);
+    }
+
+    @Override
+    public List<Vehicule> findByEtatVoitureId(Connection conn, Integer idEtatVoiture) throws SQLException {
+        return delegue.findByEtatVoitureId(conn, idEtatVoiture);
+    }
+
+    @Override
+    public List<Vehicule> findRequiringMaintenance(Connection conn, int kmMarge, LocalDateTime dateLimite) throws SQLException {
+        return delegue.findRequiringMaintenance(conn, kmMarge, dateLimite);
+    }
+
+    @Override
+    public Optional<Vehicule> findByImmatriculation(Connection conn, String immatriculation) throws SQLException {
+        return delegue.findByImmatriculation(conn, immatriculation);
+    }
+
+    @Override
+    public Optional<Vehicule> findByNumeroChassi(Connection conn, String numeroChassi) throws SQLException {
+        return delegue.findByNumeroChassi(conn, numeroChassi);
+    }
+
+    @Override
+    public List<Vehicule> findByEnergie(Connection conn, Energie energie) throws SQLException {
+        return delegue.findByEnergie(conn, energie);
+    }
+
+    @Override
+    public List<Vehicule> findDisponibles(Connection conn, String libelleEtat, LocalDateTime debut, LocalDateTime fin)
+            throws SQLException {
+        return delegue.findDisponibles(conn, libelleEtat, debut, fin);
+    }
+
+    @Override
+    public boolean isDisponible(Connection conn, Integer idVehicule, String libelleEtat, LocalDateTime debut,
+            LocalDateTime fin, Integer idMissionIgnoree) throws SQLException {
+        return delegue.isDisponible(conn, idVehicule, libelleEtat, debut, fin, idMissionIgnoree);
+    }
+
+    @Override
+    public Set<Integer> findAllIds(Connection conn) throws SQLException {
+        return delegue.findAllIds(conn);
+    }
+
+    @Override
+    public Set<String> findAllImmatriculations(Connection conn) throws SQLException {
+        return delegue.findAllImmatriculations(conn);
+    }
+
+    @Override
+    public Set<String> findAllNumerosChassis(Connection conn) throws SQLException {
+        return delegue.findAllNumerosChassis(conn);
+    }
+}
@@ -1,6 +1,9 @@
 package main.java.com.miage.parcauto.dao.impl;
 
 import main.java.com.miage.parcauto.dao.VehiculeRepository;
+import main.java.com.miage.parcauto.dao.PageCurseur;
+import main.java.com.miage.parcauto.dao.TriCurseur;
+import main.java.com.miage.parcauto.dto.VehiculeResumeDTO;
 import main.java.com.miage.parcauto.model.vehicule.Vehicule;
 import main.java.com.miage.parcauto.model.vehicule.Energie;
 // L'entité EtatVoiture n'est pas directement utilisée pour le mapping ici, on utilise son ID.
@@ -14,12 +17,32 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public class VehiculeRepositoryImpl implements VehiculeRepository {
 
+    private final PaginationCurseur<Vehicule> pagination = new PaginationCurseur<>("VEHICULES", "id_vehicule", "date_acquisition",
+            this::mapResultSetToVehicule, Vehicule::getIdVehicule, Vehicule::getDateAcquisition);
+    private final PaginationCurseur<VehiculeResumeDTO> paginationResumes = new PaginationCurseur<>(
+            "VEHICULES",
+            "id_vehicule, immatriculation, marque, modele, energie, id_etat_voiture, km_actuels, date_acquisition",
+            "id_vehicule", "date_acquisition", this::mapResultSetToResume,
+            VehiculeResumeDTO::getIdVehicule, VehiculeResumeDTO::getDateAcquisition);
+
+    // Chevauchement [debut, fin] : une période en conflit commence avant la fin demandée
+    // et se termine après le début demandé. Prédicats indexables sur (id_vehicule, date_debut...).
+    private static final String SANS_MISSION_EN_CONFLIT = "NOT EXISTS (SELECT 1 FROM MISSION m " +
+            "WHERE m.id_vehicule = v.id_vehicule AND m.status <> 'Cloturee' " +
+            "AND m.date_debut_mission <= ? AND COALESCE(m.date_fin_mission, m.date_debut_mission) >= ?";
+    private static final String SANS_AFFECTATION_EN_CONFLIT = "NOT EXISTS (SELECT 1 FROM AFFECTATION a " +
+            "WHERE a.id_vehicule = v.id_vehicule AND a.date_debut <= ? AND (a.date_fin IS NULL OR a.date_fin >= ?))";
+
     private Vehicule mapResultSetToVehicule(ResultSet rs) throws SQLException {
         Vehicule vehicule = new Vehicule();
         vehicule.setIdVehicule(rs.getInt("id_vehicule"));
@@ -40,6 +63,20 @@ public class VehiculeRepositoryImpl implements VehiculeRepository {
         return vehicule;
     }
 
+    private VehiculeResumeDTO mapResultSetToResume(ResultSet rs) throws SQLException {
+        VehiculeResumeDTO resume = new VehiculeResumeDTO();
+        resume.setIdVehicule(rs.getInt("id_vehicule"));
+        resume.setImmatriculation(rs.getString("immatriculation"));
+        resume.setMarque(rs.getString("marque"));
+        resume.setModele(rs.getString("modele"));
+        resume.setEnergie(rs.getString("energie"));
+        resume.setIdEtatVoiture(rs.getInt("id_etat_voiture"));
+        resume.setKmActuels((Integer) rs.getObject("km_actuels"));
+        Timestamp dateAcquisition = rs.getTimestamp("date_acquisition");
+        resume.setDateAcquisition(dateAcquisition != null ? dateAcquisition.toLocalDateTime() : null);
+        return resume;
+    }
+
     @Override
     public Optional<Vehicule> findById(Connection conn, Integer id) throws SQLException {
         String sql = "SELECT * FROM VEHICULES WHERE id_vehicule = ?";
@@ -74,7 +111,7 @@ public class VehiculeRepositoryImpl implements VehiculeRepository {
     @Override
     public List<Vehicule> findAll(Connection conn, int page, int size) throws SQLException {
         List<Vehicule> vehicules = new ArrayList<>();
-        String sql = "SELECT * FROM VEHICULES LIMIT ? OFFSET ?";
+        String sql = "SELECT * FROM VEHICULES ORDER BY id_vehicule LIMIT ? OFFSET ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, size);
             pstmt.setInt(2, (page - 1) * size);
@@ -89,39 +126,69 @@ public class VehiculeRepositoryImpl implements VehiculeRepository {
         return vehicules;
     }
 
+    @Override
+    public PageCurseur<Vehicule> findPageAfter(Connection conn, String jeton, int size, TriCurseur tri) throws SQLException {
+        try {
+            return pagination.page(conn, jeton, size, tri);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la lecture paginée (curseur) des véhicules", e);
+        }
+    }
+
+    @Override
+    public PageCurseur<VehiculeResumeDTO> findResumesAfter(Connection conn, String jeton, int size, TriCurseur tri)
+            throws SQLException {
+        try {
+            return paginationResumes.page(conn, jeton, size, tri);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la lecture de la liste des véhicules", e);
+        }
+    }
+
+    private static final String SQL_INSERT = "INSERT INTO VEHICULES (id_etat_voiture, energie, numero_chassi, immatriculation, marque, modele, nb_places, date_acquisition, date_ammortissement, date_mise_en_service, puissance, couleur, prix_vehicule, km_actuels, date_etat) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE VEHICULES SET id_etat_voiture = ?, energie = ?, numero_chassi = ?, immatriculation = ?, marque = ?, modele = ?, nb_places = ?, date_acquisition = ?, date_ammortissement = ?, date_mise_en_service = ?, puissance = ?, couleur = ?, prix_vehicule = ?, km_actuels = ?, date_etat = ? WHERE id_vehicule = ?";
+
+    private void lierVehicule(PreparedStatement pstmt, Vehicule vehicule) throws SQLException {
+        pstmt.setInt(1, vehicule.getIdEtatVoiture());
+        pstmt.setString(2, vehicule.getEnergie() != null ? vehicule.getEnergie().getValeur() : null);
+        pstmt.setString(3, vehicule.getNumeroChassi());
+        pstmt.setString(4, vehicule.getImmatriculation());
+        pstmt.setString(5, vehicule.getMarque());
+        pstmt.setString(6, vehicule.getModele());
+        if (vehicule.getNbPlaces() != null)
+            pstmt.setInt(7, vehicule.getNbPlaces());
+        else
+            pstmt.setNull(7, Types.INTEGER);
+        pstmt.setTimestamp(8,
+                vehicule.getDateAcquisition() != null ? Timestamp.valueOf(vehicule.getDateAcquisition()) : null);
+        pstmt.setTimestamp(9,
+                vehicule.getDateAmmortissement() != null ? Timestamp.valueOf(vehicule.getDateAmmortissement())
+                        : null);
+        pstmt.setTimestamp(10,
+                vehicule.getDateMiseEnService() != null ? Timestamp.valueOf(vehicule.getDateMiseEnService())
+                        : null);
+        if (vehicule.getPuissance() != null)
+            pstmt.setInt(11, vehicule.getPuissance());
+        else
+            pstmt.setNull(11, Types.INTEGER);
+        pstmt.setString(12, vehicule.getCouleur());
+        pstmt.setBigDecimal(13, vehicule.getPrixVehicule());
+        if (vehicule.getKmActuels() != null)
+            pstmt.setInt(14, vehicule.getKmActuels());
+        else
+            pstmt.setNull(14, Types.INTEGER);
+        pstmt.setTimestamp(15, vehicule.getDateEtat() != null ? Timestamp.valueOf(vehicule.getDateEtat()) : null);
+    }
+
+    private void lierVehiculeMiseAJour(PreparedStatement pstmt, Vehicule vehicule) throws SQLException {
+        lierVehicule(pstmt, vehicule);
+        pstmt.setInt(16, vehicule.getIdVehicule());
+    }
+
     @Override
     public Vehicule save(Connection conn, Vehicule vehicule) throws SQLException {
-        String sql = "INSERT INTO VEHICULES (id_etat_voiture, energie, numero_chassi, immatriculation, marque, modele, nb_places, date_acquisition, date_ammortissement, date_mise_en_service, puissance, couleur, prix_vehicule, km_actuels, date_etat) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setInt(1, vehicule.getIdEtatVoiture());
-            pstmt.setString(2, vehicule.getEnergie() != null ? vehicule.getEnergie().getValeur() : null);
-            pstmt.setString(3, vehicule.getNumeroChassi());
-            pstmt.setString(4, vehicule.getImmatriculation());
-            pstmt.setString(5, vehicule.getMarque());
-            pstmt.setString(6, vehicule.getModele());
-            if (vehicule.getNbPlaces() != null)
-                pstmt.setInt(7, vehicule.getNbPlaces());
-            else
-                pstmt.setNull(7, Types.INTEGER);
-            pstmt.setTimestamp(8,
-                    vehicule.getDateAcquisition() != null ? Timestamp.valueOf(vehicule.getDateAcquisition()) : null);
-            pstmt.setTimestamp(9,
-                    vehicule.getDateAmmortissement() != null ? Timestamp.valueOf(vehicule.getDateAmmortissement())
-                            : null);
-            pstmt.setTimestamp(10,
-                    vehicule.getDateMiseEnService() != null ? Timestamp.valueOf(vehicule.getDateMiseEnService())
-                            : null);
-            if (vehicule.getPuissance() != null)
-                pstmt.setInt(11, vehicule.getPuissance());
-            else
-                pstmt.setNull(11, Types.INTEGER);
-            pstmt.setString(12, vehicule.getCouleur());
-            pstmt.setBigDecimal(13, vehicule.getPrixVehicule());
-            if (vehicule.getKmActuels() != null)
-                pstmt.setInt(14, vehicule.getKmActuels());
-            else
-                pstmt.setNull(14, Types.INTEGER);
-            pstmt.setTimestamp(15, vehicule.getDateEtat() != null ? Timestamp.valueOf(vehicule.getDateEtat()) : null);
+        try (PreparedStatement pstmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            lierVehicule(pstmt, vehicule);
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -143,38 +210,8 @@ public class VehiculeRepositoryImpl implements VehiculeRepository {
 
     @Override
     public Vehicule update(Connection conn, Vehicule vehicule) throws SQLException {
-        String sql = "UPDATE VEHICULES SET id_etat_voiture = ?, energie = ?, numero_chassi = ?, immatriculation = ?, marque = ?, modele = ?, nb_places = ?, date_acquisition = ?, date_ammortissement = ?, date_mise_en_service = ?, puissance = ?, couleur = ?, prix_vehicule = ?, km_actuels = ?, date_etat = ? WHERE id_vehicule = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, vehicule.getIdEtatVoiture());
-            pstmt.setString(2, vehicule.getEnergie() != null ? vehicule.getEnergie().getValeur() : null);
-            pstmt.setString(3, vehicule.getNumeroChassi());
-            pstmt.setString(4, vehicule.getImmatriculation());
-            pstmt.setString(5, vehicule.getMarque());
-            pstmt.setString(6, vehicule.getModele());
-            if (vehicule.getNbPlaces() != null)
-                pstmt.setInt(7, vehicule.getNbPlaces());
-            else
-                pstmt.setNull(7, Types.INTEGER);
-            pstmt.setTimestamp(8,
-                    vehicule.getDateAcquisition() != null ? Timestamp.valueOf(vehicule.getDateAcquisition()) : null);
-            pstmt.setTimestamp(9,
-                    vehicule.getDateAmmortissement() != null ? Timestamp.valueOf(vehicule.getDateAmmortissement())
-                            : null);
-            pstmt.setTimestamp(10,
-                    vehicule.getDateMiseEnService() != null ? Timestamp.valueOf(vehicule.getDateMiseEnService())
-                            : null);
-            if (vehicule.getPuissance() != null)
-                pstmt.setInt(11, vehicule.getPuissance());
-            else
-                pstmt.setNull(11, Types.INTEGER);
-            pstmt.setString(12, vehicule.getCouleur());
-            pstmt.setBigDecimal(13, vehicule.getPrixVehicule());
-            if (vehicule.getKmActuels() != null)
-                pstmt.setInt(14, vehicule.getKmActuels());
-            else
-                pstmt.setNull(14, Types.INTEGER);
-            pstmt.setTimestamp(15, vehicule.getDateEtat() != null ? Timestamp.valueOf(vehicule.getDateEtat()) : null);
-            pstmt.setInt(16, vehicule.getIdVehicule());
+        try (PreparedStatement pstmt = conn.prepareStatement(SQL_UPDATE)) {
+            lierVehiculeMiseAJour(pstmt, vehicule);
 
             int affectedRows = pstmt.executeUpdate();
             if (affectedRows == 0) {
@@ -187,6 +224,33 @@ public class VehiculeRepositoryImpl implements VehiculeRepository {
         return vehicule;
     }
 
+    @Override
+    public List<Vehicule> saveAll(Connection conn, List<Vehicule> vehicules) throws SQLException {
+        try {
+            return TraitementParLots.inserer(conn, SQL_INSERT, vehicules, this::lierVehicule, Vehicule::setIdVehicule);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la sauvegarde par lots de " + vehicules.size() + " véhicules", e);
+        }
+    }
+
+    @Override
+    public int updateAll(Connection conn, List<Vehicule> vehicules) throws SQLException {
+        try {
+            return TraitementParLots.mettreAJour(conn, SQL_UPDATE, vehicules, this::lierVehiculeMiseAJour);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la mise à jour par lots de " + vehicules.size() + " véhicules", e);
+        }
+    }
+
+    @Override
+    public int deleteAllById(Connection conn, Collection<Integer> ids) throws SQLException {
+        try {
+            return TraitementParLots.supprimer(conn, "VEHICULES", "id_vehicule", ids);
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors de la suppression par lots de " + ids.size() + " véhicules", e);
+        }
+    }
+
     @Override
     public boolean delete(Connection conn, Integer id) throws SQLException {
         String sql = "DELETE FROM VEHICULES WHERE id_vehicule = ?";
@@ -231,42 +295,24 @@ public class VehiculeRepositoryImpl implements VehiculeRepository {
     }
 
     @Override
-    public List<Vehicule> findRequiringMaintenance(Connection conn, int kmSeuilProchainEntretien) throws SQLException {
+    public List<Vehicule> findRequiringMaintenance(Connection conn, int kmMarge, LocalDateTime dateLimite) throws SQLException {
         List<Vehicule> vehicules = new ArrayList<>();
-        // Cette requête est un exemple et doit être adaptée à votre logique métier
-        // exacte
-        // pour déterminer la nécessité d'une maintenance.
-        // Par exemple, si vous avez une table d'entretiens planifiés ou un champ
-        // 'km_prochain_entretien'.
-        // Ici, une logique simplifiée : véhicules ayant dépassé un certain kilométrage.
-        String sql = "SELECT * FROM VEHICULES v " +
-                "LEFT JOIN ENTRETIEN e ON v.id_vehicule = e.id_vehicule " +
-                "AND e.date_realisation = (SELECT MAX(e2.date_realisation) FROM ENTRETIEN e2 WHERE e2.id_vehicule = v.id_vehicule) "
-                + // Dernier entretien réalisé
-                "WHERE v.km_actuels >= COALESCE(e.km_prochain_entretien, 0) - ? " + // km_prochain_entretien du dernier
-                                                                                    // entretien
-                "OR (e.id_entretien IS NULL AND v.km_actuels >= ?)"; // Cas où aucun entretien n'a encore été fait,
-                                                                     // seuil initial
-
-        // Si la logique est plus simple, par exemple juste un seuil sur km_actuels par
-        // rapport à une valeur de référence
-        // String sql_simple = "SELECT * FROM VEHICULES WHERE km_actuels > ?";
-
+        // UNION plutôt que OR : chaque branche reste une lecture par plage sur son index
+        String sql = "SELECT v.* FROM VEHICULES v JOIN ECHEANCE_ENTRETIEN p ON p.id_vehicule = v.id_vehicule " +
+                "WHERE p.km_restants <= ? " +
+                "UNION " +
+                "SELECT v.* FROM VEHICULES v JOIN ECHEANCE_ENTRETIEN p ON p.id_vehicule = v.id_vehicule " +
+                "WHERE p.date_prochain <= ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, kmSeuilProchainEntretien); // Seuil pour la différence
-            pstmt.setInt(2, kmSeuilProchainEntretien); // Seuil initial si pas d'entretien
-            // Pour la version simple: pstmt.setInt(1, kmSeuilProchainEntretien);
-
+            pstmt.setInt(1, kmMarge);
+            pstmt.setTimestamp(2, Timestamp.valueOf(dateLimite));
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     vehicules.add(mapResultSetToVehicule(rs));
                 }
             }
         } catch (SQLException e) {
-            throw new DataAccessException(
-                    "Erreur lors de la recherche des véhicules nécessitant une maintenance avec seuil "
-                            + kmSeuilProchainEntretien,
-                    e);
+            throw new DataAccessException("Erreur lors de la recherche des véhicules nécessitant une maintenance", e);
         }
         return vehicules;
     }
@@ -322,4 +368,102 @@ public class VehiculeRepositoryImpl implements VehiculeRepository {
         }
         return vehicules;
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<Vehicule> findDisponibles(Connection conn, String libelleEtat, LocalDateTime debut, LocalDateTime fin)
+            throws SQLException {
+        List<Vehicule> vehicules = new ArrayList<>();
+        String sql = "SELECT v.* FROM VEHICULES v " +
+                "JOIN ETAT_VOITURE ev ON ev.id_etat_voiture = v.id_etat_voiture " +
+                "WHERE ev.lib_etat_voiture = ? " +
+                "AND " + SANS_MISSION_EN_CONFLIT + ") " +
+                "AND " + SANS_AFFECTATION_EN_CONFLIT;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            Timestamp tsDebut = Timestamp.valueOf(debut);
+            Timestamp tsFin = Timestamp.valueOf(fin);
+            pstmt.setString(1, libelleEtat);
+            pstmt.setTimestamp(2, tsFin);
+            pstmt.setTimestamp(3, tsDebut);
+            pstmt.setTimestamp(4, tsFin);
+            pstmt.setTimestamp(5, tsDebut);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    vehicules.add(mapResultSetToVehicule(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(
+                    "Erreur lors de la recherche des véhicules disponibles du " + debut + " au " + fin, e);
+        }
+        return vehicules;
+    }
+
+    @Override
+    public boolean isDisponible(Connection conn, Integer idVehicule, String libelleEtat, LocalDateTime debut,
+            LocalDateTime fin, Integer idMissionIgnoree) throws SQLException {
+        String sql = "SELECT 1 FROM VEHICULES v " +
+                "JOIN ETAT_VOITURE ev ON ev.id_etat_voiture = v.id_etat_voiture " +
+                "WHERE v.id_vehicule = ? AND ev.lib_etat_voiture = ? " +
+                "AND " + SANS_MISSION_EN_CONFLIT + " AND m.id_mission <> ?) " +
+                "AND " + SANS_AFFECTATION_EN_CONFLIT;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            Timestamp tsDebut = Timestamp.valueOf(debut);
+            Timestamp tsFin = Timestamp.valueOf(fin);
+            pstmt.setInt(1, idVehicule);
+            pstmt.setString(2, libelleEtat);
+            pstmt.setTimestamp(3, tsFin);
+            pstmt.setTimestamp(4, tsDebut);
+            pstmt.setInt(5, idMissionIgnoree != null ? idMissionIgnoree : 0); // Les ID auto-incrémentés commencent à 1
+            pstmt.setTimestamp(6, tsFin);
+            pstmt.setTimestamp(7, tsDebut);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(
+                    "Erreur lors de la vérification de disponibilité du véhicule " + idVehicule, e);
+        }
+    }
+
+    @Override
+    public Set<Integer> findAllIds(Connection conn) throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT id_vehicule FROM VEHICULES")) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors du chargement des identifiants de véhicules", e);
+        }
+        return ids;
+    }
+
+    @Override
+    public Set<String> findAllImmatriculations(Connection conn) throws SQLException {
+        try {
+            return chargerValeurs(conn, "SELECT immatriculation FROM VEHICULES WHERE immatriculation IS NOT NULL");
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors du chargement des immatriculations", e);
+        }
+    }
+
+    @Override
+    public Set<String> findAllNumerosChassis(Connection conn) throws SQLException {
+        try {
+            return chargerValeurs(conn, "SELECT numero_chassi FROM VEHICULES WHERE numero_chassi IS NOT NULL");
+        } catch (SQLException e) {
+            throw new DataAccessException("Erreur lors du chargement des numéros de châssis", e);
+        }
+    }
+
+    private Set<String> chargerValeurs(Connection conn, String sql) throws SQLException {
+        Set<String> valeurs = new HashSet<>();
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                valeurs.add(rs.getString(1));
+            }
+        }
+        return valeurs;
+    }
+}
@@ -0,0 +1,78 @@
+package main.java.com.miage.parcauto.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+public class AlerteDocumentDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Integer idDocument;
+    private Integer idSocietaire;
+    private String nomSocietaire;
+    private String typeDocument;
+    private LocalDateTime dateExpiration;
+    private long joursRestants;
+
+    public AlerteDocumentDTO() {
+    }
+
+    public Integer getIdDocument() {
+        return idDocument;
+    }
+
+    public void setIdDocument(Integer idDocument) {
+        this.idDocument = idDocument;
+    }
+
+    public Integer getIdSocietaire() {
+        return idSocietaire;
+    }
+
+    public void setIdSocietaire(Integer idSocietaire) {
+        this.idSocietaire = idSocietaire;
+    }
+
+    public String getNomSocietaire() {
+        return nomSocietaire;
+    }
+
+    public void setNomSocietaire(String nomSocietaire) {
+        this.nomSocietaire = nomSocietaire;
+    }
+
+    public String getTypeDocument() {
+        return typeDocument;
+    }
+
+    public void setTypeDocument(String typeDocument) {
+        this.typeDocument = typeDocument;
+    }
+
+    public LocalDateTime getDateExpiration() {
+        return dateExpiration;
+    }
+
+    public void setDateExpiration(LocalDateTime dateExpiration) {
+        this.dateExpiration = dateExpiration;
+    }
+
+    public long getJoursRestants() {
+        return joursRestants;
+    }
+
+    public void setJoursRestants(long joursRestants) {
+        this.joursRestants = joursRestants;
+    }
+
+    @Override
+    public String toString() {
+        return "AlerteDocumentDTO{" +
+                "idDocument=" + idDocument +
+                ", societaire='" + nomSocietaire + '\'' +
+                ", type='" + typeDocument + '\'' +
+                ", dateExpiration=" + dateExpiration +
+                ", joursRestants=" + joursRestants +
+                '}';
+    }
+}
@@ -13,6 +13,7 @@ public class AlerteEntretienDTO implements Serializable {
     private Integer kmProchainEntretien;
     private LocalDateTime dateProchainEntretien;
     private Integer kmDepuisDernierEntretien; // Optionnel, pour information
+    private Integer kmActuels;
     private String messageAlerte;
 
     public AlerteEntretienDTO() {
@@ -74,6 +75,14 @@ public class AlerteEntretienDTO implements Serializable {
         this.messageAlerte = messageAlerte;
     }
 
+    public Integer getKmActuels() {
+        return kmActuels;
+    }
+
+    public void setKmActuels(Integer kmActuels) {
+        this.kmActuels = kmActuels;
+    }
+
     @Override
     public String toString() {
         return "AlerteEntretienDTO{" +
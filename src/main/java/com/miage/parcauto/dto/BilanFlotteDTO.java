@@ -1,5 +1,9 @@
 package main.java.com.miage.parcauto.dto;
 
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class BilanFlotteDTO {
     private int nombreTotalVehicules;
     private int nombreVehiculesDisponibles;
@@ -7,6 +11,9 @@ public class BilanFlotteDTO {
     private int nombreVehiculesEnEntretien;
     private int nombreVehiculesHorsService;
     private int nombreVehiculesEnMaintenance;
+    private long kilometrageTotalFlotte;
+    private BigDecimal coutTotalEntretiensMoisEnCours = BigDecimal.ZERO;
+    private Map<String, Integer> repartitionParEtat = new LinkedHashMap<>();
 
     public BilanFlotteDTO() {
     }
@@ -58,4 +65,32 @@ public class BilanFlotteDTO {
     public void setNombreVehiculesEnMaintenance(int nombreVehiculesEnMaintenance) {
         this.nombreVehiculesEnMaintenance = nombreVehiculesEnMaintenance;
     }
+
+    public long getKilometrageTotalFlotte() {
+        return kilometrageTotalFlotte;
+    }
+
+    public void setKilometrageTotalFlotte(long kilometrageTotalFlotte) {
+        this.kilometrageTotalFlotte = kilometrageTotalFlotte;
+    }
+
+    public BigDecimal getCoutTotalEntretiensMoisEnCours() {
+        return coutTotalEntretiensMoisEnCours;
+    }
+
+    public void setCoutTotalEntretiensMoisEnCours(BigDecimal coutTotalEntretiensMoisEnCours) {
+        this.coutTotalEntretiensMoisEnCours = coutTotalEntretiensMoisEnCours;
+    }
+
+    /**
+     * @return le nombre de véhicules par libellé d'état (ETAT_VOITURE), y compris les états sans
+     *         champ dédié.
+     */
+    public Map<String, Integer> getRepartitionParEtat() {
+        return repartitionParEtat;
+    }
+
+    public void setRepartitionParEtat(Map<String, Integer> repartitionParEtat) {
+        this.repartitionParEtat = repartitionParEtat;
+    }
 }
\ No newline at end of file
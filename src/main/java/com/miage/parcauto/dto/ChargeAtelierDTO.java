@@ -0,0 +1,53 @@
+package main.java.com.miage.parcauto.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Charge prévisionnelle de l'atelier sur une semaine : entretiens dont l'échéance projetée
+ * tombe dans la semaine (les échéances déjà dépassées comptent dans la première semaine).
+ */
+public class ChargeAtelierDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private LocalDate debutSemaine;
+    private List<EcheanceEntretienDTO> echeances = new ArrayList<>();
+
+    public ChargeAtelierDTO() {
+    }
+
+    public ChargeAtelierDTO(LocalDate debutSemaine) {
+        this.debutSemaine = debutSemaine;
+    }
+
+    public LocalDate getDebutSemaine() {
+        return debutSemaine;
+    }
+
+    public void setDebutSemaine(LocalDate debutSemaine) {
+        this.debutSemaine = debutSemaine;
+    }
+
+    public List<EcheanceEntretienDTO> getEcheances() {
+        return echeances;
+    }
+
+    public void setEcheances(List<EcheanceEntretienDTO> echeances) {
+        this.echeances = echeances;
+    }
+
+    public int getNombreEntretiens() {
+        return echeances.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ChargeAtelierDTO{" +
+                "debutSemaine=" + debutSemaine +
+                ", nombreEntretiens=" + getNombreEntretiens() +
+                '}';
+    }
+}
@@ -0,0 +1,92 @@
+package main.java.com.miage.parcauto.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Segment de la frise de planning d'un véhicule : plage libre ou occupée.
+ */
+public class CreneauDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Integer idVehicule;
+    private LocalDateTime debut;
+    private LocalDateTime fin;
+    private boolean occupe;
+    private String typeReservation; // "Mission" ou "Affectation" si occupé, null sinon
+    private Integer idReference; // id_mission ou id de l'affectation si occupé
+
+    public CreneauDTO() {
+    }
+
+    public CreneauDTO(Integer idVehicule, LocalDateTime debut, LocalDateTime fin, boolean occupe,
+                      String typeReservation, Integer idReference) {
+        this.idVehicule = idVehicule;
+        this.debut = debut;
+        this.fin = fin;
+        this.occupe = occupe;
+        this.typeReservation = typeReservation;
+        this.idReference = idReference;
+    }
+
+    public Integer getIdVehicule() {
+        return idVehicule;
+    }
+
+    public void setIdVehicule(Integer idVehicule) {
+        this.idVehicule = idVehicule;
+    }
+
+    public LocalDateTime getDebut() {
+        return debut;
+    }
+
+    public void setDebut(LocalDateTime debut) {
+        this.debut = debut;
+    }
+
+    public LocalDateTime getFin() {
+        return fin;
+    }
+
+    public void setFin(LocalDateTime fin) {
+        this.fin = fin;
+    }
+
+    public boolean isOccupe() {
+        return occupe;
+    }
+
+    public void setOccupe(boolean occupe) {
+        this.occupe = occupe;
+    }
+
+    public String getTypeReservation() {
+        return typeReservation;
+    }
+
+    public void setTypeReservation(String typeReservation) {
+        this.typeReservation = typeReservation;
+    }
+
+    public Integer getIdReference() {
+        return idReference;
+    }
+
+    public void setIdReference(Integer idReference) {
+        this.idReference = idReference;
+    }
+
+    @Override
+    public String toString() {
+        return "CreneauDTO{" +
+                "idVehicule=" + idVehicule +
+                ", debut=" + debut +
+                ", fin=" + fin +
+                ", occupe=" + occupe +
+                ", typeReservation='" + typeReservation + '\'' +
+                ", idReference=" + idReference +
+                '}';
+    }
+}
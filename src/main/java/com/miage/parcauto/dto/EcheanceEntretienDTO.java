@@ -0,0 +1,125 @@
+package main.java.com.miage.parcauto.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Prochain entretien dû d'un véhicule (projection ECHEANCE_ENTRETIEN), tenue à jour à la
+ * clôture des entretiens et des missions et aux relevés kilométriques.
+ */
+public class EcheanceEntretienDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Integer idVehicule;
+    private String vehiculeInfo; // Marque Modèle (Immatriculation)
+    private Integer kmActuels;
+    private Integer kmDernierEntretien;
+    private LocalDateTime dateDernierEntretien; // Mise en service si aucun entretien clôturé
+    private Integer kmProchainEntretien;
+    private LocalDateTime dateProchainEntretien;
+    private double kmParJour; // Moyenne des relevés des missions récentes
+    private LocalDateTime dateEcheance; // Première des deux échéances, le seuil km étant projeté
+    private LocalDateTime dateMaj;
+
+    public EcheanceEntretienDTO() {
+    }
+
+    public Integer getIdVehicule() {
+        return idVehicule;
+    }
+
+    public void setIdVehicule(Integer idVehicule) {
+        this.idVehicule = idVehicule;
+    }
+
+    public String getVehiculeInfo() {
+        return vehiculeInfo;
+    }
+
+    public void setVehiculeInfo(String vehiculeInfo) {
+        this.vehiculeInfo = vehiculeInfo;
+    }
+
+    public Integer getKmActuels() {
+        return kmActuels;
+    }
+
+    public void setKmActuels(Integer kmActuels) {
+        this.kmActuels = kmActuels;
+    }
+
+    public Integer getKmDernierEntretien() {
+        return kmDernierEntretien;
+    }
+
+    public void setKmDernierEntretien(Integer kmDernierEntretien) {
+        this.kmDernierEntretien = kmDernierEntretien;
+    }
+
+    public LocalDateTime getDateDernierEntretien() {
+        return dateDernierEntretien;
+    }
+
+    public void setDateDernierEntretien(LocalDateTime dateDernierEntretien) {
+        this.dateDernierEntretien = dateDernierEntretien;
+    }
+
+    public Integer getKmProchainEntretien() {
+        return kmProchainEntretien;
+    }
+
+    public void setKmProchainEntretien(Integer kmProchainEntretien) {
+        this.kmProchainEntretien = kmProchainEntretien;
+    }
+
+    public LocalDateTime getDateProchainEntretien() {
+        return dateProchainEntretien;
+    }
+
+    public void setDateProchainEntretien(LocalDateTime dateProchainEntretien) {
+        this.dateProchainEntretien = dateProchainEntretien;
+    }
+
+    public double getKmParJour() {
+        return kmParJour;
+    }
+
+    public void setKmParJour(double kmParJour) {
+        this.kmParJour = kmParJour;
+    }
+
+    public LocalDateTime getDateEcheance() {
+        return dateEcheance;
+    }
+
+    public void setDateEcheance(LocalDateTime dateEcheance) {
+        this.dateEcheance = dateEcheance;
+    }
+
+    public LocalDateTime getDateMaj() {
+        return dateMaj;
+    }
+
+    public void setDateMaj(LocalDateTime dateMaj) {
+        this.dateMaj = dateMaj;
+    }
+
+    /**
+     * @return les kilomètres restant avant le prochain entretien (négatif si dépassé), ou null.
+     */
+    public Integer getKmRestants() {
+        return kmProchainEntretien != null && kmActuels != null ? kmProchainEntretien - kmActuels : null;
+    }
+
+    @Override
+    public String toString() {
+        return "EcheanceEntretienDTO{" +
+                "idVehicule=" + idVehicule +
+                ", kmProchainEntretien=" + kmProchainEntretien +
+                ", kmRestants=" + getKmRestants() +
+                ", dateProchainEntretien=" + dateProchainEntretien +
+                ", dateEcheance=" + dateEcheance +
+                '}';
+    }
+}
@@ -0,0 +1,100 @@
+package main.java.com.miage.parcauto.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de la liste des entretiens : projection des seules colonnes affichées, sans
+ * l'observation (TEXT). Le détail complet ({@link EntretienDTO}) est chargé à la sélection
+ * d'une ligne.
+ */
+public class EntretienResumeDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Integer idEntretien;
+    private Integer idVehicule;
+    private String immatriculation;
+    private LocalDateTime dateEntree;
+    private LocalDateTime dateSortie;
+    private String motif;
+    private String type;
+    private String statutOT;
+    private BigDecimal cout;
+
+    public EntretienResumeDTO() {
+    }
+
+    public Integer getIdEntretien() {
+        return idEntretien;
+    }
+
+    public void setIdEntretien(Integer idEntretien) {
+        this.idEntretien = idEntretien;
+    }
+
+    public Integer getIdVehicule() {
+        return idVehicule;
+    }
+
+    public void setIdVehicule(Integer idVehicule) {
+        this.idVehicule = idVehicule;
+    }
+
+    public String getImmatriculation() {
+        return immatriculation;
+    }
+
+    public void setImmatriculation(String immatriculation) {
+        this.immatriculation = immatriculation;
+    }
+
+    public LocalDateTime getDateEntree() {
+        return dateEntree;
+    }
+
+    public void setDateEntree(LocalDateTime dateEntree) {
+        this.dateEntree = dateEntree;
+    }
+
+    public LocalDateTime getDateSortie() {
+        return dateSortie;
+    }
+
+    public void setDateSortie(LocalDateTime dateSortie) {
+        this.dateSortie = dateSortie;
+    }
+
+    public String getMotif() {
+        return motif;
+    }
+
+    public void setMotif(String motif) {
+        this.motif = motif;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getStatutOT() {
+        return statutOT;
+    }
+
+    public void setStatutOT(String statutOT) {
+        this.statutOT = statutOT;
+    }
+
+    public BigDecimal getCout() {
+        return cout;
+    }
+
+    public void setCout(BigDecimal cout) {
+        this.cout = cout;
+    }
+}
@@ -0,0 +1,53 @@
+package main.java.com.miage.parcauto.dto;
+
+import java.io.Serializable;
+
+/**
+ * Rejet d'une ligne lors d'un import en masse.
+ */
+public class ErreurImportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long numeroLigne; // Numéro d'enregistrement dans le fichier (l'en-tête est le numéro 1)
+    private String identifiant; // Immatriculation, matricule... pour retrouver la ligne
+    private String message;
+
+    public ErreurImportDTO() {
+    }
+
+    public ErreurImportDTO(long numeroLigne, String identifiant, String message) {
+        this.numeroLigne = numeroLigne;
+        this.identifiant = identifiant;
+        this.message = message;
+    }
+
+    public long getNumeroLigne() {
+        return numeroLigne;
+    }
+
+    public void setNumeroLigne(long numeroLigne) {
+        this.numeroLigne = numeroLigne;
+    }
+
+    public String getIdentifiant() {
+        return identifiant;
+    }
+
+    public void setIdentifiant(String identifiant) {
+        this.identifiant = identifiant;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "Ligne " + numeroLigne + (identifiant != null ? " (" + identifiant + ")" : "") + ": " + message;
+    }
+}
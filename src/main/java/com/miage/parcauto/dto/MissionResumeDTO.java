@@ -0,0 +1,90 @@
+package main.java.com.miage.parcauto.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de la liste des missions : projection des seules colonnes affichées, sans les
+ * textes libres (circuit, observation). Le détail complet ({@link MissionDTO}) est chargé
+ * à la sélection d'une ligne.
+ */
+public class MissionResumeDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Integer idMission;
+    private Integer idVehicule;
+    private String immatriculation;
+    private String libMission;
+    private String site;
+    private LocalDateTime dateDebut;
+    private LocalDateTime dateFin;
+    private String status;
+
+    public MissionResumeDTO() {
+    }
+
+    public Integer getIdMission() {
+        return idMission;
+    }
+
+    public void setIdMission(Integer idMission) {
+        this.idMission = idMission;
+    }
+
+    public Integer getIdVehicule() {
+        return idVehicule;
+    }
+
+    public void setIdVehicule(Integer idVehicule) {
+        this.idVehicule = idVehicule;
+    }
+
+    public String getImmatriculation() {
+        return immatriculation;
+    }
+
+    public void setImmatriculation(String immatriculation) {
+        this.immatriculation = immatriculation;
+    }
+
+    public String getLibMission() {
+        return libMission;
+    }
+
+    public void setLibMission(String libMission) {
+        this.libMission = libMission;
+    }
+
+    public String getSite() {
+        return site;
+    }
+
+    public void setSite(String site) {
+        this.site = site;
+    }
+
+    public LocalDateTime getDateDebut() {
+        return dateDebut;
+    }
+
+    public void setDateDebut(LocalDateTime dateDebut) {
+        this.dateDebut = dateDebut;
+    }
+
+    public LocalDateTime getDateFin() {
+        return dateFin;
+    }
+
+    public void setDateFin(LocalDateTime dateFin) {
+        this.dateFin = dateFin;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
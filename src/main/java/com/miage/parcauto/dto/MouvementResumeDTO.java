@@ -0,0 +1,81 @@
+package main.java.com.miage.parcauto.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de la liste des mouvements de comptes sociétaires : projection des colonnes
+ * affichées. Le détail complet ({@link MouvementDTO}) est chargé à la sélection d'une ligne.
+ */
+public class MouvementResumeDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Integer idMouvement;
+    private Integer idSocietaire;
+    private String nomSocietaire;
+    private String numeroCompte;
+    private LocalDateTime date;
+    private String type;
+    private BigDecimal montant;
+
+    public MouvementResumeDTO() {
+    }
+
+    public Integer getIdMouvement() {
+        return idMouvement;
+    }
+
+    public void setIdMouvement(Integer idMouvement) {
+        this.idMouvement = idMouvement;
+    }
+
+    public Integer getIdSocietaire() {
+        return idSocietaire;
+    }
+
+    public void setIdSocietaire(Integer idSocietaire) {
+        this.idSocietaire = idSocietaire;
+    }
+
+    public String getNomSocietaire() {
+        return nomSocietaire;
+    }
+
+    public void setNomSocietaire(String nomSocietaire) {
+        this.nomSocietaire = nomSocietaire;
+    }
+
+    public String getNumeroCompte() {
+        return numeroCompte;
+    }
+
+    public void setNumeroCompte(String numeroCompte) {
+        this.numeroCompte = numeroCompte;
+    }
+
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDateTime date) {
+        this.date = date;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public BigDecimal getMontant() {
+        return montant;
+    }
+
+    public void setMontant(BigDecimal montant) {
+        this.montant = montant;
+    }
+}
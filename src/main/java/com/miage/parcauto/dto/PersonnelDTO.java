@@ -8,6 +8,8 @@ public class PersonnelDTO {
     private Integer idPersonnel;
     private Integer idService;
     private Integer idFonction;
+    private String libelleService;
+    private String libelleFonction;
     private String nom;
     private String prenom;
     private String sexe;
@@ -46,6 +48,22 @@ public class PersonnelDTO {
         this.idFonction = idFonction;
     }
 
+    public String getLibelleService() {
+        return libelleService;
+    }
+
+    public void setLibelleService(String libelleService) {
+        this.libelleService = libelleService;
+    }
+
+    public String getLibelleFonction() {
+        return libelleFonction;
+    }
+
+    public void setLibelleFonction(String libelleFonction) {
+        this.libelleFonction = libelleFonction;
+    }
+
     public String getNom() {
         return nom;
     }
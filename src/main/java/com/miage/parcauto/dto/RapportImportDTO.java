@@ -0,0 +1,104 @@
+package main.java.com.miage.parcauto.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bilan d'un import en masse : compteurs, rejets ligne par ligne et débit.
+ */
+public class RapportImportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String typeImport; // "Véhicules", "Personnel", "Entretiens"
+    private long lignesLues;
+    private long lignesImportees;
+    private long lignesRejetees;
+    private long lotsEnregistres;
+    private long dureeMs;
+    private List<ErreurImportDTO> erreurs = new ArrayList<>();
+
+    public RapportImportDTO() {
+    }
+
+    public RapportImportDTO(String typeImport) {
+        this.typeImport = typeImport;
+    }
+
+    public String getTypeImport() {
+        return typeImport;
+    }
+
+    public void setTypeImport(String typeImport) {
+        this.typeImport = typeImport;
+    }
+
+    public long getLignesLues() {
+        return lignesLues;
+    }
+
+    public void setLignesLues(long lignesLues) {
+        this.lignesLues = lignesLues;
+    }
+
+    public long getLignesImportees() {
+        return lignesImportees;
+    }
+
+    public void setLignesImportees(long lignesImportees) {
+        this.lignesImportees = lignesImportees;
+    }
+
+    public long getLignesRejetees() {
+        return lignesRejetees;
+    }
+
+    public void setLignesRejetees(long lignesRejetees) {
+        this.lignesRejetees = lignesRejetees;
+    }
+
+    public long getLotsEnregistres() {
+        return lotsEnregistres;
+    }
+
+    public void setLotsEnregistres(long lotsEnregistres) {
+        this.lotsEnregistres = lotsEnregistres;
+    }
+
+    public long getDureeMs() {
+        return dureeMs;
+    }
+
+    public void setDureeMs(long dureeMs) {
+        this.dureeMs = dureeMs;
+    }
+
+    public List<ErreurImportDTO> getErreurs() {
+        return erreurs;
+    }
+
+    public void setErreurs(List<ErreurImportDTO> erreurs) {
+        this.erreurs = erreurs;
+    }
+
+    /**
+     * @return Le débit de l'import, en lignes lues par seconde.
+     */
+    public long getLignesParSeconde() {
+        return lignesLues * 1000 / Math.max(dureeMs, 1);
+    }
+
+    /**
+     * @return true si aucune ligne n'a été rejetée.
+     */
+    public boolean isComplet() {
+        return lignesRejetees == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Import " + typeImport + ": " + lignesImportees + "/" + lignesLues + " ligne(s) importée(s), "
+                + lignesRejetees + " rejetée(s) en " + dureeMs + " ms (" + getLignesParSeconde() + " lignes/s)";
+    }
+}
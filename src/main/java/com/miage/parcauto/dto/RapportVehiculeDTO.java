@@ -6,6 +6,7 @@ public class RapportVehiculeDTO {
     private VehiculeDTO vehicule;
     private List<EntretienDTO> entretiens;
     private List<MissionDTO> missions;
+    private TcoVehiculeDTO tco;
 
     public RapportVehiculeDTO() {
     }
@@ -33,4 +34,12 @@ public class RapportVehiculeDTO {
     public void setMissions(List<MissionDTO> missions) {
         this.missions = missions;
     }
-}
\ No newline at end of file
+
+    public TcoVehiculeDTO getTco() {
+        return tco;
+    }
+
+    public void setTco(TcoVehiculeDTO tco) {
+        this.tco = tco;
+    }
+}
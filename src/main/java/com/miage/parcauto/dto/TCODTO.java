@@ -3,6 +3,8 @@ package main.java.com.miage.parcauto.dto;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TCODTO implements Serializable {
 
@@ -19,10 +21,12 @@ public class TCODTO implements Serializable {
     private BigDecimal coutTotalAchats;
     private BigDecimal coutTotalEntretiens;
     private BigDecimal coutTotalCarburant;
+    private BigDecimal coutTotalAutresDepenses;
     private BigDecimal coutTotalAssurances;
     private BigDecimal depreciationTotale;
     private BigDecimal tcoGlobalFlotte;
     private BigDecimal coutMoyenParKmFlotte;
+    private List<TcoVehiculeDTO> detailsVehicules = new ArrayList<>();
 
     public TCODTO() {
     }
@@ -115,6 +119,14 @@ public class TCODTO implements Serializable {
         this.coutTotalCarburant = coutTotalCarburant;
     }
 
+    public BigDecimal getCoutTotalAutresDepenses() {
+        return coutTotalAutresDepenses;
+    }
+
+    public void setCoutTotalAutresDepenses(BigDecimal coutTotalAutresDepenses) {
+        this.coutTotalAutresDepenses = coutTotalAutresDepenses;
+    }
+
     public BigDecimal getCoutTotalAssurances() {
         return coutTotalAssurances;
     }
@@ -147,6 +159,14 @@ public class TCODTO implements Serializable {
         this.coutMoyenParKmFlotte = coutMoyenParKmFlotte;
     }
 
+    public List<TcoVehiculeDTO> getDetailsVehicules() {
+        return detailsVehicules;
+    }
+
+    public void setDetailsVehicules(List<TcoVehiculeDTO> detailsVehicules) {
+        this.detailsVehicules = detailsVehicules;
+    }
+
     @Override
     public String toString() {
         return "TCO pour " + (vehiculeInfo != null ? vehiculeInfo : "Véhicule ID " + idVehicule) + ": " + coutsTotaux
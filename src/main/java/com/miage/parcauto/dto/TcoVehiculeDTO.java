@@ -2,6 +2,7 @@ package main.java.com.miage.parcauto.dto;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public class TcoVehiculeDTO implements Serializable {
 
@@ -16,6 +17,8 @@ public class TcoVehiculeDTO implements Serializable {
     private String immatriculation;
     private String marque;
     private String modele;
+    private LocalDateTime dateAcquisition;
+    private LocalDateTime dateAmortissement;
     private BigDecimal coutAchat;
     private BigDecimal coutTotalEntretiens;
     private BigDecimal coutTotalCarburant;
@@ -99,6 +102,22 @@ public class TcoVehiculeDTO implements Serializable {
         this.modele = modele;
     }
 
+    public LocalDateTime getDateAcquisition() {
+        return dateAcquisition;
+    }
+
+    public void setDateAcquisition(LocalDateTime dateAcquisition) {
+        this.dateAcquisition = dateAcquisition;
+    }
+
+    public LocalDateTime getDateAmortissement() {
+        return dateAmortissement;
+    }
+
+    public void setDateAmortissement(LocalDateTime dateAmortissement) {
+        this.dateAmortissement = dateAmortissement;
+    }
+
     public BigDecimal getCoutAchat() {
         return coutAchat;
     }
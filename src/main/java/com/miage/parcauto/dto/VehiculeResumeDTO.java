@@ -0,0 +1,98 @@
+package main.java.com.miage.parcauto.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de la liste des véhicules : projection des seules colonnes affichées.
+ * Le détail complet ({@link VehiculeDTO}) est chargé à la sélection d'une ligne.
+ */
+public class VehiculeResumeDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Integer idVehicule;
+    private String immatriculation;
+    private String marque;
+    private String modele;
+    private String energie;
+    private Integer idEtatVoiture;
+    private String libelleEtatVoiture; // Résolu depuis le cache des tables de référence
+    private Integer kmActuels;
+    private LocalDateTime dateAcquisition;
+
+    public VehiculeResumeDTO() {
+    }
+
+    public Integer getIdVehicule() {
+        return idVehicule;
+    }
+
+    public void setIdVehicule(Integer idVehicule) {
+        this.idVehicule = idVehicule;
+    }
+
+    public String getImmatriculation() {
+        return immatriculation;
+    }
+
+    public void setImmatriculation(String immatriculation) {
+        this.immatriculation = immatriculation;
+    }
+
+    public String getMarque() {
+        return marque;
+    }
+
+    public void setMarque(String marque) {
+        this.marque = marque;
+    }
+
+    public String getModele() {
+        return modele;
+    }
+
+    public void setModele(String modele) {
+        this.modele = modele;
+    }
+
+    public String getEnergie() {
+        return energie;
+    }
+
+    public void setEnergie(String energie) {
+        this.energie = energie;
+    }
+
+    public Integer getIdEtatVoiture() {
+        return idEtatVoiture;
+    }
+
+    public void setIdEtatVoiture(Integer idEtatVoiture) {
+        this.idEtatVoiture = idEtatVoiture;
+    }
+
+    public String getLibelleEtatVoiture() {
+        return libelleEtatVoiture;
+    }
+
+    public void setLibelleEtatVoiture(String libelleEtatVoiture) {
+        this.libelleEtatVoiture = libelleEtatVoiture;
+    }
+
+    public Integer getKmActuels() {
+        return kmActuels;
+    }
+
+    public void setKmActuels(Integer kmActuels) {
+        this.kmActuels = kmActuels;
+    }
+
+    public LocalDateTime getDateAcquisition() {
+        return dateAcquisition;
+    }
+
+    public void setDateAcquisition(LocalDateTime dateAcquisition) {
+        this.dateAcquisition = dateAcquisition;
+    }
+}
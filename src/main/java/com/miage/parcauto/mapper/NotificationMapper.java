@@ -1,7 +1,7 @@
 package main.java.com.miage.parcauto.mapper;
 
 import main.java.com.miage.parcauto.dto.NotificationDTO;
-import main.java.com.miage.parcauto.model.Notification; // Assurez-vous du bon chemin
+import main.java.com.miage.parcauto.model.notification.Notification;
 import java.util.List;
 
 /**
@@ -11,7 +11,7 @@ import java.util.stream.Collectors;
 /**
  * Implémentation de {@link NotificationMapper}.
  */
-public abstract class NotificationMapperImpl implements NotificationMapper {
+public class NotificationMapperImpl implements NotificationMapper {
 
     /**
      * {@inheritDoc}
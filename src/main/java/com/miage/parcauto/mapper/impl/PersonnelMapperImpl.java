@@ -1,5 +1,6 @@
 package main.java.com.miage.parcauto.mapper.impl;
 
+import main.java.com.miage.parcauto.dao.impl.ReferentielCache;
 import main.java.com.miage.parcauto.dto.PersonnelDTO;
 import main.java.com.miage.parcauto.mapper.PersonnelMapper;
 import main.java.com.miage.parcauto.model.rh.Personnel;
@@ -11,20 +12,41 @@ import java.util.stream.Collectors;
 
 public class PersonnelMapperImpl implements PersonnelMapper {
 
+    private final ReferentielCache referentielCache;
+
+    public PersonnelMapperImpl() {
+        this(ReferentielCache.getInstance());
+    }
+
+    public PersonnelMapperImpl(ReferentielCache referentielCache) {
+        this.referentielCache = referentielCache;
+    }
+
     @Override
     public PersonnelDTO toDTO(Personnel personnel) {
         if (personnel == null) {
             return null;
         }
+        return toDTO(personnel, referentielCache.get());
+    }
+
+    private PersonnelDTO toDTO(Personnel personnel, ReferentielCache.Referentiel referentiel) {
         PersonnelDTO dto = new PersonnelDTO();
         dto.setIdPersonnel(personnel.getIdPersonnel());
         dto.setIdService(personnel.getIdService());
         dto.setIdFonction(personnel.getIdFonction());
+        dto.setLibelleService(referentiel.getLibelleService(personnel.getIdService()));
+        dto.setLibelleFonction(referentiel.getLibelleFonction(personnel.getIdFonction()));
         dto.setNom(personnel.getNom());
         dto.setPrenom(personnel.getPrenom());
         dto.setSexe(personnel.getSexe() != null ? personnel.getSexe().name() : null);
         dto.setDateEmbauche(personnel.getDateAttributionVehicule());
         dto.setObservation(personnel.getObservation());
+        dto.setMatricule(personnel.getMatricule());
+        dto.setEmail(personnel.getEmail());
+        dto.setTelephone(personnel.getTelephone());
+        dto.setAdresse(personnel.getAdresse());
+        dto.setDateNaissance(personnel.getDateNaissance());
         return dto;
     }
 
@@ -42,6 +64,11 @@ public class PersonnelMapperImpl implements PersonnelMapper {
         entity.setSexe(dto.getSexe() != null ? Sexe.valueOf(dto.getSexe()) : null);
         entity.setDateAttributionVehicule(dto.getDateEmbauche());
         entity.setObservation(dto.getObservation());
+        entity.setMatricule(dto.getMatricule());
+        entity.setEmail(dto.getEmail());
+        entity.setTelephone(dto.getTelephone());
+        entity.setAdresse(dto.getAdresse());
+        entity.setDateNaissance(dto.getDateNaissance());
         return entity;
     }
 
@@ -50,8 +77,9 @@ public class PersonnelMapperImpl implements PersonnelMapper {
         if (personnels == null) {
             return Collections.emptyList();
         }
+        ReferentielCache.Referentiel referentiel = referentielCache.get(); // Une seule résolution pour la liste
         return personnels.stream()
-                .map(this::toDTO)
+                .map(personnel -> personnel != null ? toDTO(personnel, referentiel) : null)
                 .collect(Collectors.toList());
     }
 
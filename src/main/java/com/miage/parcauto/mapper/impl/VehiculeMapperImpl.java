@@ -4,37 +4,35 @@ import main.java.com.miage.parcauto.dto.VehiculeDTO;
 import main.java.com.miage.parcauto.mapper.VehiculeMapper;
 import main.java.com.miage.parcauto.model.vehicule.Vehicule;
 import main.java.com.miage.parcauto.model.vehicule.Energie; // Assurez-vous que Energie est importable
-import main.java.com.miage.parcauto.model.vehicule.EtatVoiture; // Pour le libellé de l'état
 
-import main.java.com.miage.parcauto.dao.EtatVoitureRepository; // Pour récupérer le libellé
-import main.java.com.miage.parcauto.dao.impl.EtatVoitureRepositoryImpl; // Pour récupérer le libellé
-import main.java.com.miage.parcauto.dao.DbUtil; // Pour la connexion
+import main.java.com.miage.parcauto.dao.impl.ReferentielCache;
 
-import java.sql.Connection;
-import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class VehiculeMapperImpl implements VehiculeMapper {
 
-    // Optionnel: injecter le repository si on veut enrichir le DTO avec le libellé
-    // de l'état
-    private EtatVoitureRepository etatVoitureRepository;
+    // Libellés d'état résolus depuis le cache des tables de référence, sans requête par véhicule
+    private final ReferentielCache referentielCache;
 
     public VehiculeMapperImpl() {
-        // Pour des raisons de simplicité ici, on l'instancie directement.
-        // Dans une application avec injection de dépendances, il serait injecté.
-        this.etatVoitureRepository = new EtatVoitureRepositoryImpl();
+        this(ReferentielCache.getInstance());
     }
 
-    public VehiculeMapperImpl(EtatVoitureRepository etatVoitureRepository) {
-        this.etatVoitureRepository = etatVoitureRepository;
+    public VehiculeMapperImpl(ReferentielCache referentielCache) {
+        this.referentielCache = referentielCache;
     }
 
     @Override
     public VehiculeDTO toDTO(Vehicule vehicule) {
+        if (vehicule == null)
+            return null;
+        return toDTO(vehicule, referentielCache.get().getLibellesEtatsVoiture());
+    }
+
+    private VehiculeDTO toDTO(Vehicule vehicule, Map<Integer, String> libellesEtats) {
         if (vehicule == null)
             return null;
         VehiculeDTO dto = new VehiculeDTO();
@@ -54,8 +52,8 @@ public class VehiculeMapperImpl implements VehiculeMapper {
         dto.setPrixVehicule(vehicule.getPrixVehicule());
         dto.setKmActuels(vehicule.getKmActuels());
         dto.setDateEtat(vehicule.getDateEtat());
+        dto.setLibelleEtatVoiture(libellesEtats.get(vehicule.getIdEtatVoiture()));
         dto.setActif(null); // À adapter si champ présent côté entité
-        // Gestion du libellé d’état si besoin via un service externe
         return dto;
     }
 
@@ -89,8 +87,9 @@ public class VehiculeMapperImpl implements VehiculeMapper {
         if (vehicules == null) {
             return Collections.emptyList();
         }
+        Map<Integer, String> libellesEtats = referentielCache.get().getLibellesEtatsVoiture(); // Une seule résolution pour la liste
         return vehicules.stream()
-                .map(this::toDTO)
+                .map(vehicule -> toDTO(vehicule, libellesEtats))
                 .collect(Collectors.toList());
     }
 
@@ -0,0 +1,35 @@
+package main.java.com.miage.parcauto.model.finance;
+
+/**
+ * Catégories de coûts agrégées par véhicule et par mois dans la table COUT_MENSUEL.
+ */
+public enum CategorieCout {
+    ENTRETIEN("Entretien"),
+    CARBURANT("Carburant"), // Mêmes libellés que DEPENSE_MISSION.nature
+    FRAIS_ANNEXES("FraisAnnexes"),
+    ASSURANCE("Assurance");
+
+    private final String libelle;
+
+    CategorieCout(String libelle) {
+        this.libelle = libelle;
+    }
+
+    public String getLibelle() {
+        return libelle;
+    }
+
+    public static CategorieCout fromLibelle(String libelle) {
+        for (CategorieCout categorie : CategorieCout.values()) {
+            if (categorie.libelle.equalsIgnoreCase(libelle) || categorie.name().replace("_", "").equalsIgnoreCase(libelle)) {
+                return categorie;
+            }
+        }
+        throw new IllegalArgumentException("Aucune catégorie de coût ne correspond au libellé : " + libelle);
+    }
+
+    @Override
+    public String toString() {
+        return this.libelle;
+    }
+}
@@ -0,0 +1,85 @@
+package main.java.com.miage.parcauto.model.planning;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Période d'occupation d'un véhicule, issue d'une mission non clôturée ou d'une affectation.
+ * Objet immuable utilisé par l'index de planning.
+ */
+public final class Reservation implements Comparable<Reservation> {
+
+    /** Fin retenue pour une affectation sans date de fin (occupation illimitée). */
+    public static final LocalDateTime FIN_OUVERTE = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    private final TypeReservation type;
+    private final Integer idReference;
+    private final Integer idVehicule;
+    private final LocalDateTime debut;
+    private final LocalDateTime fin;
+
+    public Reservation(TypeReservation type, Integer idReference, Integer idVehicule, LocalDateTime debut,
+                       LocalDateTime fin) {
+        this.type = Objects.requireNonNull(type);
+        this.idReference = Objects.requireNonNull(idReference);
+        this.idVehicule = Objects.requireNonNull(idVehicule);
+        this.debut = Objects.requireNonNull(debut);
+        LocalDateTime finEffective = fin != null ? fin : (type == TypeReservation.AFFECTATION ? FIN_OUVERTE : debut);
+        this.fin = finEffective.isBefore(debut) ? debut : finEffective; // Données incohérentes : période ramenée à un instant
+    }
+
+    public TypeReservation getType() {
+        return type;
+    }
+
+    public Integer getIdReference() {
+        return idReference;
+    }
+
+    public Integer getIdVehicule() {
+        return idVehicule;
+    }
+
+    public LocalDateTime getDebut() {
+        return debut;
+    }
+
+    public LocalDateTime getFin() {
+        return fin;
+    }
+
+    /**
+     * @return la clé unique de la réservation, ex: "MISSION:12".
+     */
+    public String getCle() {
+        return cle(type, idReference);
+    }
+
+    public static String cle(TypeReservation type, Integer idReference) {
+        return type.name() + ":" + idReference;
+    }
+
+    @Override
+    public int compareTo(Reservation autre) {
+        int c = debut.compareTo(autre.debut);
+        return c != 0 ? c : getCle().compareTo(autre.getCle());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Reservation that = (Reservation) o;
+        return type == that.type && idReference.equals(that.idReference);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, idReference);
+    }
+
+    @Override
+    public String toString() {
+        return "Reservation{" + getCle() + ", vehicule=" + idVehicule + ", " + debut + " -> " + fin + '}';
+    }
+}
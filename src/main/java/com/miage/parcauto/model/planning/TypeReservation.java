@@ -0,0 +1,21 @@
+package main.java.com.miage.parcauto.model.planning;
+
+public enum TypeReservation {
+    MISSION("Mission"),
+    AFFECTATION("Affectation");
+
+    private final String libelle;
+
+    TypeReservation(String libelle) {
+        this.libelle = libelle;
+    }
+
+    public String getLibelle() {
+        return libelle;
+    }
+
+    @Override
+    public String toString() {
+        return this.libelle;
+    }
+}
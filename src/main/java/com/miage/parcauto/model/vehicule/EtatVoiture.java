@@ -2,6 +2,12 @@ package main.java.com.miage.parcauto.model.vehicule;
 
 public class EtatVoiture {
 
+    // Identifiants des états de référence (table ETAT_VOITURE)
+    public static final int ID_DISPONIBLE = 1;
+    public static final int ID_EN_MISSION = 2;
+    public static final int ID_HORS_SERVICE = 3;
+    public static final int ID_EN_ENTRETIEN = 4;
+
     private Integer idEtatVoiture;
     private String libEtatVoiture;
 
@@ -0,0 +1,42 @@
+package main.java.com.miage.parcauto.security;
+
+/**
+ * Schéma de hachage des mots de passe pris en charge par {@link PasswordUtil}.
+ * <p>
+ * Chaque schéma reconnaît ses propres hachés stockés (préfixe versionné) ; {@link PasswordUtil}
+ * hache avec le schéma courant et vérifie avec celui qui reconnaît le haché, ce qui permet de
+ * migrer les comptes schéma par schéma, au fil des connexions.
+ */
+public interface HachageMotDePasse {
+
+    /**
+     * @param hashStocke le haché lu en base.
+     * @return true si ce schéma a produit ce haché.
+     */
+    boolean reconnait(String hashStocke);
+
+    /**
+     * @param motDePasse le mot de passe en clair.
+     * @param sel        le sel de l'utilisateur (Base64).
+     * @return le haché à stocker.
+     * @throws PasswordUtil.ParcAutoSecurityException si l'algorithme n'est pas disponible.
+     */
+    String hacher(String motDePasse, String sel) throws PasswordUtil.ParcAutoSecurityException;
+
+    /**
+     * Compare en temps constant le mot de passe fourni au haché stocké.
+     *
+     * @param motDePasse le mot de passe en clair.
+     * @param sel        le sel stocké de l'utilisateur (Base64), ignoré si le haché porte le sien.
+     * @param hashStocke le haché stocké, reconnu par ce schéma.
+     * @return true si le mot de passe correspond.
+     * @throws PasswordUtil.ParcAutoSecurityException si l'algorithme n'est pas disponible.
+     */
+    boolean verifier(String motDePasse, String sel, String hashStocke) throws PasswordUtil.ParcAutoSecurityException;
+
+    /**
+     * @param hashStocke le haché stocké, reconnu par ce schéma.
+     * @return true si le haché est trop faible pour le coût actuel et doit être recalculé.
+     */
+    boolean doitRehacher(String hashStocke);
+}
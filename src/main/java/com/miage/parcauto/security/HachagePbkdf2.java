@@ -0,0 +1,130 @@
+package main.java.com.miage.parcauto.security;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.logging.Logger;
+
+/**
+ * Schéma courant : PBKDF2-HMAC-SHA256, au format versionné
+ * {@code $pbkdf2-sha256$v=1$i=<itérations>$<sel Base64>$<haché Base64>}. Le haché porte son sel
+ * et son nombre d'itérations : augmenter le coût ne rend pas les hachés existants illisibles.
+ * <p>
+ * Le nombre d'itérations des nouveaux hachés est étalonné au démarrage ({@link #calibrer}) pour
+ * qu'une vérification dure environ la latence visée sur le poste ; il vaut le minimum configuré
+ * tant que l'étalonnage n'a pas eu lieu.
+ */
+final class HachagePbkdf2 implements HachageMotDePasse {
+
+    private static final Logger LOGGER = Logger.getLogger(HachagePbkdf2.class.getName());
+
+    private static final String PREFIXE = "$pbkdf2-sha256$v=1$i=";
+    private static final String ALGORITHME = "PBKDF2WithHmacSHA256";
+    private static final int LONGUEUR_BITS = 256;
+    private static final int ITERATIONS_ESSAI = 50_000;
+    private static final int MESURES = 3;
+    private static final int ARRONDI = 1000;
+
+    private final int iterationsMin;
+    private final int iterationsMax;
+    private volatile int iterations;
+
+    HachagePbkdf2(int iterationsMin, int iterationsMax) {
+        this.iterationsMin = iterationsMin;
+        this.iterationsMax = Math.max(iterationsMin, iterationsMax);
+        this.iterations = iterationsMin;
+    }
+
+    /**
+     * Étalonne le nombre d'itérations des nouveaux hachés : mesure la dérivation d'un nombre
+     * d'itérations d'essai (après échauffement du JIT, meilleure de plusieurs mesures) et
+     * l'extrapole à la latence visée, dans les bornes configurées.
+     *
+     * @param cibleMs la durée visée d'une vérification, en millisecondes.
+     * @return le nombre d'itérations retenu.
+     */
+    synchronized int calibrer(long cibleMs) throws PasswordUtil.ParcAutoSecurityException {
+        char[] essai = "etalonnage-parcauto".toCharArray();
+        byte[] sel = new byte[16];
+        deriver(essai, sel, ITERATIONS_ESSAI);
+        long meilleure = Long.MAX_VALUE;
+        for (int i = 0; i < MESURES; i++) {
+            long debut = System.nanoTime();
+            deriver(essai, sel, ITERATIONS_ESSAI);
+            meilleure = Math.min(meilleure, System.nanoTime() - debut);
+        }
+        double parNanos = (double) ITERATIONS_ESSAI / Math.max(1, meilleure);
+        long estimees = (long) (parNanos * cibleMs * 1_000_000L) / ARRONDI * ARRONDI;
+        iterations = (int) Math.max(iterationsMin, Math.min(iterationsMax, estimees));
+        LOGGER.info("Hachage des mots de passe : " + iterations + " itérations PBKDF2 (cible " + cibleMs
+                + " ms, " + estimees + " estimées)");
+        return iterations;
+    }
+
+    int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public boolean reconnait(String hashStocke) {
+        return hashStocke.startsWith(PREFIXE);
+    }
+
+    @Override
+    public String hacher(String motDePasse, String sel) throws PasswordUtil.ParcAutoSecurityException {
+        byte[] octetsSel = Base64.getDecoder().decode(sel);
+        int cout = iterations;
+        byte[] hache = deriver(motDePasse.toCharArray(), octetsSel, cout);
+        Base64.Encoder encodeur = Base64.getEncoder().withoutPadding();
+        return PREFIXE + cout + "$" + encodeur.encodeToString(octetsSel) + "$" + encodeur.encodeToString(hache);
+    }
+
+    @Override
+    public boolean verifier(String motDePasse, String sel, String hashStocke) throws PasswordUtil.ParcAutoSecurityException {
+        String[] parties = hashStocke.substring(PREFIXE.length()).split("\\$");
+        if (parties.length != 3) {
+            return false;
+        }
+        try {
+            int cout = Integer.parseInt(parties[0]);
+            byte[] octetsSel = Base64.getDecoder().decode(parties[1]);
+            byte[] attendu = Base64.getDecoder().decode(parties[2]);
+            if (cout <= 0 || attendu.length * 8 != LONGUEUR_BITS) {
+                return false;
+            }
+            return MessageDigest.isEqual(deriver(motDePasse.toCharArray(), octetsSel, cout), attendu);
+        } catch (IllegalArgumentException e) { // Nombre ou Base64 invalide
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Un écart d'un quart est toléré : les mesures de l'étalonnage varient d'un démarrage à
+     * l'autre et ne doivent pas recalculer tous les hachés à chaque fois.
+     */
+    @Override
+    public boolean doitRehacher(String hashStocke) {
+        int debut = PREFIXE.length();
+        int fin = hashStocke.indexOf('$', debut);
+        try {
+            return fin < 0 || Integer.parseInt(hashStocke.substring(debut, fin)) < iterations * 3L / 4;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static byte[] deriver(char[] motDePasse, byte[] sel, int cout) throws PasswordUtil.ParcAutoSecurityException {
+        PBEKeySpec spec = new PBEKeySpec(motDePasse, sel, cout, LONGUEUR_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHME).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new PasswordUtil.ParcAutoSecurityException("Algorithme de hachage non disponible: " + ALGORITHME, e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package main.java.com.miage.parcauto.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Schéma historique : un SHA-256 de {@code sel + motDePasse}, en Base64, le sel étant stocké à
+ * part. Conservé pour vérifier les comptes existants ; un haché de ce schéma est toujours
+ * recalculé avec le schéma courant à la connexion suivante.
+ */
+final class HachageSha256Historique implements HachageMotDePasse {
+
+    private static final String ALGORITHME = "SHA-256";
+
+    @Override
+    public boolean reconnait(String hashStocke) {
+        // Les schémas versionnés commencent par '$', absent de l'alphabet Base64
+        return !hashStocke.startsWith("$");
+    }
+
+    @Override
+    public String hacher(String motDePasse, String sel) throws PasswordUtil.ParcAutoSecurityException {
+        return Base64.getEncoder().encodeToString(condenser(motDePasse, sel));
+    }
+
+    @Override
+    public boolean verifier(String motDePasse, String sel, String hashStocke) throws PasswordUtil.ParcAutoSecurityException {
+        if (sel == null || sel.isEmpty()) {
+            return false;
+        }
+        byte[] attendu;
+        try {
+            attendu = Base64.getDecoder().decode(hashStocke);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(condenser(motDePasse, sel), attendu);
+    }
+
+    @Override
+    public boolean doitRehacher(String hashStocke) {
+        return true;
+    }
+
+    private static byte[] condenser(String motDePasse, String sel) throws PasswordUtil.ParcAutoSecurityException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(ALGORITHME);
+            return digest.digest((sel + motDePasse).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new PasswordUtil.ParcAutoSecurityException("Algorithme de hachage non disponible: " + ALGORITHME, e);
+        }
+    }
+}
@@ -1,24 +1,45 @@
 package main.java.com.miage.parcauto.security;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import main.java.com.miage.parcauto.dao.DbUtil;
+
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+/**
+ * Hachage et vérification des mots de passe.
+ * <p>
+ * Les nouveaux hachés utilisent le schéma courant ({@link HachagePbkdf2}, coût étalonné par
+ * {@link #calibrate()} sur {@code password.hash.targetMs}) ; la vérification choisit le schéma
+ * d'après le format du haché stocké, ce qui garde lisibles les comptes hachés par un ancien
+ * schéma ({@link HachageSha256Historique}) jusqu'à leur recalcul ({@link #needsRehash}).
+ * Pour changer de schéma, implémenter {@link HachageMotDePasse} et le placer en tête de
+ * {@code SCHEMAS}.
+ * <p>
+ * Une vérification coûte volontairement de l'ordre de la latence visée : elle ne doit pas être
+ * appelée depuis le thread JavaFX.
+ */
 public final class PasswordUtil {
 
-    private static final String HASHING_ALGORITHM = "SHA-256";
+    private static final Logger LOGGER = Logger.getLogger(PasswordUtil.class.getName());
+
     private static final int SALT_LENGTH_BYTES = 16;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final HachagePbkdf2 PBKDF2 = new HachagePbkdf2(
+            entier("password.hash.minIterations", 100_000), entier("password.hash.maxIterations", 10_000_000));
+    // Le premier schéma hache les nouveaux mots de passe ; les suivants ne servent qu'à vérifier
+    private static final List<HachageMotDePasse> SCHEMAS = List.of(PBKDF2, new HachageSha256Historique());
 
     private PasswordUtil() {
         throw new UnsupportedOperationException("Cette classe utilitaire ne doit pas être instanciée.");
     }
 
     public static String generateSalt() {
-        SecureRandom random = new SecureRandom();
         byte[] salt = new byte[SALT_LENGTH_BYTES];
-        random.nextBytes(salt);
+        RANDOM.nextBytes(salt);
         return Base64.getEncoder().encodeToString(salt);
     }
 
@@ -29,26 +50,65 @@ public final class PasswordUtil {
         if (salt == null || salt.isEmpty()) {
             throw new IllegalArgumentException("Le sel ne peut être nul ou vide.");
         }
-
-        try {
-            String saltedPassword = salt + password;
-            MessageDigest digest = MessageDigest.getInstance(HASHING_ALGORITHM);
-            byte[] hashedBytes = digest.digest(saltedPassword.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(hashedBytes);
-        } catch (NoSuchAlgorithmException e) {
-            throw new ParcAutoSecurityException("Algorithme de hachage non disponible: " + HASHING_ALGORITHM, e);
-        }
+        return SCHEMAS.get(0).hacher(password, salt);
     }
 
     public static boolean verifyPassword(String providedPassword, String storedSalt, String storedHashedPassword) throws ParcAutoSecurityException {
         if (providedPassword == null || providedPassword.isEmpty() ||
-                storedSalt == null || storedSalt.isEmpty() ||
                 storedHashedPassword == null || storedHashedPassword.isEmpty()) {
             return false;
         }
+        for (HachageMotDePasse schema : SCHEMAS) {
+            if (schema.reconnait(storedHashedPassword)) {
+                return schema.verifier(providedPassword, storedSalt, storedHashedPassword);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param storedHashedPassword le haché stocké d'un mot de passe qui vient d'être vérifié.
+     * @return true s'il doit être recalculé avec le schéma et le coût courants.
+     */
+    public static boolean needsRehash(String storedHashedPassword) {
+        HachageMotDePasse courant = SCHEMAS.get(0);
+        return !courant.reconnait(storedHashedPassword) || courant.doitRehacher(storedHashedPassword);
+    }
+
+    /**
+     * Effectue un hachage au coût courant et en ignore le résultat, pour qu'un login inconnu
+     * réponde dans le même délai qu'un mot de passe incorrect.
+     */
+    public static void simulateVerification(String password) {
+        try {
+            SCHEMAS.get(0).hacher(password == null || password.isEmpty() ? " " : password, generateSalt());
+        } catch (ParcAutoSecurityException e) {
+            LOGGER.log(Level.FINE, "Échec du hachage factice", e);
+        }
+    }
+
+    /**
+     * Étalonne le coût des nouveaux hachés sur ce poste ({@code password.hash.targetMs}, 150 ms
+     * par défaut). À appeler une fois au démarrage, hors du thread JavaFX ; en cas d'échec le
+     * coût minimal est conservé.
+     */
+    public static void calibrate() {
+        try {
+            PBKDF2.calibrer(entier("password.hash.targetMs", 150));
+        } catch (ParcAutoSecurityException e) {
+            LOGGER.log(Level.WARNING, "Étalonnage du hachage impossible, " + PBKDF2.getIterations()
+                    + " itérations conservées", e);
+        }
+    }
 
-        String newHashedPassword = hashPassword(providedPassword, storedSalt);
-        return newHashedPassword.equals(storedHashedPassword);
+    private static int entier(String cle, int defaut) {
+        try {
+            int valeur = Integer.parseInt(DbUtil.getPropriete(cle, String.valueOf(defaut)).trim());
+            return valeur > 0 ? valeur : defaut;
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur invalide pour " + cle + ", utilisation de " + defaut);
+            return defaut;
+        }
     }
 
     public static class ParcAutoSecurityException extends Exception {
@@ -56,4 +116,4 @@ public final class PasswordUtil {
             super(message, cause);
         }
     }
-}
\ No newline at end of file
+}
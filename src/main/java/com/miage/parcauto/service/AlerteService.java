@@ -0,0 +1,20 @@
+package main.java.com.miage.parcauto.service;
+
+import main.java.com.miage.parcauto.exception.OperationFailedException;
+
+/**
+ * Moteur d'alertes : échéances d'assurance, entretiens dus (kilométrage ou date) et documents
+ * des sociétaires arrivant à expiration.
+ */
+public interface AlerteService {
+
+    /**
+     * Évalue les échéances entrées dans les fenêtres d'alerte depuis la dernière évaluation et
+     * crée une notification par alerte nouvelle et par destinataire (rôles
+     * {@code alert.recipientRoles}). Une alerte déjà émise ne l'est pas une seconde fois.
+     *
+     * @return le nombre d'alertes nouvelles.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    int genererAlertes() throws OperationFailedException;
+}
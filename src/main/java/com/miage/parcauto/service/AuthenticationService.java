@@ -14,6 +14,8 @@ public interface AuthenticationService {
     /**
      * Authentifie un utilisateur sur la base de son login et de son mot de passe.
      * Met à jour la date de dernière connexion en cas de succès.
+     * La vérification du mot de passe dure de l'ordre de {@code password.hash.targetMs} :
+     * depuis l'interface, passer par {@link ServicesAsynchrones#authentification()}.
      *
      * @param login      Le login de l'utilisateur.
      * @param motDePasse Le mot de passe en clair de l'utilisateur.
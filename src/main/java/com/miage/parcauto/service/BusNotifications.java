@@ -0,0 +1,156 @@
+package main.java.com.miage.parcauto.service;
+
+import main.java.com.miage.parcauto.dao.DbUtil;
+import main.java.com.miage.parcauto.service.impl.NotificationServiceImpl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bus de diffusion des notifications, par utilisateur destinataire.
+ * <p>
+ * Le service des notifications y publie chaque changement validé en base (création, lecture,
+ * suppression) ; les composants de l'interface s'abonnent aux changements de l'utilisateur
+ * connecté et appliquent les deltas, sans interroger la base à intervalle régulier.
+ * <p>
+ * Les abonnés sont appelés sur le thread qui publie, après la validation de la transaction :
+ * ils doivent rendre la main rapidement (remise sur le thread JavaFX par {@link LivraisonFx}).
+ * <p>
+ * Si {@code notification.relay.port} et {@code notification.relay.secret} sont configurés, le
+ * bus de l'application est relié aux autres postes de la même machine par
+ * {@link RelaisNotifications} : une notification créée par un client est reçue par les abonnés
+ * des autres.
+ */
+public final class BusNotifications {
+
+    private static final Logger LOGGER = Logger.getLogger(BusNotifications.class.getName());
+
+    private static volatile BusNotifications instance;
+
+    /**
+     * Abonnement à résilier à la fermeture de l'abonné.
+     */
+    public interface Abonnement extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final Map<Integer, List<Consumer<EvenementNotification>>> abonnes = new ConcurrentHashMap<>();
+    private volatile RelaisNotifications relais;
+
+    /**
+     * Crée un bus local, sans relais.
+     */
+    public BusNotifications() {
+    }
+
+    /**
+     * @return le bus de l'application, relié aux autres clients si le relais est configuré.
+     */
+    public static BusNotifications getInstance() {
+        BusNotifications courant = instance;
+        if (courant == null) {
+            synchronized (BusNotifications.class) {
+                courant = instance;
+                if (courant == null) {
+                    courant = new BusNotifications();
+                    int port = port();
+                    String secret = DbUtil.getPropriete("notification.relay.secret", "").trim();
+                    if (port > 0 && secret.isEmpty()) {
+                        LOGGER.warning("notification.relay.secret absent, relais des notifications désactivé");
+                    } else if (port > 0) {
+                        // Service créé à la première relecture : il référence le bus en cours de création
+                        courant.relais = new RelaisNotifications(courant, port, secret,
+                                id -> new NotificationServiceImpl().getNotificationById(id).orElse(null));
+                        courant.relais.demarrer();
+                    }
+                    instance = courant;
+                }
+            }
+        }
+        return courant;
+    }
+
+    /**
+     * Arrête le relais du bus de l'application s'il a été créé (fermeture de l'application).
+     */
+    public static void arreterInstance() {
+        BusNotifications courant = instance;
+        if (courant != null && courant.relais != null) {
+            courant.relais.close();
+        }
+    }
+
+    /**
+     * Abonne un consommateur aux changements des notifications d'un utilisateur.
+     *
+     * @param idUtilisateur l'utilisateur destinataire.
+     * @param abonne        reçoit chaque changement, sur le thread qui publie.
+     * @return l'abonnement, à fermer quand l'abonné disparaît.
+     */
+    public Abonnement abonner(Integer idUtilisateur, Consumer<EvenementNotification> abonne) {
+        abonnes.computeIfAbsent(idUtilisateur, id -> new CopyOnWriteArrayList<>()).add(abonne);
+        return () -> abonnes.computeIfPresent(idUtilisateur, (id, liste) -> {
+            liste.remove(abonne);
+            return liste.isEmpty() ? null : liste;
+        });
+    }
+
+    /**
+     * Publie un changement : il est remis aux abonnés de son destinataire puis transmis aux
+     * autres clients si le relais est actif.
+     */
+    public void publier(EvenementNotification evenement) {
+        distribuer(evenement);
+        RelaisNotifications courant = relais;
+        if (courant != null) {
+            courant.transmettre(evenement, null);
+        }
+    }
+
+    /**
+     * Remet aux abonnés locaux un changement reçu d'un autre client.
+     */
+    void distribuer(EvenementNotification evenement) {
+        List<Consumer<EvenementNotification>> destinataires = abonnes.get(evenement.getIdUtilisateur());
+        if (destinataires == null) {
+            return;
+        }
+        for (Consumer<EvenementNotification> abonne : destinataires) {
+            try {
+                abonne.accept(evenement);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Erreur d'un abonné aux notifications de l'utilisateur "
+                        + evenement.getIdUtilisateur(), e);
+            }
+        }
+    }
+
+    /**
+     * @return true si l'utilisateur a au moins un abonné local.
+     */
+    boolean estAbonne(Integer idUtilisateur) {
+        return abonnes.containsKey(idUtilisateur);
+    }
+
+    /**
+     * @return le nombre d'utilisateurs ayant au moins un abonné local.
+     */
+    public int getNombreUtilisateursAbonnes() {
+        return abonnes.size();
+    }
+
+    private static int port() {
+        try {
+            return Integer.parseInt(DbUtil.getPropriete("notification.relay.port", "0").trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur invalide pour notification.relay.port, relais désactivé");
+            return 0;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package main.java.com.miage.parcauto.service;
 
+import main.java.com.miage.parcauto.dao.PageCurseur;
+import main.java.com.miage.parcauto.dao.TriCurseur;
+import main.java.com.miage.parcauto.dto.EcheanceEntretienDTO;
 import main.java.com.miage.parcauto.dto.EntretienDTO;
+import main.java.com.miage.parcauto.dto.EntretienResumeDTO;
 import main.java.com.miage.parcauto.exception.EntretienNotFoundException;
 import main.java.com.miage.parcauto.exception.OperationFailedException;
 import main.java.com.miage.parcauto.exception.ValidationException;
@@ -8,7 +12,9 @@ import main.java.com.miage.parcauto.exception.VehiculeNotFoundException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -46,6 +52,19 @@ public interface EntretienService {
      */
     List<EntretienDTO> getAllEntretiens() throws OperationFailedException;
 
+    /**
+     * Récupère une page de la liste des entretiens : seules les colonnes affichées sont lues
+     * (projection) et la pagination par curseur garde un coût constant par page. Le détail
+     * complet d'une ligne se charge à sa sélection via {@link #getEntretienById(Integer)}.
+     *
+     * @param jeton Le jeton de continuation de la page précédente, ou null pour la première page.
+     * @param taille Le nombre maximal de lignes.
+     * @param tri L'ordre de parcours, identique pour toutes les pages.
+     * @return La page de résumés et le jeton de la page suivante.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    PageCurseur<EntretienResumeDTO> getPageEntretiens(String jeton, int taille, TriCurseur tri) throws OperationFailedException;
+
     /**
      * Récupère tous les entretiens pour un véhicule spécifique.
      *
@@ -57,6 +76,17 @@ public interface EntretienService {
     List<EntretienDTO> getEntretiensByVehiculeId(Integer idVehicule)
             throws VehiculeNotFoundException, OperationFailedException;
 
+    /**
+     * Récupère les entretiens d'un ensemble de véhicules en une lecture groupée, sans vérifier
+     * l'existence de chaque véhicule (à la charge de l'appelant, qui a déjà chargé les véhicules).
+     *
+     * @param idsVehicules Les identifiants des véhicules.
+     * @return Les entretiens par identifiant de véhicule ; chaque identifiant demandé est présent,
+     *         avec une liste vide s'il n'a pas de entretiens.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    Map<Integer, List<EntretienDTO>> getEntretiensByVehiculeIds(Collection<Integer> idsVehicules) throws OperationFailedException;
+
     /**
      * Met à jour les informations d'un entretien existant.
      *
@@ -114,4 +144,24 @@ public interface EntretienService {
      */
     List<EntretienDTO> getEntretiensPlanifiesEntre(LocalDateTime dateDebut, LocalDateTime dateFin)
             throws OperationFailedException;
-}
\ No newline at end of file
+
+    /**
+     * Récupère les véhicules à moins de N km de leur prochain entretien (ou l'ayant
+     * dépassé), d'après les échéances projetées.
+     *
+     * @param km Le nombre de kilomètres restants maximal.
+     * @return Les échéances, de la plus proche à la plus lointaine.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    List<EcheanceEntretienDTO> getEcheancesDansKm(int km) throws OperationFailedException;
+
+    /**
+     * Récupère les véhicules dont le prochain entretien est dû dans les N jours : échéance
+     * calendaire, ou seuil kilométrique atteint au rythme des dernières missions.
+     *
+     * @param jours Le nombre de jours.
+     * @return Les échéances, par date.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    List<EcheanceEntretienDTO> getEcheancesDansJours(int jours) throws OperationFailedException;
+}
@@ -0,0 +1,83 @@
+package main.java.com.miage.parcauto.service;
+
+import main.java.com.miage.parcauto.dto.NotificationDTO;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Changement des notifications d'un utilisateur, diffusé par {@link BusNotifications} : les
+ * abonnés appliquent le delta au lieu de relire la liste des notifications.
+ */
+public final class EvenementNotification {
+
+    /**
+     * Nature du changement.
+     */
+    public enum Type {
+        /** Nouvelle notification ({@link #getNotification()}). */
+        CREATION,
+        /** Notifications marquées comme lues ({@link #getIdsNotification()}). */
+        LECTURE,
+        /** Notifications supprimées ({@link #getIdsNotification()}). */
+        SUPPRESSION,
+        /** Toutes les notifications de l'utilisateur marquées comme lues. */
+        LECTURE_TOUTES
+    }
+
+    private final Type type;
+    private final Integer idUtilisateur;
+    private final NotificationDTO notification;
+    private final List<Integer> idsNotification;
+
+    public EvenementNotification(Type type, Integer idUtilisateur, NotificationDTO notification,
+                                 List<Integer> idsNotification) {
+        this.type = type;
+        this.idUtilisateur = idUtilisateur;
+        this.notification = notification;
+        this.idsNotification = idsNotification != null
+                ? Collections.unmodifiableList(idsNotification) : Collections.emptyList();
+    }
+
+    public static EvenementNotification creation(NotificationDTO notification) {
+        return new EvenementNotification(Type.CREATION, notification.getIdUtilisateur(), notification,
+                notification.getIdNotification() != null
+                        ? List.of(notification.getIdNotification()) : Collections.emptyList());
+    }
+
+    public static EvenementNotification lecture(Integer idUtilisateur, List<Integer> idsNotification) {
+        return new EvenementNotification(Type.LECTURE, idUtilisateur, null, idsNotification);
+    }
+
+    public static EvenementNotification lectureToutes(Integer idUtilisateur) {
+        return new EvenementNotification(Type.LECTURE_TOUTES, idUtilisateur, null, null);
+    }
+
+    public static EvenementNotification suppression(Integer idUtilisateur, Integer idNotification) {
+        return new EvenementNotification(Type.SUPPRESSION, idUtilisateur, null, List.of(idNotification));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Integer getIdUtilisateur() {
+        return idUtilisateur;
+    }
+
+    /**
+     * @return la notification créée, null pour les autres types.
+     */
+    public NotificationDTO getNotification() {
+        return notification;
+    }
+
+    public List<Integer> getIdsNotification() {
+        return idsNotification;
+    }
+
+    @Override
+    public String toString() {
+        return "EvenementNotification{" + type + ", utilisateur=" + idUtilisateur + ", ids=" + idsNotification + '}';
+    }
+}
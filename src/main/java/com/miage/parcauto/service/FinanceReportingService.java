@@ -1,14 +1,19 @@
 package main.java.com.miage.parcauto.service;
 
 import main.java.com.miage.parcauto.dto.BilanFinancierDTO;
+import main.java.com.miage.parcauto.dto.BilanMensuelDTO;
 import main.java.com.miage.parcauto.dto.CoutEntretienDTO;
 import main.java.com.miage.parcauto.dto.TCODTO; // Supposons que ce DTO existe pour le TCO global
 import main.java.com.miage.parcauto.dto.TcoVehiculeDTO;
+import main.java.com.miage.parcauto.dto.VehiculeRentabiliteDTO;
 import main.java.com.miage.parcauto.exception.OperationFailedException;
 import main.java.com.miage.parcauto.exception.VehiculeNotFoundException;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service pour la génération de rapports et bilans financiers.
@@ -46,15 +51,59 @@ public interface FinanceReportingService {
      */
     TcoVehiculeDTO calculerTCOVehicule(Integer idVehicule) throws VehiculeNotFoundException, OperationFailedException;
 
+    /**
+     * Calcule, comme {@link #calculerTCOVehicule(Integer)}, le TCO de plusieurs véhicules en une
+     * lecture groupée.
+     *
+     * @param idsVehicules Les identifiants des véhicules.
+     * @return Le TCO de chaque véhicule trouvé, par identifiant.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    Map<Integer, TcoVehiculeDTO> calculerTCOVehicules(Collection<Integer> idsVehicules) throws OperationFailedException;
+
     /**
      * Calcule le Coût Total de Possession (TCO) pour l'ensemble de la flotte sur
      * une période donnée.
      * 
-     * @param dateDebut Date de début de la période.
-     * @param dateFin   Date de fin de la période.
+     * @param dateDebut Date de début de la période, ou null avec dateFin pour tout l'historique.
+     * @param dateFin   Date de fin de la période, ou null avec dateDebut pour tout l'historique.
      * @return Un TCODTO global.
-     * @throws OperationFailedException Si une erreur technique survient.
+     * @throws OperationFailedException Si une seule des deux dates est fournie, ou si une erreur technique survient.
      */
     TCODTO calculerTCOFlotte(LocalDate dateDebut, LocalDate dateFin) throws OperationFailedException;
 
-}
\ No newline at end of file
+    /**
+     * Produit un bilan des coûts de la flotte pour chaque mois d'un intervalle, à partir
+     * des agrégats mensuels.
+     *
+     * @param moisDebut Le premier mois (inclus).
+     * @param moisFin   Le dernier mois (inclus).
+     * @return Un BilanMensuelDTO par mois, y compris les mois sans coût.
+     * @throws OperationFailedException Si l'intervalle est invalide ou si une erreur technique survient.
+     */
+    List<BilanMensuelDTO> genererBilansMensuels(YearMonth moisDebut, YearMonth moisFin) throws OperationFailedException;
+
+    /**
+     * Calcule la rentabilité d'un véhicule sur une période, arrondie aux mois entiers.
+     *
+     * @param idVehicule L'identifiant du véhicule.
+     * @param dateDebut  Date de début de la période.
+     * @param dateFin    Date de fin de la période.
+     * @return Un VehiculeRentabiliteDTO.
+     * @throws VehiculeNotFoundException Si le véhicule n'est pas trouvé.
+     * @throws OperationFailedException  Si une erreur technique survient.
+     */
+    VehiculeRentabiliteDTO calculerRentabiliteVehicule(Integer idVehicule, LocalDate dateDebut, LocalDate dateFin)
+            throws VehiculeNotFoundException, OperationFailedException;
+
+    /**
+     * Reconstruit entièrement les agrégats de coûts mensuels depuis les tables sources.
+     * À lancer après l'installation de la table COUT_MENSUEL ou une reprise de données
+     * faite hors de l'application.
+     *
+     * @return Le nombre de cellules (véhicule, mois, catégorie) écrites.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    int reconstruireCoutsMensuels() throws OperationFailedException;
+
+}
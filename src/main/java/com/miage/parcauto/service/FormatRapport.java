@@ -0,0 +1,20 @@
+package main.java.com.miage.parcauto.service;
+
+/**
+ * Format de rendu des rapports véhicule dans une archive de rapports de la flotte.
+ */
+public enum FormatRapport {
+    CSV("csv"),
+    PDF("pdf"),
+    XLSX("xlsx");
+
+    private final String extension;
+
+    FormatRapport(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
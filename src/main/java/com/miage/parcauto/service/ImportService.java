@@ -0,0 +1,70 @@
+package main.java.com.miage.parcauto.service;
+
+import main.java.com.miage.parcauto.dto.RapportImportDTO;
+import main.java.com.miage.parcauto.exception.OperationFailedException;
+import main.java.com.miage.parcauto.exception.ValidationException;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Service d'import en masse de fichiers CSV (séparateur ';', UTF-8, première ligne d'en-tête).
+ * <p>
+ * Les colonnes sont repérées par leur nom (celui de la colonne SQL, sans tenir compte de la
+ * casse) et peuvent apparaître dans n'importe quel ordre ; les colonnes inconnues sont
+ * ignorées. Les dates sont attendues au format jj/mm/aaaa ou ISO (aaaa-mm-jj[Thh:mm[:ss]]).
+ * <p>
+ * Le fichier est lu en flux et traité par lots : chaque lot est validé en parallèle, contrôlé
+ * (unicité, références) puis inséré par lots JDBC dans sa propre transaction. Une ligne
+ * invalide est rejetée sans interrompre l'import ; si la base refuse un lot, ses lignes sont
+ * réessayées une par une afin d'isoler la ligne fautive.
+ */
+public interface ImportService {
+
+    /**
+     * Importe des véhicules.
+     * Colonnes obligatoires : immatriculation, numero_chassi, id_etat_voiture, energie.
+     * Colonnes facultatives : marque, modele, nb_places, date_acquisition, date_ammortissement,
+     * date_mise_en_service, puissance, couleur, prix_vehicule, km_actuels.
+     *
+     * @param csv Le contenu du fichier (non fermé par le service).
+     * @return Le rapport d'import.
+     * @throws ValidationException      Si le fichier est vide ou si une colonne obligatoire manque.
+     * @throws OperationFailedException Si la lecture du fichier ou l'accès à la base échoue.
+     */
+    RapportImportDTO importerVehicules(InputStream csv) throws ValidationException, OperationFailedException;
+
+    /**
+     * Importe des membres du personnel.
+     * Colonnes obligatoires : matricule, nom, prenom, email, id_service, id_fonction.
+     * Colonnes facultatives : sexe, date_naissance, adresse, telephone, date_embauche, observation.
+     *
+     * @param csv Le contenu du fichier (non fermé par le service).
+     * @return Le rapport d'import.
+     * @throws ValidationException      Si le fichier est vide ou si une colonne obligatoire manque.
+     * @throws OperationFailedException Si la lecture du fichier ou l'accès à la base échoue.
+     */
+    RapportImportDTO importerPersonnel(InputStream csv) throws ValidationException, OperationFailedException;
+
+    /**
+     * Importe un historique d'entretiens. Les agrégats de coûts mensuels des véhicules
+     * concernés sont recalculés dans la transaction de chaque lot.
+     * Colonnes obligatoires : id_vehicule, date_entree_entr, motif_entr.
+     * Colonnes facultatives : date_sortie_entr, observation, cout_entr, lieu_entr, type, statut_ot.
+     *
+     * @param csv Le contenu du fichier (non fermé par le service).
+     * @return Le rapport d'import.
+     * @throws ValidationException      Si le fichier est vide ou si une colonne obligatoire manque.
+     * @throws OperationFailedException Si la lecture du fichier ou l'accès à la base échoue.
+     */
+    RapportImportDTO importerEntretiens(InputStream csv) throws ValidationException, OperationFailedException;
+
+    /**
+     * Écrit les lignes rejetées d'un import au format CSV (ligne, identifiant, erreur).
+     *
+     * @param rapport Le rapport d'import.
+     * @param out     Le flux de destination (non fermé par le service).
+     * @throws OperationFailedException Si l'écriture échoue.
+     */
+    void exporterRapportErreursCsv(RapportImportDTO rapport, OutputStream out) throws OperationFailedException;
+}
@@ -0,0 +1,84 @@
+package main.java.com.miage.parcauto.service;
+
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Remise par lots, sur le thread JavaFX, d'éléments produits en arrière-plan.
+ * <p>
+ * Les éléments publiés sont accumulés et remis en une seule tâche {@link Platform#runLater}
+ * tant que la précédente n'a pas été exécutée : un flux de milliers de lignes produit
+ * quelques mises à jour de l'interface au lieu d'une par ligne. Un lot est borné pour que
+ * le thread JavaFX reste réactif ; le reste est remis au passage suivant.
+ *
+ * @param <T> Le type des éléments.
+ */
+public final class LivraisonFx<T> {
+
+    private final Consumer<List<T>> consommateur;
+    private final int tailleLotMax;
+    private final Queue<T> file = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean planifiee = new AtomicBoolean();
+
+    /**
+     * @param consommateur le traitement d'un lot, exécuté sur le thread JavaFX.
+     * @param tailleLotMax le nombre maximal d'éléments par lot.
+     */
+    public LivraisonFx(Consumer<List<T>> consommateur, int tailleLotMax) {
+        if (tailleLotMax <= 0) {
+            throw new IllegalArgumentException("La taille de lot doit être positive: " + tailleLotMax);
+        }
+        this.consommateur = consommateur;
+        this.tailleLotMax = tailleLotMax;
+    }
+
+    /**
+     * Publie un élément depuis n'importe quel thread.
+     *
+     * @param element l'élément.
+     */
+    public void publier(T element) {
+        file.add(element);
+        planifier();
+    }
+
+    /**
+     * Publie plusieurs éléments depuis n'importe quel thread.
+     *
+     * @param elements les éléments.
+     */
+    public void publierTout(Collection<? extends T> elements) {
+        if (!elements.isEmpty()) {
+            file.addAll(elements);
+            planifier();
+        }
+    }
+
+    private void planifier() {
+        if (planifiee.compareAndSet(false, true)) {
+            Platform.runLater(this::livrer);
+        }
+    }
+
+    private void livrer() {
+        List<T> lot = new ArrayList<>(Math.min(tailleLotMax, file.size()));
+        T element;
+        while (lot.size() < tailleLotMax && (element = file.poll()) != null) {
+            lot.add(element);
+        }
+        planifiee.set(false);
+        if (!file.isEmpty()) {
+            planifier();
+        }
+        if (!lot.isEmpty()) {
+            consommateur.accept(lot);
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package main.java.com.miage.parcauto.service;
 
+import main.java.com.miage.parcauto.dao.PageCurseur;
+import main.java.com.miage.parcauto.dao.TriCurseur;
 import main.java.com.miage.parcauto.dto.DepenseMissionDTO;
 import main.java.com.miage.parcauto.dto.MissionDTO;
+import main.java.com.miage.parcauto.dto.MissionResumeDTO;
 import main.java.com.miage.parcauto.exception.*;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -45,6 +50,19 @@ public interface MissionService {
      */
     List<MissionDTO> getAllMissions() throws OperationFailedException;
 
+    /**
+     * Récupère une page de la liste des missions : seules les colonnes affichées sont lues
+     * (projection) et la pagination par curseur garde un coût constant par page. Le détail
+     * complet d'une ligne se charge à sa sélection via {@link #getMissionById(Integer)}.
+     *
+     * @param jeton Le jeton de continuation de la page précédente, ou null pour la première page.
+     * @param taille Le nombre maximal de lignes.
+     * @param tri L'ordre de parcours, identique pour toutes les pages.
+     * @return La page de résumés et le jeton de la page suivante.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    PageCurseur<MissionResumeDTO> getPageMissions(String jeton, int taille, TriCurseur tri) throws OperationFailedException;
+
     /**
      * Récupère toutes les missions pour un véhicule spécifique.
      *
@@ -56,6 +74,17 @@ public interface MissionService {
     List<MissionDTO> getMissionsByVehiculeId(Integer idVehicule)
             throws VehiculeNotFoundException, OperationFailedException;
 
+    /**
+     * Récupère les missions d'un ensemble de véhicules en une lecture groupée, sans vérifier
+     * l'existence de chaque véhicule (à la charge de l'appelant, qui a déjà chargé les véhicules).
+     *
+     * @param idsVehicules Les identifiants des véhicules.
+     * @return Les missions par identifiant de véhicule ; chaque identifiant demandé est présent,
+     *         avec une liste vide s'il n'a pas de missions.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    Map<Integer, List<MissionDTO>> getMissionsByVehiculeIds(Collection<Integer> idsVehicules) throws OperationFailedException;
+
     /**
      * Récupère toutes les missions pour un membre du personnel spécifique.
      *
@@ -1,6 +1,9 @@
 package main.java.com.miage.parcauto.service;
 
+import main.java.com.miage.parcauto.dao.PageCurseur;
+import main.java.com.miage.parcauto.dao.TriCurseur;
 import main.java.com.miage.parcauto.dto.MouvementDTO;
+import main.java.com.miage.parcauto.dto.MouvementResumeDTO;
 import main.java.com.miage.parcauto.exception.EntityNotFoundException;
 import main.java.com.miage.parcauto.exception.OperationFailedException;
 import main.java.com.miage.parcauto.exception.ValidationException;
@@ -61,6 +64,19 @@ public interface MouvementService {
      */
     List<MouvementDTO> getAllMouvements() throws OperationFailedException;
 
+    /**
+     * Récupère une page de la liste des mouvements : seules les colonnes affichées sont lues
+     * (projection) et la pagination par curseur garde un coût constant par page. Le détail
+     * complet d'une ligne se charge à sa sélection via {@link #getMouvementById(Integer)}.
+     *
+     * @param jeton Le jeton de continuation de la page précédente, ou null pour la première page.
+     * @param taille Le nombre maximal de lignes.
+     * @param tri L'ordre de parcours, identique pour toutes les pages.
+     * @return La page de résumés et le jeton de la page suivante.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    PageCurseur<MouvementResumeDTO> getPageMouvements(String jeton, int taille, TriCurseur tri) throws OperationFailedException;
+
     /**
      * Récupère les mouvements financiers pour une période donnée.
      *
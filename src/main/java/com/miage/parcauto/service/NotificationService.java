@@ -7,6 +7,7 @@ import main.java.com.miage.parcauto.exception.ValidationException;
 import main.java.com.miage.parcauto.exception.UtilisateurNotFoundException;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service pour la gestion des notifications.
@@ -49,6 +50,15 @@ public interface NotificationService {
     List<NotificationDTO> getAllNotificationsForUtilisateur(Integer idUtilisateur)
             throws UtilisateurNotFoundException, OperationFailedException;
 
+    /**
+     * Récupère une notification par son identifiant.
+     *
+     * @param idNotification L'identifiant de la notification.
+     * @return La notification, ou un Optional vide si elle n'existe pas.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    Optional<NotificationDTO> getNotificationById(Integer idNotification) throws OperationFailedException;
+
     /**
      * Marque une notification spécifique comme lue.
      *
@@ -59,7 +69,8 @@ public interface NotificationService {
     void marquerNotificationCommeLue(Integer idNotification) throws EntityNotFoundException, OperationFailedException;
 
     /**
-     * Marque plusieurs notifications comme lues pour un utilisateur.
+     * Marque plusieurs notifications comme lues pour un utilisateur, en une mise à jour
+     * ensembliste : les identifiants n'appartenant pas à l'utilisateur sont ignorés.
      *
      * @param idsNotification Liste des identifiants de notifications à marquer
      *                        comme lues.
@@ -70,6 +81,25 @@ public interface NotificationService {
     void marquerNotificationsCommeLues(List<Integer> idsNotification, Integer idUtilisateur)
             throws OperationFailedException;
 
+    /**
+     * Marque comme lues toutes les notifications non lues d'un utilisateur.
+     *
+     * @param idUtilisateur L'identifiant de l'utilisateur.
+     * @return Le nombre de notifications marquées comme lues.
+     * @throws UtilisateurNotFoundException Si l'utilisateur n'est pas trouvé.
+     * @throws OperationFailedException     Si une erreur technique survient.
+     */
+    int marquerToutesCommeLues(Integer idUtilisateur) throws UtilisateurNotFoundException, OperationFailedException;
+
+    /**
+     * Compte les notifications non lues d'un utilisateur (badge), sans les charger.
+     *
+     * @param idUtilisateur L'identifiant de l'utilisateur.
+     * @return Le nombre de notifications non lues, 0 pour un utilisateur inconnu.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    long compterNotificationsNonLues(Integer idUtilisateur) throws OperationFailedException;
+
     /**
      * Supprime une notification.
      *
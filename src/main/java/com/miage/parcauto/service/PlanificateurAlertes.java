@@ -0,0 +1,80 @@
+package main.java.com.miage.parcauto.service;
+
+import main.java.com.miage.parcauto.dao.DbUtil;
+import main.java.com.miage.parcauto.exception.OperationFailedException;
+import main.java.com.miage.parcauto.service.impl.AlerteServiceImpl;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Exécution périodique du moteur d'alertes ({@link AlerteService#genererAlertes()}) toutes les
+ * {@code alert.intervalMinutes} minutes (0 pour désactiver), sur un thread démon.
+ * <p>
+ * Plusieurs postes peuvent planifier le moteur : le filigrane verrouillé en base sérialise
+ * leurs évaluations et une alerte n'est émise qu'une fois.
+ */
+public final class PlanificateurAlertes {
+
+    private static final Logger LOGGER = Logger.getLogger(PlanificateurAlertes.class.getName());
+
+    private static ScheduledExecutorService executeur;
+
+    private PlanificateurAlertes() {
+    }
+
+    /**
+     * Démarre la planification si elle est activée et n'est pas déjà démarrée ; la première
+     * évaluation a lieu immédiatement.
+     */
+    public static synchronized void demarrer() {
+        if (executeur != null) {
+            return;
+        }
+        long intervalle = intervalleMinutes();
+        if (intervalle <= 0) {
+            LOGGER.info("Moteur d'alertes désactivé (alert.intervalMinutes)");
+            return;
+        }
+        AlerteService alerteService = new AlerteServiceImpl();
+        executeur = Executors.newSingleThreadScheduledExecutor(tache -> {
+            Thread thread = new Thread(tache, "parcauto-alertes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executeur.scheduleWithFixedDelay(() -> evaluer(alerteService), 0, intervalle, TimeUnit.MINUTES);
+        LOGGER.info("Moteur d'alertes planifié toutes les " + intervalle + " minute(s)");
+    }
+
+    /**
+     * Arrête la planification (fermeture de l'application) ; une évaluation en cours est
+     * interrompue et sa transaction annulée.
+     */
+    public static synchronized void arreter() {
+        if (executeur != null) {
+            executeur.shutdownNow();
+            executeur = null;
+        }
+    }
+
+    private static void evaluer(AlerteService alerteService) {
+        try {
+            alerteService.genererAlertes();
+        } catch (OperationFailedException | RuntimeException e) {
+            // Une exception non rattrapée annulerait les exécutions suivantes
+            LOGGER.log(Level.WARNING, "Échec de l'évaluation des alertes", e);
+        }
+    }
+
+    private static long intervalleMinutes() {
+        try {
+            return Long.parseLong(DbUtil.getPropriete("alert.intervalMinutes", "15").trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur invalide pour alert.intervalMinutes, utilisation de 15");
+            return 15;
+        }
+    }
+}
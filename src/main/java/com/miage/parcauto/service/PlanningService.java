@@ -0,0 +1,93 @@
+package main.java.com.miage.parcauto.service;
+
+import main.java.com.miage.parcauto.dto.ChargeAtelierDTO;
+import main.java.com.miage.parcauto.dto.CreneauDTO;
+import main.java.com.miage.parcauto.exception.OperationFailedException;
+import main.java.com.miage.parcauto.exception.ValidationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service de planning des véhicules, appuyé sur l'index en mémoire des missions
+ * et affectations, et prévision de charge de l'atelier. Destiné aux écrans de
+ * planification (lecture seule).
+ */
+public interface PlanningService {
+
+    /**
+     * Indique si un véhicule n'a ni mission non clôturée ni affectation sur la période.
+     * Contrairement à {@link VehiculeService#isVehiculeDisponible}, l'état du véhicule n'est pas pris en compte.
+     *
+     * @param idVehicule L'identifiant du véhicule.
+     * @param dateDebut  Le début de la période.
+     * @param dateFin    La fin de la période.
+     * @return true si aucune réservation ne chevauche la période.
+     * @throws ValidationException      Si la période est invalide.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    boolean isVehiculeLibre(Integer idVehicule, LocalDateTime dateDebut, LocalDateTime dateFin)
+            throws ValidationException, OperationFailedException;
+
+    /**
+     * Cherche le premier créneau libre d'une durée donnée pour un véhicule.
+     *
+     * @param idVehicule L'identifiant du véhicule.
+     * @param apres      L'instant à partir duquel chercher.
+     * @param duree      La durée souhaitée.
+     * @param limite     L'instant au-delà duquel le créneau ne peut se terminer.
+     * @return Le début du premier créneau libre, ou Optional.empty() si aucun avant la limite.
+     * @throws ValidationException      Si les paramètres sont invalides.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    Optional<LocalDateTime> trouverProchainCreneauLibre(Integer idVehicule, LocalDateTime apres, Duration duree,
+            LocalDateTime limite) throws ValidationException, OperationFailedException;
+
+    /**
+     * Construit la frise libre/occupé d'un véhicule sur une période.
+     *
+     * @param idVehicule L'identifiant du véhicule.
+     * @param dateDebut  Le début de la période affichée.
+     * @param dateFin    La fin de la période affichée.
+     * @return Les créneaux contigus couvrant la période, dans l'ordre chronologique.
+     * @throws ValidationException      Si la période est invalide.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    List<CreneauDTO> getPlanningVehicule(Integer idVehicule, LocalDateTime dateDebut, LocalDateTime dateFin)
+            throws ValidationException, OperationFailedException;
+
+    /**
+     * Construit les frises libre/occupé de plusieurs véhicules sur une période.
+     *
+     * @param idsVehicules Les véhicules à inclure, ou null pour tous les véhicules du parc.
+     * @param dateDebut    Le début de la période affichée.
+     * @param dateFin      La fin de la période affichée.
+     * @return Les créneaux par identifiant de véhicule, triés par identifiant.
+     * @throws ValidationException      Si la période est invalide.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    Map<Integer, List<CreneauDTO>> getPlanningFlotte(Collection<Integer> idsVehicules, LocalDateTime dateDebut,
+            LocalDateTime dateFin) throws ValidationException, OperationFailedException;
+
+    /**
+     * Prévoit la charge de l'atelier, semaine par semaine (du lundi), d'après la première
+     * échéance projetée de chaque véhicule : date calendaire du prochain entretien, ou date à
+     * laquelle son seuil kilométrique sera atteint au rythme de ses dernières missions.
+     *
+     * @param jours L'horizon de la prévision, en jours (90 pour le tableau de planning).
+     * @return Les semaines de l'horizon, y compris celles sans entretien ; les échéances déjà
+     *         dépassées comptent dans la première.
+     * @throws ValidationException      Si l'horizon n'est pas positif.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    List<ChargeAtelierDTO> getPrevisionChargeAtelier(int jours) throws ValidationException, OperationFailedException;
+
+    /**
+     * Force le rechargement de l'index de planning depuis la base.
+     */
+    void rafraichir();
+}
@@ -0,0 +1,93 @@
+package main.java.com.miage.parcauto.service;
+
+/**
+ * Instantané immuable de la progression d'une génération de rapports de la flotte
+ * (voir {@link ReportingService#genererArchiveRapportsFlotte}).
+ */
+public final class ProgressionRapports {
+
+    private final int vehiculesTraites;
+    private final int vehiculesTotal;
+    private final long lignes;
+    private final double secondesEcoulees;
+    private final Integer dernierVehiculeComplet;
+    private final boolean terminee;
+
+    public ProgressionRapports(int vehiculesTraites, int vehiculesTotal, long lignes, double secondesEcoulees,
+                               Integer dernierVehiculeComplet, boolean terminee) {
+        this.vehiculesTraites = vehiculesTraites;
+        this.vehiculesTotal = vehiculesTotal;
+        this.lignes = lignes;
+        this.secondesEcoulees = secondesEcoulees;
+        this.dernierVehiculeComplet = dernierVehiculeComplet;
+        this.terminee = terminee;
+    }
+
+    public int getVehiculesTraites() {
+        return vehiculesTraites;
+    }
+
+    public int getVehiculesTotal() {
+        return vehiculesTotal;
+    }
+
+    /**
+     * @return le nombre de lignes écrites (véhicule, entretiens et missions de chaque rapport).
+     */
+    public long getLignes() {
+        return lignes;
+    }
+
+    public double getSecondesEcoulees() {
+        return secondesEcoulees;
+    }
+
+    /**
+     * @return l'identifiant jusqu'auquel tous les véhicules (par identifiant croissant) sont dans
+     *         l'archive, à passer en reprise ; null si aucun.
+     */
+    public Integer getDernierVehiculeComplet() {
+        return dernierVehiculeComplet;
+    }
+
+    /**
+     * @return true une fois l'archive fermée (génération terminée, annulée ou en échec).
+     */
+    public boolean isTerminee() {
+        return terminee;
+    }
+
+    /**
+     * @return l'avancement, entre 0 et 1.
+     */
+    public double getAvancement() {
+        return vehiculesTotal == 0 ? 1 : (double) vehiculesTraites / vehiculesTotal;
+    }
+
+    public double getLignesParSeconde() {
+        return secondesEcoulees > 0 ? lignes / secondesEcoulees : 0;
+    }
+
+    /**
+     * @return le temps restant estimé d'après le débit constaté, en secondes, ou -1 s'il n'est pas
+     *         encore estimable.
+     */
+    public long getSecondesRestantes() {
+        if (vehiculesTraites == 0 || secondesEcoulees <= 0) {
+            return -1;
+        }
+        double parVehicule = secondesEcoulees / vehiculesTraites;
+        return Math.round(parVehicule * (vehiculesTotal - vehiculesTraites));
+    }
+
+    @Override
+    public String toString() {
+        return "ProgressionRapports{" +
+                vehiculesTraites + "/" + vehiculesTotal + " véhicules" +
+                String.format(", %.1f lignes/s", getLignesParSeconde()) +
+                ", reste=" + getSecondesRestantes() + " s" +
+                ", dernierVehiculeComplet=" + dernierVehiculeComplet +
+                (terminee ? ", terminée" : "") +
+                '}';
+    }
+}
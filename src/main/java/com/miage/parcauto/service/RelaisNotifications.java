@@ -0,0 +1,397 @@
+package main.java.com.miage.parcauto.service;
+
+import main.java.com.miage.parcauto.dto.NotificationDTO;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.BindException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Relais local du {@link BusNotifications} entre les clients d'un même poste, sur l'interface
+ * de bouclage.
+ * <p>
+ * Le premier client qui réserve le port devient le concentrateur : il accepte les autres
+ * clients, remet à ses abonnés les changements qu'ils publient et les retransmet aux autres
+ * clients. Les suivants se connectent au concentrateur et lui transmettent leurs publications.
+ * Si le concentrateur disparaît, un client reprend son rôle ou s'y reconnecte.
+ * <p>
+ * Le port n'écoute que l'interface locale, mais tout processus du poste peut s'y connecter :
+ * chaque connexion commence par une authentification mutuelle sur le secret partagé
+ * ({@code notification.relay.secret}, HMAC d'un défi aléatoire, le secret ne circule pas), et
+ * les trames ne portent que le type, le destinataire et les identifiants des notifications.
+ * Le contenu d'une notification créée est relu en base par le client qui la reçoit, s'il a des
+ * abonnés pour son destinataire.
+ */
+final class RelaisNotifications implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(RelaisNotifications.class.getName());
+
+    private static final long DELAI_RECONNEXION_MS = 5_000;
+    private static final int DELAI_AUTHENTIFICATION_MS = 5_000;
+    private static final int TAILLE_DEFI = 32;
+    private static final int TAILLE_TRAME_MAX = 1 << 20;
+    private static final String ALGORITHME = "HmacSHA256";
+    private static final String ROLE_CONCENTRATEUR = "concentrateur";
+    private static final String ROLE_CLIENT = "client";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Relecture d'une notification créée par un autre client.
+     */
+    @FunctionalInterface
+    interface ChargeurNotification {
+        /**
+         * @return la notification, ou null si elle n'existe plus.
+         */
+        NotificationDTO charger(Integer idNotification) throws Exception;
+    }
+
+    private final BusNotifications bus;
+    private final int port;
+    private final byte[] secret;
+    private final ChargeurNotification chargeur;
+    private final List<Connexion> connexions = new CopyOnWriteArrayList<>();
+    private volatile ServerSocket serveur;
+    private volatile boolean ferme;
+
+    RelaisNotifications(BusNotifications bus, int port, String secret, ChargeurNotification chargeur) {
+        this.bus = bus;
+        this.port = port;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.chargeur = chargeur;
+    }
+
+    /**
+     * Devient concentrateur ou s'y connecte ; sans succès, le bus reste local et une nouvelle
+     * tentative a lieu plus tard.
+     */
+    void demarrer() {
+        if (ferme) {
+            return;
+        }
+        try {
+            ServerSocket socket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+            serveur = socket;
+            demarrerThread("accueil", this::accueillir);
+            LOGGER.info("Relais des notifications : concentrateur sur le port " + port);
+            return;
+        } catch (BindException e) {
+            // Port déjà réservé : un concentrateur existe
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Ouverture du relais des notifications impossible sur le port " + port, e);
+        }
+        Connexion connexion = null;
+        try {
+            connexion = new Connexion(new Socket(InetAddress.getLoopbackAddress(), port));
+            connexion.authentifier(ROLE_CLIENT, ROLE_CONCENTRATEUR);
+            connexions.add(connexion);
+            Connexion etablie = connexion;
+            demarrerThread("client", () -> lire(etablie));
+            LOGGER.info("Relais des notifications : connecté au concentrateur du port " + port);
+        } catch (IOException e) {
+            if (connexion != null) {
+                connexion.close();
+            }
+            LOGGER.log(Level.WARNING, "Connexion au relais des notifications impossible", e);
+            demarrerThread("reconnexion", this::reessayer);
+        }
+    }
+
+    /**
+     * Transmet un changement aux clients reliés, sauf à celui dont il provient.
+     */
+    void transmettre(EvenementNotification evenement, Connexion source) {
+        byte[] trame = encoder(evenement);
+        for (Connexion connexion : connexions) {
+            if (connexion != source) {
+                try {
+                    connexion.ecrire(trame);
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Client du relais des notifications déconnecté", e);
+                    connexion.close();
+                    connexions.remove(connexion);
+                }
+            }
+        }
+    }
+
+    private void accueillir() {
+        ServerSocket socket = serveur;
+        while (!ferme) {
+            Socket accepte;
+            try {
+                accepte = socket.accept();
+            } catch (IOException e) {
+                if (!ferme) {
+                    LOGGER.log(Level.WARNING, "Erreur d'accueil du relais des notifications", e);
+                }
+                return;
+            }
+            // Authentification hors du thread d'accueil : un client muet ne bloque pas les autres
+            demarrerThread("lecture", () -> {
+                Connexion connexion = null;
+                try {
+                    connexion = new Connexion(accepte);
+                    connexion.authentifier(ROLE_CONCENTRATEUR, ROLE_CLIENT);
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Connexion au relais des notifications refusée", e);
+                    if (connexion != null) {
+                        connexion.close();
+                    } else {
+                        fermer(accepte);
+                    }
+                    return;
+                }
+                connexions.add(connexion);
+                lire(connexion);
+            });
+        }
+    }
+
+    private void lire(Connexion connexion) {
+        try {
+            while (!ferme) {
+                byte[] trame = connexion.lire();
+                EvenementNotification evenement = decoder(trame);
+                if (evenement == null) {
+                    continue;
+                }
+                distribuer(evenement);
+                if (serveur != null) {
+                    transmettre(evenement, connexion);
+                }
+            }
+        } catch (EOFException e) {
+            // Fermeture normale par l'autre extrémité
+        } catch (IOException e) {
+            if (!ferme) {
+                LOGGER.log(Level.FINE, "Lecture du relais des notifications interrompue", e);
+            }
+        } finally {
+            connexion.close();
+            connexions.remove(connexion);
+        }
+        if (serveur == null && !ferme) {
+            LOGGER.info("Concentrateur des notifications perdu, nouvelle tentative");
+            reessayer();
+        }
+    }
+
+    /**
+     * Remet un changement reçu aux abonnés locaux ; une création n'est relue en base que si son
+     * destinataire a des abonnés sur ce client.
+     */
+    private void distribuer(EvenementNotification evenement) {
+        if (evenement.getType() != EvenementNotification.Type.CREATION) {
+            bus.distribuer(evenement);
+            return;
+        }
+        if (!bus.estAbonne(evenement.getIdUtilisateur())) {
+            return;
+        }
+        for (Integer idNotification : evenement.getIdsNotification()) {
+            try {
+                NotificationDTO notification = chargeur.charger(idNotification);
+                if (notification != null) {
+                    bus.distribuer(EvenementNotification.creation(notification));
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Relecture de la notification " + idNotification + " impossible", e);
+            }
+        }
+    }
+
+    private void reessayer() {
+        try {
+            Thread.sleep(DELAI_RECONNEXION_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        demarrer();
+    }
+
+    private void demarrerThread(String role, Runnable tache) {
+        Thread thread = new Thread(tache, "parcauto-relais-notifications-" + role);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        ferme = true;
+        ServerSocket socket = serveur;
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Erreur à la fermeture du relais des notifications", e);
+            }
+        }
+        for (Connexion connexion : connexions) {
+            connexion.close();
+        }
+        connexions.clear();
+    }
+
+    /**
+     * Trame : type, destinataire, nombre d'identifiants puis les identifiants.
+     */
+    private static byte[] encoder(EvenementNotification evenement) {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream();
+        try (DataOutputStream sortie = new DataOutputStream(octets)) {
+            sortie.writeByte(evenement.getType().ordinal());
+            sortie.writeInt(evenement.getIdUtilisateur());
+            sortie.writeInt(evenement.getIdsNotification().size());
+            for (Integer id : evenement.getIdsNotification()) {
+                sortie.writeInt(id);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Écriture en mémoire impossible", e); // Ne se produit pas
+        }
+        return octets.toByteArray();
+    }
+
+    /**
+     * @return le changement, ou null si la trame est invalide (elle est alors ignorée).
+     */
+    private static EvenementNotification decoder(byte[] trame) {
+        try (DataInputStream entree = new DataInputStream(new ByteArrayInputStream(trame))) {
+            int rang = entree.readUnsignedByte();
+            EvenementNotification.Type[] types = EvenementNotification.Type.values();
+            if (rang >= types.length) {
+                LOGGER.warning("Trame du relais des notifications ignorée : type inconnu " + rang);
+                return null;
+            }
+            int idUtilisateur = entree.readInt();
+            int nombreIds = entree.readInt();
+            if (nombreIds < 0 || nombreIds * 4L != trame.length - 9L) {
+                LOGGER.warning("Trame du relais des notifications ignorée : " + nombreIds + " identifiant(s) annoncé(s)");
+                return null;
+            }
+            List<Integer> ids = new ArrayList<>(nombreIds);
+            for (int i = 0; i < nombreIds; i++) {
+                ids.add(entree.readInt());
+            }
+            return new EvenementNotification(types[rang], idUtilisateur, null, ids);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Trame du relais des notifications ignorée : tronquée", e);
+            return null;
+        }
+    }
+
+    private static void fermer(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Erreur à la fermeture d'une connexion du relais", e);
+        }
+    }
+
+    /**
+     * Connexion à un autre client ; les écritures de plusieurs threads sont sérialisées.
+     */
+    private final class Connexion {
+        private final Socket socket;
+        private final DataInputStream entree;
+        private final DataOutputStream sortie;
+
+        Connexion(Socket socket) throws IOException {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            this.entree = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.sortie = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        /**
+         * Authentification mutuelle : chaque extrémité envoie un défi aléatoire et répond à celui
+         * de l'autre par le HMAC du secret sur son rôle et ce défi. Le rôle empêche de renvoyer
+         * à une extrémité sa propre réponse.
+         *
+         * @throws IOException si l'autre extrémité ne connaît pas le secret ou ne répond pas à temps.
+         */
+        void authentifier(String role, String roleAttendu) throws IOException {
+            socket.setSoTimeout(DELAI_AUTHENTIFICATION_MS);
+            byte[] defi = new byte[TAILLE_DEFI];
+            RANDOM.nextBytes(defi);
+            ecrire(defi);
+            byte[] defiRecu = lireBloc(TAILLE_DEFI);
+            if (MessageDigest.isEqual(defi, defiRecu)) {
+                throw new IOException("Défi renvoyé par l'autre extrémité du relais");
+            }
+            ecrire(preuve(role, defiRecu));
+            byte[] preuveRecue = lireBloc(TAILLE_DEFI);
+            if (!MessageDigest.isEqual(preuve(roleAttendu, defi), preuveRecue)) {
+                throw new IOException("Secret du relais des notifications incorrect");
+            }
+            socket.setSoTimeout(0);
+        }
+
+        private byte[] preuve(String role, byte[] defi) throws IOException {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHME);
+                mac.init(new SecretKeySpec(secret, ALGORITHME));
+                mac.update(role.getBytes(StandardCharsets.UTF_8));
+                return mac.doFinal(defi);
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Algorithme d'authentification non disponible: " + ALGORITHME, e);
+            }
+        }
+
+        /**
+         * Écrit une trame préfixée de sa longueur.
+         */
+        synchronized void ecrire(byte[] trame) throws IOException {
+            sortie.writeInt(trame.length);
+            sortie.write(trame);
+            sortie.flush();
+        }
+
+        /**
+         * @return le contenu de la trame suivante.
+         * @throws IOException si la longueur annoncée est invalide : la suite du flux ne peut plus
+         *                     être découpée et la connexion doit être fermée.
+         */
+        byte[] lire() throws IOException {
+            int longueur = entree.readInt();
+            if (longueur < 0 || longueur > TAILLE_TRAME_MAX) {
+                throw new IOException("Longueur de trame invalide: " + longueur);
+            }
+            byte[] trame = new byte[longueur];
+            entree.readFully(trame);
+            return trame;
+        }
+
+        private byte[] lireBloc(int longueurAttendue) throws IOException {
+            byte[] bloc = lire();
+            if (bloc.length != longueurAttendue) {
+                throw new IOException("Bloc d'authentification invalide (" + bloc.length + " octets)");
+            }
+            return bloc;
+        }
+
+        void close() {
+            fermer(socket);
+        }
+    }
+}
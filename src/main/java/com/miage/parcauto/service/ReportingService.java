@@ -1,7 +1,6 @@
 package main.java.com.miage.parcauto.service;
 
 import main.java.com.miage.parcauto.dto.BilanFinancierDTO;
-import main.java.com.miage.parcauto.dto.RapportDTO; // DTO générique pour encapsuler les données d'un rapport
 import main.java.com.miage.parcauto.dto.RapportVehiculeDTO;
 import main.java.com.miage.parcauto.dto.BilanFlotteDTO;
 import main.java.com.miage.parcauto.dto.TcoVehiculeDTO;
@@ -9,6 +8,12 @@ import main.java.com.miage.parcauto.exception.OperationFailedException;
 import main.java.com.miage.parcauto.exception.ReportGenerationException;
 import main.java.com.miage.parcauto.exception.VehiculeNotFoundException;
 
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 /**
  * Service pour la génération et l'exportation de rapports.
  */
@@ -17,7 +22,7 @@ public interface ReportingService {
     /**
      * Génère un rapport détaillé pour un véhicule spécifique.
      * Les données sont récupérées via d'autres services (VehiculeService,
-     * EntretienService, MissionService).
+     * EntretienService, MissionService), en parallèle.
      *
      * @param idVehicule L'identifiant du véhicule.
      * @return Un RapportVehiculeDTO contenant toutes les informations pertinentes.
@@ -29,33 +34,227 @@ public interface ReportingService {
             throws VehiculeNotFoundException, OperationFailedException;
 
     /**
-     * Génère un bilan global de la flotte.
-     * Les données sont récupérées via d'autres services.
-     * 
+     * Génère le rapport détaillé de chaque véhicule de la flotte. Les entretiens et les missions
+     * sont lus pour l'ensemble des véhicules en lectures groupées, et non véhicule par véhicule.
+     *
+     * @return Les rapports, dans l'ordre des véhicules.
+     * @throws OperationFailedException Si une erreur technique survient lors de la
+     *                                  collecte des données.
+     */
+    List<RapportVehiculeDTO> genererRapportsVehicules() throws OperationFailedException;
+
+    /**
+     * Génère le rapport de chaque véhicule de la flotte dans une archive ZIP écrite au fil de
+     * l'eau (un fichier par véhicule, puis un manifeste). Les véhicules sont répartis par lots
+     * entre plusieurs threads ; la génération s'exécute en arrière-plan.
+     *
+     * @param out            Le flux de l'archive ; il est vidé mais n'est pas fermé.
+     * @param format         Le format de chaque rapport.
+     * @param reprendreApres Le dernier véhicule complet d'une génération interrompue
+     *                       ({@link ProgressionRapports#getDernierVehiculeComplet()}), ou null
+     *                       pour toute la flotte.
+     * @param suivi          Reçoit régulièrement la progression (hors du thread JavaFX), ou null.
+     * @return La progression finale. Annuler le résultat arrête la génération ; l'archive est
+     *         alors terminée et sa progression finale transmise au suivi.
+     * @throws OperationFailedException Si la liste des véhicules ne peut pas être lue.
+     */
+    CompletableFuture<ProgressionRapports> genererArchiveRapportsFlotte(OutputStream out, FormatRapport format,
+                                                                        Integer reprendreApres,
+                                                                        Consumer<ProgressionRapports> suivi)
+            throws OperationFailedException;
+
+    /**
+     * Génère un bilan global de la flotte : répartition des véhicules par état, kilométrage
+     * cumulé et coût des entretiens du mois en cours, calculés en une seule requête agrégée.
+     *
      * @return Un BilanFlotteDTO.
      * @throws OperationFailedException Si une erreur technique survient.
      */
     BilanFlotteDTO genererBilanFlotte() throws OperationFailedException;
 
     /**
-     * Exporte un rapport (préalablement généré et stocké dans un RapportDTO) au
-     * format PDF.
+     * Exporte le rapport d'un véhicule au format PDF, comme
+     * {@link #exporterRapportPdf(RapportVehiculeDTO, TcoVehiculeDTO, OutputStream)}. Le TCO
+     * porté par le rapport est utilisé, ou calculé s'il est absent.
      *
-     * @param rapportDTO Le DTO contenant les données du rapport à exporter.
+     * @param rapport Le rapport du véhicule.
      * @return Un tableau d'octets représentant le fichier PDF.
      * @throws ReportGenerationException Si une erreur survient lors de la
      *                                   génération du PDF.
      */
-    byte[] exporterRapportPDF(RapportDTO rapportDTO) throws ReportGenerationException;
+    byte[] exporterRapportPDF(RapportVehiculeDTO rapport) throws ReportGenerationException;
 
     /**
-     * Exporte un rapport (préalablement généré et stocké dans un RapportDTO) au
-     * format Excel.
+     * Exporte le bilan de la flotte au format PDF, comme
+     * {@link #exporterBilanFlottePdf(BilanFlotteDTO, OutputStream)}.
      *
-     * @param rapportDTO Le DTO contenant les données du rapport à exporter.
+     * @param bilan Le bilan de la flotte.
+     * @return Un tableau d'octets représentant le fichier PDF.
+     * @throws ReportGenerationException Si une erreur survient lors de la
+     *                                   génération du PDF.
+     */
+    byte[] exporterRapportPDF(BilanFlotteDTO bilan) throws ReportGenerationException;
+
+    /**
+     * Exporte le TCO d'un véhicule au format PDF.
+     *
+     * @param tco Le TCO du véhicule.
+     * @return Un tableau d'octets représentant le fichier PDF.
+     * @throws ReportGenerationException Si une erreur survient lors de la
+     *                                   génération du PDF.
+     */
+    byte[] exporterRapportPDF(TcoVehiculeDTO tco) throws ReportGenerationException;
+
+    /**
+     * Exporte le rapport d'un véhicule au format Excel (XLSX), comme
+     * {@link #exporterRapportXlsx(RapportVehiculeDTO, TcoVehiculeDTO, OutputStream)}. Le TCO
+     * porté par le rapport est utilisé, ou calculé s'il est absent.
+     *
+     * @param rapport Le rapport du véhicule.
+     * @return Un tableau d'octets représentant le fichier Excel.
+     * @throws ReportGenerationException Si une erreur survient lors de la
+     *                                   génération du fichier Excel.
+     */
+    byte[] exporterRapportExcel(RapportVehiculeDTO rapport) throws ReportGenerationException;
+
+    /**
+     * Exporte le bilan de la flotte au format Excel (XLSX), comme
+     * {@link #exporterBilanFlotteXlsx(BilanFlotteDTO, List, OutputStream)} sans feuille TCO.
+     *
+     * @param bilan Le bilan de la flotte.
      * @return Un tableau d'octets représentant le fichier Excel.
      * @throws ReportGenerationException Si une erreur survient lors de la
      *                                   génération du fichier Excel.
      */
-    byte[] exporterRapportExcel(RapportDTO rapportDTO) throws ReportGenerationException;
-}
\ No newline at end of file
+    byte[] exporterRapportExcel(BilanFlotteDTO bilan) throws ReportGenerationException;
+
+    /**
+     * Exporte le TCO d'un véhicule au format Excel (XLSX, feuille TCO seule).
+     *
+     * @param tco Le TCO du véhicule.
+     * @return Un tableau d'octets représentant le fichier Excel.
+     * @throws ReportGenerationException Si une erreur survient lors de la
+     *                                   génération du fichier Excel.
+     */
+    byte[] exporterRapportExcel(TcoVehiculeDTO tco) throws ReportGenerationException;
+
+    /**
+     * Écrit le bilan de la flotte au format CSV directement dans un flux, sans construire le
+     * document en mémoire. Le flux est vidé mais n'est pas fermé.
+     *
+     * @param bilan Le bilan de la flotte.
+     * @param out   Le flux de destination.
+     * @throws ReportGenerationException Si une erreur survient lors de l'écriture.
+     */
+    void exporterBilanFlotteCsv(BilanFlotteDTO bilan, OutputStream out) throws ReportGenerationException;
+
+    /**
+     * Variante de {@link #exporterBilanFlotteCsv(BilanFlotteDTO, OutputStream)} vers un canal
+     * (fichier, socket). Le canal n'est pas fermé.
+     *
+     * @param bilan Le bilan de la flotte.
+     * @param canal Le canal de destination.
+     * @throws ReportGenerationException Si une erreur survient lors de l'écriture.
+     */
+    void exporterBilanFlotteCsv(BilanFlotteDTO bilan, WritableByteChannel canal) throws ReportGenerationException;
+
+    /**
+     * Exporte l'historique complet de la flotte (véhicules, entretiens, missions) au format
+     * CSV. Les lignes sont lues en base avec un curseur à sens unique et écrites au fil de
+     * l'eau : la mémoire consommée est constante quel que soit le volume. Le flux est vidé
+     * mais n'est pas fermé.
+     *
+     * @param out Le flux de destination.
+     * @return Le nombre de lignes de données écrites (hors en-têtes).
+     * @throws ReportGenerationException Si une erreur survient lors de la lecture ou de l'écriture.
+     */
+    long exporterHistoriqueFlotteCsv(OutputStream out) throws ReportGenerationException;
+
+    /**
+     * Variante de {@link #exporterHistoriqueFlotteCsv(OutputStream)} vers un canal.
+     * Le canal n'est pas fermé.
+     *
+     * @param canal Le canal de destination.
+     * @return Le nombre de lignes de données écrites (hors en-têtes).
+     * @throws ReportGenerationException Si une erreur survient lors de la lecture ou de l'écriture.
+     */
+    long exporterHistoriqueFlotteCsv(WritableByteChannel canal) throws ReportGenerationException;
+
+    /**
+     * Écrit le rapport d'un véhicule sous forme de classeur XLSX (feuilles Véhicule,
+     * Entretiens, Missions et, si fourni, TCO) directement dans un flux. Le flux n'est pas fermé.
+     *
+     * @param rapport Le rapport du véhicule.
+     * @param tco     Le TCO du véhicule, ou null pour omettre la feuille TCO.
+     * @param out     Le flux de destination.
+     * @throws ReportGenerationException Si une erreur survient lors de l'écriture.
+     */
+    void exporterRapportXlsx(RapportVehiculeDTO rapport, TcoVehiculeDTO tco, OutputStream out)
+            throws ReportGenerationException;
+
+    /**
+     * Écrit le rapport d'un véhicule au format PDF (sections Véhicule, Entretiens, Missions et,
+     * si fourni, TCO) directement dans un flux. Le flux n'est pas fermé.
+     *
+     * @param rapport Le rapport du véhicule.
+     * @param tco     Le TCO du véhicule, ou null pour omettre la section TCO.
+     * @param out     Le flux de destination.
+     * @throws ReportGenerationException Si une erreur survient lors de l'écriture.
+     */
+    void exporterRapportPdf(RapportVehiculeDTO rapport, TcoVehiculeDTO tco, OutputStream out)
+            throws ReportGenerationException;
+
+    /**
+     * Écrit le rapport d'un véhicule au format CSV directement dans un flux. Le flux est vidé
+     * mais n'est pas fermé.
+     *
+     * @param rapport Le rapport du véhicule.
+     * @param out     Le flux de destination.
+     * @throws ReportGenerationException Si une erreur survient lors de l'écriture.
+     */
+    void exporterRapportCsv(RapportVehiculeDTO rapport, OutputStream out) throws ReportGenerationException;
+
+    /**
+     * Écrit le bilan de la flotte sous forme de classeur XLSX (feuilles Bilan et, si fournie,
+     * TCO avec une ligne par véhicule) directement dans un flux. Le flux n'est pas fermé.
+     *
+     * @param bilan Le bilan de la flotte.
+     * @param tcos  Le détail du TCO par véhicule, ou null pour omettre la feuille TCO.
+     * @param out   Le flux de destination.
+     * @throws ReportGenerationException Si une erreur survient lors de l'écriture.
+     */
+    void exporterBilanFlotteXlsx(BilanFlotteDTO bilan, List<TcoVehiculeDTO> tcos, OutputStream out)
+            throws ReportGenerationException;
+
+    /**
+     * Exporte l'historique complet de la flotte sous forme de classeur XLSX (une feuille par
+     * section), lu en base et écrit au fil de l'eau comme
+     * {@link #exporterHistoriqueFlotteCsv(OutputStream)}. Le flux n'est pas fermé.
+     *
+     * @param out Le flux de destination.
+     * @return Le nombre de lignes de données écrites (hors en-têtes).
+     * @throws ReportGenerationException Si une erreur survient lors de la lecture ou de l'écriture.
+     */
+    long exporterHistoriqueFlotteXlsx(OutputStream out) throws ReportGenerationException;
+
+    /**
+     * Écrit le bilan de la flotte au format PDF (indicateurs et bilans des douze derniers mois)
+     * directement dans un flux, page par page. Le flux n'est pas fermé.
+     *
+     * @param bilan Le bilan de la flotte.
+     * @param out   Le flux de destination.
+     * @throws ReportGenerationException Si une erreur survient lors de la génération du PDF.
+     */
+    void exporterBilanFlottePdf(BilanFlotteDTO bilan, OutputStream out) throws ReportGenerationException;
+
+    /**
+     * Exporte l'historique complet de la flotte au format PDF (un tableau par section), lu en
+     * base et écrit page par page : la mémoire consommée ne dépend pas du nombre de pages.
+     * Le flux n'est pas fermé.
+     *
+     * @param out Le flux de destination.
+     * @return Le nombre de lignes de données écrites (hors en-têtes).
+     * @throws ReportGenerationException Si une erreur survient lors de la lecture ou de l'écriture.
+     */
+    long exporterHistoriqueFlottePdf(OutputStream out) throws ReportGenerationException;
+}
@@ -0,0 +1,53 @@
+package main.java.com.miage.parcauto.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Accès asynchrone à un service métier : chaque appel s'exécute sur l'exécuteur de
+ * {@link ServicesAsynchrones}, hors du thread JavaFX.
+ * <p>
+ * Exemple : {@code services.vehicules().appeler(VehiculeService::getAllVehicules)
+ * .thenAcceptAsync(table::setAll, ServicesAsynchrones.executeurFx())}.
+ *
+ * @param <S> Le type du service.
+ */
+public final class ServiceAsynchrone<S> {
+
+    /**
+     * Appel d'une méthode du service.
+     *
+     * @param <S> Le type du service.
+     * @param <T> Le type du résultat.
+     */
+    @FunctionalInterface
+    public interface Appel<S, T> {
+        T appeler(S service) throws Exception;
+    }
+
+    private final S service;
+    private final ServicesAsynchrones executeur;
+
+    ServiceAsynchrone(S service, ServicesAsynchrones executeur) {
+        this.service = service;
+        this.executeur = executeur;
+    }
+
+    /**
+     * Exécute un appel du service en arrière-plan.
+     *
+     * @param appel l'appel à exécuter.
+     * @param <T>   le type du résultat.
+     * @return le résultat à venir ; {@code cancel(true)} retire l'appel de la file ou interrompt
+     *         le thread qui l'exécute.
+     */
+    public <T> CompletableFuture<T> appeler(Appel<S, T> appel) {
+        return executeur.executer(() -> appel.appeler(service));
+    }
+
+    /**
+     * @return le service synchrone, pour les appels déjà faits hors du thread JavaFX.
+     */
+    public S getService() {
+        return service;
+    }
+}
@@ -0,0 +1,419 @@
+package main.java.com.miage.parcauto.service;
+
+import javafx.application.Platform;
+import main.java.com.miage.parcauto.dao.DbUtil;
+import main.java.com.miage.parcauto.dao.PageCurseur;
+import main.java.com.miage.parcauto.service.impl.AuthenticationServiceImpl;
+import main.java.com.miage.parcauto.service.impl.EntretienServiceImpl;
+import main.java.com.miage.parcauto.service.impl.MissionServiceImpl;
+import main.java.com.miage.parcauto.service.impl.NotificationServiceImpl;
+import main.java.com.miage.parcauto.service.impl.PersonnelServiceImpl;
+import main.java.com.miage.parcauto.service.impl.ReportingServiceImpl;
+import main.java.com.miage.parcauto.service.impl.VehiculeServiceImpl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Façade asynchrone des services métier pour la couche JavaFX.
+ * <p>
+ * Les services sont bloquants (JDBC) : appelés depuis le thread JavaFX, ils figent l'interface
+ * le temps de la requête ou de la génération d'un rapport. Cette façade exécute les appels sur
+ * un exécuteur borné ({@code service.async.threads} threads, au plus
+ * {@code service.async.queueSize} appels en attente, dans db.properties) et retourne des
+ * {@link CompletableFuture} annulables. Les résultats se remettent sur le thread JavaFX avec
+ * {@link #executeurFx()}, ou par lots avec {@link LivraisonFx} et {@link #parcourirPages}.
+ * <p>
+ * Le nombre de threads vaut par défaut la taille maximale du pool de connexions : au-delà, les
+ * appels attendraient une connexion au lieu d'attendre dans la file.
+ * <p>
+ * Avec {@code service.async.virtualThreads=true}, chaque appel s'exécute sur son propre thread
+ * virtuel : des centaines d'appels simultanés (widgets du tableau de bord, rapports,
+ * notifications) ne consomment plus de threads système. Les services gardent une connexion
+ * pendant toute leur exécution ; un budget ({@code service.async.connectionBudget}, par défaut
+ * {@code db.pool.maxSize}) borne donc le nombre d'appels exécutés simultanément, les autres
+ * attendant sur un sémaphore, ce qui ne bloque aucun thread porteur. Sans ce budget, les appels
+ * en excès attendraient une connexion jusqu'au délai d'emprunt du pool puis échoueraient.
+ */
+public final class ServicesAsynchrones {
+
+    private static final Logger LOGGER = Logger.getLogger(ServicesAsynchrones.class.getName());
+    private static final int TAILLE_FILE_DEFAUT = 1000;
+    private static final int FENETRE_LATENCES = 2048;
+    private static final Executor EXECUTEUR_FX = tache -> {
+        if (Platform.isFxApplicationThread()) {
+            tache.run();
+        } else {
+            Platform.runLater(tache);
+        }
+    };
+
+    private static volatile ServicesAsynchrones instance;
+
+    /**
+     * Lecture d'une page de résultats pour {@link #parcourirPages}.
+     *
+     * @param <R> Le type des éléments.
+     */
+    @FunctionalInterface
+    public interface LecturePage<R> {
+        PageCurseur<R> lire(String jeton) throws Exception;
+    }
+
+    private final ExecutorService executeur;
+    private final boolean threadsVirtuels;
+    private final int budgetMax;
+    private final Semaphore budgetConnexions; // null : la taille du pool de threads borne les appels
+    private final ServiceAsynchrone<VehiculeService> vehicules;
+    private final ServiceAsynchrone<MissionService> missions;
+    private final ServiceAsynchrone<EntretienService> entretiens;
+    private final ServiceAsynchrone<ReportingService> reporting;
+    private final ServiceAsynchrone<NotificationService> notifications;
+    private final ServiceAsynchrone<PersonnelService> personnel;
+    private final ServiceAsynchrone<AuthenticationService> authentification;
+
+    private final long creeeLe = System.nanoTime();
+    private final AtomicInteger appelsEnCours = new AtomicInteger();
+    private final AtomicLong appelsTermines = new AtomicLong();
+    private final AtomicLong attentesBudget = new AtomicLong();
+    private final AtomicLongArray latences = new AtomicLongArray(FENETRE_LATENCES);
+
+    /**
+     * Crée la façade sur un pool de threads et des services donnés (tests, configuration spécifique).
+     */
+    public ServicesAsynchrones(ExecutorService executeur, VehiculeService vehiculeService,
+                               MissionService missionService, EntretienService entretienService,
+                               ReportingService reportingService, NotificationService notificationService,
+                               PersonnelService personnelService) {
+        this(executeur, false, 0, vehiculeService, missionService, entretienService, reportingService,
+                notificationService, personnelService);
+    }
+
+    /**
+     * Crée la façade sur un exécuteur et des services donnés.
+     *
+     * @param threadsVirtuels  true si l'exécuteur crée un thread virtuel par appel.
+     * @param budgetConnexions le nombre maximal d'appels exécutés simultanément, 0 pour aucun.
+     */
+    public ServicesAsynchrones(ExecutorService executeur, boolean threadsVirtuels, int budgetConnexions,
+                               VehiculeService vehiculeService, MissionService missionService,
+                               EntretienService entretienService, ReportingService reportingService,
+                               NotificationService notificationService, PersonnelService personnelService) {
+        this(executeur, threadsVirtuels, budgetConnexions, vehiculeService, missionService, entretienService,
+                reportingService, notificationService, personnelService, new AuthenticationServiceImpl());
+    }
+
+    /**
+     * Crée la façade sur un exécuteur et des services donnés, y compris l'authentification.
+     *
+     * @param threadsVirtuels  true si l'exécuteur crée un thread virtuel par appel.
+     * @param budgetConnexions le nombre maximal d'appels exécutés simultanément, 0 pour aucun.
+     */
+    public ServicesAsynchrones(ExecutorService executeur, boolean threadsVirtuels, int budgetConnexions,
+                               VehiculeService vehiculeService, MissionService missionService,
+                               EntretienService entretienService, ReportingService reportingService,
+                               NotificationService notificationService, PersonnelService personnelService,
+                               AuthenticationService authenticationService) {
+        this.executeur = executeur;
+        this.threadsVirtuels = threadsVirtuels;
+        this.budgetMax = Math.max(0, budgetConnexions);
+        this.budgetConnexions = budgetMax > 0 ? new Semaphore(budgetMax, true) : null;
+        this.vehicules = new ServiceAsynchrone<>(vehiculeService, this);
+        this.missions = new ServiceAsynchrone<>(missionService, this);
+        this.entretiens = new ServiceAsynchrone<>(entretienService, this);
+        this.reporting = new ServiceAsynchrone<>(reportingService, this);
+        this.notifications = new ServiceAsynchrone<>(notificationService, this);
+        this.personnel = new ServiceAsynchrone<>(personnelService, this);
+        this.authentification = new ServiceAsynchrone<>(authenticationService, this);
+    }
+
+    /**
+     * @return la façade de l'application, créée au premier appel.
+     */
+    public static ServicesAsynchrones getInstance() {
+        ServicesAsynchrones courante = instance;
+        if (courante == null) {
+            synchronized (ServicesAsynchrones.class) {
+                courante = instance;
+                if (courante == null) {
+                    courante = creer(Boolean.parseBoolean(DbUtil.getPropriete("service.async.virtualThreads", "false")));
+                    instance = courante;
+                }
+            }
+        }
+        return courante;
+    }
+
+    /**
+     * Crée une façade sur les services par défaut, dans le mode d'exécution demandé (le mode de
+     * la façade de l'application se configure dans db.properties).
+     *
+     * @param threadsVirtuels true pour un thread virtuel par appel et un budget de connexions,
+     *                        false pour un pool de threads borné.
+     * @return la nouvelle façade, à arrêter par {@link #arreter()}.
+     */
+    public static ServicesAsynchrones creer(boolean threadsVirtuels) {
+        int budget = threadsVirtuels ? entier("service.async.connectionBudget", entier("db.pool.maxSize", 10)) : 0;
+        ExecutorService executeur = threadsVirtuels ? creerExecuteurVirtuel(budget) : creerExecuteur();
+        return new ServicesAsynchrones(executeur, threadsVirtuels, budget, new VehiculeServiceImpl(),
+                new MissionServiceImpl(), new EntretienServiceImpl(), new ReportingServiceImpl(),
+                new NotificationServiceImpl(), new PersonnelServiceImpl());
+    }
+
+    /**
+     * Arrête la façade de l'application si elle a été créée (fermeture de l'application).
+     */
+    public static void arreterInstance() {
+        ServicesAsynchrones courante = instance;
+        if (courante != null) {
+            courante.arreter();
+        }
+    }
+
+    /**
+     * Exécuteur remettant une tâche sur le thread JavaFX (exécution immédiate si l'appelant y est
+     * déjà), à utiliser avec {@code thenAcceptAsync}, {@code whenCompleteAsync}...
+     *
+     * @return l'exécuteur du thread JavaFX.
+     */
+    public static Executor executeurFx() {
+        return EXECUTEUR_FX;
+    }
+
+    public ServiceAsynchrone<VehiculeService> vehicules() {
+        return vehicules;
+    }
+
+    public ServiceAsynchrone<MissionService> missions() {
+        return missions;
+    }
+
+    public ServiceAsynchrone<EntretienService> entretiens() {
+        return entretiens;
+    }
+
+    public ServiceAsynchrone<ReportingService> reporting() {
+        return reporting;
+    }
+
+    public ServiceAsynchrone<NotificationService> notifications() {
+        return notifications;
+    }
+
+    public ServiceAsynchrone<PersonnelService> personnel() {
+        return personnel;
+    }
+
+    /**
+     * @return l'authentification : la vérification d'un mot de passe est coûteuse par
+     *         construction et ne doit pas figer l'écran de connexion.
+     */
+    public ServiceAsynchrone<AuthenticationService> authentification() {
+        return authentification;
+    }
+
+    /**
+     * @return l'exécuteur des appels, pour les traitements d'arrière-plan qui ne passent pas par
+     *         un service de la façade.
+     */
+    public Executor getExecuteur() {
+        return executeur;
+    }
+
+    /**
+     * Exécute un traitement en arrière-plan.
+     *
+     * @param traitement le traitement.
+     * @param <T>        le type du résultat.
+     * @return le résultat à venir. {@code cancel(true)} retire le traitement de la file ou
+     *         interrompt son thread ; l'annulation d'une étape dérivée ({@code thenApply}...)
+     *         n'annule pas le traitement.
+     */
+    public <T> CompletableFuture<T> executer(Callable<T> traitement) {
+        TacheAnnulable<T> tache = new TacheAnnulable<>();
+        long soumisLe = System.nanoTime();
+        try {
+            tache.attacher(executeur.submit(() -> {
+                if (tache.isDone()) {
+                    return; // Annulée avant son démarrage
+                }
+                appelsEnCours.incrementAndGet();
+                boolean budgetPris = false;
+                try {
+                    budgetPris = prendreBudget();
+                    tache.complete(traitement.call());
+                } catch (Throwable t) {
+                    tache.completeExceptionally(t);
+                } finally {
+                    if (budgetPris) {
+                        budgetConnexions.release();
+                    }
+                    appelsEnCours.decrementAndGet();
+                    enregistrerLatence(System.nanoTime() - soumisLe);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            tache.completeExceptionally(e);
+        }
+        return tache;
+    }
+
+    /**
+     * Parcourt toutes les pages d'une lecture par curseur en arrière-plan et remet les éléments
+     * au thread JavaFX par lots. Le parcours s'arrête entre deux pages si le résultat est annulé.
+     *
+     * @param lecture      la lecture d'une page à partir du jeton de la précédente (null au début).
+     * @param consommateur le traitement d'un lot d'éléments, sur le thread JavaFX.
+     * @param tailleLotMax le nombre maximal d'éléments remis par lot.
+     * @param <R>          le type des éléments.
+     * @return le nombre d'éléments lus.
+     */
+    public <R> CompletableFuture<Long> parcourirPages(LecturePage<R> lecture, Consumer<List<R>> consommateur,
+                                                      int tailleLotMax) {
+        LivraisonFx<R> livraison = new LivraisonFx<>(consommateur, tailleLotMax);
+        return executer(() -> {
+            long total = 0;
+            String jeton = null;
+            do {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Parcours annulé après " + total + " éléments");
+                }
+                PageCurseur<R> page = lecture.lire(jeton);
+                livraison.publierTout(page.getElements());
+                total += page.getElements().size();
+                jeton = page.getJetonSuivant();
+            } while (jeton != null);
+            return total;
+        });
+    }
+
+    /**
+     * @return un instantané des statistiques d'exécution (latences sur les
+     *         {@value #FENETRE_LATENCES} derniers appels).
+     */
+    public ServicesAsynchronesStats getStats() {
+        long termines = appelsTermines.get();
+        int nombre = (int) Math.min(termines, FENETRE_LATENCES);
+        long[] echantillon = new long[nombre];
+        for (int i = 0; i < nombre; i++) {
+            echantillon[i] = latences.get(i);
+        }
+        Arrays.sort(echantillon);
+        double secondes = (System.nanoTime() - creeeLe) / 1e9;
+        return new ServicesAsynchronesStats(threadsVirtuels, budgetMax,
+                budgetConnexions != null ? budgetConnexions.availablePermits() : 0, appelsEnCours.get(), termines,
+                attentesBudget.get(), centileMs(echantillon, 0.50), centileMs(echantillon, 0.99),
+                secondes > 0 ? termines / secondes : 0);
+    }
+
+    /**
+     * Arrête l'exécuteur (fermeture de l'application) : les appels en attente sont abandonnés et
+     * les appels en cours interrompus.
+     */
+    public void arreter() {
+        List<Runnable> abandonnes = executeur.shutdownNow();
+        if (!abandonnes.isEmpty()) {
+            LOGGER.info(abandonnes.size() + " appel(s) de service abandonné(s) à l'arrêt");
+        }
+    }
+
+    /**
+     * Prend une place du budget de connexions (mode threads virtuels), en attendant si besoin.
+     *
+     * @return true si une place a été prise et doit être rendue.
+     */
+    private boolean prendreBudget() throws InterruptedException {
+        if (budgetConnexions == null) {
+            return false;
+        }
+        if (!budgetConnexions.tryAcquire()) {
+            attentesBudget.incrementAndGet();
+            budgetConnexions.acquire();
+        }
+        return true;
+    }
+
+    private void enregistrerLatence(long nanos) {
+        long rang = appelsTermines.getAndIncrement();
+        latences.set((int) (rang % FENETRE_LATENCES), nanos);
+    }
+
+    private static double centileMs(long[] trie, double centile) {
+        if (trie.length == 0) {
+            return 0;
+        }
+        int index = Math.min(trie.length - 1, (int) Math.ceil(centile * trie.length) - 1);
+        return trie[Math.max(0, index)] / 1e6;
+    }
+
+    private static ExecutorService creerExecuteurVirtuel(int budget) {
+        LOGGER.info("Exécuteur des services : un thread virtuel par appel, budget de " + budget + " connexions");
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("parcauto-service-v", 1).factory());
+    }
+
+    private static ExecutorService creerExecuteur() {
+        int threads = entier("service.async.threads", entier("db.pool.maxSize", 10));
+        int tailleFile = entier("service.async.queueSize", TAILLE_FILE_DEFAUT);
+        AtomicInteger compteur = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(tailleFile), tache -> {
+                    Thread thread = new Thread(tache, "parcauto-service-" + compteur.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        LOGGER.info("Exécuteur des services : " + threads + " threads, file de " + tailleFile + " appels");
+        return pool;
+    }
+
+    private static int entier(String cle, int defaut) {
+        try {
+            int valeur = Integer.parseInt(DbUtil.getPropriete(cle, String.valueOf(defaut)).trim());
+            return valeur > 0 ? valeur : defaut;
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur invalide pour " + cle + ", utilisation de " + defaut);
+            return defaut;
+        }
+    }
+
+    /**
+     * Résultat dont l'annulation se propage à l'exécution sous-jacente.
+     */
+    private static final class TacheAnnulable<T> extends CompletableFuture<T> {
+        private volatile Future<?> execution;
+
+        private void attacher(Future<?> execution) {
+            this.execution = execution;
+            if (isCancelled()) {
+                execution.cancel(true);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean interrompre) {
+            boolean annulee = super.cancel(interrompre);
+            Future<?> courante = execution;
+            if (annulee && courante != null) {
+                courante.cancel(true);
+            }
+            return annulee;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package main.java.com.miage.parcauto.service;
+
+/**
+ * Instantané immuable des statistiques d'exécution de {@link ServicesAsynchrones}.
+ * Sert à comparer les modes d'exécution (pool de threads borné ou threads virtuels) et à
+ * dimensionner le budget de connexions.
+ */
+public final class ServicesAsynchronesStats {
+
+    private final boolean threadsVirtuels;
+    private final int budgetConnexions;
+    private final int budgetDisponible;
+    private final int appelsEnCours;
+    private final long appelsTermines;
+    private final long attentesBudget;
+    private final double latenceP50Ms;
+    private final double latenceP99Ms;
+    private final double debitParSeconde;
+
+    ServicesAsynchronesStats(boolean threadsVirtuels, int budgetConnexions, int budgetDisponible, int appelsEnCours,
+                             long appelsTermines, long attentesBudget, double latenceP50Ms, double latenceP99Ms,
+                             double debitParSeconde) {
+        this.threadsVirtuels = threadsVirtuels;
+        this.budgetConnexions = budgetConnexions;
+        this.budgetDisponible = budgetDisponible;
+        this.appelsEnCours = appelsEnCours;
+        this.appelsTermines = appelsTermines;
+        this.attentesBudget = attentesBudget;
+        this.latenceP50Ms = latenceP50Ms;
+        this.latenceP99Ms = latenceP99Ms;
+        this.debitParSeconde = debitParSeconde;
+    }
+
+    /**
+     * @return true si chaque appel s'exécute sur un thread virtuel.
+     */
+    public boolean isThreadsVirtuels() {
+        return threadsVirtuels;
+    }
+
+    /**
+     * @return le nombre maximal d'appels exécutés simultanément (threads virtuels), 0 sinon.
+     */
+    public int getBudgetConnexions() {
+        return budgetConnexions;
+    }
+
+    public int getBudgetDisponible() {
+        return budgetDisponible;
+    }
+
+    public int getAppelsEnCours() {
+        return appelsEnCours;
+    }
+
+    public long getAppelsTermines() {
+        return appelsTermines;
+    }
+
+    /**
+     * @return le nombre d'appels ayant attendu qu'une place du budget se libère.
+     */
+    public long getAttentesBudget() {
+        return attentesBudget;
+    }
+
+    /**
+     * @return la latence médiane (soumission à fin d'exécution) des derniers appels, en ms.
+     */
+    public double getLatenceP50Ms() {
+        return latenceP50Ms;
+    }
+
+    /**
+     * @return le 99e centile de latence des derniers appels, en ms.
+     */
+    public double getLatenceP99Ms() {
+        return latenceP99Ms;
+    }
+
+    /**
+     * @return le nombre d'appels terminés par seconde depuis la création de la façade.
+     */
+    public double getDebitParSeconde() {
+        return debitParSeconde;
+    }
+
+    @Override
+    public String toString() {
+        return "ServicesAsynchronesStats{" +
+                "mode=" + (threadsVirtuels ? "threads virtuels" : "pool de threads") +
+                (threadsVirtuels ? ", budget=" + budgetDisponible + "/" + budgetConnexions : "") +
+                ", enCours=" + appelsEnCours +
+                ", termines=" + appelsTermines +
+                ", attentesBudget=" + attentesBudget +
+                String.format(", p50=%.1f ms, p99=%.1f ms, debit=%.1f appels/s",
+                        latenceP50Ms, latenceP99Ms, debitParSeconde) +
+                '}';
+    }
+}
@@ -1,6 +1,9 @@
 package main.java.com.miage.parcauto.service;
 
+import main.java.com.miage.parcauto.dao.PageCurseur;
+import main.java.com.miage.parcauto.dao.TriCurseur;
 import main.java.com.miage.parcauto.dto.VehiculeDTO;
+import main.java.com.miage.parcauto.dto.VehiculeResumeDTO;
 import main.java.com.miage.parcauto.exception.OperationFailedException;
 import main.java.com.miage.parcauto.exception.ValidationException;
 import main.java.com.miage.parcauto.exception.VehiculeNotFoundException;
@@ -45,6 +48,19 @@ public interface VehiculeService {
      */
     List<VehiculeDTO> getAllVehicules() throws OperationFailedException;
 
+    /**
+     * Récupère une page de la liste des véhicules : seules les colonnes affichées sont lues
+     * (projection) et la pagination par curseur garde un coût constant par page. Le détail
+     * complet d'une ligne se charge à sa sélection via {@link #getVehiculeById(Integer)}.
+     *
+     * @param jeton Le jeton de continuation de la page précédente, ou null pour la première page.
+     * @param taille Le nombre maximal de lignes.
+     * @param tri L'ordre de parcours, identique pour toutes les pages.
+     * @return La page de résumés et le jeton de la page suivante.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    PageCurseur<VehiculeResumeDTO> getPageVehicules(String jeton, int taille, TriCurseur tri) throws OperationFailedException;
+
     /**
      * Met à jour les informations d'un véhicule existant.
      *
@@ -100,6 +116,20 @@ public interface VehiculeService {
     List<VehiculeDTO> getVehiculesDisponibles(LocalDateTime dateDebut, LocalDateTime dateFin)
             throws OperationFailedException;
 
+    /**
+     * Vérifie qu'un véhicule précis est disponible sur une période, sans charger
+     * la liste complète des véhicules disponibles.
+     *
+     * @param idVehicule L'identifiant du véhicule.
+     * @param dateDebut  La date de début de la période souhaitée.
+     * @param dateFin    La date de fin de la période souhaitée.
+     * @return true si le véhicule est dans l'état "Disponible" et sans mission ni
+     *         affectation conflictuelle.
+     * @throws OperationFailedException Si une erreur technique survient.
+     */
+    boolean isVehiculeDisponible(Integer idVehicule, LocalDateTime dateDebut, LocalDateTime dateFin)
+            throws OperationFailedException;
+
     /**
      * Récupère les véhicules nécessitant une maintenance.
      * La logique exacte dépendra des critères (ex: km depuis dernier entretien,
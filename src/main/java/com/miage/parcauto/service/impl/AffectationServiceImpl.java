@@ -7,11 +7,13 @@ import main.java.com.miage.parcauto.exception.*;
 import main.java.com.miage.parcauto.mapper.AffectationMapper;
 import main.java.com.miage.parcauto.mapper.impl.AffectationMapperImpl;
 import main.java.com.miage.parcauto.model.affectation.Affectation;
+import main.java.com.miage.parcauto.model.planning.TypeReservation;
 import main.java.com.miage.parcauto.service.AffectationService;
 import main.java.com.miage.parcauto.service.VehiculeService; // Pour vérifier la disponibilité
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,14 +28,15 @@ public class AffectationServiceImpl implements AffectationService {
     private final SocietaireCompteRepository societaireCompteRepository;
     private final AffectationMapper affectationMapper;
     private final VehiculeService vehiculeService; // Pour la logique de disponibilité
+    private final ReservationIndex reservationIndex = ReservationIndex.getInstance(); // Planning en mémoire
 
     /**
      * Constructeur par défaut.
      */
     public AffectationServiceImpl() {
         this.affectationRepository = new AffectationRepositoryImpl();
-        this.vehiculeRepository = new VehiculeRepositoryImpl();
-        this.personnelRepository = new PersonnelRepositoryImpl();
+        this.vehiculeRepository = CachesEntites.vehicules(new VehiculeRepositoryImpl());
+        this.personnelRepository = CachesEntites.personnel(new PersonnelRepositoryImpl());
         this.societaireCompteRepository = new SocietaireCompteRepositoryImpl();
         this.affectationMapper = new AffectationMapperImpl();
         this.vehiculeService = new VehiculeServiceImpl(); // Risque de dépendance circulaire si VehiculeService utilise
@@ -93,15 +96,11 @@ public class AffectationServiceImpl implements AffectationService {
                         "Compte sociétaire non trouvé avec l'ID: " + affectationDTO.getIdSocietaire());
             }
 
-            // Vérifier la disponibilité du véhicule sur la période
-            if (!vehiculeService
-                    .getVehiculesDisponibles(affectationDTO.getDateDebut(),
-                            affectationDTO.getDateFin() != null ? affectationDTO.getDateFin()
-                                    : affectationDTO.getDateDebut().plusYears(5) /*
-                                                                                  * Pour affectation longue durée sans
-                                                                                  * date de fin explicite
-                                                                                  */)
-                    .stream().anyMatch(v -> v.getIdVehicule().equals(affectationDTO.getIdVehicule()))) {
+            // Vérifier la disponibilité du véhicule sur la période (une seule requête, même transaction)
+            LocalDateTime finVerifiee = affectationDTO.getDateFin() != null ? affectationDTO.getDateFin()
+                    : affectationDTO.getDateDebut().plusYears(5); // Affectation longue durée sans date de fin explicite
+            if (!vehiculeRepository.isDisponible(conn, affectationDTO.getIdVehicule(),
+                    VehiculeServiceImpl.LIBELLE_ETAT_DISPONIBLE, affectationDTO.getDateDebut(), finVerifiee, null)) {
                 throw new OperationFailedException("Le véhicule ID " + affectationDTO.getIdVehicule()
                         + " n'est pas disponible pour la période demandée.");
             }
@@ -109,6 +108,7 @@ public class AffectationServiceImpl implements AffectationService {
             Affectation affectation = affectationMapper.toEntity(affectationDTO);
             Affectation savedAffectation = affectationRepository.save(conn, affectation);
             conn.commit();
+            reservationIndex.enregistrerAffectation(savedAffectation);
             return affectationMapper.toDTO(savedAffectation);
         } catch (SQLException e) {
             DbUtil.rollback(conn);
@@ -277,6 +277,7 @@ public class AffectationServiceImpl implements AffectationService {
 
             Affectation updatedAffectation = affectationRepository.update(conn, existingAffectation);
             conn.commit();
+            reservationIndex.enregistrerAffectation(updatedAffectation);
             return affectationMapper.toDTO(updatedAffectation);
         } catch (SQLException e) {
             DbUtil.rollback(conn);
@@ -305,6 +306,7 @@ public class AffectationServiceImpl implements AffectationService {
                 throw new OperationFailedException("La suppression de l'affectation a échoué.");
             }
             conn.commit();
+            reservationIndex.retirer(TypeReservation.AFFECTATION, idAffectation);
         } catch (SQLException e) {
             DbUtil.rollback(conn);
             throw new OperationFailedException("Erreur technique lors de la suppression de l'affectation.", e);
@@ -0,0 +1,273 @@
+package main.java.com.miage.parcauto.service.impl;
+
+import main.java.com.miage.parcauto.dao.AlerteRepository;
+import main.java.com.miage.parcauto.dao.DbUtil;
+import main.java.com.miage.parcauto.dao.EcheanceEntretienRepository;
+import main.java.com.miage.parcauto.dao.NotificationRepository;
+import main.java.com.miage.parcauto.dao.UtilisateurRepository;
+import main.java.com.miage.parcauto.dao.impl.AlerteRepositoryImpl;
+import main.java.com.miage.parcauto.dao.impl.EcheanceEntretienRepositoryImpl;
+import main.java.com.miage.parcauto.dao.impl.NotificationRepositoryImpl;
+import main.java.com.miage.parcauto.dao.impl.UtilisateurRepositoryImpl;
+import main.java.com.miage.parcauto.dto.AlerteAssuranceDTO;
+import main.java.com.miage.parcauto.dto.AlerteDocumentDTO;
+import main.java.com.miage.parcauto.dto.EcheanceEntretienDTO;
+import main.java.com.miage.parcauto.exception.OperationFailedException;
+import main.java.com.miage.parcauto.mapper.NotificationMapper;
+import main.java.com.miage.parcauto.mapper.impl.NotificationMapperImpl;
+import main.java.com.miage.parcauto.model.notification.Notification;
+import main.java.com.miage.parcauto.model.utilisateur.Role;
+import main.java.com.miage.parcauto.service.AlerteService;
+import main.java.com.miage.parcauto.service.BusNotifications;
+import main.java.com.miage.parcauto.service.EvenementNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Implémentation du moteur d'alertes.
+ * <p>
+ * L'évaluation est incrémentale : le filigrane {@value #SOURCE} (table ALERTE_FILIGRANE) retient
+ * l'heure de la dernière évaluation, et chaque évaluation ne lit que ce qui a changé depuis :
+ * <ul>
+ *     <li>assurances et documents dont l'échéance entre dans la fenêtre d'alerte (la fenêtre
+ *     avance avec le temps), ou modifiés/déposés depuis ;</li>
+ *     <li>projections ECHEANCE_ENTRETIEN mises à jour depuis (entretien ou mission clôturé,
+ *     kilométrage relevé) et arrivées à moins de {@code alert.maintenance.kmMargin} km du seuil ;</li>
+ *     <li>projections dont l'échéance calendaire entre dans la fenêtre d'alerte depuis.</li>
+ * </ul>
+ * Les projections des véhicules modifiés hors des services (ou pas encore projetés) sont
+ * actualisées au préalable.
+ * Chaque alerte a une clé (type, entité, échéance) journalisée dans ALERTE_EMISE : une alerte
+ * déjà émise n'est pas répétée. Les notifications sont insérées par lots dans la transaction
+ * qui avance le filigrane, puis publiées sur le {@link BusNotifications}.
+ */
+public class AlerteServiceImpl implements AlerteService {
+
+    private static final Logger LOGGER = Logger.getLogger(AlerteServiceImpl.class.getName());
+
+    static final String SOURCE = "ALERTES";
+    static final String TYPE_NOTIFICATION = "ALERTE";
+
+    private static final int JOURS_ASSURANCE = entier("alert.insurance.days", 30);
+    private static final int JOURS_DOCUMENT = entier("alert.document.days", 30);
+    // Les lignes modifiées par une transaction encore ouverte à l'évaluation précédente portent
+    // une date_maj antérieure au filigrane : elles sont relues, les clés évitant les doublons
+    private static final long CHEVAUCHEMENT_SECONDES = 60;
+
+    private final AlerteRepository alerteRepository;
+    private final EcheanceEntretienRepository echeanceRepository;
+    private final ProjectionEcheances projectionEcheances;
+    private final NotificationRepository notificationRepository;
+    private final UtilisateurRepository utilisateurRepository;
+    private final NotificationMapper notificationMapper;
+    private final BusNotifications bus;
+
+    /**
+     * Constructeur par défaut.
+     */
+    public AlerteServiceImpl() {
+        this.alerteRepository = new AlerteRepositoryImpl();
+        this.echeanceRepository = new EcheanceEntretienRepositoryImpl();
+        this.projectionEcheances = new ProjectionEcheances(echeanceRepository);
+        this.notificationRepository = new NotificationRepositoryImpl();
+        this.utilisateurRepository = new UtilisateurRepositoryImpl();
+        this.notificationMapper = new NotificationMapperImpl();
+        this.bus = BusNotifications.getInstance();
+    }
+
+    /**
+     * Constructeur avec injection de dépendances.
+     * @param alerteRepository Le repository du moteur d'alertes.
+     * @param echeanceRepository Le repository des échéances d'entretien projetées.
+     * @param notificationRepository Le repository pour les notifications.
+     * @param utilisateurRepository Le repository pour les utilisateurs destinataires.
+     * @param notificationMapper Le mapper pour les notifications.
+     * @param bus Le bus sur lequel publier les notifications créées.
+     */
+    public AlerteServiceImpl(AlerteRepository alerteRepository, EcheanceEntretienRepository echeanceRepository,
+                             NotificationRepository notificationRepository, UtilisateurRepository utilisateurRepository,
+                             NotificationMapper notificationMapper, BusNotifications bus) {
+        this.alerteRepository = alerteRepository;
+        this.echeanceRepository = echeanceRepository;
+        this.projectionEcheances = new ProjectionEcheances(echeanceRepository);
+        this.notificationRepository = notificationRepository;
+        this.utilisateurRepository = utilisateurRepository;
+        this.notificationMapper = notificationMapper;
+        this.bus = bus;
+    }
+
+    /**
+     * Alerte à émettre, avant sa déclinaison en notifications.
+     */
+    private static final class Alerte {
+        final String cle;
+        final String titre;
+        final String message;
+        final String typeEntite;
+        final Integer idEntite;
+
+        Alerte(String cle, String titre, String message, String typeEntite, Integer idEntite) {
+            this.cle = cle;
+            this.titre = titre;
+            this.message = message;
+            this.typeEntite = typeEntite;
+            this.idEntite = idEntite;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int genererAlertes() throws OperationFailedException {
+        Connection conn = null;
+        List<Notification> creees = Collections.emptyList();
+        int nouvelles;
+        try {
+            conn = DbUtil.getConnection();
+            conn.setAutoCommit(false);
+
+            LocalDateTime maintenant = alerteRepository.now(conn);
+            LocalDateTime depuis = alerteRepository.lockWatermark(conn, SOURCE).orElse(null);
+            LocalDateTime modifiesDepuis = depuis != null ? depuis.minusSeconds(CHEVAUCHEMENT_SECONDES) : null;
+
+            Map<String, Alerte> alertes = new LinkedHashMap<>();
+            for (AlerteAssuranceDTO assurance : alerteRepository.findAssurancesExpiring(conn, modifiesDepuis,
+                    depuis != null ? depuis.plusDays(JOURS_ASSURANCE) : null, maintenant, maintenant.plusDays(JOURS_ASSURANCE))) {
+                ajouter(alertes, alerteAssurance(assurance, maintenant));
+            }
+            for (AlerteDocumentDTO document : alerteRepository.findDocumentsExpiring(conn, modifiesDepuis,
+                    depuis != null ? depuis.plusDays(JOURS_DOCUMENT) : null, maintenant, maintenant.plusDays(JOURS_DOCUMENT))) {
+                ajouter(alertes, alerteDocument(document, maintenant));
+            }
+            Set<Integer> vehicules = new LinkedHashSet<>(alerteRepository.findVehiculesModifiedSince(conn, modifiesDepuis));
+            vehicules.addAll(echeanceRepository.findVehiculesSansEcheance(conn));
+            projectionEcheances.actualiser(conn, vehicules);
+            for (EcheanceEntretienDTO echeance : echeanceRepository.findDueWithinKm(conn, RegleEntretien.MARGE_KM,
+                    modifiesDepuis)) {
+                ajouter(alertes, alerteEntretienKm(echeance));
+            }
+            for (EcheanceEntretienDTO echeance : echeanceRepository.findDueByDate(conn,
+                    depuis != null ? depuis.plusDays(RegleEntretien.MARGE_JOURS) : null, modifiesDepuis,
+                    maintenant.plusDays(RegleEntretien.MARGE_JOURS))) {
+                ajouter(alertes, alerteEntretienDate(echeance, maintenant));
+            }
+
+            alertes.keySet().removeAll(alerteRepository.findEmittedKeys(conn, alertes.keySet()));
+            nouvelles = alertes.size();
+            if (!alertes.isEmpty()) {
+                List<Integer> destinataires = utilisateurRepository.findIdsByRoles(conn, rolesDestinataires());
+                List<Notification> notifications = new ArrayList<>(alertes.size() * destinataires.size());
+                for (Alerte alerte : alertes.values()) {
+                    for (Integer idUtilisateur : destinataires) {
+                        notifications.add(notification(alerte, idUtilisateur, maintenant));
+                    }
+                }
+                creees = notificationRepository.saveAll(conn, notifications);
+                alerteRepository.saveEmittedKeys(conn, new ArrayList<>(alertes.keySet()), maintenant);
+            }
+            alerteRepository.updateWatermark(conn, SOURCE, maintenant);
+            conn.commit();
+        } catch (SQLException e) {
+            DbUtil.rollback(conn);
+            throw new OperationFailedException("Erreur technique lors de la génération des alertes.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+
+        for (Notification notification : creees) {
+            bus.publier(EvenementNotification.creation(notificationMapper.toDTO(notification)));
+        }
+        if (nouvelles > 0) {
+            LOGGER.info(nouvelles + " alerte(s) émise(s), " + creees.size() + " notification(s) créée(s)");
+        }
+        return nouvelles;
+    }
+
+    private static void ajouter(Map<String, Alerte> alertes, Alerte alerte) {
+        alertes.putIfAbsent(alerte.cle, alerte);
+    }
+
+    private static Alerte alerteAssurance(AlerteAssuranceDTO assurance, LocalDateTime maintenant) {
+        assurance.setJoursRestants(ChronoUnit.DAYS.between(maintenant, assurance.getDateFinAssurance()));
+        String vehicules = assurance.getVehiculesConcernesInfo().isEmpty() ? "aucun véhicule"
+                : String.join(", ", assurance.getVehiculesConcernesInfo());
+        return new Alerte("ASSURANCE:" + assurance.getNumCarteAssurance() + ":" + assurance.getDateFinAssurance().toLocalDate(),
+                "Assurance bientôt expirée",
+                "L'assurance n°" + assurance.getNumCarteAssurance() + " (" + assurance.getAgenceAssurance() + ") expire le "
+                        + assurance.getDateFinAssurance().toLocalDate() + ", dans " + assurance.getJoursRestants()
+                        + " jour(s). Véhicules couverts : " + vehicules + ".",
+                "ASSURANCE", assurance.getNumCarteAssurance());
+    }
+
+    private static Alerte alerteDocument(AlerteDocumentDTO document, LocalDateTime maintenant) {
+        document.setJoursRestants(ChronoUnit.DAYS.between(maintenant, document.getDateExpiration()));
+        return new Alerte("DOCUMENT:" + document.getIdDocument() + ":" + document.getDateExpiration().toLocalDate(),
+                "Document bientôt expiré",
+                "Le document " + document.getTypeDocument() + " du sociétaire " + document.getNomSocietaire()
+                        + " expire le " + document.getDateExpiration().toLocalDate() + ", dans "
+                        + document.getJoursRestants() + " jour(s).",
+                "DOCUMENT_SOCIETAIRE", document.getIdDocument());
+    }
+
+    private static Alerte alerteEntretienKm(EcheanceEntretienDTO echeance) {
+        String message = "Le véhicule " + echeance.getVehiculeInfo() + " doit passer en entretien à "
+                + echeance.getKmProchainEntretien() + " km (" + echeance.getKmActuels() + " km actuellement, "
+                + (echeance.getKmActuels() - echeance.getKmDernierEntretien()) + " km depuis le dernier entretien).";
+        return new Alerte("ENTRETIEN_KM:" + echeance.getIdVehicule() + ":" + echeance.getKmProchainEntretien(),
+                "Entretien à prévoir", message, "VEHICULE", echeance.getIdVehicule());
+    }
+
+    private static Alerte alerteEntretienDate(EcheanceEntretienDTO echeance, LocalDateTime maintenant) {
+        long jours = ChronoUnit.DAYS.between(maintenant, echeance.getDateProchainEntretien());
+        String message = "Le véhicule " + echeance.getVehiculeInfo() + " doit passer en entretien périodique "
+                + (jours >= 0 ? "avant le " + echeance.getDateProchainEntretien().toLocalDate()
+                : "depuis le " + echeance.getDateProchainEntretien().toLocalDate()) + ".";
+        return new Alerte("ENTRETIEN_DATE:" + echeance.getIdVehicule() + ":" + echeance.getDateProchainEntretien().toLocalDate(),
+                "Entretien à prévoir", message, "VEHICULE", echeance.getIdVehicule());
+    }
+
+    private static Notification notification(Alerte alerte, Integer idUtilisateur, LocalDateTime maintenant) {
+        Notification notification = new Notification();
+        notification.setIdUtilisateur(idUtilisateur);
+        notification.setTitre(alerte.titre);
+        notification.setMessage(alerte.message);
+        notification.setDateCreation(maintenant);
+        notification.setEstLue(false);
+        notification.setTypeNotification(TYPE_NOTIFICATION);
+        notification.setIdEntiteLiee(alerte.idEntite);
+        notification.setTypeEntiteLiee(alerte.typeEntite);
+        return notification;
+    }
+
+    private static List<Role> rolesDestinataires() {
+        List<Role> roles = new ArrayList<>();
+        for (String role : DbUtil.getPropriete("alert.recipientRoles", "U2,U3,U4").split(",")) {
+            if (!role.isBlank()) {
+                roles.add(Role.fromString(role.trim()));
+            }
+        }
+        return roles;
+    }
+
+    private static int entier(String cle, int defaut) {
+        try {
+            int valeur = Integer.parseInt(DbUtil.getPropriete(cle, String.valueOf(defaut)).trim());
+            return valeur > 0 ? valeur : defaut;
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur invalide pour " + cle + ", utilisation de " + defaut);
+            return defaut;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package main.java.com.miage.parcauto.service.impl;
+
+import main.java.com.miage.parcauto.dao.DbUtil;
+import main.java.com.miage.parcauto.dto.RapportVehiculeDTO;
+import main.java.com.miage.parcauto.dto.VehiculeDTO;
+import main.java.com.miage.parcauto.exception.OperationFailedException;
+import main.java.com.miage.parcauto.exception.ReportGenerationException;
+import main.java.com.miage.parcauto.service.FormatRapport;
+import main.java.com.miage.parcauto.service.ProgressionRapports;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Génération des rapports de toute la flotte dans une archive ZIP (un fichier par véhicule).
+ * <p>
+ * Les véhicules, triés par identifiant, sont découpés en lots exécutés sur un pool de threads
+ * borné ; chaque lot est chargé par {@link ReportingServiceImpl#construireRapports(List, boolean)}
+ * (TCO compris pour le PDF et le XLSX) puis rendu en mémoire, et chaque rapport est ajouté à
+ * l'archive dès qu'il est prêt. Seule l'écriture dans l'archive est sérialisée.
+ * <p>
+ * L'archive se termine par un fichier {@value #MANIFESTE} indiquant le dernier véhicule
+ * complet : tous les véhicules d'identifiant inférieur ou égal sont dans l'archive. Une
+ * génération annulée ou en échec reprend après ce véhicule, dans une nouvelle archive ; les
+ * rapports déjà écrits au-delà sont régénérés sous le même nom.
+ */
+final class ArchiveRapportsFlotte {
+
+    private static final Logger LOGGER = Logger.getLogger(ArchiveRapportsFlotte.class.getName());
+
+    static final String MANIFESTE = "manifeste.txt";
+
+    private static final int TAILLE_LOT = entier("report.batch.chunkSize", 25);
+    private static final long INTERVALLE_SUIVI_NS = 250_000_000L;
+    // Lectures parallèles d'un lot (entretiens, missions, TCO), chacune sur sa connexion
+    private static final int SECTIONS_PAR_LOT = 3;
+
+    /**
+     * Pool partagé par les générations. Les lots attendent la base : le parallélisme est
+     * borné pour laisser au moins la moitié des connexions du pool aux écrans.
+     */
+    private static final ExecutorService POOL = creerPool(entier("report.batch.parallelism",
+            Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                    entier("db.pool.maxSize", 10) / (2 * SECTIONS_PAR_LOT)))));
+
+    private final ReportingServiceImpl reporting;
+    private final List<VehiculeDTO> vehicules;
+    private final FormatRapport format;
+    private final ZipOutputStream zip;
+    private final Consumer<ProgressionRapports> suivi;
+
+    private final AtomicBoolean annulee = new AtomicBoolean();
+    private final AtomicInteger traites = new AtomicInteger();
+    private final AtomicLong lignes = new AtomicLong();
+    private final AtomicLong dernierSuivi = new AtomicLong();
+    private final long debut = System.nanoTime();
+    private volatile Throwable erreur;
+
+    // Filigrane de reprise : ids triés et position du premier véhicule non écrit
+    private final int[] ids;
+    private final Set<Integer> termines = new HashSet<>();
+    private int position;
+    private volatile Integer dernierComplet;
+
+    private ArchiveRapportsFlotte(ReportingServiceImpl reporting, List<VehiculeDTO> vehicules, FormatRapport format,
+                                  OutputStream out, Integer reprendreApres, Consumer<ProgressionRapports> suivi) {
+        this.reporting = reporting;
+        this.vehicules = vehicules;
+        this.format = format;
+        this.zip = new ZipOutputStream(out);
+        this.suivi = suivi;
+        this.ids = vehicules.stream().mapToInt(VehiculeDTO::getIdVehicule).toArray();
+        this.dernierComplet = reprendreApres;
+    }
+
+    /**
+     * Lance la génération sur le pool des archives.
+     *
+     * @param reprendreApres identifiant du dernier véhicule complet d'une génération précédente,
+     *                       ou null pour toute la flotte.
+     * @param suivi          reçoit la progression au plus toutes les 250 ms depuis les threads du
+     *                       pool, puis une dernière fois après fermeture de l'archive ; peut être null.
+     * @return la progression finale. L'annulation arrête la génération après les rapports en
+     *         cours de rendu ; l'archive est alors terminée et la progression finale transmise
+     *         au suivi.
+     */
+    static CompletableFuture<ProgressionRapports> lancer(ReportingServiceImpl reporting, List<VehiculeDTO> flotte,
+                                                         FormatRapport format, OutputStream out, Integer reprendreApres,
+                                                         Consumer<ProgressionRapports> suivi) {
+        List<VehiculeDTO> vehicules = new ArrayList<>();
+        for (VehiculeDTO vehicule : flotte) {
+            if (reprendreApres == null || vehicule.getIdVehicule() > reprendreApres) {
+                vehicules.add(vehicule);
+            }
+        }
+        vehicules.sort(Comparator.comparing(VehiculeDTO::getIdVehicule));
+        ArchiveRapportsFlotte archive = new ArchiveRapportsFlotte(reporting, vehicules, format, out, reprendreApres, suivi);
+
+        CompletableFuture<ProgressionRapports> resultat = new CompletableFuture<ProgressionRapports>() {
+            @Override
+            public boolean cancel(boolean interrompre) {
+                archive.annulee.set(true);
+                return super.cancel(interrompre);
+            }
+        };
+        archive.executer(resultat);
+        return resultat;
+    }
+
+    /**
+     * Soumet les lots dans l'ordre des identifiants ; l'archive est terminée par le dernier lot
+     * achevé, aucun thread du pool n'attend les autres.
+     */
+    private void executer(CompletableFuture<ProgressionRapports> resultat) {
+        List<CompletableFuture<Void>> lots = new ArrayList<>();
+        try {
+            for (int debutLot = 0; debutLot < vehicules.size(); debutLot += TAILLE_LOT) {
+                List<VehiculeDTO> lot = vehicules.subList(debutLot, Math.min(debutLot + TAILLE_LOT, vehicules.size()));
+                lots.add(CompletableFuture.runAsync(() -> {
+                    if (!annulee.get()) {
+                        traiter(lot);
+                    }
+                }, POOL));
+            }
+        } catch (RuntimeException e) { // Pool arrêté
+            echouer(e);
+        }
+        CompletableFuture.allOf(lots.toArray(new CompletableFuture<?>[0])).whenComplete((ignore, e) -> {
+            if (e != null) {
+                echouer(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            }
+            terminer(resultat);
+        });
+    }
+
+    private void terminer(CompletableFuture<ProgressionRapports> resultat) {
+        String statut = erreur != null ? "ECHEC" : annulee.get() ? "ANNULEE" : "TERMINEE";
+        try {
+            ecrireManifeste(statut);
+            zip.finish();
+            zip.flush();
+        } catch (IOException | RuntimeException e) {
+            if (erreur == null) {
+                erreur = new ReportGenerationException("Erreur lors de la fermeture de l'archive des rapports.", e);
+            }
+        } finally {
+            ProgressionRapports finale = progression(true);
+            LOGGER.info("Archive des rapports de la flotte " + statut.toLowerCase() + " : " + finale);
+            notifier(finale);
+            if (erreur != null) {
+                resultat.completeExceptionally(erreur);
+            } else if (annulee.get()) {
+                resultat.completeExceptionally(new CancellationException("Génération des rapports annulée"));
+            } else {
+                resultat.complete(finale);
+            }
+        }
+    }
+
+    private void traiter(List<VehiculeDTO> lot) {
+        try {
+            for (RapportVehiculeDTO rapport : reporting.construireRapports(lot, format != FormatRapport.CSV)) {
+                if (annulee.get()) {
+                    return;
+                }
+                ByteArrayOutputStream contenu = new ByteArrayOutputStream();
+                rendre(rapport, contenu);
+                ajouter(rapport.getVehicule(), contenu);
+
+                int nbLignes = 1 + taille(rapport.getEntretiens()) + taille(rapport.getMissions());
+                lignes.addAndGet(nbLignes);
+                traites.incrementAndGet();
+                suivre();
+            }
+        } catch (OperationFailedException | ReportGenerationException | IOException | RuntimeException e) {
+            echouer(e);
+        }
+    }
+
+    private void rendre(RapportVehiculeDTO rapport, ByteArrayOutputStream out) throws ReportGenerationException {
+        switch (format) {
+            case PDF:
+                reporting.exporterRapportPdf(rapport, rapport.getTco(), out);
+                break;
+            case XLSX:
+                reporting.exporterRapportXlsx(rapport, rapport.getTco(), out);
+                break;
+            default:
+                reporting.exporterRapportCsv(rapport, out);
+        }
+    }
+
+    private void ajouter(VehiculeDTO vehicule, ByteArrayOutputStream contenu) throws IOException {
+        String nom = "rapport_vehicule_" + vehicule.getIdVehicule() + "_"
+                + String.valueOf(vehicule.getImmatriculation()).replaceAll("[^A-Za-z0-9-]", "") + "." + format.getExtension();
+        synchronized (zip) {
+            zip.putNextEntry(new ZipEntry(nom));
+            contenu.writeTo(zip);
+            zip.closeEntry();
+        }
+        avancerFiligrane(vehicule.getIdVehicule());
+    }
+
+    private synchronized void avancerFiligrane(int idVehicule) {
+        termines.add(idVehicule);
+        while (position < ids.length && termines.remove(ids[position])) {
+            dernierComplet = ids[position];
+            position++;
+        }
+    }
+
+    private void echouer(Throwable e) {
+        if (annulee.compareAndSet(false, true)) {
+            erreur = e;
+            LOGGER.log(Level.SEVERE, "Échec de la génération des rapports de la flotte", e);
+        }
+    }
+
+    private void ecrireManifeste(String statut) throws IOException {
+        ProgressionRapports progression = progression(true);
+        StringBuilder manifeste = new StringBuilder()
+                .append("statut=").append(statut).append('\n')
+                .append("format=").append(format.getExtension()).append('\n')
+                .append("vehicules_traites=").append(progression.getVehiculesTraites()).append('\n')
+                .append("vehicules_total=").append(progression.getVehiculesTotal()).append('\n')
+                .append("lignes=").append(progression.getLignes()).append('\n');
+        if (dernierComplet != null) {
+            manifeste.append("dernier_vehicule_complet=").append(dernierComplet).append('\n');
+        }
+        synchronized (zip) {
+            zip.putNextEntry(new ZipEntry(MANIFESTE));
+            zip.write(manifeste.toString().getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+    }
+
+    private void suivre() {
+        long maintenant = System.nanoTime();
+        long precedent = dernierSuivi.get();
+        if (maintenant - precedent >= INTERVALLE_SUIVI_NS && dernierSuivi.compareAndSet(precedent, maintenant)) {
+            notifier(progression(false));
+        }
+    }
+
+    private void notifier(ProgressionRapports progression) {
+        if (suivi == null) {
+            return;
+        }
+        try {
+            suivi.accept(progression);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Erreur du suivi de progression des rapports", e);
+        }
+    }
+
+    private ProgressionRapports progression(boolean terminee) {
+        double secondes = (System.nanoTime() - debut) / 1_000_000_000.0;
+        return new ProgressionRapports(traites.get(), vehicules.size(), lignes.get(), secondes, dernierComplet, terminee);
+    }
+
+    private static int taille(List<?> liste) {
+        return liste == null ? 0 : liste.size();
+    }
+
+    private static ExecutorService creerPool(int threads) {
+        AtomicInteger compteur = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), tache -> {
+                    Thread thread = new Thread(tache, "parcauto-rapports-" + compteur.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static int entier(String cle, int defaut) {
+        try {
+            int valeur = Integer.parseInt(DbUtil.getPropriete(cle, String.valueOf(defaut)).trim());
+            return valeur > 0 ? valeur : defaut;
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur invalide pour " + cle + ", utilisation de " + defaut);
+            return defaut;
+        }
+    }
+}
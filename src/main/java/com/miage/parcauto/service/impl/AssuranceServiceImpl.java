@@ -1,12 +1,15 @@
 package main.java.com.miage.parcauto.service.impl;
 
+import main.java.com.miage.parcauto.dao.CoutMensuelRepository;
 import main.java.com.miage.parcauto.dao.DbUtil;
 import main.java.com.miage.parcauto.dao.AssuranceRepository;
 import main.java.com.miage.parcauto.dao.VehiculeRepository;
 import main.java.com.miage.parcauto.dao.CouvrirRepository;
 import main.java.com.miage.parcauto.dao.impl.AssuranceRepositoryImpl;
+import main.java.com.miage.parcauto.dao.impl.CachesEntites;
 import main.java.com.miage.parcauto.dao.impl.VehiculeRepositoryImpl;
 import main.java.com.miage.parcauto.dao.impl.CouvrirRepositoryImpl;
+import main.java.com.miage.parcauto.dao.impl.CoutMensuelRepositoryImpl;
 import main.java.com.miage.parcauto.dto.AssuranceDTO;
 import main.java.com.miage.parcauto.dto.VehiculeDTO;
 import main.java.com.miage.parcauto.exception.*;
@@ -36,13 +39,14 @@ public class AssuranceServiceImpl implements AssuranceService {
     private final CouvrirRepository couvrirRepository;
     private final AssuranceMapper assuranceMapper;
     private final VehiculeMapper vehiculeMapper;
+    private final CoutMensuelRepository coutMensuelRepository = new CoutMensuelRepositoryImpl(); // Agrégats de coûts
 
     /**
      * Constructeur par défaut.
      */
     public AssuranceServiceImpl() {
         this.assuranceRepository = new AssuranceRepositoryImpl();
-        this.vehiculeRepository = new VehiculeRepositoryImpl();
+        this.vehiculeRepository = CachesEntites.vehicules(new VehiculeRepositoryImpl());
         this.couvrirRepository = new CouvrirRepositoryImpl();
         this.assuranceMapper = new AssuranceMapperImpl();
         this.vehiculeMapper = new VehiculeMapperImpl();
@@ -152,6 +156,7 @@ public class AssuranceServiceImpl implements AssuranceService {
             if(assuranceDTO.getCout() != null) existingAssurance.setCoutAssurance(assuranceDTO.getCout());
 
             Assurance updatedAssurance = assuranceRepository.update(conn, existingAssurance);
+            rafraichirCoutsMensuels(conn, couvrirRepository.findVehiculesByAssuranceId(conn, assuranceDTO.getNumCarteAssurance()));
             conn.commit();
             return assuranceMapper.toDTO(updatedAssurance);
         } catch (SQLException e) {
@@ -175,6 +180,7 @@ public class AssuranceServiceImpl implements AssuranceService {
             if (assuranceRepository.findById(conn, numCarteAssurance).isEmpty()) {
                 throw new EntityNotFoundException("Assurance non trouvée avec le numéro de carte: " + numCarteAssurance);
             }
+            List<Vehicule> vehiculesCouverts = couvrirRepository.findVehiculesByAssuranceId(conn, numCarteAssurance);
             // Supprimer d'abord les liaisons dans COUVRIR
             couvrirRepository.deleteByNumCarteAssurance(conn, numCarteAssurance);
 
@@ -182,6 +188,7 @@ public class AssuranceServiceImpl implements AssuranceService {
             if(!deleted) {
                 throw new OperationFailedException("La suppression de l'assurance a échoué.");
             }
+            rafraichirCoutsMensuels(conn, vehiculesCouverts);
             conn.commit();
         } catch (SQLException e) {
             DbUtil.rollback(conn);
@@ -218,6 +225,8 @@ public class AssuranceServiceImpl implements AssuranceService {
             lien.setIdVehicule(idVehicule);
             lien.setNumCarteAssurance(numCarteAssurance);
             couvrirRepository.save(conn, lien);
+            // La part de prime de chaque véhicule du contrat change, y compris celle du véhicule lié
+            rafraichirCoutsMensuels(conn, couvrirRepository.findVehiculesByAssuranceId(conn, numCarteAssurance));
             conn.commit();
         } catch (SQLException e) {
             DbUtil.rollback(conn);
@@ -248,6 +257,9 @@ public class AssuranceServiceImpl implements AssuranceService {
             if (!deleted) {
                 throw new OperationFailedException("La liaison entre le véhicule ID " + idVehicule + " et l'assurance " + numCarteAssurance + " n'existait pas ou la suppression a échoué.");
             }
+            coutMensuelRepository.rafraichirAssurances(conn, idVehicule);
+            // Les véhicules restant sur le contrat se partagent désormais la prime
+            rafraichirCoutsMensuels(conn, couvrirRepository.findVehiculesByAssuranceId(conn, numCarteAssurance));
             conn.commit();
         } catch (SQLException e) {
             DbUtil.rollback(conn);
@@ -268,7 +280,7 @@ public class AssuranceServiceImpl implements AssuranceService {
             if (assuranceRepository.findById(conn, numCarteAssurance).isEmpty()) {
                 throw new EntityNotFoundException("Assurance non trouvée avec le numéro de carte: " + numCarteAssurance);
             }
-            List<Vehicule> vehicules = couvrirRepository.findVehiculesByNumCarteAssurance(conn, numCarteAssurance);
+            List<Vehicule> vehicules = couvrirRepository.findVehiculesByAssuranceId(conn, numCarteAssurance);
             return vehiculeMapper.toDTOList(vehicules);
         } catch (SQLException e) {
             throw new OperationFailedException("Erreur technique lors de la récupération des véhicules pour l'assurance.", e);
@@ -316,4 +328,14 @@ public class AssuranceServiceImpl implements AssuranceService {
             DbUtil.close(conn);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Recalcule, dans la transaction courante, la ventilation mensuelle des primes
+     * d'assurance des véhicules concernés par une écriture.
+     */
+    private void rafraichirCoutsMensuels(Connection conn, List<Vehicule> vehicules) throws SQLException {
+        for (Vehicule vehicule : vehicules) {
+            coutMensuelRepository.rafraichirAssurances(conn, vehicule.getIdVehicule());
+        }
+    }
+}
@@ -32,39 +32,62 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         this.utilisateurMapper = utilisateurMapper;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * La vérification du mot de passe, coûteuse par construction, se fait sans connexion
+     * empruntée : une lecture, puis une courte transaction pour la date de dernière connexion.
+     * Un haché d'un ancien schéma ou d'un coût devenu insuffisant est recalculé dans cette
+     * même transaction.
+     */
     @Override
     public Optional<UtilisateurDTO> authenticate(String login, String motDePasse) throws AuthenticationException, OperationFailedException {
         if (login == null || login.trim().isEmpty() || motDePasse == null || motDePasse.isEmpty()) {
             throw new AuthenticationException("Login et mot de passe ne peuvent être vides.");
         }
 
+        Optional<Utilisateur> utilisateurOpt;
         Connection conn = null;
         try {
             conn = DbUtil.getConnection();
-            conn.setAutoCommit(false);
+            utilisateurOpt = utilisateurRepository.findByLogin(conn, login);
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors de l'authentification.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
 
-            Optional<Utilisateur> utilisateurOpt = utilisateurRepository.findByLogin(conn, login);
+        if (utilisateurOpt.isEmpty()) {
+            PasswordUtil.simulateVerification(motDePasse); // Même délai qu'un mot de passe incorrect
+            throw new AuthenticationException("Login ou mot de passe incorrect.");
+        }
 
-            if (utilisateurOpt.isEmpty()) {
-                throw new AuthenticationException("Login ou mot de passe incorrect.");
-            }
+        Utilisateur utilisateur = utilisateurOpt.get();
 
-            Utilisateur utilisateur = utilisateurOpt.get();
+        if (!utilisateur.isActif()) {
+            throw new AuthenticationException("Le compte utilisateur est inactif.");
+        }
 
-            if (!utilisateur.isActif()) {
-                throw new AuthenticationException("Le compte utilisateur est inactif.");
+        boolean passwordMatch;
+        try {
+            passwordMatch = PasswordUtil.verifyPassword(motDePasse, utilisateur.getSalt(), utilisateur.getHash());
+            if (passwordMatch && PasswordUtil.needsRehash(utilisateur.getHash())) {
+                String salt = PasswordUtil.generateSalt();
+                utilisateur.setHash(PasswordUtil.hashPassword(motDePasse, salt));
+                utilisateur.setSalt(salt);
             }
+        } catch (PasswordUtil.ParcAutoSecurityException e) {
+            throw new OperationFailedException("Erreur de sécurité lors de la vérification du mot de passe.", e);
+        }
 
-            boolean passwordMatch;
-            try {
-                passwordMatch = PasswordUtil.verifyPassword(motDePasse, utilisateur.getSalt(), utilisateur.getHash());
-            } catch (PasswordUtil.ParcAutoSecurityException e) {
-                throw new OperationFailedException("Erreur de sécurité lors de la vérification du mot de passe.", e);
-            }
+        if (!passwordMatch) {
+            throw new AuthenticationException("Login ou mot de passe incorrect.");
+        }
 
-            if (!passwordMatch) {
-                throw new AuthenticationException("Login ou mot de passe incorrect.");
-            }
+        conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            conn.setAutoCommit(false);
 
             utilisateur.setDateDerniereConnexion(LocalDateTime.now());
             utilisateurRepository.update(conn, utilisateur);
@@ -79,4 +102,4 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             DbUtil.close(conn);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,136 @@
+package main.java.com.miage.parcauto.service.impl;
+
+import main.java.com.miage.parcauto.service.ServicesAsynchrones;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Portée de chargement concurrent de sections indépendantes (sections d'un rapport...), sur le
+ * modèle de la concurrence structurée : les sections sont lancées dans la portée,
+ * {@link #joindre()} attend qu'elles soient toutes terminées ou échoue dès le premier échec,
+ * et la fermeture de la portée abandonne les sections encore en cours.
+ * <p>
+ * Les sections sont soumises à {@link ServicesAsynchrones} : elles suivent son mode d'exécution
+ * et consomment son budget de connexions comme n'importe quel appel de service. Une section qui
+ * n'a pas encore démarré quand {@link #joindre()} est appelé est exécutée par l'appelant, ce qui
+ * garantit la progression même si l'appelant occupe lui-même le dernier thread ou la dernière
+ * place du budget.
+ * <p>
+ * Une section déjà démarrée n'est jamais interrompue (l'interruption d'un appel JDBC peut
+ * laisser la connexion inutilisable) : à la fermeture, elle se termine et son résultat est ignoré.
+ */
+final class ChargementParallele implements AutoCloseable {
+
+    /**
+     * Chargement d'une section.
+     */
+    @FunctionalInterface
+    interface Section<T> {
+        T charger() throws Exception;
+    }
+
+    private final ServicesAsynchrones services;
+    private final List<Execution<?>> executions = new ArrayList<>();
+    private final CompletableFuture<Void> premierEchec = new CompletableFuture<>();
+
+    ChargementParallele() {
+        this(ServicesAsynchrones.getInstance());
+    }
+
+    ChargementParallele(ServicesAsynchrones services) {
+        this.services = services;
+    }
+
+    /**
+     * Lance une section.
+     *
+     * @return le résultat de la section, disponible après {@link #joindre()}.
+     */
+    <T> CompletableFuture<T> lancer(Section<T> section) {
+        Execution<T> execution = new Execution<>(section);
+        execution.soumission = services.executer(() -> {
+            execution.executer();
+            return null;
+        });
+        executions.add(execution);
+        return execution.resultat;
+    }
+
+    /**
+     * Attend la fin de toutes les sections lancées, en exécutant celles qui n'ont pas démarré.
+     *
+     * @throws Exception l'erreur de la première section en échec ; les autres sont alors abandonnées.
+     */
+    void joindre() throws Exception {
+        for (Execution<?> execution : executions) {
+            if (premierEchec.isDone()) {
+                break;
+            }
+            execution.executer();
+        }
+        CompletableFuture<?>[] resultats = executions.stream().map(e -> e.resultat).toArray(CompletableFuture<?>[]::new);
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(resultats), premierEchec).get();
+        } catch (ExecutionException e) {
+            close();
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw new IllegalStateException("Échec d'une section", cause);
+        } catch (InterruptedException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Abandonne les sections qui n'ont pas démarré ; celles en cours se terminent sans être
+     * interrompues et leur résultat est ignoré.
+     */
+    @Override
+    public void close() {
+        for (Execution<?> execution : executions) {
+            execution.abandonner();
+        }
+    }
+
+    /**
+     * Section lancée, exécutée une seule fois : par l'exécuteur de la façade ou par l'appelant
+     * de {@link #joindre()}, le premier arrivé.
+     */
+    private final class Execution<T> {
+        private final Section<T> section;
+        private final CompletableFuture<T> resultat = new CompletableFuture<>();
+        private final AtomicBoolean demarree = new AtomicBoolean();
+        private volatile CompletableFuture<?> soumission;
+
+        private Execution(Section<T> section) {
+            this.section = section;
+        }
+
+        private void executer() {
+            if (!demarree.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                resultat.complete(section.charger());
+            } catch (Throwable t) {
+                resultat.completeExceptionally(t);
+                premierEchec.completeExceptionally(t);
+            }
+        }
+
+        private void abandonner() {
+            if (demarree.compareAndSet(false, true)) {
+                resultat.cancel(false);
+                // La section n'a pas démarré : l'annulation ne touche que l'attente d'un thread ou du budget
+                soumission.cancel(true);
+            }
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package main.java.com.miage.parcauto.service.impl;
 
+import main.java.com.miage.parcauto.dao.CoutMensuelRepository;
 import main.java.com.miage.parcauto.dao.DbUtil;
+import main.java.com.miage.parcauto.dao.EcheanceEntretienRepository;
 import main.java.com.miage.parcauto.dao.EntretienRepository;
 import main.java.com.miage.parcauto.dao.VehiculeRepository;
+import main.java.com.miage.parcauto.dao.impl.CachesEntites;
+import main.java.com.miage.parcauto.dao.impl.CoutMensuelRepositoryImpl;
+import main.java.com.miage.parcauto.dao.impl.EcheanceEntretienRepositoryImpl;
 import main.java.com.miage.parcauto.dao.impl.EntretienRepositoryImpl;
 import main.java.com.miage.parcauto.dao.impl.VehiculeRepositoryImpl;
+import main.java.com.miage.parcauto.dao.PageCurseur;
+import main.java.com.miage.parcauto.dao.TriCurseur;
+import main.java.com.miage.parcauto.dto.EcheanceEntretienDTO;
 import main.java.com.miage.parcauto.dto.EntretienDTO;
+import main.java.com.miage.parcauto.dto.EntretienResumeDTO;
 import main.java.com.miage.parcauto.exception.*;
 import main.java.com.miage.parcauto.mapper.EntretienMapper;
 import main.java.com.miage.parcauto.mapper.impl.EntretienMapperImpl;
@@ -18,7 +27,12 @@ import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 public class EntretienServiceImpl implements EntretienService {
@@ -26,11 +40,14 @@ public class EntretienServiceImpl implements EntretienService {
     private final EntretienRepository entretienRepository;
     private final VehiculeRepository vehiculeRepository; // Nécessaire pour vérifier l'existence du véhicule
     private final EntretienMapper entretienMapper;
+    private final CoutMensuelRepository coutMensuelRepository = new CoutMensuelRepositoryImpl(); // Agrégats de coûts
+    private final EcheanceEntretienRepository echeanceRepository = new EcheanceEntretienRepositoryImpl(); // Prochain entretien dû
+    private final ProjectionEcheances projectionEcheances = new ProjectionEcheances(echeanceRepository);
     // private final ValidationService validationService;
 
     public EntretienServiceImpl() {
         this.entretienRepository = new EntretienRepositoryImpl();
-        this.vehiculeRepository = new VehiculeRepositoryImpl();
+        this.vehiculeRepository = CachesEntites.vehicules(new VehiculeRepositoryImpl());
         this.entretienMapper = new EntretienMapperImpl();
         // this.validationService = new ValidationServiceImpl();
     }
@@ -67,6 +84,7 @@ public class EntretienServiceImpl implements EntretienService {
             }
 
             Entretien savedEntretien = entretienRepository.save(conn, entretien);
+            rafraichirCoutsMensuels(conn, null, null, savedEntretien);
             conn.commit();
             return entretienMapper.toDTO(savedEntretien);
 
@@ -106,6 +124,19 @@ public class EntretienServiceImpl implements EntretienService {
         }
     }
 
+    @Override
+    public PageCurseur<EntretienResumeDTO> getPageEntretiens(String jeton, int taille, TriCurseur tri) throws OperationFailedException {
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            return entretienRepository.findResumesAfter(conn, jeton, taille, tri);
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors de la récupération de la liste des entretiens.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
     @Override
     public List<EntretienDTO> getEntretiensByVehiculeId(Integer idVehicule) throws VehiculeNotFoundException, OperationFailedException {
         Connection conn = null;
@@ -123,6 +154,26 @@ public class EntretienServiceImpl implements EntretienService {
         }
     }
 
+    @Override
+    public Map<Integer, List<EntretienDTO>> getEntretiensByVehiculeIds(Collection<Integer> idsVehicules)
+            throws OperationFailedException {
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            Map<Integer, List<Entretien>> parVehicule = entretienRepository.findByVehiculeIds(conn, idsVehicules);
+            Map<Integer, List<EntretienDTO>> resultat = new HashMap<>();
+            for (Integer idVehicule : idsVehicules) {
+                resultat.put(idVehicule, entretienMapper.toDTOList(parVehicule.getOrDefault(idVehicule, Collections.emptyList())));
+            }
+            return resultat;
+        } catch (SQLException e) {
+            throw new OperationFailedException(
+                    "Erreur technique lors de la récupération des entretiens de " + idsVehicules.size() + " véhicules", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
     @Override
     public EntretienDTO updateEntretien(EntretienDTO entretienDTO) throws ValidationException, EntretienNotFoundException, VehiculeNotFoundException, OperationFailedException {
         // validationService.validateEntretien(entretienDTO);
@@ -137,6 +188,8 @@ public class EntretienServiceImpl implements EntretienService {
 
             Entretien existingEntretien = entretienRepository.findById(conn, entretienDTO.getIdEntretien())
                     .orElseThrow(() -> new EntretienNotFoundException("Entretien non trouvé avec l'ID: " + entretienDTO.getIdEntretien()));
+            Integer ancienVehicule = existingEntretien.getIdVehicule();
+            LocalDateTime ancienneSortie = existingEntretien.getDateSortie();
 
             if (entretienDTO.getIdVehicule() != null && !entretienDTO.getIdVehicule().equals(existingEntretien.getIdVehicule())) {
                 if (vehiculeRepository.findById(conn, entretienDTO.getIdVehicule()).isEmpty()) {
@@ -157,6 +210,7 @@ public class EntretienServiceImpl implements EntretienService {
 
 
             Entretien updatedEntretien = entretienRepository.update(conn, existingEntretien);
+            rafraichirCoutsMensuels(conn, ancienVehicule, ancienneSortie, updatedEntretien);
             conn.commit();
             return entretienMapper.toDTO(updatedEntretien);
 
@@ -175,13 +229,14 @@ public class EntretienServiceImpl implements EntretienService {
             conn = DbUtil.getConnection();
             conn.setAutoCommit(false);
 
-            if (entretienRepository.findById(conn, idEntretien).isEmpty()) {
-                throw new EntretienNotFoundException("Entretien non trouvé avec l'ID: " + idEntretien);
-            }
+            Entretien entretien = entretienRepository.findById(conn, idEntretien)
+                    .orElseThrow(() -> new EntretienNotFoundException("Entretien non trouvé avec l'ID: " + idEntretien));
             boolean deleted = entretienRepository.delete(conn, idEntretien);
             if(!deleted) {
                 throw new OperationFailedException("La suppression de l'entretien a échoué.");
             }
+            coutMensuelRepository.rafraichirEntretiens(conn, entretien.getIdVehicule(),
+                    CoutMensuelRepository.mois(entretien.getDateSortie()));
             conn.commit();
         } catch (SQLException e) {
             DbUtil.rollback(conn);
@@ -223,6 +278,7 @@ public class EntretienServiceImpl implements EntretienService {
                     .orElseThrow(() -> new OperationFailedException("Véhicule associé à l'entretien non trouvé. ID: " + entretien.getIdVehicule()));
 
 
+            LocalDateTime ancienneSortie = entretien.getDateSortie();
             entretien.setDateSortie(dateRealisation); // Date de sortie = date de réalisation
             entretien.setCoutReel(coutReel);
             entretien.setObservations((entretien.getObservations() == null ? "" : entretien.getObservations() + "\n") + "Clôture: " + (observations == null ? "" : observations));
@@ -241,6 +297,9 @@ public class EntretienServiceImpl implements EntretienService {
 
 
             Entretien updatedEntretien = entretienRepository.update(conn, entretien);
+            rafraichirCoutsMensuels(conn, updatedEntretien.getIdVehicule(), ancienneSortie, updatedEntretien);
+            projectionEcheances.entretienTermine(conn, updatedEntretien.getIdVehicule(), kmVehicule, dateRealisation,
+                    kmProchainEntretien);
             conn.commit();
             return entretienMapper.toDTO(updatedEntretien);
 
@@ -266,4 +325,47 @@ public class EntretienServiceImpl implements EntretienService {
             DbUtil.close(conn);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<EcheanceEntretienDTO> getEcheancesDansKm(int km) throws OperationFailedException {
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            return echeanceRepository.findDueWithinKm(conn, km, null);
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors de la récupération des entretiens dus dans " + km + " km.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
+    @Override
+    public List<EcheanceEntretienDTO> getEcheancesDansJours(int jours) throws OperationFailedException {
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            return echeanceRepository.findEcheancesAvant(conn, LocalDateTime.now().plusDays(jours));
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors de la récupération des entretiens dus dans " + jours + " jours.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
+    /**
+     * Recalcule, dans la transaction courante, les agrégats mensuels touchés par l'écriture
+     * d'un entretien : mois de l'ancienne et de la nouvelle date de sortie, sur l'ancien et
+     * le nouveau véhicule.
+     */
+    private void rafraichirCoutsMensuels(Connection conn, Integer ancienVehicule, LocalDateTime ancienneSortie,
+                                         Entretien entretien) throws SQLException {
+        if (Objects.equals(ancienVehicule, entretien.getIdVehicule())) {
+            coutMensuelRepository.rafraichirEntretiens(conn, entretien.getIdVehicule(),
+                    CoutMensuelRepository.mois(ancienneSortie, entretien.getDateSortie()));
+        } else {
+            coutMensuelRepository.rafraichirEntretiens(conn, ancienVehicule, CoutMensuelRepository.mois(ancienneSortie));
+            coutMensuelRepository.rafraichirEntretiens(conn, entretien.getIdVehicule(),
+                    CoutMensuelRepository.mois(entretien.getDateSortie()));
+        }
+    }
+}
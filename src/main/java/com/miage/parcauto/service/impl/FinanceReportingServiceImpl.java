@@ -3,40 +3,43 @@ package main.java.com.miage.parcauto.service.impl;
 import main.java.com.miage.parcauto.dao.*;
 import main.java.com.miage.parcauto.dao.impl.*;
 import main.java.com.miage.parcauto.dto.BilanFinancierDTO;
+import main.java.com.miage.parcauto.dto.BilanMensuelDTO;
 import main.java.com.miage.parcauto.dto.CoutEntretienDTO;
 import main.java.com.miage.parcauto.dto.TCODTO;
 import main.java.com.miage.parcauto.dto.TcoVehiculeDTO;
+import main.java.com.miage.parcauto.dto.VehiculeRentabiliteDTO;
 import main.java.com.miage.parcauto.exception.OperationFailedException;
 import main.java.com.miage.parcauto.exception.VehiculeNotFoundException;
-import main.java.com.miage.parcauto.model.assurance.Assurance;
-import main.java.com.miage.parcauto.model.entretien.Entretien;
-import main.java.com.miage.parcauto.model.finance.BilanFinancier; // Modèle à créer
-import main.java.com.miage.parcauto.model.finance.CoutEntretienParVehicule; // Modèle à créer
-import main.java.com.miage.parcauto.model.mission.DepenseMission;
+import main.java.com.miage.parcauto.model.finance.CategorieCout;
 import main.java.com.miage.parcauto.model.vehicule.Vehicule;
 import main.java.com.miage.parcauto.service.FinanceReportingService;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.logging.Logger;
 
 /**
  * Implémentation du service de reporting financier.
  */
 public class FinanceReportingServiceImpl implements FinanceReportingService {
 
+    private static final Logger LOGGER = Logger.getLogger(FinanceReportingServiceImpl.class.getName());
+
     private final FinanceRepository financeRepository;
     private final VehiculeRepository vehiculeRepository;
-    private final EntretienRepository entretienRepository;
-    private final MissionRepository missionRepository;
-    private final DepenseMissionRepository depenseMissionRepository;
-    private final AssuranceRepository assuranceRepository;
-    private final CouvrirRepository couvrirRepository;
+    private final CoutMensuelRepository coutMensuelRepository = new CoutMensuelRepositoryImpl();
 
 
     /**
@@ -44,28 +47,15 @@ public class FinanceReportingServiceImpl implements FinanceReportingService {
      */
     public FinanceReportingServiceImpl() {
         this.financeRepository = new FinanceRepositoryImpl();
-        this.vehiculeRepository = new VehiculeRepositoryImpl();
-        this.entretienRepository = new EntretienRepositoryImpl();
-        this.missionRepository = new MissionRepositoryImpl();
-        this.depenseMissionRepository = new DepenseMissionRepositoryImpl();
-        this.assuranceRepository = new AssuranceRepositoryImpl();
-        this.couvrirRepository = new CouvrirRepositoryImpl();
+        this.vehiculeRepository = CachesEntites.vehicules(new VehiculeRepositoryImpl());
     }
 
     /**
      * Constructeur avec injection de dépendances.
      */
-    public FinanceReportingServiceImpl(FinanceRepository financeRepository, VehiculeRepository vehiculeRepository,
-                                       EntretienRepository entretienRepository, MissionRepository missionRepository,
-                                       DepenseMissionRepository depenseMissionRepository, AssuranceRepository assuranceRepository,
-                                       CouvrirRepository couvrirRepository) {
+    public FinanceReportingServiceImpl(FinanceRepository financeRepository, VehiculeRepository vehiculeRepository) {
         this.financeRepository = financeRepository;
         this.vehiculeRepository = vehiculeRepository;
-        this.entretienRepository = entretienRepository;
-        this.missionRepository = missionRepository;
-        this.depenseMissionRepository = depenseMissionRepository;
-        this.assuranceRepository = assuranceRepository;
-        this.couvrirRepository = couvrirRepository;
     }
 
 
@@ -77,16 +67,7 @@ public class FinanceReportingServiceImpl implements FinanceReportingService {
         Connection conn = null;
         try {
             conn = DbUtil.getConnection();
-            BilanFinancier bilan = financeRepository.getBilanPeriode(conn, dateDebut, dateFin);
-            // Mapper BilanFinancier (entité/modèle) vers BilanFinancierDTO
-            BilanFinancierDTO dto = new BilanFinancierDTO();
-            dto.setDateDebut(bilan.getDateDebut());
-            dto.setDateFin(bilan.getDateFin());
-            dto.setTotalRevenus(bilan.getTotalRevenus());
-            dto.setTotalDepenses(bilan.getTotalDepenses());
-            dto.setProfitOuPerte(bilan.getProfitOuPerte());
-            // Remplir avec d'autres détails si nécessaire
-            return dto;
+            return financeRepository.getBilanPeriode(conn, dateDebut, dateFin);
         } catch (SQLException e) {
             throw new OperationFailedException("Erreur technique lors de la génération du bilan financier.", e);
         } finally {
@@ -102,16 +83,7 @@ public class FinanceReportingServiceImpl implements FinanceReportingService {
         Connection conn = null;
         try {
             conn = DbUtil.getConnection();
-            List<CoutEntretienParVehicule> couts = financeRepository.getCoutEntretienParVehiculeAnnee(conn, annee);
-            // Mapper List<CoutEntretienParVehicule> vers List<CoutEntretienDTO>
-            return couts.stream().map(cepv -> {
-                CoutEntretienDTO dto = new CoutEntretienDTO();
-                dto.setIdVehicule(cepv.getIdVehicule());
-                dto.setImmatriculationVehicule(cepv.getImmatriculationVehicule());
-                dto.setAnnee(cepv.getAnnee());
-                dto.setTotalCoutsEntretien(cepv.getTotalCoutsEntretien());
-                return dto;
-            }).collect(Collectors.toList());
+            return financeRepository.getCoutEntretienParVehiculePourAnnee(conn, annee);
         } catch (SQLException e) {
             throw new OperationFailedException("Erreur technique lors de la récupération des coûts d'entretien par véhicule.", e);
         } finally {
@@ -123,82 +95,144 @@ public class FinanceReportingServiceImpl implements FinanceReportingService {
      * {@inheritDoc}
      */
     @Override
-    public TcoVehiculeDTO calculerTCOVehicule(Integer idVehicule) throws VehiculeNotFoundException, OperationFailedException {
+    public List<BilanMensuelDTO> genererBilansMensuels(YearMonth moisDebut, YearMonth moisFin) throws OperationFailedException {
+        if (moisDebut == null || moisFin == null || moisFin.isBefore(moisDebut)) {
+            throw new OperationFailedException("Intervalle de mois invalide: " + moisDebut + " - " + moisFin);
+        }
         Connection conn = null;
         try {
             conn = DbUtil.getConnection();
-            Vehicule vehicule = vehiculeRepository.findById(conn, idVehicule)
-                    .orElseThrow(() -> new VehiculeNotFoundException("Véhicule non trouvé avec l'ID: " + idVehicule));
+            Map<YearMonth, Map<CategorieCout, BigDecimal>> coutsParMois = coutMensuelRepository.sommerParMois(conn, moisDebut, moisFin);
 
-            TcoVehiculeDTO tco = new TcoVehiculeDTO();
-            tco.setIdVehicule(idVehicule);
-            tco.setImmatriculation(vehicule.getImmatriculation());
-            tco.setMarque(vehicule.getMarque());
-            tco.setModele(vehicule.getModele());
-
-            BigDecimal coutAchat = vehicule.getPrixVehicule() != null ? vehicule.getPrixVehicule() : BigDecimal.ZERO;
-            tco.setCoutAchat(coutAchat);
-
-            List<Entretien> entretiens = entretienRepository.findByVehiculeId(conn, idVehicule);
-            BigDecimal coutTotalEntretiens = entretiens.stream()
-                    .filter(e -> e.getCoutReel() != null)
-                    .map(Entretien::getCoutReel)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            tco.setCoutTotalEntretiens(coutTotalEntretiens);
-
-            List<DepenseMission> depensesMissions = depenseMissionRepository.findByVehiculeId(conn,idVehicule); // Méthode à ajouter à DepenseMissionRepository
-            BigDecimal coutTotalCarburant = depensesMissions.stream()
-                    .filter(dm -> dm.getNature() == main.java.com.miage.parcauto.model.mission.NatureDepenseMission.CARBURANT && dm.getMontant() != null)
-                    .map(DepenseMission::getMontant)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            tco.setCoutTotalCarburant(coutTotalCarburant);
-
-            BigDecimal coutTotalAutresDepensesMission = depensesMissions.stream()
-                    .filter(dm -> dm.getNature() != main.java.com.miage.parcauto.model.mission.NatureDepenseMission.CARBURANT && dm.getMontant() != null)
-                    .map(DepenseMission::getMontant)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            tco.setCoutTotalAutresDepenses(coutTotalAutresDepensesMission);
-
-
-            List<Assurance> assurances = couvrirRepository.findAssurancesByIdVehicule(conn, idVehicule);
-            BigDecimal coutTotalAssurances = assurances.stream()
-                    .filter(a -> a.getCoutAssurance() != null)
-                    .map(Assurance::getCoutAssurance)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            tco.setCoutTotalAssurances(coutTotalAssurances);
-
-            // Calcul de la dépréciation (simpliste, à affiner)
-            // Supposons une valeur résiduelle nulle et une durée d'amortissement à calculer
-            BigDecimal depreciation = coutAchat; // Simpliste
-            if (vehicule.getDateAcquisition() != null) {
-                long ageEnMois = ChronoUnit.MONTHS.between(vehicule.getDateAcquisition(), LocalDateTime.now());
-                if (ageEnMois > 0 && vehicule.getDateAmortissement() != null) { // date_ammortissement est la date de fin d'ammortissement
-                    long dureeAmortissementMois = ChronoUnit.MONTHS.between(vehicule.getDateAcquisition(), vehicule.getDateAmortissement());
-                    if (dureeAmortissementMois > 0) {
-                        depreciation = coutAchat.multiply(BigDecimal.valueOf(Math.min(ageEnMois, dureeAmortissementMois)))
-                                .divide(BigDecimal.valueOf(dureeAmortissementMois), 2, BigDecimal.ROUND_HALF_UP);
-                    }
+            List<BilanMensuelDTO> bilans = new ArrayList<>();
+            for (YearMonth mois = moisDebut; !mois.isAfter(moisFin); mois = mois.plusMonths(1)) {
+                Map<CategorieCout, BigDecimal> couts = coutsParMois.getOrDefault(mois, Collections.emptyMap());
+                BigDecimal entretiens = couts.getOrDefault(CategorieCout.ENTRETIEN, BigDecimal.ZERO);
+                BigDecimal missions = couts.getOrDefault(CategorieCout.CARBURANT, BigDecimal.ZERO)
+                        .add(couts.getOrDefault(CategorieCout.FRAIS_ANNEXES, BigDecimal.ZERO));
+                BigDecimal assurances = couts.getOrDefault(CategorieCout.ASSURANCE, BigDecimal.ZERO);
+
+                BilanMensuelDTO bilan = new BilanMensuelDTO();
+                bilan.setMoisAnnee(mois);
+                bilan.setTotalCoutsEntretiens(entretiens);
+                bilan.setTotalCoutsMissions(missions);
+                bilan.setTotalAutresDepenses(assurances);
+                bilan.setSoldeMensuel(bilan.getTotalRevenusMensualites()
+                        .subtract(entretiens).subtract(missions).subtract(assurances));
+                Map<String, BigDecimal> depensesParCategorie = new LinkedHashMap<>();
+                for (CategorieCout categorie : CategorieCout.values()) {
+                    depensesParCategorie.put(categorie.getLibelle(), couts.getOrDefault(categorie, BigDecimal.ZERO));
                 }
+                bilan.setDepensesParCategorie(depensesParCategorie);
+                bilans.add(bilan);
             }
-            tco.setDepreciation(depreciation);
+            return bilans;
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors de la génération des bilans mensuels.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public VehiculeRentabiliteDTO calculerRentabiliteVehicule(Integer idVehicule, LocalDate dateDebut, LocalDate dateFin)
+            throws VehiculeNotFoundException, OperationFailedException {
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            Vehicule vehicule = vehiculeRepository.findById(conn, idVehicule)
+                    .orElseThrow(() -> new VehiculeNotFoundException("Véhicule non trouvé avec l'ID: " + idVehicule));
+            Map<CategorieCout, BigDecimal> couts = coutMensuelRepository.sommerParCategorie(conn,
+                    YearMonth.from(dateDebut), YearMonth.from(dateFin), idVehicule);
 
-            BigDecimal tcoTotal = coutAchat.add(coutTotalEntretiens).add(coutTotalCarburant).add(coutTotalAutresDepensesMission).add(coutTotalAssurances); // Ou coutAchat est remplacé par dépréciation pour une période
-            // Si on considère le TCO sur la période d'utilisation, la dépréciation est un coût, pas le coût d'achat.
-            // Pour un TCO "depuis acquisition", on peut prendre coutAchat.
-            // Pour un TCO "périodique", on prend la dépréciation sur la période.
-            // Le modèle actuel semble plus orienté TCO depuis acquisition.
-            tco.setTcoTotal(tcoTotal);
+            VehiculeRentabiliteDTO dto = new VehiculeRentabiliteDTO();
+            dto.setIdVehicule(idVehicule);
+            dto.setVehiculeInfo(vehicule.getMarque() + " " + vehicule.getModele() + " (" + vehicule.getImmatriculation() + ")");
+            dto.setDateDebutAnalyse(dateDebut);
+            dto.setDateFinAnalyse(dateFin);
+            BigDecimal acquisition = vehicule.getPrixVehicule() != null ? vehicule.getPrixVehicule() : BigDecimal.ZERO;
+            dto.setCoutTotalAcquisition(acquisition);
+            dto.setCoutTotalEntretiens(couts.get(CategorieCout.ENTRETIEN));
+            dto.setCoutTotalAssurances(couts.get(CategorieCout.ASSURANCE));
+            dto.setCoutTotalCarburantMissions(couts.get(CategorieCout.CARBURANT));
+            dto.setAutresCoutsOperationnels(couts.get(CategorieCout.FRAIS_ANNEXES));
+            BigDecimal operationnel = couts.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+            dto.setCoutTotalOperationnel(operationnel);
+            // Aucun revenu n'est rattaché aux véhicules dans le modèle actuel
+            BigDecimal benefice = dto.getRevenusGeneres().subtract(operationnel);
+            dto.setBeneficeNetVehicule(benefice);
+            dto.setRetourSurInvestissementInitial(acquisition.signum() > 0
+                    ? benefice.multiply(BigDecimal.valueOf(100)).divide(acquisition, 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO);
+            return dto;
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors du calcul de la rentabilité du véhicule.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
 
-            if (vehicule.getKmActuels() != null && vehicule.getKmActuels() > 0) {
-                tco.setCoutParKm(tcoTotal.divide(BigDecimal.valueOf(vehicule.getKmActuels()), 2, BigDecimal.ROUND_HALF_UP));
-            } else {
-                tco.setCoutParKm(BigDecimal.ZERO);
-            }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int reconstruireCoutsMensuels() throws OperationFailedException {
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            conn.setAutoCommit(false);
+            int cellules = coutMensuelRepository.reconstruire(conn);
+            conn.commit();
+            LOGGER.info("Table COUT_MENSUEL reconstruite: " + cellules + " cellule(s).");
+            return cellules;
+        } catch (SQLException e) {
+            DbUtil.rollback(conn);
+            throw new OperationFailedException("Erreur technique lors de la reconstruction des coûts mensuels.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
 
-            return tco;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TcoVehiculeDTO calculerTCOVehicule(Integer idVehicule) throws VehiculeNotFoundException, OperationFailedException {
+        TcoVehiculeDTO tco = calculerTCOVehicules(Collections.singleton(idVehicule)).get(idVehicule);
+        if (tco == null) {
+            throw new VehiculeNotFoundException("Véhicule non trouvé avec l'ID: " + idVehicule);
+        }
+        return tco;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Integer, TcoVehiculeDTO> calculerTCOVehicules(Collection<Integer> idsVehicules) throws OperationFailedException {
+        Map<Integer, TcoVehiculeDTO> tcos = new LinkedHashMap<>();
+        if (idsVehicules == null || idsVehicules.isEmpty()) {
+            return tcos;
+        }
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            for (TcoVehiculeDTO tco : financeRepository.getCoutsTcoParVehicule(conn, null, null, idsVehicules)) {
+                tco.setDepreciation(calculerDepreciation(tco, null, null));
+
+                // TCO "depuis acquisition" : le coût d'achat est compté en entier
+                BigDecimal tcoTotal = tco.getCoutAchat().add(coutsExploitation(tco));
+                tco.setTcoTotal(tcoTotal);
+                tco.setCoutsTotauxPossession(tcoTotal);
+                tco.setCoutParKm(coutParKm(tcoTotal, tco.getKmActuels()));
+                tcos.put(tco.getIdVehicule(), tco);
+            }
+            return tcos;
         } catch (SQLException e) {
-            throw new OperationFailedException("Erreur technique lors du calcul du TCO pour le véhicule.", e);
+            throw new OperationFailedException("Erreur technique lors du calcul du TCO de " + idsVehicules.size() + " véhicule(s).", e);
         } finally {
             DbUtil.close(conn);
         }
@@ -206,28 +240,140 @@ public class FinanceReportingServiceImpl implements FinanceReportingService {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Sur une période, le coût d'acquisition est remplacé par la dépréciation linéaire
+     * imputable à cette période ; {@code coutTotalAchats} reporte à titre indicatif le prix
+     * des véhicules acquis pendant la période. Les coûts sont agrégés en base, en une requête.
+     * <p>
+     * Le coût par kilomètre n'est renseigné que sans période : le kilométrage connu est celui du
+     * compteur, cumulé depuis l'acquisition, et ne peut pas être rapporté aux coûts d'une période.
      */
     @Override
     public TCODTO calculerTCOFlotte(LocalDate dateDebut, LocalDate dateFin) throws OperationFailedException {
-        // Cette méthode nécessiterait d'agréger les TCO de tous les véhicules
-        // ou de faire des requêtes SQL agrégées complexes.
-        // Pour l'instant, une implémentation simplifiée ou un placeholder.
-        TCODTO tcoFlotte = new TCODTO();
-        tcoFlotte.setDateDebut(dateDebut);
-        tcoFlotte.setDateFin(dateFin);
-        tcoFlotte.setNombreVehicules(0); // À calculer
-        tcoFlotte.setCoutTotalAchats(BigDecimal.ZERO); // À calculer
-        tcoFlotte.setCoutTotalEntretiens(BigDecimal.ZERO); // À calculer
-        tcoFlotte.setCoutTotalCarburant(BigDecimal.ZERO); // À calculer
-        tcoFlotte.setCoutTotalAssurances(BigDecimal.ZERO); // À calculer
-        tcoFlotte.setDepreciationTotale(BigDecimal.ZERO); // À calculer
-        tcoFlotte.setTcoGlobalFlotte(BigDecimal.ZERO); // À calculer
-        tcoFlotte.setCoutMoyenParKmFlotte(BigDecimal.ZERO); // À calculer
-
-        // Logique d'itération sur tous les véhicules et d'agrégation des coûts sur la période.
-        // Ou requêtes SQL spécifiques pour sommer les coûts par catégorie sur la période.
-
-        System.err.println("calculerTCOFlotte n'est pas encore pleinement implémenté avec une logique d'agrégation détaillée.");
-        return tcoFlotte; // Placeholder
+        if ((dateDebut == null) != (dateFin == null)) {
+            throw new OperationFailedException("La période doit avoir une date de début et une date de fin, ou aucune.");
+        }
+        if (dateDebut != null && dateFin.isBefore(dateDebut)) {
+            throw new OperationFailedException("La date de fin doit être postérieure à la date de début.");
+        }
+        boolean historiqueComplet = dateDebut == null;
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            List<TcoVehiculeDTO> lignes = financeRepository.getCoutsTcoParVehicule(conn, dateDebut, dateFin, null);
+
+            LocalDateTime debutPeriode = dateDebut != null ? dateDebut.atStartOfDay() : null;
+            LocalDateTime finPeriode = dateFin != null ? dateFin.plusDays(1).atStartOfDay() : null;
+            BigDecimal totalAchats = BigDecimal.ZERO;
+            BigDecimal totalEntretiens = BigDecimal.ZERO;
+            BigDecimal totalCarburant = BigDecimal.ZERO;
+            BigDecimal totalAutres = BigDecimal.ZERO;
+            BigDecimal totalAssurances = BigDecimal.ZERO;
+            BigDecimal totalDepreciation = BigDecimal.ZERO;
+            BigDecimal totalTco = BigDecimal.ZERO;
+            long totalKm = 0;
+
+            for (TcoVehiculeDTO ligne : lignes) {
+                BigDecimal depreciation = calculerDepreciation(ligne, debutPeriode, finPeriode);
+                BigDecimal tcoTotal = depreciation.add(coutsExploitation(ligne));
+                ligne.setDepreciation(depreciation);
+                ligne.setTcoTotal(tcoTotal);
+                ligne.setCoutsTotauxPossession(tcoTotal);
+                ligne.setCoutParKm(historiqueComplet ? coutParKm(tcoTotal, ligne.getKmActuels()) : null);
+
+                if (estDansPeriode(ligne.getDateAcquisition(), debutPeriode, finPeriode)) {
+                    totalAchats = totalAchats.add(ligne.getCoutAchat());
+                }
+                totalEntretiens = totalEntretiens.add(ligne.getCoutTotalEntretiens());
+                totalCarburant = totalCarburant.add(ligne.getCoutTotalCarburant());
+                totalAutres = totalAutres.add(ligne.getCoutTotalAutresDepenses());
+                totalAssurances = totalAssurances.add(ligne.getCoutTotalAssurances());
+                totalDepreciation = totalDepreciation.add(depreciation);
+                totalTco = totalTco.add(tcoTotal);
+                if (ligne.getKmActuels() != null && ligne.getKmActuels() > 0) {
+                    totalKm += ligne.getKmActuels();
+                }
+            }
+
+            TCODTO tcoFlotte = new TCODTO();
+            tcoFlotte.setDateDebut(dateDebut);
+            tcoFlotte.setDateFin(dateFin);
+            tcoFlotte.setNombreVehicules(lignes.size());
+            tcoFlotte.setCoutTotalAchats(totalAchats);
+            tcoFlotte.setCoutTotalEntretiens(totalEntretiens);
+            tcoFlotte.setCoutTotalCarburant(totalCarburant);
+            tcoFlotte.setCoutTotalAutresDepenses(totalAutres);
+            tcoFlotte.setCoutTotalAssurances(totalAssurances);
+            tcoFlotte.setDepreciationTotale(totalDepreciation);
+            tcoFlotte.setTcoGlobalFlotte(totalTco);
+            tcoFlotte.setCoutsTotaux(totalTco);
+            if (historiqueComplet) {
+                tcoFlotte.setCoutMoyenParKmFlotte(totalKm > 0
+                        ? totalTco.divide(BigDecimal.valueOf(totalKm), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO);
+            }
+            tcoFlotte.setDetailsVehicules(lignes);
+            return tcoFlotte;
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors du calcul du TCO de la flotte.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
+    /**
+     * Calcule la dépréciation linéaire d'un véhicule entre son acquisition et sa date de fin
+     * d'amortissement, restreinte à une période. Sans période, la dépréciation court jusqu'à
+     * aujourd'hui. Un véhicule sans date de fin d'amortissement est déprécié en totalité à
+     * son acquisition.
+     *
+     * @param ligne       La ligne TCO portant le prix et les dates du véhicule.
+     * @param debutPeriode Le début de période (inclus), ou null.
+     * @param finPeriode   La fin de période (exclue), ou null.
+     * @return La dépréciation imputable à la période.
+     */
+    private BigDecimal calculerDepreciation(TcoVehiculeDTO ligne, LocalDateTime debutPeriode, LocalDateTime finPeriode) {
+        BigDecimal coutAchat = ligne.getCoutAchat();
+        LocalDateTime acquisition = ligne.getDateAcquisition();
+        LocalDateTime amortissement = ligne.getDateAmortissement();
+        if (acquisition == null) {
+            return debutPeriode == null ? coutAchat : BigDecimal.ZERO;
+        }
+        long dureeAmortissementMois = amortissement != null ? ChronoUnit.MONTHS.between(acquisition, amortissement) : 0;
+        if (dureeAmortissementMois <= 0) {
+            return estDansPeriode(acquisition, debutPeriode, finPeriode) ? coutAchat : BigDecimal.ZERO;
+        }
+        LocalDateTime debut = debutPeriode != null && debutPeriode.isAfter(acquisition) ? debutPeriode : acquisition;
+        LocalDateTime fin = finPeriode != null ? finPeriode : LocalDateTime.now();
+        if (fin.isAfter(amortissement)) {
+            fin = amortissement;
+        }
+        long moisImputes = ChronoUnit.MONTHS.between(debut, fin);
+        if (moisImputes <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return coutAchat.multiply(BigDecimal.valueOf(moisImputes))
+                .divide(BigDecimal.valueOf(dureeAmortissementMois), 2, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal coutsExploitation(TcoVehiculeDTO ligne) {
+        return ligne.getCoutTotalEntretiens()
+                .add(ligne.getCoutTotalCarburant())
+                .add(ligne.getCoutTotalAutresDepenses())
+                .add(ligne.getCoutTotalAssurances());
+    }
+
+    private BigDecimal coutParKm(BigDecimal tcoTotal, Integer kmActuels) {
+        if (kmActuels == null || kmActuels <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return tcoTotal.divide(BigDecimal.valueOf(kmActuels), 2, RoundingMode.HALF_UP);
+    }
+
+    private boolean estDansPeriode(LocalDateTime date, LocalDateTime debutPeriode, LocalDateTime finPeriode) {
+        if (date == null) {
+            return debutPeriode == null && finPeriode == null;
+        }
+        return (debutPeriode == null || !date.isBefore(debutPeriode))
+                && (finPeriode == null || date.isBefore(finPeriode));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,649 @@
+package main.java.com.miage.parcauto.service.impl;
+
+import main.java.com.miage.parcauto.dao.*;
+import main.java.com.miage.parcauto.dao.impl.*;
+import main.java.com.miage.parcauto.dto.EntretienDTO;
+import main.java.com.miage.parcauto.dto.ErreurImportDTO;
+import main.java.com.miage.parcauto.dto.PersonnelDTO;
+import main.java.com.miage.parcauto.dto.RapportImportDTO;
+import main.java.com.miage.parcauto.dto.VehiculeDTO;
+import main.java.com.miage.parcauto.exception.OperationFailedException;
+import main.java.com.miage.parcauto.exception.ValidationException;
+import main.java.com.miage.parcauto.mapper.EntretienMapper;
+import main.java.com.miage.parcauto.mapper.PersonnelMapper;
+import main.java.com.miage.parcauto.mapper.VehiculeMapper;
+import main.java.com.miage.parcauto.mapper.impl.EntretienMapperImpl;
+import main.java.com.miage.parcauto.mapper.impl.PersonnelMapperImpl;
+import main.java.com.miage.parcauto.mapper.impl.VehiculeMapperImpl;
+import main.java.com.miage.parcauto.model.entretien.Entretien;
+import main.java.com.miage.parcauto.model.entretien.StatutOT;
+import main.java.com.miage.parcauto.model.entretien.TypeEntretien;
+import main.java.com.miage.parcauto.model.rh.Personnel;
+import main.java.com.miage.parcauto.model.rh.Sexe;
+import main.java.com.miage.parcauto.model.vehicule.Energie;
+import main.java.com.miage.parcauto.model.vehicule.Vehicule;
+import main.java.com.miage.parcauto.service.ImportService;
+import main.java.com.miage.parcauto.service.ValidationService;
+import main.java.com.miage.parcauto.util.CsvReader;
+import main.java.com.miage.parcauto.util.CsvWriter;
+import main.java.com.miage.parcauto.util.Validator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Implémentation du service d'import en masse.
+ * <p>
+ * Par lot de {@link DbUtil#getTailleLot()} lignes : lecture et validation en parallèle (sans
+ * état partagé), puis contrôle séquentiel de l'unicité contre des ensembles de clés chargés
+ * une seule fois au démarrage (au lieu d'un SELECT par ligne), enfin insertion par lots JDBC
+ * et validation de la transaction.
+ */
+public class ImportServiceImpl implements ImportService {
+
+    private static final Logger LOGGER = Logger.getLogger(ImportServiceImpl.class.getName());
+    private static final DateTimeFormatter FORMAT_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    // Au-delà, les rejets sont comptés mais plus détaillés (mémoire bornée sur un fichier entièrement invalide)
+    private static final int MAX_ERREURS_DETAILLEES = 10_000;
+
+    private final VehiculeRepository vehiculeRepository;
+    private final PersonnelRepository personnelRepository;
+    private final EntretienRepository entretienRepository;
+    private final ReferentielCache referentielCache;
+    private final CoutMensuelRepository coutMensuelRepository;
+    private final VehiculeMapper vehiculeMapper;
+    private final PersonnelMapper personnelMapper;
+    private final EntretienMapper entretienMapper;
+    private final ValidationService validationService;
+
+    public ImportServiceImpl() {
+        this(CachesEntites.vehicules(new VehiculeRepositoryImpl()), CachesEntites.personnel(new PersonnelRepositoryImpl()),
+                new EntretienRepositoryImpl(), ReferentielCache.getInstance(), new CoutMensuelRepositoryImpl(),
+                new VehiculeMapperImpl(), new PersonnelMapperImpl(),
+                new EntretienMapperImpl(), new ValidationServiceImpl());
+    }
+
+    public ImportServiceImpl(VehiculeRepository vehiculeRepository, PersonnelRepository personnelRepository,
+                             EntretienRepository entretienRepository, ReferentielCache referentielCache,
+                             CoutMensuelRepository coutMensuelRepository, VehiculeMapper vehiculeMapper,
+                             PersonnelMapper personnelMapper, EntretienMapper entretienMapper,
+                             ValidationService validationService) {
+        this.vehiculeRepository = vehiculeRepository;
+        this.personnelRepository = personnelRepository;
+        this.entretienRepository = entretienRepository;
+        this.referentielCache = referentielCache;
+        this.coutMensuelRepository = coutMensuelRepository;
+        this.vehiculeMapper = vehiculeMapper;
+        this.personnelMapper = personnelMapper;
+        this.entretienMapper = entretienMapper;
+        this.validationService = validationService;
+    }
+
+    @Override
+    public RapportImportDTO importerVehicules(InputStream csv) throws ValidationException, OperationFailedException {
+        return importer(new ImportVehicules(), csv);
+    }
+
+    @Override
+    public RapportImportDTO importerPersonnel(InputStream csv) throws ValidationException, OperationFailedException {
+        return importer(new ImportPersonnel(), csv);
+    }
+
+    @Override
+    public RapportImportDTO importerEntretiens(InputStream csv) throws ValidationException, OperationFailedException {
+        return importer(new ImportEntretiens(), csv);
+    }
+
+    @Override
+    public void exporterRapportErreursCsv(RapportImportDTO rapport, OutputStream out) throws OperationFailedException {
+        try (CsvWriter writer = new CsvWriter(out, CsvWriter.SEPARATEUR_DEFAUT, true)) {
+            writer.writeRow("Ligne", "Identifiant", "Erreur");
+            for (ErreurImportDTO erreur : rapport.getErreurs()) {
+                writer.writeRow(erreur.getNumeroLigne(), erreur.getIdentifiant(), erreur.getMessage());
+            }
+        } catch (IOException e) {
+            throw new OperationFailedException("Erreur lors de l'écriture du rapport d'import.", e);
+        }
+    }
+
+    private <D, E> RapportImportDTO importer(ImportProfil<D, E> profil, InputStream csv)
+            throws ValidationException, OperationFailedException {
+        RapportImportDTO rapport = new RapportImportDTO(profil.libelle);
+        long debut = System.nanoTime();
+        CsvReader lecteur = new CsvReader(csv);
+        Connection conn = null;
+        try {
+            String[] entete = lecteur.readRow();
+            if (entete == null) {
+                throw new ValidationException("Le fichier d'import est vide.");
+            }
+            Map<String, Integer> colonnes = indexerColonnes(entete, profil.colonnesRequises);
+
+            conn = DbUtil.getConnection();
+            conn.setAutoCommit(false);
+            profil.precharger(conn);
+            conn.commit();
+
+            int tailleLot = DbUtil.getTailleLot();
+            List<LigneCsv> lot = new ArrayList<>(tailleLot);
+            String[] champs;
+            while ((champs = lecteur.readRow()) != null) {
+                if (champs.length == 1 && champs[0].trim().isEmpty()) {
+                    continue; // Ligne vide
+                }
+                lot.add(new LigneCsv(lecteur.getEnregistrementsLus(), champs, colonnes));
+                if (lot.size() == tailleLot) {
+                    traiterLot(conn, profil, lot, rapport);
+                    lot.clear();
+                }
+            }
+            if (!lot.isEmpty()) {
+                traiterLot(conn, profil, lot, rapport);
+            }
+        } catch (IOException e) {
+            throw new OperationFailedException("Erreur de lecture du fichier d'import (" + profil.libelle + ").", e);
+        } catch (SQLException e) {
+            DbUtil.rollback(conn);
+            throw new OperationFailedException("Erreur technique lors de l'import (" + profil.libelle + ").", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+        rapport.setDureeMs((System.nanoTime() - debut) / 1_000_000);
+        LOGGER.info(rapport.toString());
+        return rapport;
+    }
+
+    private <D, E> void traiterLot(Connection conn, ImportProfil<D, E> profil, List<LigneCsv> lot,
+                                   RapportImportDTO rapport) throws SQLException {
+        rapport.setLignesLues(rapport.getLignesLues() + lot.size());
+
+        // Lecture et validation sans état partagé : parallélisables, l'ordre des lignes est conservé
+        List<LigneAnalysee<D>> analysees = lot.parallelStream()
+                .map(profil::analyser)
+                .collect(Collectors.toList());
+
+        // Unicité en séquentiel : les ensembles de clés sont modifiés à chaque ligne retenue
+        List<LigneAnalysee<D>> retenues = new ArrayList<>(analysees.size());
+        List<E> entites = new ArrayList<>(analysees.size());
+        for (LigneAnalysee<D> ligne : analysees) {
+            String erreur = ligne.erreur != null ? ligne.erreur : profil.reserverCles(ligne.dto);
+            if (erreur != null) {
+                rejeter(rapport, ligne, erreur);
+            } else {
+                retenues.add(ligne);
+                entites.add(profil.convertir(ligne.dto));
+            }
+        }
+        if (entites.isEmpty()) {
+            return;
+        }
+
+        try {
+            profil.enregistrer(conn, entites);
+            conn.commit();
+            rapport.setLignesImportees(rapport.getLignesImportees() + entites.size());
+            rapport.setLotsEnregistres(rapport.getLotsEnregistres() + 1);
+        } catch (SQLException e) {
+            DbUtil.rollback(conn);
+            LOGGER.log(Level.WARNING, "Lot de " + entites.size() + " ligne(s) refusé (" + profil.libelle
+                    + "), nouvel essai ligne par ligne: " + e.getMessage());
+            enregistrerUnParUn(conn, profil, retenues, entites, rapport);
+        }
+    }
+
+    private <D, E> void enregistrerUnParUn(Connection conn, ImportProfil<D, E> profil, List<LigneAnalysee<D>> lignes,
+                                           List<E> entites, RapportImportDTO rapport) {
+        for (int i = 0; i < entites.size(); i++) {
+            try {
+                profil.enregistrer(conn, Collections.singletonList(entites.get(i)));
+                conn.commit();
+                rapport.setLignesImportees(rapport.getLignesImportees() + 1);
+            } catch (SQLException e) {
+                DbUtil.rollback(conn);
+                rejeter(rapport, lignes.get(i), "Refusé par la base de données: " + e.getMessage());
+            }
+        }
+    }
+
+    private void rejeter(RapportImportDTO rapport, LigneAnalysee<?> ligne, String message) {
+        rapport.setLignesRejetees(rapport.getLignesRejetees() + 1);
+        if (rapport.getErreurs().size() < MAX_ERREURS_DETAILLEES) {
+            rapport.getErreurs().add(new ErreurImportDTO(ligne.numero, ligne.identifiant, message));
+        }
+    }
+
+    private Map<String, Integer> indexerColonnes(String[] entete, List<String> colonnesRequises)
+            throws ValidationException {
+        Map<String, Integer> colonnes = new HashMap<>();
+        for (int i = 0; i < entete.length; i++) {
+            colonnes.putIfAbsent(entete[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> manquantes = colonnesRequises.stream()
+                .filter(colonne -> !colonnes.containsKey(colonne))
+                .collect(Collectors.toList());
+        if (!manquantes.isEmpty()) {
+            throw new ValidationException("Colonnes obligatoires absentes du fichier: " + String.join(", ", manquantes));
+        }
+        return colonnes;
+    }
+
+    private static String cle(String valeur) {
+        return valeur.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static Set<String> cles(Collection<String> valeurs) {
+        Set<String> cles = new HashSet<>(valeurs.size() * 2);
+        for (String valeur : valeurs) {
+            cles.add(cle(valeur));
+        }
+        return cles;
+    }
+
+    private static <T extends Enum<T>> String enumeration(LigneCsv ligne, String colonne, Function<String, T> conversion) {
+        String valeur = ligne.texte(colonne);
+        if (valeur == null) {
+            return null;
+        }
+        try {
+            return conversion.apply(valeur).name();
+        } catch (IllegalArgumentException e) {
+            throw LigneCsv.invalide(colonne, valeur);
+        }
+    }
+
+    /**
+     * Ligne du fichier, accès aux valeurs par nom de colonne.
+     */
+    private static final class LigneCsv {
+        private final long numero;
+        private final String[] champs;
+        private final Map<String, Integer> colonnes;
+
+        private LigneCsv(long numero, String[] champs, Map<String, Integer> colonnes) {
+            this.numero = numero;
+            this.champs = champs;
+            this.colonnes = colonnes;
+        }
+
+        String texte(String colonne) {
+            Integer index = colonnes.get(colonne);
+            if (index == null || index >= champs.length) {
+                return null;
+            }
+            String valeur = champs[index].trim();
+            return valeur.isEmpty() ? null : valeur;
+        }
+
+        Integer entier(String colonne) {
+            String valeur = texte(colonne);
+            if (valeur == null) {
+                return null;
+            }
+            try {
+                return Integer.valueOf(valeur);
+            } catch (NumberFormatException e) {
+                throw invalide(colonne, valeur);
+            }
+        }
+
+        Integer kilometrage(String colonne) {
+            Integer km = entier(colonne);
+            if (km != null && !Validator.isValidKilometrage(km)) {
+                throw invalide(colonne, km.toString());
+            }
+            return km;
+        }
+
+        BigDecimal montant(String colonne) {
+            String valeur = texte(colonne);
+            if (valeur == null) {
+                return null;
+            }
+            try {
+                BigDecimal montant = new BigDecimal(valeur.replace(" ", "").replace(',', '.'));
+                if (!Validator.isValidMontant(montant.doubleValue())) {
+                    throw invalide(colonne, valeur);
+                }
+                return montant;
+            } catch (NumberFormatException e) {
+                throw invalide(colonne, valeur);
+            }
+        }
+
+        LocalDate date(String colonne) {
+            String valeur = texte(colonne);
+            if (valeur == null) {
+                return null;
+            }
+            try {
+                if (Validator.isValidDate(valeur)) {
+                    return LocalDate.parse(valeur, FORMAT_DATE);
+                }
+                return LocalDate.parse(valeur.length() > 10 ? valeur.substring(0, 10) : valeur);
+            } catch (DateTimeParseException e) {
+                throw invalide(colonne, valeur);
+            }
+        }
+
+        LocalDateTime dateHeure(String colonne) {
+            String valeur = texte(colonne);
+            if (valeur == null) {
+                return null;
+            }
+            if (valeur.length() <= 10) {
+                return date(colonne).atStartOfDay();
+            }
+            try {
+                return LocalDateTime.parse(valeur.replace(' ', 'T'));
+            } catch (DateTimeParseException e) {
+                throw invalide(colonne, valeur);
+            }
+        }
+
+        static IllegalArgumentException invalide(String colonne, String valeur) {
+            return new IllegalArgumentException("Colonne '" + colonne + "': valeur invalide '" + valeur + "'.");
+        }
+    }
+
+    /**
+     * Résultat de la lecture et de la validation d'une ligne : le DTO, ou le motif du rejet.
+     */
+    private static final class LigneAnalysee<D> {
+        private final long numero;
+        private final String identifiant;
+        private final D dto;
+        private final String erreur;
+
+        private LigneAnalysee(long numero, String identifiant, D dto, String erreur) {
+            this.numero = numero;
+            this.identifiant = identifiant;
+            this.dto = dto;
+            this.erreur = erreur;
+        }
+    }
+
+    /**
+     * Étapes propres à un type d'import. {@link #lire} et {@link #valider} sont appelées en
+     * parallèle et ne doivent lire que les données chargées par {@link #precharger} ;
+     * les autres étapes sont séquentielles.
+     */
+    private abstract static class ImportProfil<D, E> {
+        private final String libelle;
+        private final List<String> colonnesRequises;
+
+        ImportProfil(String libelle, String... colonnesRequises) {
+            this.libelle = libelle;
+            this.colonnesRequises = Arrays.asList(colonnesRequises);
+        }
+
+        abstract void precharger(Connection conn) throws SQLException;
+
+        abstract String identifiant(LigneCsv ligne);
+
+        abstract D lire(LigneCsv ligne);
+
+        abstract void valider(D dto) throws ValidationException;
+
+        /** @return le motif du rejet si une clé unique est déjà prise, sinon null (les clés sont alors réservées). */
+        abstract String reserverCles(D dto);
+
+        abstract E convertir(D dto);
+
+        abstract void enregistrer(Connection conn, List<E> entites) throws SQLException;
+
+        LigneAnalysee<D> analyser(LigneCsv ligne) {
+            String identifiant = identifiant(ligne);
+            try {
+                D dto = lire(ligne);
+                valider(dto);
+                return new LigneAnalysee<>(ligne.numero, identifiant, dto, null);
+            } catch (IllegalArgumentException | ValidationException e) {
+                return new LigneAnalysee<>(ligne.numero, identifiant, null, e.getMessage());
+            }
+        }
+    }
+
+    private final class ImportVehicules extends ImportProfil<VehiculeDTO, Vehicule> {
+        private Set<String> immatriculations;
+        private Set<String> numerosChassis;
+        private Set<Integer> etats;
+
+        ImportVehicules() {
+            super("Véhicules", "immatriculation", "numero_chassi", "id_etat_voiture", "energie");
+        }
+
+        @Override
+        void precharger(Connection conn) throws SQLException {
+            immatriculations = cles(vehiculeRepository.findAllImmatriculations(conn));
+            numerosChassis = cles(vehiculeRepository.findAllNumerosChassis(conn));
+            etats = referentielCache.get(conn).getLibellesEtatsVoiture().keySet();
+        }
+
+        @Override
+        String identifiant(LigneCsv ligne) {
+            return ligne.texte("immatriculation");
+        }
+
+        @Override
+        VehiculeDTO lire(LigneCsv ligne) {
+            VehiculeDTO dto = new VehiculeDTO();
+            dto.setImmatriculation(ligne.texte("immatriculation"));
+            dto.setNumeroChassis(ligne.texte("numero_chassi"));
+            dto.setIdEtatVoiture(ligne.entier("id_etat_voiture"));
+            dto.setEnergie(enumeration(ligne, "energie", Energie::fromLibelle));
+            dto.setMarque(ligne.texte("marque"));
+            dto.setModele(ligne.texte("modele"));
+            dto.setNbPlaces(ligne.entier("nb_places"));
+            dto.setDateAcquisition(ligne.dateHeure("date_acquisition"));
+            dto.setDateAmortissement(ligne.dateHeure("date_ammortissement"));
+            dto.setDateMiseEnService(ligne.dateHeure("date_mise_en_service"));
+            dto.setPuissance(ligne.entier("puissance"));
+            dto.setCouleur(ligne.texte("couleur"));
+            dto.setPrixVehicule(ligne.montant("prix_vehicule"));
+            dto.setKmActuels(ligne.kilometrage("km_actuels"));
+            return dto;
+        }
+
+        @Override
+        void valider(VehiculeDTO dto) throws ValidationException {
+            validationService.validateVehicule(dto);
+            if (!etats.contains(dto.getIdEtatVoiture())) {
+                throw new ValidationException("L'état de voiture spécifié avec l'ID " + dto.getIdEtatVoiture()
+                        + " n'existe pas.");
+            }
+        }
+
+        @Override
+        String reserverCles(VehiculeDTO dto) {
+            String immatriculation = cle(dto.getImmatriculation());
+            String numeroChassis = cle(dto.getNumeroChassis());
+            if (immatriculations.contains(immatriculation)) {
+                return "Un véhicule avec l'immatriculation '" + dto.getImmatriculation() + "' existe déjà.";
+            }
+            if (numerosChassis.contains(numeroChassis)) {
+                return "Un véhicule avec le numéro de châssis '" + dto.getNumeroChassis() + "' existe déjà.";
+            }
+            immatriculations.add(immatriculation);
+            numerosChassis.add(numeroChassis);
+            return null;
+        }
+
+        @Override
+        Vehicule convertir(VehiculeDTO dto) {
+            Vehicule vehicule = vehiculeMapper.toEntity(dto);
+            vehicule.setDateEtat(LocalDateTime.now()); // Date de l'état initial
+            return vehicule;
+        }
+
+        @Override
+        void enregistrer(Connection conn, List<Vehicule> vehicules) throws SQLException {
+            vehiculeRepository.saveAll(conn, vehicules);
+        }
+    }
+
+    private final class ImportPersonnel extends ImportProfil<PersonnelDTO, Personnel> {
+        private Set<String> matricules;
+        private Set<String> emails;
+        private Set<Integer> services;
+        private Set<Integer> fonctions;
+
+        ImportPersonnel() {
+            super("Personnel", "matricule", "nom", "prenom", "email", "id_service", "id_fonction");
+        }
+
+        @Override
+        void precharger(Connection conn) throws SQLException {
+            matricules = cles(personnelRepository.findAllMatricules(conn));
+            emails = cles(personnelRepository.findAllEmails(conn));
+            ReferentielCache.Referentiel referentiel = referentielCache.get(conn);
+            services = referentiel.getLibellesServices().keySet();
+            fonctions = referentiel.getLibellesFonctions().keySet();
+        }
+
+        @Override
+        String identifiant(LigneCsv ligne) {
+            return ligne.texte("matricule");
+        }
+
+        @Override
+        PersonnelDTO lire(LigneCsv ligne) {
+            PersonnelDTO dto = new PersonnelDTO();
+            dto.setMatricule(ligne.texte("matricule"));
+            dto.setNom(ligne.texte("nom"));
+            dto.setPrenom(ligne.texte("prenom"));
+            dto.setEmail(ligne.texte("email"));
+            dto.setIdService(ligne.entier("id_service"));
+            dto.setIdFonction(ligne.entier("id_fonction"));
+            dto.setSexe(enumeration(ligne, "sexe", Sexe::fromString));
+            dto.setDateNaissance(ligne.date("date_naissance"));
+            dto.setAdresse(ligne.texte("adresse"));
+            dto.setTelephone(ligne.texte("telephone"));
+            dto.setDateEmbauche(ligne.dateHeure("date_embauche"));
+            dto.setObservation(ligne.texte("observation"));
+            return dto;
+        }
+
+        @Override
+        void valider(PersonnelDTO dto) throws ValidationException {
+            validationService.validatePersonnel(dto);
+            if (!services.contains(dto.getIdService())) {
+                throw new ValidationException("Le service spécifié avec l'ID " + dto.getIdService() + " n'existe pas.");
+            }
+            if (!fonctions.contains(dto.getIdFonction())) {
+                throw new ValidationException("La fonction spécifiée avec l'ID " + dto.getIdFonction() + " n'existe pas.");
+            }
+        }
+
+        @Override
+        String reserverCles(PersonnelDTO dto) {
+            String matricule = cle(dto.getMatricule());
+            String email = cle(dto.getEmail());
+            if (matricules.contains(matricule)) {
+                return "Un membre du personnel avec le matricule '" + dto.getMatricule() + "' existe déjà.";
+            }
+            if (emails.contains(email)) {
+                return "Un membre du personnel avec l'email '" + dto.getEmail() + "' existe déjà.";
+            }
+            matricules.add(matricule);
+            emails.add(email);
+            return null;
+        }
+
+        @Override
+        Personnel convertir(PersonnelDTO dto) {
+            return personnelMapper.toEntity(dto);
+        }
+
+        @Override
+        void enregistrer(Connection conn, List<Personnel> personnels) throws SQLException {
+            personnelRepository.saveAll(conn, personnels);
+        }
+    }
+
+    private final class ImportEntretiens extends ImportProfil<EntretienDTO, Entretien> {
+        private Set<Integer> vehicules;
+        // Un même entretien (véhicule, date d'entrée, motif) n'est importé qu'une fois par fichier
+        private final Set<String> entretiensDuFichier = new HashSet<>();
+
+        ImportEntretiens() {
+            super("Entretiens", "id_vehicule", "date_entree_entr", "motif_entr");
+        }
+
+        @Override
+        void precharger(Connection conn) throws SQLException {
+            vehicules = vehiculeRepository.findAllIds(conn);
+        }
+
+        @Override
+        String identifiant(LigneCsv ligne) {
+            return "Véhicule " + ligne.texte("id_vehicule") + ", " + ligne.texte("date_entree_entr");
+        }
+
+        @Override
+        EntretienDTO lire(LigneCsv ligne) {
+            EntretienDTO dto = new EntretienDTO();
+            dto.setIdVehicule(ligne.entier("id_vehicule"));
+            dto.setDateEntree(ligne.dateHeure("date_entree_entr"));
+            dto.setDateSortie(ligne.dateHeure("date_sortie_entr"));
+            dto.setMotif(ligne.texte("motif_entr"));
+            dto.setObservations(ligne.texte("observation"));
+            dto.setCoutReel(ligne.montant("cout_entr"));
+            dto.setLieu(ligne.texte("lieu_entr"));
+            dto.setTypeEntretien(enumeration(ligne, "type", TypeEntretien::fromLibelle));
+            dto.setStatutOT(enumeration(ligne, "statut_ot", StatutOT::fromLibelle));
+            return dto;
+        }
+
+        @Override
+        void valider(EntretienDTO dto) throws ValidationException {
+            validationService.validateEntretien(dto);
+            if (!vehicules.contains(dto.getIdVehicule())) {
+                throw new ValidationException("Véhicule non trouvé avec l'ID: " + dto.getIdVehicule());
+            }
+        }
+
+        @Override
+        String reserverCles(EntretienDTO dto) {
+            String cle = dto.getIdVehicule() + "|" + dto.getDateEntree() + "|" + cle(dto.getMotif());
+            return entretiensDuFichier.add(cle) ? null : "Entretien en double dans le fichier.";
+        }
+
+        @Override
+        Entretien convertir(EntretienDTO dto) {
+            Entretien entretien = entretienMapper.toEntity(dto);
+            if (entretien.getStatut() == null) { // Statut par défaut si non fourni
+                entretien.setStatut(StatutOT.OUVERT);
+            }
+            return entretien;
+        }
+
+        @Override
+        void enregistrer(Connection conn, List<Entretien> entretiens) throws SQLException {
+            entretienRepository.saveAll(conn, entretiens);
+            Map<Integer, Set<YearMonth>> moisParVehicule = new HashMap<>();
+            for (Entretien entretien : entretiens) {
+                if (entretien.getDateSortie() != null) {
+                    moisParVehicule.computeIfAbsent(entretien.getIdVehicule(), id -> new TreeSet<>())
+                            .add(YearMonth.from(entretien.getDateSortie()));
+                }
+            }
+            for (Map.Entry<Integer, Set<YearMonth>> entree : moisParVehicule.entrySet()) {
+                coutMensuelRepository.rafraichirEntretiens(conn, entree.getKey(), entree.getValue());
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import main.java.com.miage.parcauto.dao.*;
 import main.java.com.miage.parcauto.dao.impl.*;
 import main.java.com.miage.parcauto.dto.DepenseMissionDTO;
 import main.java.com.miage.parcauto.dto.MissionDTO;
+import main.java.com.miage.parcauto.dto.MissionResumeDTO;
 import main.java.com.miage.parcauto.exception.*;
 import main.java.com.miage.parcauto.mapper.DepenseMissionMapper;
 import main.java.com.miage.parcauto.mapper.MissionMapper;
@@ -12,15 +13,22 @@ import main.java.com.miage.parcauto.mapper.impl.MissionMapperImpl;
 import main.java.com.miage.parcauto.model.mission.DepenseMission;
 import main.java.com.miage.parcauto.model.mission.Mission;
 import main.java.com.miage.parcauto.model.mission.StatutMission;
+import main.java.com.miage.parcauto.model.planning.TypeReservation;
 import main.java.com.miage.parcauto.model.vehicule.Vehicule;
 import main.java.com.miage.parcauto.service.MissionService;
 import main.java.com.miage.parcauto.service.VehiculeService; // Pour vérifier disponibilité
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class MissionServiceImpl implements MissionService {
 
@@ -32,11 +40,14 @@ public class MissionServiceImpl implements MissionService {
     private final MissionMapper missionMapper;
     private final DepenseMissionMapper depenseMissionMapper;
     private final VehiculeService vehiculeService; // Pour la logique de disponibilité
+    private final ReservationIndex reservationIndex = ReservationIndex.getInstance(); // Planning en mémoire
+    private final CoutMensuelRepository coutMensuelRepository = new CoutMensuelRepositoryImpl(); // Agrégats de coûts
+    private final ProjectionEcheances projectionEcheances = new ProjectionEcheances(); // Prochain entretien dû
 
     public MissionServiceImpl() {
         this.missionRepository = new MissionRepositoryImpl();
-        this.vehiculeRepository = new VehiculeRepositoryImpl();
-        this.personnelRepository = new PersonnelRepositoryImpl();
+        this.vehiculeRepository = CachesEntites.vehicules(new VehiculeRepositoryImpl());
+        this.personnelRepository = CachesEntites.personnel(new PersonnelRepositoryImpl());
         this.depenseMissionRepository = new DepenseMissionRepositoryImpl();
         this.missionMapper = new MissionMapperImpl();
         this.depenseMissionMapper = new DepenseMissionMapperImpl();
@@ -82,12 +93,10 @@ public class MissionServiceImpl implements MissionService {
             if (vehiculeRepository.findById(conn, missionDTO.getIdVehicule()).isEmpty()) {
                 throw new VehiculeNotFoundException("Véhicule non trouvé avec l'ID: " + missionDTO.getIdVehicule());
             }
-            // Vérifier la disponibilité du véhicule sur la période
-            List<VehiculeDTO> vehiculesDispo = vehiculeService.getVehiculesDisponibles(missionDTO.getDateDebut(),
-                    missionDTO.getDateFinPrevue());
-            boolean estDisponible = vehiculesDispo.stream()
-                    .anyMatch(v -> v.getIdVehicule().equals(missionDTO.getIdVehicule()));
-            if (!estDisponible) {
+            // Vérifier la disponibilité du véhicule sur la période (une seule requête, même transaction)
+            if (!vehiculeRepository.isDisponible(conn, missionDTO.getIdVehicule(),
+                    VehiculeServiceImpl.LIBELLE_ETAT_DISPONIBLE, missionDTO.getDateDebut(),
+                    missionDTO.getDateFinPrevue(), null)) {
                 throw new OperationFailedException("Le véhicule ID " + missionDTO.getIdVehicule()
                         + " n'est pas disponible pour la période demandée.");
             }
@@ -105,6 +114,7 @@ public class MissionServiceImpl implements MissionService {
 
             Mission savedMission = missionRepository.save(conn, mission);
             conn.commit();
+            reservationIndex.enregistrerMission(savedMission);
             return missionMapper.toDTO(savedMission);
 
         } catch (SQLException e) {
@@ -143,6 +153,19 @@ public class MissionServiceImpl implements MissionService {
         }
     }
 
+    @Override
+    public PageCurseur<MissionResumeDTO> getPageMissions(String jeton, int taille, TriCurseur tri) throws OperationFailedException {
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            return missionRepository.findResumesAfter(conn, jeton, taille, tri);
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors de la récupération de la liste des missions.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
     @Override
     public List<MissionDTO> getMissionsByVehiculeId(Integer idVehicule)
             throws VehiculeNotFoundException, OperationFailedException {
@@ -162,6 +185,26 @@ public class MissionServiceImpl implements MissionService {
         }
     }
 
+    @Override
+    public Map<Integer, List<MissionDTO>> getMissionsByVehiculeIds(Collection<Integer> idsVehicules)
+            throws OperationFailedException {
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            Map<Integer, List<Mission>> parVehicule = missionRepository.findByVehiculeIds(conn, idsVehicules);
+            Map<Integer, List<MissionDTO>> resultat = new HashMap<>();
+            for (Integer idVehicule : idsVehicules) {
+                resultat.put(idVehicule, missionMapper.toDTOList(parVehicule.getOrDefault(idVehicule, Collections.emptyList())));
+            }
+            return resultat;
+        } catch (SQLException e) {
+            throw new OperationFailedException(
+                    "Erreur technique lors de la récupération des missions de " + idsVehicules.size() + " véhicules", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
     @Override
     public List<MissionDTO> getMissionsByPersonnelId(Integer idPersonnel)
             throws UtilisateurNotFoundException, OperationFailedException {
@@ -201,6 +244,8 @@ public class MissionServiceImpl implements MissionService {
             Mission existingMission = missionRepository.findById(conn, missionDTO.getIdMission())
                     .orElseThrow(() -> new MissionNotFoundException(
                             "Mission non trouvée avec l'ID: " + missionDTO.getIdMission()));
+            Integer ancienVehicule = existingMission.getIdVehicule();
+            LocalDateTime ancienDebut = existingMission.getDateDebut();
 
             // Logique de validation pour les modifications (ex: on ne modifie pas une
             // mission clôturée)
@@ -210,35 +255,31 @@ public class MissionServiceImpl implements MissionService {
                         "Une mission clôturée ne peut pas changer de statut (sauf potentiellement pour réouverture admin).");
             }
 
-            if (missionDTO.getIdVehicule() != null
-                    && !missionDTO.getIdVehicule().equals(existingMission.getIdVehicule())) {
-                if (vehiculeRepository.findById(conn, missionDTO.getIdVehicule()).isEmpty()) {
-                    throw new VehiculeNotFoundException(
-                            "Nouveau véhicule associé non trouvé avec l'ID: " + missionDTO.getIdVehicule());
-                }
-                // Vérifier disponibilité si dates changent ou véhicule change
+            boolean vehiculeChange = missionDTO.getIdVehicule() != null
+                    && !missionDTO.getIdVehicule().equals(existingMission.getIdVehicule());
+            if (vehiculeChange && vehiculeRepository.findById(conn, missionDTO.getIdVehicule()).isEmpty()) {
+                throw new VehiculeNotFoundException(
+                        "Nouveau véhicule associé non trouvé avec l'ID: " + missionDTO.getIdVehicule());
+            }
+            // Vérifier disponibilité si dates changent ou véhicule change, en excluant la mission modifiée
+            boolean periodeChange = (missionDTO.getDateDebut() != null
+                    && !missionDTO.getDateDebut().equals(existingMission.getDateDebut()))
+                    || (missionDTO.getDateFinPrevue() != null
+                            && !missionDTO.getDateFinPrevue().equals(existingMission.getDateFin()));
+            if (vehiculeChange || periodeChange) {
+                Integer idVehiculeCheck = vehiculeChange ? missionDTO.getIdVehicule() : existingMission.getIdVehicule();
                 LocalDateTime debutCheck = missionDTO.getDateDebut() != null ? missionDTO.getDateDebut()
-                        : existingMission.getDateDebutMission();
+                        : existingMission.getDateDebut();
                 LocalDateTime finCheck = missionDTO.getDateFinPrevue() != null ? missionDTO.getDateFinPrevue()
-                        : existingMission.getDateFinMission();
-                if (debutCheck != null && finCheck != null) {
-                    List<VehiculeDTO> vehiculesDispo = vehiculeService.getVehiculesDisponibles(debutCheck, finCheck);
-                    boolean estDisponible = vehiculesDispo.stream()
-                            .anyMatch(v -> v.getIdVehicule().equals(missionDTO.getIdVehicule()));
-                    if (!estDisponible && !missionRepository
-                            .findOverlappingMissionsForVehicule(conn, missionDTO.getIdVehicule(), debutCheck, finCheck)
-                            .stream().allMatch(m -> m.getIdMission().equals(existingMission.getIdMission()))) { // Exclure
-                                                                                                                // la
-                                                                                                                // mission
-                                                                                                                // actuelle
-                                                                                                                // de la
-                                                                                                                // vérification
-                                                                                                                // de
-                                                                                                                // conflit
-                        throw new OperationFailedException("Le véhicule ID " + missionDTO.getIdVehicule()
-                                + " n'est pas disponible pour la période modifiée.");
-                    }
+                        : existingMission.getDateFin();
+                if (debutCheck != null && finCheck != null && !vehiculeRepository.isDisponible(conn, idVehiculeCheck,
+                        VehiculeServiceImpl.LIBELLE_ETAT_DISPONIBLE, debutCheck, finCheck,
+                        existingMission.getIdMission())) {
+                    throw new OperationFailedException("Le véhicule ID " + idVehiculeCheck
+                            + " n'est pas disponible pour la période modifiée.");
                 }
+            }
+            if (vehiculeChange) {
                 existingMission.setIdVehicule(missionDTO.getIdVehicule());
             }
 
@@ -257,9 +298,9 @@ public class MissionServiceImpl implements MissionService {
             if (missionDTO.getSiteDestination() != null)
                 existingMission.setSite(missionDTO.getSiteDestination());
             if (missionDTO.getDateDebut() != null)
-                existingMission.setDateDebutMission(missionDTO.getDateDebut());
+                existingMission.setDateDebut(missionDTO.getDateDebut());
             if (missionDTO.getDateFinPrevue() != null)
-                existingMission.setDateFinMission(missionDTO.getDateFinPrevue());
+                existingMission.setDateFin(missionDTO.getDateFinPrevue());
             if (missionDTO.getDateFinEffective() != null)
                 existingMission.setDateFinEffective(missionDTO.getDateFinEffective());
             if (missionDTO.getKmPrevu() != null)
@@ -278,7 +319,9 @@ public class MissionServiceImpl implements MissionService {
                 existingMission.setObservationMission(missionDTO.getObservations());
 
             Mission updatedMission = missionRepository.update(conn, existingMission);
+            rafraichirCoutsMensuels(conn, ancienVehicule, ancienDebut, updatedMission);
             conn.commit();
+            reservationIndex.enregistrerMission(updatedMission);
             return missionMapper.toDTO(updatedMission);
 
         } catch (SQLException e) {
@@ -302,17 +345,20 @@ public class MissionServiceImpl implements MissionService {
             if (mission.getStatut() == StatutMission.ENCOURS) {
                 throw new OperationFailedException("Impossible de supprimer une mission en cours.");
             }
-            // Supprimer d'abord les dépenses associées
-            List<DepenseMission> depenses = depenseMissionRepository.findByMissionId(conn, idMission);
-            for (DepenseMission depense : depenses) {
-                depenseMissionRepository.delete(conn, depense.getId());
-            }
+            // Supprimer d'abord les dépenses associées, en une requête par lot d'identifiants
+            List<Integer> idsDepenses = depenseMissionRepository.findByMissionId(conn, idMission).stream()
+                    .map(DepenseMission::getId)
+                    .collect(Collectors.toList());
+            depenseMissionRepository.deleteAllById(conn, idsDepenses);
 
             boolean deleted = missionRepository.delete(conn, idMission);
             if (!deleted) {
                 throw new OperationFailedException("La suppression de la mission a échoué.");
             }
+            coutMensuelRepository.rafraichirDepensesMission(conn, mission.getIdVehicule(),
+                    CoutMensuelRepository.mois(mission.getDateDebut()));
             conn.commit();
+            reservationIndex.retirer(TypeReservation.MISSION, idMission);
         } catch (SQLException e) {
             DbUtil.rollback(conn);
             throw new OperationFailedException("Erreur technique lors de la suppression de la mission.", e);
@@ -375,7 +421,10 @@ public class MissionServiceImpl implements MissionService {
             // }
 
             Mission updatedMission = missionRepository.update(conn, mission);
+            // Après le trigger : nouveau kilométrage et nouveau relevé pour le rythme du véhicule
+            projectionEcheances.actualiser(conn, List.of(updatedMission.getIdVehicule()));
             conn.commit();
+            reservationIndex.enregistrerMission(updatedMission);
             return missionMapper.toDTO(updatedMission);
 
         } catch (SQLException e) {
@@ -424,6 +473,8 @@ public class MissionServiceImpl implements MissionService {
                     .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
             mission.setCoutTotal(coutTotalDepenses); // cout_total dans la table MISSION
             missionRepository.update(conn, mission);
+            coutMensuelRepository.rafraichirDepensesMission(conn, mission.getIdVehicule(),
+                    CoutMensuelRepository.mois(mission.getDateDebut()));
 
             conn.commit();
             return depenseMissionMapper.toDTO(savedDepense);
@@ -488,4 +539,22 @@ public class MissionServiceImpl implements MissionService {
             DbUtil.close(conn);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Recalcule, dans la transaction courante, les dépenses mensuelles agrégées lorsqu'une
+     * mission change de véhicule ou de date de début (ses dépenses changent alors de cellule).
+     */
+    private void rafraichirCoutsMensuels(Connection conn, Integer ancienVehicule, LocalDateTime ancienDebut,
+                                         Mission mission) throws SQLException {
+        if (Objects.equals(ancienVehicule, mission.getIdVehicule())) {
+            if (!Objects.equals(ancienDebut, mission.getDateDebut())) {
+                coutMensuelRepository.rafraichirDepensesMission(conn, mission.getIdVehicule(),
+                        CoutMensuelRepository.mois(ancienDebut, mission.getDateDebut()));
+            }
+        } else {
+            coutMensuelRepository.rafraichirDepensesMission(conn, ancienVehicule, CoutMensuelRepository.mois(ancienDebut));
+            coutMensuelRepository.rafraichirDepensesMission(conn, mission.getIdVehicule(),
+                    CoutMensuelRepository.mois(mission.getDateDebut()));
+        }
+    }
+}
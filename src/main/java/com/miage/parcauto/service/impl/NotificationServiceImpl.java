@@ -10,21 +10,27 @@ import main.java.com.miage.parcauto.exception.*;
 import main.java.com.miage.parcauto.mapper.NotificationMapper;
 import main.java.com.miage.parcauto.mapper.impl.NotificationMapperImpl;
 import main.java.com.miage.parcauto.model.notification.Notification;
+import main.java.com.miage.parcauto.service.BusNotifications;
+import main.java.com.miage.parcauto.service.EvenementNotification;
 import main.java.com.miage.parcauto.service.NotificationService;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Implémentation du service de gestion des notifications.
+ * Chaque changement validé en base est publié sur le {@link BusNotifications}.
  */
 public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UtilisateurRepository utilisateurRepository;
     private final NotificationMapper notificationMapper;
+    private final BusNotifications bus;
 
     /**
      * Constructeur par défaut.
@@ -33,6 +39,7 @@ public class NotificationServiceImpl implements NotificationService {
         this.notificationRepository = new NotificationRepositoryImpl();
         this.utilisateurRepository = new UtilisateurRepositoryImpl();
         this.notificationMapper = new NotificationMapperImpl();
+        this.bus = BusNotifications.getInstance();
     }
 
     /**
@@ -44,9 +51,24 @@ public class NotificationServiceImpl implements NotificationService {
     public NotificationServiceImpl(NotificationRepository notificationRepository,
                                    UtilisateurRepository utilisateurRepository,
                                    NotificationMapper notificationMapper) {
+        this(notificationRepository, utilisateurRepository, notificationMapper, BusNotifications.getInstance());
+    }
+
+    /**
+     * Constructeur avec injection de dépendances et du bus de diffusion.
+     * @param notificationRepository Le repository pour les notifications.
+     * @param utilisateurRepository Le repository pour les utilisateurs.
+     * @param notificationMapper Le mapper pour les notifications.
+     * @param bus Le bus sur lequel publier les changements.
+     */
+    public NotificationServiceImpl(NotificationRepository notificationRepository,
+                                   UtilisateurRepository utilisateurRepository,
+                                   NotificationMapper notificationMapper,
+                                   BusNotifications bus) {
         this.notificationRepository = notificationRepository;
         this.utilisateurRepository = utilisateurRepository;
         this.notificationMapper = notificationMapper;
+        this.bus = bus;
     }
 
     /**
@@ -75,8 +97,9 @@ public class NotificationServiceImpl implements NotificationService {
             }
             notification.setEstLue(false); // Nouvelle notification est non lue par défaut
 
-            notificationRepository.save(conn, notification);
+            Notification creee = notificationRepository.save(conn, notification);
             conn.commit();
+            bus.publier(EvenementNotification.creation(notificationMapper.toDTO(creee)));
         } catch (SQLException e) {
             DbUtil.rollback(conn);
             throw new OperationFailedException("Erreur technique lors de la création de la notification.", e);
@@ -125,6 +148,22 @@ public class NotificationServiceImpl implements NotificationService {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<NotificationDTO> getNotificationById(Integer idNotification) throws OperationFailedException {
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            return notificationRepository.findById(conn, idNotification).map(notificationMapper::toDTO);
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors de la récupération de la notification.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -138,11 +177,15 @@ public class NotificationServiceImpl implements NotificationService {
             Notification notification = notificationRepository.findById(conn, idNotification)
                     .orElseThrow(() -> new EntityNotFoundException("Notification non trouvée avec l'ID: " + idNotification));
 
-            if (!notification.isEstLue()) {
+            boolean nonLue = !notification.isEstLue();
+            if (nonLue) {
                 notification.setEstLue(true);
                 notificationRepository.update(conn, notification);
             }
             conn.commit();
+            if (nonLue) {
+                bus.publier(EvenementNotification.lecture(notification.getIdUtilisateur(), List.of(idNotification)));
+            }
         } catch (SQLException e) {
             DbUtil.rollback(conn);
             throw new OperationFailedException("Erreur technique lors du marquage de la notification comme lue.", e);
@@ -168,20 +211,12 @@ public class NotificationServiceImpl implements NotificationService {
                 throw new UtilisateurNotFoundException("Utilisateur non trouvé avec l'ID: " + idUtilisateur);
             }
 
-            for (Integer idNotification : idsNotification) {
-                Optional<Notification> notificationOpt = notificationRepository.findByIdAndUtilisateurId(conn, idNotification, idUtilisateur);
-                if (notificationOpt.isPresent()) {
-                    Notification notification = notificationOpt.get();
-                    if (!notification.isEstLue()) {
-                        notification.setEstLue(true);
-                        notificationRepository.update(conn, notification);
-                    }
-                } else {
-                    // Logguer ou ignorer une notification non trouvée ou n'appartenant pas à l'utilisateur
-                    System.err.println("Tentative de marquer comme lue une notification non trouvée ou non autorisée. ID: " + idNotification + " pour utilisateur ID: " + idUtilisateur);
-                }
-            }
+            // Une seule mise à jour par lot, restreinte aux notifications de l'utilisateur
+            List<Integer> lues = notificationRepository.markAsRead(conn, idUtilisateur, new LinkedHashSet<>(idsNotification));
             conn.commit();
+            if (!lues.isEmpty()) {
+                bus.publier(EvenementNotification.lecture(idUtilisateur, lues));
+            }
         } catch (SQLException | UtilisateurNotFoundException e) { // UtilisateurNotFoundException peut être levée avant le rollback
             DbUtil.rollback(conn);
             throw new OperationFailedException("Erreur technique lors du marquage de plusieurs notifications comme lues.", e);
@@ -190,6 +225,48 @@ public class NotificationServiceImpl implements NotificationService {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int marquerToutesCommeLues(Integer idUtilisateur) throws UtilisateurNotFoundException, OperationFailedException {
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            conn.setAutoCommit(false);
+            if (utilisateurRepository.findById(conn, idUtilisateur).isEmpty()) {
+                throw new UtilisateurNotFoundException("Utilisateur non trouvé avec l'ID: " + idUtilisateur);
+            }
+            int lues = notificationRepository.markAllAsRead(conn, idUtilisateur);
+            conn.commit();
+            if (lues > 0) {
+                bus.publier(EvenementNotification.lectureToutes(idUtilisateur));
+            }
+            return lues;
+        } catch (SQLException e) {
+            DbUtil.rollback(conn);
+            throw new OperationFailedException("Erreur technique lors du marquage de toutes les notifications comme lues.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long compterNotificationsNonLues(Integer idUtilisateur) throws OperationFailedException {
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            return notificationRepository.countByUtilisateurIdAndEstLu(conn, idUtilisateur, false);
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors du comptage des notifications non lues.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -200,15 +277,15 @@ public class NotificationServiceImpl implements NotificationService {
             conn = DbUtil.getConnection();
             conn.setAutoCommit(false);
 
-            if (notificationRepository.findById(conn, idNotification).isEmpty()) {
-                throw new EntityNotFoundException("Notification non trouvée avec l'ID: " + idNotification);
-            }
+            Notification notification = notificationRepository.findById(conn, idNotification)
+                    .orElseThrow(() -> new EntityNotFoundException("Notification non trouvée avec l'ID: " + idNotification));
 
             boolean deleted = notificationRepository.delete(conn, idNotification);
             if (!deleted) {
                 throw new OperationFailedException("La suppression de la notification a échoué.");
             }
             conn.commit();
+            bus.publier(EvenementNotification.suppression(notification.getIdUtilisateur(), idNotification));
         } catch (SQLException e) {
             DbUtil.rollback(conn);
             throw new OperationFailedException("Erreur technique lors de la suppression de la notification.", e);
@@ -2,11 +2,9 @@ package main.java.com.miage.parcauto.service.impl;
 
 import main.java.com.miage.parcauto.dao.DbUtil;
 import main.java.com.miage.parcauto.dao.PersonnelRepository;
-import main.java.com.miage.parcauto.dao.ServiceRHRepository;
-import main.java.com.miage.parcauto.dao.FonctionRepository;
+import main.java.com.miage.parcauto.dao.impl.CachesEntites;
 import main.java.com.miage.parcauto.dao.impl.PersonnelRepositoryImpl;
-import main.java.com.miage.parcauto.dao.impl.ServiceRHRepositoryImpl;
-import main.java.com.miage.parcauto.dao.impl.FonctionRepositoryImpl;
+import main.java.com.miage.parcauto.dao.impl.ReferentielCache;
 import main.java.com.miage.parcauto.dto.PersonnelDTO;
 import main.java.com.miage.parcauto.exception.*;
 import main.java.com.miage.parcauto.mapper.PersonnelMapper;
@@ -23,24 +21,21 @@ import java.util.Optional;
 public class PersonnelServiceImpl implements PersonnelService {
 
     private final PersonnelRepository personnelRepository;
-    private final ServiceRHRepository serviceRHRepository;
-    private final FonctionRepository fonctionRepository;
+    private final ReferentielCache referentielCache; // Services et fonctions
     private final PersonnelMapper personnelMapper;
     // private final ValidationService validationService;
 
     public PersonnelServiceImpl() {
-        this.personnelRepository = new PersonnelRepositoryImpl();
-        this.serviceRHRepository = new ServiceRHRepositoryImpl();
-        this.fonctionRepository = new FonctionRepositoryImpl();
-        this.personnelMapper = new PersonnelMapperImpl();
+        this.personnelRepository = CachesEntites.personnel(new PersonnelRepositoryImpl());
+        this.referentielCache = ReferentielCache.getInstance();
+        this.personnelMapper = new PersonnelMapperImpl(this.referentielCache);
         // this.validationService = new ValidationServiceImpl();
     }
 
-    public PersonnelServiceImpl(PersonnelRepository personnelRepository, ServiceRHRepository serviceRHRepository,
-            FonctionRepository fonctionRepository, PersonnelMapper personnelMapper) {
+    public PersonnelServiceImpl(PersonnelRepository personnelRepository, ReferentielCache referentielCache,
+            PersonnelMapper personnelMapper) {
         this.personnelRepository = personnelRepository;
-        this.serviceRHRepository = serviceRHRepository;
-        this.fonctionRepository = fonctionRepository;
+        this.referentielCache = referentielCache;
         this.personnelMapper = personnelMapper;
     }
 
@@ -71,10 +66,10 @@ public class PersonnelServiceImpl implements PersonnelService {
                 throw new DuplicateEntityException(
                         "Un membre du personnel avec l'email '" + personnelDTO.getEmail() + "' existe déjà.");
             }
-            if (serviceRHRepository.findById(conn, personnelDTO.getIdService()).isEmpty()) {
+            if (!referentielCache.get(conn).contientService(personnelDTO.getIdService())) {
                 throw new ValidationException("Le service avec ID " + personnelDTO.getIdService() + " n'existe pas.");
             }
-            if (fonctionRepository.findById(conn, personnelDTO.getIdFonction()).isEmpty()) {
+            if (!referentielCache.get(conn).contientFonction(personnelDTO.getIdFonction())) {
                 throw new ValidationException("La fonction avec ID " + personnelDTO.getIdFonction() + " n'existe pas.");
             }
 
@@ -175,14 +170,14 @@ public class PersonnelServiceImpl implements PersonnelService {
             }
 
             if (personnelDTO.getIdService() != null) {
-                if (serviceRHRepository.findById(conn, personnelDTO.getIdService()).isEmpty()) {
+                if (!referentielCache.get(conn).contientService(personnelDTO.getIdService())) {
                     throw new ValidationException(
                             "Le service avec ID " + personnelDTO.getIdService() + " n'existe pas.");
                 }
                 existingPersonnel.setIdService(personnelDTO.getIdService());
             }
             if (personnelDTO.getIdFonction() != null) {
-                if (fonctionRepository.findById(conn, personnelDTO.getIdFonction()).isEmpty()) {
+                if (!referentielCache.get(conn).contientFonction(personnelDTO.getIdFonction())) {
                     throw new ValidationException(
                             "La fonction avec ID " + personnelDTO.getIdFonction() + " n'existe pas.");
                 }
@@ -0,0 +1,194 @@
+package main.java.com.miage.parcauto.service.impl;
+
+import main.java.com.miage.parcauto.dao.DbUtil;
+import main.java.com.miage.parcauto.dao.EcheanceEntretienRepository;
+import main.java.com.miage.parcauto.dao.VehiculeRepository;
+import main.java.com.miage.parcauto.dao.impl.CachesEntites;
+import main.java.com.miage.parcauto.dao.impl.EcheanceEntretienRepositoryImpl;
+import main.java.com.miage.parcauto.dao.impl.VehiculeRepositoryImpl;
+import main.java.com.miage.parcauto.dto.ChargeAtelierDTO;
+import main.java.com.miage.parcauto.dto.CreneauDTO;
+import main.java.com.miage.parcauto.dto.EcheanceEntretienDTO;
+import main.java.com.miage.parcauto.exception.OperationFailedException;
+import main.java.com.miage.parcauto.exception.ValidationException;
+import main.java.com.miage.parcauto.model.planning.Reservation;
+import main.java.com.miage.parcauto.service.PlanningService;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Implémentation du service de planning basée sur {@link ReservationIndex} ; la prévision de
+ * charge de l'atelier lit les échéances projetées (ECHEANCE_ENTRETIEN).
+ */
+public class PlanningServiceImpl implements PlanningService {
+
+    private final ReservationIndex reservationIndex;
+    private final VehiculeRepository vehiculeRepository;
+    private final EcheanceEntretienRepository echeanceRepository;
+
+    public PlanningServiceImpl() {
+        this.reservationIndex = ReservationIndex.getInstance();
+        this.vehiculeRepository = CachesEntites.vehicules(new VehiculeRepositoryImpl());
+        this.echeanceRepository = new EcheanceEntretienRepositoryImpl();
+    }
+
+    // Constructeur pour injection de dépendances (tests ou futur DI framework)
+    public PlanningServiceImpl(ReservationIndex reservationIndex) {
+        this(reservationIndex, CachesEntites.vehicules(new VehiculeRepositoryImpl()), new EcheanceEntretienRepositoryImpl());
+    }
+
+    public PlanningServiceImpl(ReservationIndex reservationIndex, VehiculeRepository vehiculeRepository,
+                               EcheanceEntretienRepository echeanceRepository) {
+        this.reservationIndex = reservationIndex;
+        this.vehiculeRepository = vehiculeRepository;
+        this.echeanceRepository = echeanceRepository;
+    }
+
+    @Override
+    public boolean isVehiculeLibre(Integer idVehicule, LocalDateTime dateDebut, LocalDateTime dateFin)
+            throws ValidationException, OperationFailedException {
+        validerPeriode(dateDebut, dateFin);
+        try {
+            return reservationIndex.isLibre(idVehicule, dateDebut, dateFin, null, null);
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors de la vérification du planning du véhicule " + idVehicule + ".", e);
+        }
+    }
+
+    @Override
+    public Optional<LocalDateTime> trouverProchainCreneauLibre(Integer idVehicule, LocalDateTime apres, Duration duree,
+            LocalDateTime limite) throws ValidationException, OperationFailedException {
+        if (apres == null || limite == null || duree == null || duree.isNegative() || duree.isZero()) {
+            throw new ValidationException("Instant de départ, limite et durée positive sont requis.");
+        }
+        try {
+            return Optional.ofNullable(reservationIndex.prochainCreneauLibre(idVehicule, apres, duree, limite));
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors de la recherche d'un créneau libre pour le véhicule " + idVehicule + ".", e);
+        }
+    }
+
+    @Override
+    public List<CreneauDTO> getPlanningVehicule(Integer idVehicule, LocalDateTime dateDebut, LocalDateTime dateFin)
+            throws ValidationException, OperationFailedException {
+        validerPeriode(dateDebut, dateFin);
+        try {
+            return construireFrise(idVehicule, reservationIndex.getReservations(idVehicule, dateDebut, dateFin),
+                    dateDebut, dateFin);
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors de la construction du planning du véhicule " + idVehicule + ".", e);
+        }
+    }
+
+    @Override
+    public Map<Integer, List<CreneauDTO>> getPlanningFlotte(Collection<Integer> idsVehicules, LocalDateTime dateDebut,
+            LocalDateTime dateFin) throws ValidationException, OperationFailedException {
+        validerPeriode(dateDebut, dateFin);
+        try {
+            Collection<Integer> ids = idsVehicules != null ? idsVehicules : tousLesVehicules();
+            Map<Integer, List<CreneauDTO>> planning = new TreeMap<>();
+            // Un véhicule sans réservation sur la période reçoit une frise entièrement libre
+            for (Integer idVehicule : ids) {
+                planning.put(idVehicule, construireFrise(idVehicule,
+                        reservationIndex.getReservations(idVehicule, dateDebut, dateFin), dateDebut, dateFin));
+            }
+            return planning;
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors de la construction du planning de la flotte.", e);
+        }
+    }
+
+    private Collection<Integer> tousLesVehicules() throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            return vehiculeRepository.findAllIds(conn);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
+    @Override
+    public List<ChargeAtelierDTO> getPrevisionChargeAtelier(int jours) throws ValidationException, OperationFailedException {
+        if (jours <= 0) {
+            throw new ValidationException("L'horizon de prévision doit être d'au moins un jour.");
+        }
+        LocalDateTime maintenant = LocalDateTime.now();
+        LocalDate premiereSemaine = maintenant.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate derniereSemaine = maintenant.toLocalDate().plusDays(jours)
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        List<ChargeAtelierDTO> semaines = new ArrayList<>();
+        for (LocalDate semaine = premiereSemaine; !semaine.isAfter(derniereSemaine); semaine = semaine.plusWeeks(1)) {
+            semaines.add(new ChargeAtelierDTO(semaine));
+        }
+
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            // Une lecture par plage sur date_echeance ; les échéances dépassées vont dans la première semaine
+            for (EcheanceEntretienDTO echeance : echeanceRepository.findEcheancesAvant(conn, maintenant.plusDays(jours))) {
+                long rang = Math.max(0, ChronoUnit.WEEKS.between(premiereSemaine, echeance.getDateEcheance().toLocalDate()));
+                semaines.get((int) Math.min(rang, semaines.size() - 1)).getEcheances().add(echeance);
+            }
+            return semaines;
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors de la prévision de charge de l'atelier.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
+    @Override
+    public void rafraichir() {
+        reservationIndex.invalider();
+    }
+
+    private void validerPeriode(LocalDateTime dateDebut, LocalDateTime dateFin) throws ValidationException {
+        if (dateDebut == null || dateFin == null) {
+            throw new ValidationException("Les dates de début et de fin sont requises.");
+        }
+        if (dateDebut.isAfter(dateFin)) {
+            throw new ValidationException("La date de début ne peut pas être après la date de fin.");
+        }
+    }
+
+    /**
+     * Découpe la période en créneaux contigus libres/occupés. Les réservations
+     * (triées par début) qui se chevauchent entre elles sont fusionnées à l'affichage.
+     */
+    private List<CreneauDTO> construireFrise(Integer idVehicule, List<Reservation> reservations,
+            LocalDateTime dateDebut, LocalDateTime dateFin) {
+        List<CreneauDTO> frise = new ArrayList<>();
+        LocalDateTime curseur = dateDebut;
+        for (Reservation reservation : reservations) {
+            LocalDateTime debut = reservation.getDebut().isBefore(dateDebut) ? dateDebut : reservation.getDebut();
+            LocalDateTime fin = reservation.getFin().isAfter(dateFin) ? dateFin : reservation.getFin();
+            if (debut.isAfter(curseur)) {
+                frise.add(new CreneauDTO(idVehicule, curseur, debut, false, null, null));
+                curseur = debut;
+            }
+            if (fin.isAfter(curseur) || (fin.equals(curseur) && debut.equals(fin))) {
+                frise.add(new CreneauDTO(idVehicule, curseur, fin, true, reservation.getType().getLibelle(),
+                        reservation.getIdReference()));
+                curseur = fin;
+            }
+        }
+        if (curseur.isBefore(dateFin)) {
+            frise.add(new CreneauDTO(idVehicule, curseur, dateFin, false, null, null));
+        }
+        return frise;
+    }
+}
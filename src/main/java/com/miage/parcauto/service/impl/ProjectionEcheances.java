@@ -0,0 +1,138 @@
+package main.java.com.miage.parcauto.service.impl;
+
+import main.java.com.miage.parcauto.dao.DbUtil;
+import main.java.com.miage.parcauto.dao.EcheanceEntretienRepository;
+import main.java.com.miage.parcauto.dao.impl.EcheanceEntretienRepositoryImpl;
+import main.java.com.miage.parcauto.dto.EcheanceEntretienDTO;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Tenue à jour de la projection ECHEANCE_ENTRETIEN (prochain entretien dû de chaque véhicule),
+ * dans la transaction des écritures qui la modifient : clôture d'un entretien (nouveau point de
+ * départ), clôture d'une mission et relevé kilométrique (kilométrage et rythme du véhicule).
+ * <p>
+ * Le rythme est le kilométrage moyen par jour des missions clôturées des
+ * {@code maintenance.forecast.windowDays} derniers jours ; il projette la date à laquelle le
+ * seuil kilométrique sera atteint. Un véhicule sans projection est initialisé depuis son
+ * historique d'entretiens et de missions.
+ */
+final class ProjectionEcheances {
+
+    private static final Logger LOGGER = Logger.getLogger(ProjectionEcheances.class.getName());
+
+    private static final int FENETRE_RYTHME_JOURS = entier("maintenance.forecast.windowDays", 180);
+    // Au-delà, un véhicule presque immobile n'a pas d'échéance kilométrique projetée
+    private static final int HORIZON_PROJECTION_JOURS = 3650;
+
+    private final EcheanceEntretienRepository echeanceRepository;
+
+    ProjectionEcheances() {
+        this(new EcheanceEntretienRepositoryImpl());
+    }
+
+    ProjectionEcheances(EcheanceEntretienRepository echeanceRepository) {
+        this.echeanceRepository = echeanceRepository;
+    }
+
+    /**
+     * Repart d'un entretien clôturé : le prochain est dû au kilométrage indiqué (ou à
+     * l'intervalle de la règle) et à l'intervalle en mois de la règle.
+     *
+     * @param kmProchainEntretien le kilométrage du prochain entretien, ou null.
+     */
+    void entretienTermine(Connection conn, int idVehicule, int kmEntretien, LocalDateTime dateEntretien,
+                          Integer kmProchainEntretien) throws SQLException {
+        List<EcheanceEntretienDTO> historique = echeanceRepository.findHistoriqueByVehiculeIds(conn, List.of(idVehicule));
+        if (historique.isEmpty()) {
+            return;
+        }
+        EcheanceEntretienDTO echeance = historique.get(0);
+        echeance.setKmDernierEntretien(kmEntretien);
+        echeance.setDateDernierEntretien(dateEntretien);
+        echeance.setKmProchainEntretien(kmProchainEntretien != null ? kmProchainEntretien
+                : kmEntretien + RegleEntretien.INTERVALLE_KM);
+        echeance.setDateProchainEntretien(dateEntretien.plusMonths(RegleEntretien.INTERVALLE_MOIS));
+        projeter(conn, List.of(echeance));
+    }
+
+    /**
+     * Recalcule le kilométrage actuel, le rythme et l'échéance projetée des véhicules (après une
+     * mission clôturée ou un relevé), en conservant leur dernier entretien ; les véhicules sans
+     * projection sont initialisés depuis leur historique.
+     */
+    void actualiser(Connection conn, Collection<Integer> idsVehicule) throws SQLException {
+        if (idsVehicule.isEmpty()) {
+            return;
+        }
+        Map<Integer, EcheanceEntretienDTO> existantes = echeanceRepository.findByVehiculeIds(conn, idsVehicule).stream()
+                .collect(Collectors.toMap(EcheanceEntretienDTO::getIdVehicule, Function.identity()));
+        List<EcheanceEntretienDTO> echeances = new ArrayList<>();
+        for (EcheanceEntretienDTO actuelle : echeanceRepository.findHistoriqueByVehiculeIds(conn, idsVehicule)) {
+            EcheanceEntretienDTO existante = existantes.get(actuelle.getIdVehicule());
+            if (existante != null) {
+                actuelle.setKmDernierEntretien(existante.getKmDernierEntretien());
+                actuelle.setDateDernierEntretien(existante.getDateDernierEntretien());
+                actuelle.setKmProchainEntretien(existante.getKmProchainEntretien());
+                actuelle.setDateProchainEntretien(existante.getDateProchainEntretien());
+            } else {
+                actuelle.setKmProchainEntretien(actuelle.getKmDernierEntretien() + RegleEntretien.INTERVALLE_KM);
+                actuelle.setDateProchainEntretien(actuelle.getDateDernierEntretien() != null
+                        ? actuelle.getDateDernierEntretien().plusMonths(RegleEntretien.INTERVALLE_MOIS) : null);
+            }
+            echeances.add(actuelle);
+        }
+        projeter(conn, echeances);
+    }
+
+    private void projeter(Connection conn, List<EcheanceEntretienDTO> echeances) throws SQLException {
+        LocalDateTime maintenant = LocalDateTime.now();
+        Map<Integer, Double> rythmes = echeanceRepository.findKmParJour(conn, echeances.stream()
+                .map(EcheanceEntretienDTO::getIdVehicule).collect(Collectors.toList()),
+                maintenant.minusDays(FENETRE_RYTHME_JOURS));
+        for (EcheanceEntretienDTO echeance : echeances) {
+            double kmParJour = rythmes.getOrDefault(echeance.getIdVehicule(), 0.0);
+            echeance.setKmParJour(kmParJour);
+            echeance.setDateEcheance(dateEcheance(echeance, kmParJour, maintenant));
+        }
+        echeanceRepository.saveAll(conn, echeances);
+    }
+
+    /**
+     * @return la première des deux échéances : date calendaire, ou date à laquelle le seuil
+     *         kilométrique sera atteint au rythme constaté (maintenant s'il est déjà atteint).
+     */
+    private static LocalDateTime dateEcheance(EcheanceEntretienDTO echeance, double kmParJour, LocalDateTime maintenant) {
+        LocalDateTime parKm = null;
+        int kmRestants = echeance.getKmRestants();
+        if (kmRestants <= 0) {
+            parKm = maintenant;
+        } else if (kmParJour > 0 && kmRestants / kmParJour <= HORIZON_PROJECTION_JOURS) {
+            parKm = maintenant.plusDays((long) Math.ceil(kmRestants / kmParJour));
+        }
+        LocalDateTime parDate = echeance.getDateProchainEntretien();
+        if (parKm == null || (parDate != null && parDate.isBefore(parKm))) {
+            return parDate;
+        }
+        return parKm;
+    }
+
+    private static int entier(String cle, int defaut) {
+        try {
+            int valeur = Integer.parseInt(DbUtil.getPropriete(cle, String.valueOf(defaut)).trim());
+            return valeur > 0 ? valeur : defaut;
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur invalide pour " + cle + ", utilisation de " + defaut);
+            return defaut;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package main.java.com.miage.parcauto.service.impl;
+
+import main.java.com.miage.parcauto.dao.DbUtil;
+
+import java.util.logging.Logger;
+
+/**
+ * Règle de l'entretien périodique, lue dans db.properties : un entretien est dû tous les
+ * {@code alert.maintenance.km} kilomètres ou tous les {@code alert.maintenance.months} mois,
+ * et signalé {@code alert.maintenance.kmMargin} kilomètres ou
+ * {@code alert.maintenance.daysMargin} jours avant l'échéance.
+ */
+final class RegleEntretien {
+
+    private static final Logger LOGGER = Logger.getLogger(RegleEntretien.class.getName());
+
+    static final int INTERVALLE_KM = entier("alert.maintenance.km", 15000);
+    static final int MARGE_KM = entier("alert.maintenance.kmMargin", 1000);
+    static final int INTERVALLE_MOIS = entier("alert.maintenance.months", 12);
+    static final int MARGE_JOURS = entier("alert.maintenance.daysMargin", 30);
+
+    private RegleEntretien() {
+    }
+
+    private static int entier(String cle, int defaut) {
+        try {
+            int valeur = Integer.parseInt(DbUtil.getPropriete(cle, String.valueOf(defaut)).trim());
+            return valeur >= 0 ? valeur : defaut;
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Valeur invalide pour " + cle + ", utilisation de " + defaut);
+            return defaut;
+        }
+    }
+}
@@ -1,16 +1,41 @@
 package main.java.com.miage.parcauto.service.impl;
 
+import main.java.com.miage.parcauto.dao.DbUtil;
+import main.java.com.miage.parcauto.dao.ExportRepository;
+import main.java.com.miage.parcauto.dao.FinanceRepository;
+import main.java.com.miage.parcauto.dao.impl.ExportRepositoryImpl;
+import main.java.com.miage.parcauto.dao.impl.FinanceRepositoryImpl;
 import main.java.com.miage.parcauto.dto.*;
 import main.java.com.miage.parcauto.exception.OperationFailedException;
 import main.java.com.miage.parcauto.exception.ReportGenerationException;
 import main.java.com.miage.parcauto.exception.VehiculeNotFoundException;
 import main.java.com.miage.parcauto.service.*; // Importer les autres services nécessaires
+import main.java.com.miage.parcauto.util.CsvWriter;
+import main.java.com.miage.parcauto.util.PdfWriter;
+import main.java.com.miage.parcauto.util.XlsxWriter;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 /**
@@ -18,10 +43,16 @@ import java.util.stream.Collectors;
  */
 public class ReportingServiceImpl implements ReportingService {
 
+    private static final Logger LOGGER = Logger.getLogger(ReportingServiceImpl.class.getName());
+    private static final DateTimeFormatter FORMAT_GENERATION = DateTimeFormatter.ofPattern("dd/MM/yyyy 'à' HH:mm");
+    private static final DateTimeFormatter FORMAT_MOIS = DateTimeFormatter.ofPattern("MM/yyyy");
+
+    private final ExportRepository exportRepository = new ExportRepositoryImpl();
+    private final FinanceRepository financeRepository = new FinanceRepositoryImpl();
     private final VehiculeService vehiculeService;
     private final EntretienService entretienService;
     private final MissionService missionService;
-    // private final FinanceReportingService financeReportingService; // Si TCO est inclus dans RapportVehiculeDTO
+    private final FinanceReportingService financeReportingService;
 
     /**
      * Constructeur par défaut.
@@ -32,7 +63,7 @@ public class ReportingServiceImpl implements ReportingService {
         this.vehiculeService = new VehiculeServiceImpl();
         this.entretienService = new EntretienServiceImpl();
         this.missionService = new MissionServiceImpl();
-        // this.financeReportingService = new FinanceReportingServiceImpl();
+        this.financeReportingService = new FinanceReportingServiceImpl();
     }
 
     /**
@@ -42,34 +73,127 @@ public class ReportingServiceImpl implements ReportingService {
      * @param missionService Service de gestion des missions.
      */
     public ReportingServiceImpl(VehiculeService vehiculeService, EntretienService entretienService, MissionService missionService) {
+        this(vehiculeService, entretienService, missionService, new FinanceReportingServiceImpl());
+    }
+
+    /**
+     * Constructeur avec injection de dépendances, y compris le service financier (feuille TCO).
+     * @param vehiculeService Service de gestion des véhicules.
+     * @param entretienService Service de gestion des entretiens.
+     * @param missionService Service de gestion des missions.
+     * @param financeReportingService Service de reporting financier.
+     */
+    public ReportingServiceImpl(VehiculeService vehiculeService, EntretienService entretienService,
+                                MissionService missionService, FinanceReportingService financeReportingService) {
         this.vehiculeService = vehiculeService;
         this.entretienService = entretienService;
         this.missionService = missionService;
+        this.financeReportingService = financeReportingService;
     }
 
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Le véhicule, ses entretiens et ses missions sont chargés en parallèle, chacun sur sa
+     * connexion ; au premier échec (véhicule introuvable compris), les chargements restants sont
+     * abandonnés. L'existence du véhicule n'est vérifiée qu'une fois.
      */
     @Override
     public RapportVehiculeDTO genererRapportVehicule(Integer idVehicule) throws VehiculeNotFoundException, OperationFailedException {
-        VehiculeDTO vehicule = vehiculeService.getVehiculeById(idVehicule)
-                .orElseThrow(() -> new VehiculeNotFoundException("Véhicule non trouvé pour le rapport: ID " + idVehicule));
-
-        RapportVehiculeDTO rapport = new RapportVehiculeDTO();
-        rapport.setVehicule(vehicule);
-
-        List<EntretienDTO> entretiens = entretienService.getEntretiensByVehiculeId(idVehicule);
-        rapport.setEntretiens(entretiens);
+        Set<Integer> ids = Collections.singleton(idVehicule);
+        try (ChargementParallele chargement = new ChargementParallele()) {
+            CompletableFuture<VehiculeDTO> vehicule = chargement.lancer(() -> vehiculeService.getVehiculeById(idVehicule)
+                    .orElseThrow(() -> new VehiculeNotFoundException("Véhicule non trouvé pour le rapport: ID " + idVehicule)));
+            CompletableFuture<Map<Integer, List<EntretienDTO>>> entretiens =
+                    chargement.lancer(() -> entretienService.getEntretiensByVehiculeIds(ids));
+            CompletableFuture<Map<Integer, List<MissionDTO>>> missions =
+                    chargement.lancer(() -> missionService.getMissionsByVehiculeIds(ids));
+            chargement.joindre();
+
+            RapportVehiculeDTO rapport = new RapportVehiculeDTO();
+            rapport.setVehicule(vehicule.join());
+            rapport.setEntretiens(entretiens.join().get(idVehicule));
+            rapport.setMissions(missions.join().get(idVehicule));
+
+            // Potentiellement, ajouter les infos TCO ici via financeReportingService.calculerTCOVehicule(idVehicule)
+            // TcoVehiculeDTO tco = financeReportingService.calculerTCOVehicule(idVehicule);
+            // rapport.setTco(tco);
+
+            return rapport;
+        } catch (VehiculeNotFoundException | OperationFailedException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationFailedException("Génération du rapport interrompue pour le véhicule ID: " + idVehicule, e);
+        } catch (Exception e) {
+            throw new OperationFailedException("Erreur lors de la génération du rapport du véhicule ID: " + idVehicule, e);
+        }
+    }
 
-        List<MissionDTO> missions = missionService.getMissionsByVehiculeId(idVehicule);
-        rapport.setMissions(missions);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<RapportVehiculeDTO> genererRapportsVehicules() throws OperationFailedException {
+        return construireRapports(vehiculeService.getAllVehicules(), false);
+    }
 
-        // Potentiellement, ajouter les infos TCO ici via financeReportingService.calculerTCOVehicule(idVehicule)
-        // TcoVehiculeDTO tco = financeReportingService.calculerTCOVehicule(idVehicule);
-        // rapport.setTco(tco);
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Voir {@link ArchiveRapportsFlotte}.
+     */
+    @Override
+    public CompletableFuture<ProgressionRapports> genererArchiveRapportsFlotte(OutputStream out, FormatRapport format,
+                                                                               Integer reprendreApres,
+                                                                               Consumer<ProgressionRapports> suivi)
+            throws OperationFailedException {
+        return ArchiveRapportsFlotte.lancer(this, vehiculeService.getAllVehicules(), format, out, reprendreApres, suivi);
+    }
 
-        return rapport;
+    /**
+     * Construit les rapports d'un lot de véhicules déjà chargés : les entretiens, les missions
+     * et, si demandé, le TCO du lot sont lus en lectures groupées, exécutées en parallèle.
+     *
+     * @param vehicules les véhicules du lot.
+     * @param avecTco   true pour renseigner le TCO de chaque rapport.
+     * @return les rapports, dans l'ordre des véhicules.
+     * @throws OperationFailedException si une lecture échoue.
+     */
+    List<RapportVehiculeDTO> construireRapports(List<VehiculeDTO> vehicules, boolean avecTco) throws OperationFailedException {
+        if (vehicules.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Integer> ids = vehicules.stream().map(VehiculeDTO::getIdVehicule).collect(Collectors.toCollection(LinkedHashSet::new));
+        try (ChargementParallele chargement = new ChargementParallele()) {
+            CompletableFuture<Map<Integer, List<EntretienDTO>>> entretiens =
+                    chargement.lancer(() -> entretienService.getEntretiensByVehiculeIds(ids));
+            CompletableFuture<Map<Integer, List<MissionDTO>>> missions =
+                    chargement.lancer(() -> missionService.getMissionsByVehiculeIds(ids));
+            CompletableFuture<Map<Integer, TcoVehiculeDTO>> tcos = avecTco
+                    ? chargement.lancer(() -> financeReportingService.calculerTCOVehicules(ids))
+                    : CompletableFuture.completedFuture(Collections.emptyMap());
+            chargement.joindre();
+
+            List<RapportVehiculeDTO> rapports = new ArrayList<>(vehicules.size());
+            for (VehiculeDTO vehicule : vehicules) {
+                RapportVehiculeDTO rapport = new RapportVehiculeDTO();
+                rapport.setVehicule(vehicule);
+                rapport.setEntretiens(entretiens.join().get(vehicule.getIdVehicule()));
+                rapport.setMissions(missions.join().get(vehicule.getIdVehicule()));
+                rapport.setTco(tcos.join().get(vehicule.getIdVehicule()));
+                rapports.add(rapport);
+            }
+            return rapports;
+        } catch (OperationFailedException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationFailedException("Génération des rapports interrompue (" + vehicules.size() + " véhicules)", e);
+        } catch (Exception e) {
+            throw new OperationFailedException("Erreur lors de la génération des rapports de " + vehicules.size() + " véhicules", e);
+        }
     }
 
     /**
@@ -77,113 +201,165 @@ public class ReportingServiceImpl implements ReportingService {
      */
     @Override
     public BilanFlotteDTO genererBilanFlotte() throws OperationFailedException {
-        BilanFlotteDTO bilan = new BilanFlotteDTO();
-
-        List<VehiculeDTO> tousLesVehicules = vehiculeService.getAllVehicules();
-        bilan.setNombreTotalVehicules(tousLesVehicules.size());
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            return financeRepository.getBilanFlotte(conn, YearMonth.now());
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors du calcul du bilan de la flotte.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
 
-        long disponibles = tousLesVehicules.stream().filter(v -> "Disponible".equalsIgnoreCase(v.getLibelleEtatVoiture())).count();
-        bilan.setNombreVehiculesDisponibles((int) disponibles);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] exporterRapportPDF(RapportVehiculeDTO rapport) throws ReportGenerationException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        exporterRapportPdf(rapport, rapport.getTco() != null ? rapport.getTco() : calculerTco(rapport.getVehicule()), baos);
+        return baos.toByteArray();
+    }
 
-        long enMission = tousLesVehicules.stream().filter(v -> "En mission".equalsIgnoreCase(v.getLibelleEtatVoiture())).count();
-        bilan.setNombreVehiculesEnMission((int) enMission);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] exporterRapportPDF(BilanFlotteDTO bilan) throws ReportGenerationException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        exporterBilanFlottePdf(bilan, baos);
+        return baos.toByteArray();
+    }
 
-        long enEntretien = tousLesVehicules.stream().filter(v -> "En entretien".equalsIgnoreCase(v.getLibelleEtatVoiture())).count();
-        bilan.setNombreVehiculesEnEntretien((int) enEntretien);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] exporterRapportPDF(TcoVehiculeDTO tco) throws ReportGenerationException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ecrirePdf(baos, "TCO véhicule", pdf -> {
+            pdf.title("Coût total de possession - " + tco.getImmatriculation());
+            ecrireTcoPdf(tco, pdf);
+        });
+        return baos.toByteArray();
+    }
 
-        // Calculer d'autres statistiques agrégées si nécessaire
-        // bilan.setCoutTotalEntretiensMoisEnCours(...);
-        // bilan.setKilometrageTotalFlotte(...);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void exporterBilanFlottePdf(BilanFlotteDTO bilan, OutputStream out) throws ReportGenerationException {
+        List<BilanMensuelDTO> bilansMensuels = bilansDouzeDerniersMois();
+        ecrirePdf(out, "Bilan de la flotte", pdf -> ecrireBilanFlottePdf(bilan, bilansMensuels, pdf));
+    }
 
-        return bilan;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] exporterRapportExcel(RapportVehiculeDTO rapport) throws ReportGenerationException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        exporterRapportXlsx(rapport, rapport.getTco() != null ? rapport.getTco() : calculerTco(rapport.getVehicule()), baos);
+        return baos.toByteArray();
     }
 
-    private String formatRapportVehiculeToText(RapportVehiculeDTO rapportVehicule) {
-        StringBuilder sb = new StringBuilder();
-        VehiculeDTO v = rapportVehicule.getVehicule();
-        sb.append("RAPPORT VÉHICULE\n");
-        sb.append("====================================\n");
-        sb.append("ID: ").append(v.getIdVehicule()).append("\n");
-        sb.append("Immatriculation: ").append(v.getImmatriculation()).append("\n");
-        sb.append("Marque: ").append(v.getMarque()).append(" Modèle: ").append(v.getModele()).append("\n");
-        sb.append("État: ").append(v.getLibelleEtatVoiture()).append(" (depuis ").append(v.getDateEtat()).append(")\n");
-        sb.append("Kilométrage actuel: ").append(v.getKmActuels()).append(" km\n\n");
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] exporterRapportExcel(BilanFlotteDTO bilan) throws ReportGenerationException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        exporterBilanFlotteXlsx(bilan, null, baos);
+        return baos.toByteArray();
+    }
 
-        sb.append("Entretiens:\n");
-        if (rapportVehicule.getEntretiens() == null || rapportVehicule.getEntretiens().isEmpty()) {
-            sb.append("  Aucun entretien enregistré.\n");
-        } else {
-            for (EntretienDTO e : rapportVehicule.getEntretiens()) {
-                sb.append("  - ID Entretien: ").append(e.getIdEntretien())
-                        .append(", Date Entrée: ").append(e.getDateEntree())
-                        .append(", Motif: ").append(e.getMotif())
-                        .append(", Coût Réel: ").append(e.getCoutReel() != null ? e.getCoutReel() : "N/A")
-                        .append(", Statut: ").append(e.getStatutOt()).append("\n");
-            }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] exporterRapportExcel(TcoVehiculeDTO tco) throws ReportGenerationException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (XlsxWriter xlsx = new XlsxWriter(baos)) {
+            ecrireFeuilleTco(List.of(tco), xlsx);
+        } catch (IOException e) {
+            throw new ReportGenerationException("Erreur lors de l'écriture du classeur TCO.", e);
         }
-        sb.append("\n");
+        return baos.toByteArray();
+    }
 
-        sb.append("Missions:\n");
-        if (rapportVehicule.getMissions() == null || rapportVehicule.getMissions().isEmpty()) {
-            sb.append("  Aucune mission enregistrée.\n");
-        } else {
-            for (MissionDTO m : rapportVehicule.getMissions()) {
-                sb.append("  - ID Mission: ").append(m.getIdMission())
-                        .append(", Libellé: ").append(m.getLibelle())
-                        .append(", Début: ").append(m.getDateDebut())
-                        .append(", Fin Prévue: ").append(m.getDateFinPrevue())
-                        .append(", Statut: ").append(m.getStatut()).append("\n");
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void exporterRapportXlsx(RapportVehiculeDTO rapport, TcoVehiculeDTO tco, OutputStream out)
+            throws ReportGenerationException {
+        try (XlsxWriter xlsx = new XlsxWriter(out)) {
+            ecrireFeuilleVehicule(rapport.getVehicule(), xlsx);
+            ecrireFeuilleEntretiens(rapport.getEntretiens(), xlsx);
+            ecrireFeuilleMissions(rapport.getMissions(), xlsx);
+            if (tco != null) {
+                ecrireFeuilleTco(List.of(tco), xlsx);
             }
+        } catch (IOException e) {
+            throw new ReportGenerationException("Erreur lors de l'écriture du classeur du rapport véhicule.", e);
         }
-        // Ajouter TCO si disponible dans le rapportDTO
-        return sb.toString();
     }
 
-    private String formatBilanFlotteToText(BilanFlotteDTO bilanFlotte) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("BILAN DE LA FLOTTE\n");
-        sb.append("====================================\n");
-        sb.append("Nombre total de véhicules: ").append(bilanFlotte.getNombreTotalVehicules()).append("\n");
-        sb.append("Véhicules disponibles: ").append(bilanFlotte.getNombreVehiculesDisponibles()).append("\n");
-        sb.append("Véhicules en mission: ").append(bilanFlotte.getNombreVehiculesEnMission()).append("\n");
-        sb.append("Véhicules en entretien: ").append(bilanFlotte.getNombreVehiculesEnEntretien()).append("\n");
-        // Ajouter d'autres informations du bilan
-        return sb.toString();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void exporterRapportPdf(RapportVehiculeDTO rapport, TcoVehiculeDTO tco, OutputStream out)
+            throws ReportGenerationException {
+        ecrirePdf(out, "Rapport véhicule", pdf -> ecrireRapportVehiculePdf(rapport, tco, pdf));
     }
 
-
     /**
      * {@inheritDoc}
      */
     @Override
-    public byte[] exporterRapportPDF(RapportDTO rapportDTO) throws ReportGenerationException {
-        // Sans bibliothèque externe, la génération d'un vrai PDF est très complexe.
-        // Nous allons retourner une représentation textuelle du rapport.
-        // Pour un vrai PDF, il faudrait intégrer une librairie comme iText ou Apache PDFBox.
-        String contenuTexte;
-        if (rapportDTO instanceof RapportVehiculeDTO) {
-            contenuTexte = formatRapportVehiculeToText((RapportVehiculeDTO) rapportDTO);
-        } else if (rapportDTO instanceof BilanFlotteDTO) {
-            contenuTexte = formatBilanFlotteToText((BilanFlotteDTO) rapportDTO);
-        } else if (rapportDTO instanceof TcoVehiculeDTO) { // Supposons que TcoVehiculeDTO hérite de RapportDTO
-            // Créer une méthode de formatage pour TcoVehiculeDTO
-            contenuTexte = "Type de rapport TCO non formaté pour PDF texte.";
+    public void exporterBilanFlotteXlsx(BilanFlotteDTO bilan, List<TcoVehiculeDTO> tcos, OutputStream out)
+            throws ReportGenerationException {
+        try (XlsxWriter xlsx = new XlsxWriter(out)) {
+            xlsx.startSheet("Bilan", 32, 14);
+            xlsx.writeHeader("Indicateur", "Valeur");
+            xlsx.writeRow("Nombre total de véhicules", bilan.getNombreTotalVehicules());
+            xlsx.writeRow("Véhicules disponibles", bilan.getNombreVehiculesDisponibles());
+            xlsx.writeRow("Véhicules en mission", bilan.getNombreVehiculesEnMission());
+            xlsx.writeRow("Véhicules en entretien", bilan.getNombreVehiculesEnEntretien());
+            xlsx.writeRow("Véhicules hors service", bilan.getNombreVehiculesHorsService());
+            xlsx.writeRow("Kilométrage total", bilan.getKilometrageTotalFlotte());
+            xlsx.writeRow("Coût des entretiens du mois", bilan.getCoutTotalEntretiensMoisEnCours());
+            if (tcos != null && !tcos.isEmpty()) {
+                ecrireFeuilleTco(tcos, xlsx);
+            }
+        } catch (IOException e) {
+            throw new ReportGenerationException("Erreur lors de l'écriture du classeur du bilan de flotte.", e);
         }
-        else {
-            contenuTexte = "Type de rapport non supporté pour l'export PDF simplifié.";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void exporterBilanFlotteCsv(BilanFlotteDTO bilan, OutputStream out) throws ReportGenerationException {
+        try (CsvWriter csv = new CsvWriter(out)) {
+            ecrireBilanFlotteCsv(bilan, csv);
+        } catch (IOException e) {
+            throw new ReportGenerationException("Erreur lors de l'écriture du bilan de flotte CSV.", e);
         }
+    }
 
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             PrintWriter writer = new PrintWriter(baos, true, StandardCharsets.UTF_8)) {
-            writer.println("-----------------------------------------");
-            writer.println("       RAPPORT (Format PDF Simplifié)    ");
-            writer.println("-----------------------------------------");
-            writer.println(contenuTexte);
-            writer.println("\n\n--- Fin du Rapport ---");
-            writer.flush();
-            return baos.toByteArray();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void exporterRapportCsv(RapportVehiculeDTO rapport, OutputStream out) throws ReportGenerationException {
+        try (CsvWriter csv = new CsvWriter(out)) {
+            ecrireRapportVehiculeCsv(rapport, csv);
         } catch (IOException e) {
-            throw new ReportGenerationException("Erreur lors de la génération du contenu texte pour PDF.", e);
+            throw new ReportGenerationException("Erreur lors de l'écriture du rapport CSV.", e);
         }
     }
 
@@ -191,72 +367,368 @@ public class ReportingServiceImpl implements ReportingService {
      * {@inheritDoc}
      */
     @Override
-    public byte[] exporterRapportExcel(RapportDTO rapportDTO) throws ReportGenerationException {
-        // Sans bibliothèque externe, nous allons générer un format CSV simple.
-        // Pour un vrai Excel (XLS/XLSX), il faudrait Apache POI.
-        String contenuCsv;
-        if (rapportDTO instanceof RapportVehiculeDTO) {
-            contenuCsv = formatRapportVehiculeToCsv((RapportVehiculeDTO) rapportDTO);
-        } else if (rapportDTO instanceof BilanFlotteDTO) {
-            contenuCsv = formatBilanFlotteToCsv((BilanFlotteDTO) rapportDTO);
-        } else {
-            contenuCsv = "Type de rapport non supporté pour l'export CSV simplifié.";
+    public void exporterBilanFlotteCsv(BilanFlotteDTO bilan, WritableByteChannel canal) throws ReportGenerationException {
+        exporterBilanFlotteCsv(bilan, Channels.newOutputStream(canal));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long exporterHistoriqueFlotteCsv(OutputStream out) throws ReportGenerationException {
+        return lireHistorique("CSV", conn -> {
+            long lignes = 0;
+            try (CsvWriter csv = new CsvWriter(out)) {
+                lignes += parcourir(conn, exportRepository::parcourirVehicules, csv::writeResultSet);
+                csv.writeEmptyLine();
+                lignes += parcourir(conn, exportRepository::parcourirEntretiens, csv::writeResultSet);
+                csv.writeEmptyLine();
+                lignes += parcourir(conn, exportRepository::parcourirMissions, csv::writeResultSet);
+            }
+            return lignes;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long exporterHistoriqueFlotteCsv(WritableByteChannel canal) throws ReportGenerationException {
+        return exporterHistoriqueFlotteCsv(Channels.newOutputStream(canal));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long exporterHistoriqueFlotteXlsx(OutputStream out) throws ReportGenerationException {
+        return lireHistorique("XLSX", conn -> {
+            long lignes = 0;
+            try (XlsxWriter xlsx = new XlsxWriter(out)) {
+                xlsx.startSheet("Véhicules", 8, 16, 14, 14, 12, 14, 18, 14, 12);
+                lignes += parcourir(conn, exportRepository::parcourirVehicules, xlsx::writeResultSet);
+                xlsx.startSheet("Entretiens", 12, 16, 18, 18, 30, 12, 20, 14, 10);
+                lignes += parcourir(conn, exportRepository::parcourirEntretiens, xlsx::writeResultSet);
+                xlsx.startSheet("Missions", 10, 16, 30, 20, 18, 18, 10, 10, 10, 14);
+                lignes += parcourir(conn, exportRepository::parcourirMissions, xlsx::writeResultSet);
+            }
+            return lignes;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long exporterHistoriqueFlottePdf(OutputStream out) throws ReportGenerationException {
+        return lireHistorique("PDF", conn -> {
+            long lignes = 0;
+            try (PdfWriter pdf = new PdfWriter(out, "Historique de la flotte")) {
+                pdf.title("Historique de la flotte");
+                pdf.paragraph("Généré le " + LocalDateTime.now().format(FORMAT_GENERATION));
+                pdf.heading("Véhicules");
+                lignes += parcourir(conn, exportRepository::parcourirVehicules,
+                        rs -> pdf.writeResultSet(rs, 0.6f, 1.4f, 1.2f, 1.2f, 1f, 1.2f, 1.6f, 1.1f, 1f));
+                pdf.newPage();
+                pdf.heading("Entretiens");
+                lignes += parcourir(conn, exportRepository::parcourirEntretiens,
+                        rs -> pdf.writeResultSet(rs, 0.7f, 1.3f, 1.5f, 1.5f, 2.2f, 1f, 1.3f, 1f, 0.8f));
+                pdf.newPage();
+                pdf.heading("Missions");
+                lignes += parcourir(conn, exportRepository::parcourirMissions,
+                        rs -> pdf.writeResultSet(rs, 0.6f, 1.3f, 1.8f, 1.2f, 1.5f, 1.5f, 0.8f, 0.8f, 0.9f, 1f));
+            }
+            return lignes;
+        });
+    }
+
+    /**
+     * Parcours d'une table d'export par le dépôt.
+     */
+    @FunctionalInterface
+    private interface Parcours {
+        void parcourir(Connection conn, ExportRepository.TraitementCurseur traitement) throws SQLException, IOException;
+    }
+
+    /**
+     * Écriture d'un curseur dans un document, retournant le nombre de lignes écrites.
+     */
+    @FunctionalInterface
+    private interface EcritureCurseur {
+        long ecrire(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /**
+     * Lecture complète de l'historique sur une connexion, retournant le nombre de lignes écrites.
+     */
+    @FunctionalInterface
+    private interface LectureHistorique {
+        long lire(Connection conn) throws SQLException, IOException;
+    }
+
+    private long parcourir(Connection conn, Parcours parcours, EcritureCurseur ecriture) throws SQLException, IOException {
+        long[] lignes = new long[1];
+        parcours.parcourir(conn, rs -> lignes[0] = ecriture.ecrire(rs));
+        return lignes[0];
+    }
+
+    private long lireHistorique(String format, LectureHistorique lecture) throws ReportGenerationException {
+        Connection conn = null;
+        long debut = System.nanoTime();
+        try {
+            conn = DbUtil.getConnection();
+            // Transaction en lecture seule : avec InnoDB (REPEATABLE READ), les trois sections
+            // sont lues sur le même instantané
+            conn.setReadOnly(true);
+            conn.setAutoCommit(false);
+            long lignes = lecture.lire(conn);
+            conn.commit();
+
+            long dureeMs = Math.max(1, (System.nanoTime() - debut) / 1_000_000);
+            LOGGER.info("Historique de la flotte exporté (" + format + "): " + lignes + " ligne(s) en " + dureeMs
+                    + " ms, soit " + (lignes * 1000 / dureeMs) + " lignes/s.");
+            return lignes;
+        } catch (SQLException e) {
+            DbUtil.rollback(conn);
+            throw new ReportGenerationException("Erreur lors de la lecture de l'historique de la flotte.", e);
+        } catch (IOException e) {
+            DbUtil.rollback(conn);
+            throw new ReportGenerationException("Erreur lors de l'écriture de l'historique de la flotte.", e);
+        } finally {
+            DbUtil.close(conn); // Le pool rétablit l'auto-commit et le mode lecture-écriture
+        }
+    }
+
+    private TcoVehiculeDTO calculerTco(VehiculeDTO vehicule) throws ReportGenerationException {
+        if (vehicule == null || vehicule.getIdVehicule() == null) {
+            return null;
+        }
+        try {
+            return financeReportingService.calculerTCOVehicule(vehicule.getIdVehicule());
+        } catch (VehiculeNotFoundException | OperationFailedException e) {
+            throw new ReportGenerationException("Erreur lors du calcul du TCO pour le rapport véhicule.", e);
         }
+    }
 
-        return contenuCsv.getBytes(StandardCharsets.UTF_8);
+    /**
+     * Contenu d'un document PDF.
+     */
+    @FunctionalInterface
+    private interface ContenuPdf {
+        void ecrire(PdfWriter pdf) throws IOException;
+    }
+
+    private void ecrirePdf(OutputStream out, String titre, ContenuPdf contenu) throws ReportGenerationException {
+        try (PdfWriter pdf = new PdfWriter(out, titre)) {
+            contenu.ecrire(pdf);
+        } catch (IOException e) {
+            throw new ReportGenerationException("Erreur lors de l'écriture du rapport PDF.", e);
+        }
+    }
+
+    private List<BilanMensuelDTO> bilansDouzeDerniersMois() throws ReportGenerationException {
+        YearMonth moisCourant = YearMonth.now();
+        try {
+            return financeReportingService.genererBilansMensuels(moisCourant.minusMonths(11), moisCourant);
+        } catch (OperationFailedException e) {
+            throw new ReportGenerationException("Erreur lors du calcul des coûts mensuels pour le bilan.", e);
+        }
+    }
+
+    private void ecrireRapportVehiculePdf(RapportVehiculeDTO rapport, TcoVehiculeDTO tco, PdfWriter pdf) throws IOException {
+        VehiculeDTO v = rapport.getVehicule();
+        pdf.title("Rapport véhicule - " + v.getImmatriculation());
+        pdf.paragraph("Généré le " + LocalDateTime.now().format(FORMAT_GENERATION));
+
+        pdf.heading("Véhicule");
+        pdf.keyValue("ID", v.getIdVehicule());
+        pdf.keyValue("Immatriculation", v.getImmatriculation());
+        pdf.keyValue("Marque / Modèle", v.getMarque() + " " + v.getModele());
+        pdf.keyValue("Énergie", v.getEnergie());
+        pdf.keyValue("État", v.getLibelleEtatVoiture());
+        pdf.keyValue("Depuis le", v.getDateEtat());
+        pdf.keyValue("Date d'acquisition", v.getDateAcquisition());
+        pdf.keyValue("Kilométrage actuel", v.getKmActuels() != null ? v.getKmActuels() + " km" : null);
+
+        List<EntretienDTO> entretiens = rapport.getEntretiens() != null ? rapport.getEntretiens() : List.of();
+        pdf.heading("Entretiens");
+        pdf.startTable(new String[]{"ID", "Entrée", "Sortie", "Motif", "Type", "Coût réel", "Statut"},
+                0.6f, 1.4f, 1.4f, 2.6f, 1f, 1f, 0.9f);
+        for (EntretienDTO e : entretiens) {
+            pdf.tableRow(e.getIdEntretien(), e.getDateEntree(), e.getDateSortie(), e.getMotif(), e.getTypeEntretien(),
+                    e.getCoutReel(), e.getStatutOT());
+        }
+        pdf.endTable();
+
+        List<EntretienDTO> entretiensCoutes = entretiens.stream()
+                .filter(e -> e.getDateEntree() != null && e.getCoutReel() != null)
+                .sorted(Comparator.comparing(EntretienDTO::getDateEntree))
+                .collect(Collectors.toList());
+        if (entretiensCoutes.size() > 1) {
+            List<String> dates = new ArrayList<>();
+            List<BigDecimal> cumul = new ArrayList<>();
+            BigDecimal total = BigDecimal.ZERO;
+            for (EntretienDTO e : entretiensCoutes) {
+                total = total.add(e.getCoutReel());
+                dates.add(e.getDateEntree().toLocalDate().format(FORMAT_MOIS));
+                cumul.add(total);
+            }
+            pdf.lineChart("Coût cumulé des entretiens", dates, cumul, 150);
+        }
+
+        pdf.heading("Missions");
+        pdf.startTable(new String[]{"ID", "Libellé", "Début", "Fin prévue", "Statut", "Coût réel"},
+                0.6f, 2.6f, 1.4f, 1.4f, 1f, 1f);
+        if (rapport.getMissions() != null) {
+            for (MissionDTO m : rapport.getMissions()) {
+                pdf.tableRow(m.getIdMission(), m.getLibelle(), m.getDateDebut(), m.getDateFinPrevue(), m.getStatut(),
+                        m.getCoutTotalReel());
+            }
+        }
+        pdf.endTable();
+
+        if (tco != null) {
+            pdf.heading("Coût total de possession");
+            ecrireTcoPdf(tco, pdf);
+        }
+    }
+
+    private void ecrireBilanFlottePdf(BilanFlotteDTO bilan, List<BilanMensuelDTO> bilansMensuels, PdfWriter pdf)
+            throws IOException {
+        pdf.title("Bilan de la flotte");
+        pdf.paragraph("Généré le " + LocalDateTime.now().format(FORMAT_GENERATION));
+
+        pdf.heading("Répartition des véhicules");
+        pdf.keyValue("Nombre total de véhicules", bilan.getNombreTotalVehicules());
+        pdf.keyValue("Véhicules disponibles", bilan.getNombreVehiculesDisponibles());
+        pdf.keyValue("Véhicules en mission", bilan.getNombreVehiculesEnMission());
+        pdf.keyValue("Véhicules en entretien", bilan.getNombreVehiculesEnEntretien());
+        pdf.keyValue("Véhicules hors service", bilan.getNombreVehiculesHorsService());
+        pdf.keyValue("Kilométrage total", bilan.getKilometrageTotalFlotte());
+        pdf.keyValue("Coût des entretiens du mois", bilan.getCoutTotalEntretiensMoisEnCours());
+
+        pdf.heading("Coûts mensuels (12 derniers mois)");
+        List<String> mois = new ArrayList<>();
+        List<BigDecimal> totaux = new ArrayList<>();
+        pdf.startTable(new String[]{"Mois", "Entretiens", "Missions", "Assurances", "Total"}, 1f, 1f, 1f, 1f, 1f);
+        for (BilanMensuelDTO b : bilansMensuels) {
+            BigDecimal total = b.getTotalCoutsEntretiens().add(b.getTotalCoutsMissions()).add(b.getTotalAutresDepenses());
+            mois.add(b.getMoisAnnee().format(FORMAT_MOIS));
+            totaux.add(total);
+            pdf.tableRow(b.getMoisAnnee().format(FORMAT_MOIS), b.getTotalCoutsEntretiens(), b.getTotalCoutsMissions(),
+                    b.getTotalAutresDepenses(), total);
+        }
+        pdf.endTable();
+        pdf.lineChart("Coût total mensuel de la flotte", mois, totaux, 170);
+    }
+
+    private void ecrireTcoPdf(TcoVehiculeDTO tco, PdfWriter pdf) throws IOException {
+        pdf.keyValue("Coût d'achat", tco.getCoutAchat());
+        pdf.keyValue("Dépréciation", tco.getDepreciation());
+        pdf.keyValue("Entretiens", tco.getCoutTotalEntretiens());
+        pdf.keyValue("Carburant", tco.getCoutTotalCarburant());
+        pdf.keyValue("Autres dépenses", tco.getCoutTotalAutresDepenses());
+        pdf.keyValue("Assurances", tco.getCoutTotalAssurances());
+        pdf.keyValue("TCO total", tco.getTcoTotal());
+        pdf.keyValue("Coût par km", tco.getCoutParKm());
+    }
+
+    private void ecrireFeuilleVehicule(VehiculeDTO v, XlsxWriter xlsx) throws IOException {
+        xlsx.startSheet("Véhicule", 22, 30);
+        xlsx.writeHeader("Champ", "Valeur");
+        xlsx.writeRow("ID", v.getIdVehicule());
+        xlsx.writeRow("Immatriculation", v.getImmatriculation());
+        xlsx.writeRow("Marque", v.getMarque());
+        xlsx.writeRow("Modèle", v.getModele());
+        xlsx.writeRow("Énergie", v.getEnergie());
+        xlsx.writeRow("État", v.getLibelleEtatVoiture());
+        xlsx.writeRow("Depuis le", v.getDateEtat());
+        xlsx.writeRow("Date d'acquisition", v.getDateAcquisition());
+        xlsx.writeRow("Prix", v.getPrixVehicule());
+        xlsx.writeRow("Kilométrage actuel", v.getKmActuels());
+    }
+
+    private void ecrireFeuilleEntretiens(List<EntretienDTO> entretiens, XlsxWriter xlsx) throws IOException {
+        xlsx.startSheet("Entretiens", 12, 18, 18, 30, 12, 20, 14, 14, 10);
+        xlsx.writeHeader("ID Entretien", "Date entrée", "Date sortie", "Motif", "Type", "Lieu", "Coût estimé",
+                "Coût réel", "Statut");
+        if (entretiens != null) {
+            for (EntretienDTO e : entretiens) {
+                xlsx.writeRow(e.getIdEntretien(), e.getDateEntree(), e.getDateSortie(), e.getMotif(),
+                        e.getTypeEntretien(), e.getLieu(), e.getCoutEstime(), e.getCoutReel(), e.getStatutOT());
+            }
+        }
+    }
+
+    private void ecrireFeuilleMissions(List<MissionDTO> missions, XlsxWriter xlsx) throws IOException {
+        xlsx.startSheet("Missions", 10, 30, 20, 18, 18, 18, 10, 14, 14);
+        xlsx.writeHeader("ID Mission", "Libellé", "Site", "Début", "Fin prévue", "Fin effective", "Statut",
+                "Coût estimé", "Coût réel");
+        if (missions != null) {
+            for (MissionDTO m : missions) {
+                xlsx.writeRow(m.getIdMission(), m.getLibelle(), m.getSiteDestination(), m.getDateDebut(),
+                        m.getDateFinPrevue(), m.getDateFinEffective(), m.getStatut(), m.getCoutEstime(),
+                        m.getCoutTotalReel());
+            }
+        }
+    }
+
+    private void ecrireFeuilleTco(List<TcoVehiculeDTO> tcos, XlsxWriter xlsx) throws IOException {
+        xlsx.startSheet("TCO", 8, 16, 14, 14, 14, 14, 14, 14, 14, 14, 14, 14, 12, 12);
+        xlsx.writeHeader("ID", "Immatriculation", "Marque", "Modèle", "Acquisition", "Coût d'achat", "Dépréciation",
+                "Entretiens", "Carburant", "Autres dépenses", "Assurances", "TCO total", "Km actuels", "Coût / km");
+        for (TcoVehiculeDTO t : tcos) {
+            xlsx.writeRow(t.getIdVehicule(), t.getImmatriculation(), t.getMarque(), t.getModele(),
+                    t.getDateAcquisition(), t.getCoutAchat(), t.getDepreciation(), t.getCoutTotalEntretiens(),
+                    t.getCoutTotalCarburant(), t.getCoutTotalAutresDepenses(), t.getCoutTotalAssurances(),
+                    t.getTcoTotal(), t.getKmActuels(), t.getCoutParKm());
+        }
     }
 
-    private String formatRapportVehiculeToCsv(RapportVehiculeDTO rapport) {
-        StringBuilder csv = new StringBuilder();
+    private void ecrireRapportVehiculeCsv(RapportVehiculeDTO rapport, CsvWriter csv) throws IOException {
         VehiculeDTO v = rapport.getVehicule();
         // Section Véhicule
-        csv.append("Section;Cle;Valeur\n");
-        csv.append("Vehicule;ID;").append(v.getIdVehicule()).append("\n");
-        csv.append("Vehicule;Immatriculation;").append(v.getImmatriculation()).append("\n");
-        csv.append("Vehicule;Marque;").append(v.getMarque()).append("\n");
-        csv.append("Vehicule;Modele;").append(v.getModele()).append("\n");
-        csv.append("Vehicule;Etat;").append(v.getLibelleEtatVoiture()).append("\n");
-        csv.append("Vehicule;Km Actuels;").append(v.getKmActuels()).append("\n\n");
+        csv.writeRow("Section", "Cle", "Valeur");
+        csv.writeRow("Vehicule", "ID", v.getIdVehicule());
+        csv.writeRow("Vehicule", "Immatriculation", v.getImmatriculation());
+        csv.writeRow("Vehicule", "Marque", v.getMarque());
+        csv.writeRow("Vehicule", "Modele", v.getModele());
+        csv.writeRow("Vehicule", "Etat", v.getLibelleEtatVoiture());
+        csv.writeRow("Vehicule", "Km Actuels", v.getKmActuels());
+        csv.writeEmptyLine();
 
         // Section Entretiens
-        csv.append("Section;ID Entretien;Date Entree;Motif;Cout Reel;Statut\n");
+        csv.writeRow("Section", "ID Entretien", "Date Entree", "Motif", "Cout Reel", "Statut");
         if (rapport.getEntretiens() != null && !rapport.getEntretiens().isEmpty()) {
             for (EntretienDTO e : rapport.getEntretiens()) {
-                csv.append("Entretien;").append(e.getIdEntretien()).append(";")
-                        .append(e.getDateEntree()).append(";")
-                        .append("\"").append(e.getMotif().replace("\"", "\"\"")).append("\";") // Échapper les guillemets
-                        .append(e.getCoutReel() != null ? e.getCoutReel() : "").append(";")
-                        .append(e.getStatutOt()).append("\n");
+                csv.writeRow("Entretien", e.getIdEntretien(), e.getDateEntree(), e.getMotif(), e.getCoutReel(),
+                        e.getStatutOT());
             }
         } else {
-            csv.append("Entretien;N/A;N/A;Aucun entretien;N/A;N/A\n");
+            csv.writeRow("Entretien", "N/A", "N/A", "Aucun entretien", "N/A", "N/A");
         }
-        csv.append("\n");
+        csv.writeEmptyLine();
 
         // Section Missions
-        csv.append("Section;ID Mission;Libelle;Date Debut;Date Fin Prevue;Statut\n");
+        csv.writeRow("Section", "ID Mission", "Libelle", "Date Debut", "Date Fin Prevue", "Statut");
         if (rapport.getMissions() != null && !rapport.getMissions().isEmpty()) {
             for (MissionDTO m : rapport.getMissions()) {
-                csv.append("Mission;").append(m.getIdMission()).append(";")
-                        .append("\"").append(m.getLibelle().replace("\"", "\"\"")).append("\";")
-                        .append(m.getDateDebut()).append(";")
-                        .append(m.getDateFinPrevue()).append(";")
-                        .append(m.getStatut()).append("\n");
+                csv.writeRow("Mission", m.getIdMission(), m.getLibelle(), m.getDateDebut(), m.getDateFinPrevue(),
+                        m.getStatut());
             }
         } else {
-            csv.append("Mission;N/A;Aucune mission;N/A;N/A;N/A\n");
+            csv.writeRow("Mission", "N/A", "Aucune mission", "N/A", "N/A", "N/A");
         }
-        return csv.toString();
     }
 
-    private String formatBilanFlotteToCsv(BilanFlotteDTO bilan) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Indicateur;Valeur\n");
-        csv.append("Nombre total de vehicules;").append(bilan.getNombreTotalVehicules()).append("\n");
-        csv.append("Vehicules disponibles;").append(bilan.getNombreVehiculesDisponibles()).append("\n");
-        csv.append("Vehicules en mission;").append(bilan.getNombreVehiculesEnMission()).append("\n");
-        csv.append("Vehicules en entretien;").append(bilan.getNombreVehiculesEnEntretien()).append("\n");
-        // Ajouter d'autres indicateurs
-        return csv.toString();
+    private void ecrireBilanFlotteCsv(BilanFlotteDTO bilan, CsvWriter csv) throws IOException {
+        csv.writeRow("Indicateur", "Valeur");
+        csv.writeRow("Nombre total de vehicules", bilan.getNombreTotalVehicules());
+        csv.writeRow("Vehicules disponibles", bilan.getNombreVehiculesDisponibles());
+        csv.writeRow("Vehicules en mission", bilan.getNombreVehiculesEnMission());
+        csv.writeRow("Vehicules en entretien", bilan.getNombreVehiculesEnEntretien());
+        csv.writeRow("Vehicules hors service", bilan.getNombreVehiculesHorsService());
+        csv.writeRow("Kilometrage total", bilan.getKilometrageTotalFlotte());
+        csv.writeRow("Cout des entretiens du mois", bilan.getCoutTotalEntretiensMoisEnCours());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,325 @@
+package main.java.com.miage.parcauto.service.impl;
+
+import main.java.com.miage.parcauto.dao.DbUtil;
+import main.java.com.miage.parcauto.dao.ReservationRepository;
+import main.java.com.miage.parcauto.dao.impl.ReservationRepositoryImpl;
+import main.java.com.miage.parcauto.model.affectation.Affectation;
+import main.java.com.miage.parcauto.model.mission.Mission;
+import main.java.com.miage.parcauto.model.mission.StatutMission;
+import main.java.com.miage.parcauto.model.planning.Reservation;
+import main.java.com.miage.parcauto.model.planning.TypeReservation;
+import main.java.com.miage.parcauto.util.IntervalTree;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+/**
+ * Index en mémoire des périodes d'occupation (missions non clôturées et affectations),
+ * organisé en un arbre d'intervalles par véhicule.
+ * <p>
+ * L'index est chargé en une requête au premier usage puis tenu à jour par les services
+ * de missions et d'affectations après chaque validation de transaction. Comme d'autres
+ * postes peuvent écrire dans la base, il est rechargé au-delà de sa durée de validité ;
+ * les contrôles de conflit faits à l'écriture restent effectués en base, dans la transaction.
+ * <p>
+ * Le rechargement lit la base sans verrou sur l'index : les lectures continuent sur l'index
+ * précédent pendant ce temps, et les mises à jour reçues pendant la lecture sont rejouées sur
+ * le nouvel index avant qu'il ne le remplace.
+ */
+public final class ReservationIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(ReservationIndex.class.getName());
+    private static final ReservationIndex instance = new ReservationIndex(new ReservationRepositoryImpl());
+
+    /** Durée au-delà de laquelle l'index est rechargé depuis la base. */
+    private static final Duration DUREE_VALIDITE = Duration.ofMinutes(5);
+
+    private final ReservationRepository reservationRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock chargement = new ReentrantLock(); // Un seul rechargement à la fois
+    private Map<Integer, IntervalTree<String, Reservation>> arbresParVehicule = new HashMap<>();
+    private Map<String, Integer> vehiculeParCle = new HashMap<>();
+    // Mises à jour reçues pendant un rechargement (réservation, ou null pour un retrait), par clé
+    private Map<String, Reservation> journal;
+    private volatile LocalDateTime chargeLe;
+
+    ReservationIndex(ReservationRepository reservationRepository) {
+        this.reservationRepository = reservationRepository;
+    }
+
+    /**
+     * Obtient l'instance unique de l'index.
+     *
+     * @return L'instance de ReservationIndex
+     */
+    public static ReservationIndex getInstance() {
+        return instance;
+    }
+
+    /**
+     * Indique si un véhicule n'a aucune réservation chevauchant la période.
+     *
+     * @param idVehicule     L'identifiant du véhicule.
+     * @param debut          Le début de la période.
+     * @param fin            La fin de la période.
+     * @param typeIgnore     Le type de la réservation à ignorer (réservation en cours de modification), ou null.
+     * @param idIgnore       L'identifiant de la réservation à ignorer, ou null.
+     * @return true si le véhicule est libre.
+     * @throws SQLException si le chargement de l'index échoue.
+     */
+    public boolean isLibre(Integer idVehicule, LocalDateTime debut, LocalDateTime fin,
+                           TypeReservation typeIgnore, Integer idIgnore) throws SQLException {
+        ensureLoaded();
+        String cleIgnoree = typeIgnore != null && idIgnore != null ? Reservation.cle(typeIgnore, idIgnore) : null;
+        lock.readLock().lock();
+        try {
+            IntervalTree<String, Reservation> arbre = arbresParVehicule.get(idVehicule);
+            return arbre == null || !arbre.overlaps(debut, fin, r -> r.getCle().equals(cleIgnoree));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cherche le premier créneau libre d'une durée donnée pour un véhicule.
+     *
+     * @param idVehicule L'identifiant du véhicule.
+     * @param apres      L'instant à partir duquel chercher.
+     * @param duree      La durée requise.
+     * @param limite     L'instant au-delà duquel le créneau ne peut se terminer.
+     * @return le début du premier créneau libre, ou null s'il n'y en a pas avant la limite.
+     * @throws SQLException si le chargement de l'index échoue.
+     */
+    public LocalDateTime prochainCreneauLibre(Integer idVehicule, LocalDateTime apres, Duration duree,
+                                              LocalDateTime limite) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            IntervalTree<String, Reservation> arbre = arbresParVehicule.get(idVehicule);
+            if (arbre == null) {
+                return apres.plus(duree).isAfter(limite) ? null : apres;
+            }
+            return arbre.findFirstGap(apres, duree.toMinutes(), limite, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retourne les réservations d'un véhicule chevauchant la période, triées par début.
+     *
+     * @param idVehicule L'identifiant du véhicule.
+     * @param debut      Le début de la période.
+     * @param fin        La fin de la période.
+     * @return les réservations en chevauchement.
+     * @throws SQLException si le chargement de l'index échoue.
+     */
+    public List<Reservation> getReservations(Integer idVehicule, LocalDateTime debut, LocalDateTime fin) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            IntervalTree<String, Reservation> arbre = arbresParVehicule.get(idVehicule);
+            return arbre == null ? new ArrayList<>() : arbre.findOverlapping(debut, fin);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return les identifiants des véhicules ayant au moins une réservation indexée.
+     * @throws SQLException si le chargement de l'index échoue.
+     */
+    public Set<Integer> getVehiculesIndexes() throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return new TreeSet<>(arbresParVehicule.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Répercute l'état d'une mission validée en base : indexée si non clôturée, retirée sinon.
+     *
+     * @param mission La mission enregistrée.
+     */
+    public void enregistrerMission(Mission mission) {
+        if (mission == null || mission.getIdMission() == null) {
+            return;
+        }
+        if (mission.getStatut() == StatutMission.CLOTUREE || mission.getDateDebut() == null
+                || mission.getIdVehicule() == null) {
+            retirer(TypeReservation.MISSION, mission.getIdMission());
+        } else {
+            enregistrer(new Reservation(TypeReservation.MISSION, mission.getIdMission(), mission.getIdVehicule(),
+                    mission.getDateDebut(), mission.getDateFin()));
+        }
+    }
+
+    /**
+     * Répercute l'état d'une affectation validée en base.
+     *
+     * @param affectation L'affectation enregistrée.
+     */
+    public void enregistrerAffectation(Affectation affectation) {
+        if (affectation == null || affectation.getId() == null) {
+            return;
+        }
+        if (affectation.getDateDebut() == null || affectation.getIdVehicule() == null) {
+            retirer(TypeReservation.AFFECTATION, affectation.getId());
+        } else {
+            enregistrer(new Reservation(TypeReservation.AFFECTATION, affectation.getId(), affectation.getIdVehicule(),
+                    affectation.getDateDebut(), affectation.getDateFin()));
+        }
+    }
+
+    /**
+     * Retire une réservation de l'index (suppression ou clôture).
+     *
+     * @param type        Le type de réservation.
+     * @param idReference L'identifiant de la mission ou de l'affectation.
+     */
+    public void retirer(TypeReservation type, Integer idReference) {
+        String cle = Reservation.cle(type, idReference);
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                journal.put(cle, null);
+            }
+            if (chargeLe != null) {
+                retirerSansVerrou(cle);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Force le rechargement complet de l'index au prochain accès.
+     */
+    public void invalider() {
+        lock.writeLock().lock();
+        try {
+            chargeLe = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void enregistrer(Reservation reservation) {
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                journal.put(reservation.getCle(), reservation);
+            }
+            if (chargeLe == null) {
+                return; // Sera lue depuis la base au prochain chargement
+            }
+            retirerSansVerrou(reservation.getCle());
+            indexer(arbresParVehicule, vehiculeParCle, reservation);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void indexer(Map<Integer, IntervalTree<String, Reservation>> arbres, Map<String, Integer> cles,
+                                Reservation reservation) {
+        arbres.computeIfAbsent(reservation.getIdVehicule(), id -> new IntervalTree<>())
+                .put(reservation.getCle(), reservation.getDebut(), reservation.getFin(), reservation);
+        cles.put(reservation.getCle(), reservation.getIdVehicule());
+    }
+
+    private void retirerSansVerrou(String cle) {
+        Integer idVehicule = vehiculeParCle.remove(cle);
+        if (idVehicule != null) {
+            IntervalTree<String, Reservation> arbre = arbresParVehicule.get(idVehicule);
+            if (arbre != null) {
+                arbre.remove(cle);
+                if (arbre.isEmpty()) {
+                    arbresParVehicule.remove(idVehicule);
+                }
+            }
+        }
+    }
+
+    private boolean estAJour() {
+        LocalDateTime charge = chargeLe;
+        return charge != null && charge.plus(DUREE_VALIDITE).isAfter(LocalDateTime.now());
+    }
+
+    private void ensureLoaded() throws SQLException {
+        if (estAJour()) {
+            return;
+        }
+        if (!chargement.tryLock()) {
+            if (chargeLe != null) {
+                return; // Rechargement en cours ailleurs : lecture de l'index précédent
+            }
+            chargement.lock();
+        }
+        try {
+            if (estAJour()) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                journal = new LinkedHashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            List<Reservation> reservations;
+            Connection conn = null;
+            try {
+                conn = DbUtil.getConnection();
+                reservations = reservationRepository.findAllActives(conn);
+            } finally {
+                DbUtil.close(conn);
+            }
+            Map<Integer, IntervalTree<String, Reservation>> arbres = new HashMap<>();
+            Map<String, Integer> cles = new HashMap<>();
+            for (Reservation reservation : reservations) {
+                indexer(arbres, cles, reservation);
+            }
+
+            lock.writeLock().lock();
+            try {
+                arbresParVehicule = arbres;
+                vehiculeParCle = cles;
+                // Rejouées qu'elles soient ou non déjà dans la lecture : l'opération est idempotente
+                for (Map.Entry<String, Reservation> maj : journal.entrySet()) {
+                    retirerSansVerrou(maj.getKey());
+                    if (maj.getValue() != null) {
+                        indexer(arbresParVehicule, vehiculeParCle, maj.getValue());
+                    }
+                }
+                chargeLe = LocalDateTime.now();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            LOGGER.fine("Index de planning chargé: " + reservations.size() + " réservation(s) sur "
+                    + arbres.size() + " véhicule(s).");
+        } finally {
+            lock.writeLock().lock();
+            try {
+                journal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            chargement.unlock();
+        }
+    }
+}
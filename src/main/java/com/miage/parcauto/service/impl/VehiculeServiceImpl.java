@@ -3,48 +3,59 @@ package main.java.com.miage.parcauto.service.impl;
 import main.java.com.miage.parcauto.dao.*;
 import main.java.com.miage.parcauto.dao.impl.*;
 import main.java.com.miage.parcauto.dto.VehiculeDTO;
+import main.java.com.miage.parcauto.dto.VehiculeResumeDTO;
 import main.java.com.miage.parcauto.exception.*;
 import main.java.com.miage.parcauto.mapper.VehiculeMapper;
 import main.java.com.miage.parcauto.mapper.impl.VehiculeMapperImpl;
 import main.java.com.miage.parcauto.model.vehicule.Vehicule;
-import main.java.com.miage.parcauto.model.vehicule.EtatVoiture; // Pour l'ID de l'état "Disponible"
 import main.java.com.miage.parcauto.service.VehiculeService;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 public class VehiculeServiceImpl implements VehiculeService {
 
+    /** Libellé de l'état (table ETAT_VOITURE) d'un véhicule pouvant être réservé. */
+    public static final String LIBELLE_ETAT_DISPONIBLE = "Disponible";
+
     private final VehiculeRepository vehiculeRepository;
-    private final EtatVoitureRepository etatVoitureRepository;
+    private final ReferentielCache referentielCache;
     private final MissionRepository missionRepository; // Pour vérifier la disponibilité
     private final AffectationRepository affectationRepository; // Pour vérifier la disponibilité
     private final VehiculeMapper vehiculeMapper;
+    private final ProjectionEcheances projectionEcheances; // Échéances d'entretien
     // private final ValidationService validationService;
 
     public VehiculeServiceImpl() {
-        this.vehiculeRepository = new VehiculeRepositoryImpl();
-        this.etatVoitureRepository = new EtatVoitureRepositoryImpl();
+        this.vehiculeRepository = CachesEntites.vehicules(new VehiculeRepositoryImpl());
+        this.referentielCache = ReferentielCache.getInstance();
         this.missionRepository = new MissionRepositoryImpl();
         this.affectationRepository = new AffectationRepositoryImpl();
-        this.vehiculeMapper = new VehiculeMapperImpl(this.etatVoitureRepository); // Passe le repo pour le libellé
+        this.vehiculeMapper = new VehiculeMapperImpl(this.referentielCache); // Libellés d'état depuis le cache
+        this.projectionEcheances = new ProjectionEcheances();
         // this.validationService = new ValidationServiceImpl();
     }
 
     // Constructeur pour injection de dépendances (tests ou futur DI framework)
-    public VehiculeServiceImpl(VehiculeRepository vehiculeRepository, EtatVoitureRepository etatVoitureRepository,
+    public VehiculeServiceImpl(VehiculeRepository vehiculeRepository, ReferentielCache referentielCache,
                                MissionRepository missionRepository, AffectationRepository affectationRepository,
                                VehiculeMapper vehiculeMapper) {
+        this(vehiculeRepository, referentielCache, missionRepository, affectationRepository, vehiculeMapper,
+                new EcheanceEntretienRepositoryImpl());
+    }
+
+    public VehiculeServiceImpl(VehiculeRepository vehiculeRepository, ReferentielCache referentielCache,
+                               MissionRepository missionRepository, AffectationRepository affectationRepository,
+                               VehiculeMapper vehiculeMapper, EcheanceEntretienRepository echeanceRepository) {
         this.vehiculeRepository = vehiculeRepository;
-        this.etatVoitureRepository = etatVoitureRepository;
+        this.referentielCache = referentielCache;
         this.missionRepository = missionRepository;
         this.affectationRepository = affectationRepository;
         this.vehiculeMapper = vehiculeMapper;
+        this.projectionEcheances = new ProjectionEcheances(echeanceRepository);
     }
 
 
@@ -71,7 +82,7 @@ public class VehiculeServiceImpl implements VehiculeService {
             if (vehiculeRepository.findByNumeroChassis(conn, vehiculeDTO.getNumeroChassis()).isPresent()) {
                 throw new DuplicateEntityException("Un véhicule avec le numéro de châssis '" + vehiculeDTO.getNumeroChassis() + "' existe déjà.");
             }
-            if (etatVoitureRepository.findById(conn, vehiculeDTO.getIdEtatVoiture()).isEmpty()){
+            if (!referentielCache.get(conn).contientEtatVoiture(vehiculeDTO.getIdEtatVoiture())){
                 throw new ValidationException("L'état de voiture spécifié avec l'ID " + vehiculeDTO.getIdEtatVoiture() + " n'existe pas.");
             }
 
@@ -119,6 +130,23 @@ public class VehiculeServiceImpl implements VehiculeService {
         }
     }
 
+    @Override
+    public PageCurseur<VehiculeResumeDTO> getPageVehicules(String jeton, int taille, TriCurseur tri) throws OperationFailedException {
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            PageCurseur<VehiculeResumeDTO> page = vehiculeRepository.findResumesAfter(conn, jeton, taille, tri);
+            ReferentielCache.Referentiel referentiel = referentielCache.get(conn);
+            page.getElements().forEach(resume ->
+                    resume.setLibelleEtatVoiture(referentiel.getLibelleEtatVoiture(resume.getIdEtatVoiture())));
+            return page;
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors de la récupération de la liste des véhicules.", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
     @Override
     public VehiculeDTO updateVehicule(VehiculeDTO vehiculeDTO) throws ValidationException, VehiculeNotFoundException, DuplicateEntityException, OperationFailedException {
         // validationService.validateVehicule(vehiculeDTO);
@@ -155,7 +183,7 @@ public class VehiculeServiceImpl implements VehiculeService {
 
             // Mettre à jour les autres champs
             if (vehiculeDTO.getIdEtatVoiture() != null) {
-                if (etatVoitureRepository.findById(conn, vehiculeDTO.getIdEtatVoiture()).isEmpty()){
+                if (!referentielCache.get(conn).contientEtatVoiture(vehiculeDTO.getIdEtatVoiture())){
                     throw new ValidationException("L'état de voiture spécifié avec l'ID " + vehiculeDTO.getIdEtatVoiture() + " n'existe pas.");
                 }
                 if(!existingVehicule.getIdEtatVoiture().equals(vehiculeDTO.getIdEtatVoiture())){
@@ -246,6 +274,7 @@ public class VehiculeServiceImpl implements VehiculeService {
             // vehicule.setDateEtat(LocalDateTime.now()); // Optionnel: mettre à jour la date de l'état si le km change l'état implicitement
 
             vehiculeRepository.update(conn, vehicule); // S'assurer que updateKilometrage existe ou que update gère bien ce cas
+            projectionEcheances.actualiser(conn, List.of(idVehicule));
             conn.commit();
         } catch (SQLException e) {
             DbUtil.rollback(conn);
@@ -260,30 +289,8 @@ public class VehiculeServiceImpl implements VehiculeService {
         Connection conn = null;
         try {
             conn = DbUtil.getConnection();
-            // 1. Récupérer tous les véhicules potentiellement disponibles (état "Disponible")
-            // L'ID pour "Disponible" doit être connu. Supposons que c'est 1.
-            // Il serait mieux de récupérer l'ID de l'état "Disponible" dynamiquement.
-            Optional<EtatVoiture> etatDisponibleOpt = etatVoitureRepository.findByLibelle(conn, "Disponible");
-            if (etatDisponibleOpt.isEmpty()) {
-                return Collections.emptyList(); // Ou lever une exception si l'état "Disponible" est critique
-            }
-            Integer idEtatDisponible = etatDisponibleOpt.get().getIdEtatVoiture();
-
-            List<Vehicule> vehiculesAvecEtatOk = vehiculeRepository.findByEtatId(conn, idEtatDisponible);
-
-            // 2. Filtrer ceux qui n'ont pas de missions ou affectations conflictuelles
-            List<Vehicule> vehiculesDisponibles = vehiculesAvecEtatOk.stream().filter(v -> {
-                try {
-                    boolean aMissionConflictuelle = !missionRepository.findOverlappingMissionsForVehicule(conn, v.getIdVehicule(), dateDebut, dateFin).isEmpty();
-                    boolean aAffectationConflictuelle = !affectationRepository.findOverlappingAffectationsForVehicule(conn, v.getIdVehicule(), dateDebut, dateFin).isEmpty();
-                    return !aMissionConflictuelle && !aAffectationConflictuelle;
-                } catch (SQLException e) {
-                    // Logguer l'erreur, mais continuer pour ne pas bloquer toute la liste
-                    System.err.println("Erreur lors de la vérification de disponibilité pour véhicule " + v.getIdVehicule() + ": " + e.getMessage());
-                    return false; // Exclure en cas d'erreur
-                }
-            }).collect(Collectors.toList());
-
+            // Une seule requête : état "Disponible" et aucune mission/affectation chevauchant la période
+            List<Vehicule> vehiculesDisponibles = vehiculeRepository.findDisponibles(conn, LIBELLE_ETAT_DISPONIBLE, dateDebut, dateFin);
             return vehiculeMapper.toDTOList(vehiculesDisponibles);
         } catch (SQLException e) {
             throw new OperationFailedException("Erreur technique lors de la récupération des véhicules disponibles.", e);
@@ -292,26 +299,33 @@ public class VehiculeServiceImpl implements VehiculeService {
         }
     }
 
+    @Override
+    public boolean isVehiculeDisponible(Integer idVehicule, LocalDateTime dateDebut, LocalDateTime dateFin) throws OperationFailedException {
+        Connection conn = null;
+        try {
+            conn = DbUtil.getConnection();
+            return vehiculeRepository.isDisponible(conn, idVehicule, LIBELLE_ETAT_DISPONIBLE, dateDebut, dateFin, null);
+        } catch (SQLException e) {
+            throw new OperationFailedException("Erreur technique lors de la vérification de disponibilité du véhicule " + idVehicule + ".", e);
+        } finally {
+            DbUtil.close(conn);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Lit les échéances projetées (ECHEANCE_ENTRETIEN) avec les marges du moteur d'alertes
+     * ({@link RegleEntretien}) : véhicules proches du seuil kilométrique ou de la date du
+     * prochain entretien.
+     */
     @Override
     public List<VehiculeDTO> getVehiculesRequerantMaintenance() throws OperationFailedException {
         Connection conn = null;
         try {
             conn = DbUtil.getConnection();
-            // Cette logique dépendra de vos critères exacts (ex: kmThreshold, date prochain entretien)
-            // Supposons une méthode simple dans VehiculeRepository pour l'instant
-            // Par exemple, se baser sur un kmThreshold (ex: tous les 10000km depuis dernier entretien)
-            // ou une date de prochain entretien prévisionnel.
-            // Pour l'instant, nous allons retourner une liste vide car la logique est complexe et non définie.
-            // List<Vehicule> vehicules = vehiculeRepository.findRequiringMaintenance(conn, SOME_KM_THRESHOLD);
-            // return vehiculeMapper.toDTOList(vehicules);
-            // Pour un exemple plus concret, si vous aviez un champ `km_prochain_entretien` dans VEHICULES:
-            // List<Vehicule> vehicules = vehiculeRepository.findAll(conn).stream()
-            //    .filter(v -> v.getKmProchainEntretien() != null && v.getKmActuels() >= v.getKmProchainEntretien())
-            //    .collect(Collectors.toList());
-            // return vehiculeMapper.toDTOList(vehicules);
-
-            // Pour l'instant, implémentation basique, à affiner selon les règles métier exactes
-            return Collections.emptyList();
+            return vehiculeMapper.toDTOList(vehiculeRepository.findRequiringMaintenance(conn, RegleEntretien.MARGE_KM,
+                    LocalDateTime.now().plusDays(RegleEntretien.MARGE_JOURS)));
         } catch (SQLException e) {
             throw new OperationFailedException("Erreur technique lors de la récupération des véhicules nécessitant maintenance.", e);
         } finally {
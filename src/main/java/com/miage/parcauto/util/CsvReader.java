@@ -0,0 +1,127 @@
+package main.java.com.miage.parcauto.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecture CSV en flux, enregistrement par enregistrement, symétrique de {@link CsvWriter}.
+ * <p>
+ * Les champs entre guillemets peuvent contenir le séparateur, des retours à la ligne et des
+ * guillemets doublés (RFC 4180). Les fins de ligne CRLF, LF et CR sont acceptées et un
+ * indicateur d'ordre des octets UTF-8 en tête de fichier est ignoré. Le flux sous-jacent
+ * n'est pas fermé par le lecteur : il reste à la charge de l'appelant.
+ */
+public class CsvReader {
+
+    private static final int TAILLE_TAMPON = 64 * 1024;
+
+    private final Reader reader;
+    private final char separateur;
+    private final char[] tampon = new char[TAILLE_TAMPON];
+    private final StringBuilder champ = new StringBuilder();
+    private final List<String> champs = new ArrayList<>();
+    private int position;
+    private int limite;
+    private long enregistrementsLus;
+
+    /**
+     * Crée un lecteur CSV UTF-8 avec le séparateur par défaut.
+     *
+     * @param in Le flux source.
+     */
+    public CsvReader(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8), CsvWriter.SEPARATEUR_DEFAUT);
+    }
+
+    /**
+     * Crée un lecteur CSV.
+     *
+     * @param reader     La source de caractères.
+     * @param separateur Le séparateur de champs.
+     */
+    public CsvReader(Reader reader, char separateur) {
+        this.reader = reader;
+        this.separateur = separateur;
+    }
+
+    /**
+     * Lit l'enregistrement suivant. Une ligne vide produit un enregistrement d'un seul champ vide.
+     *
+     * @return Les champs de l'enregistrement, ou null en fin de flux.
+     * @throws IOException Si la lecture échoue ou si un champ entre guillemets n'est pas fermé.
+     */
+    public String[] readRow() throws IOException {
+        int c = lire();
+        if (c == -1) {
+            return null;
+        }
+        if (enregistrementsLus == 0 && c == '\uFEFF') {
+            c = lire();
+            if (c == -1) {
+                return null;
+            }
+        }
+        champs.clear();
+        champ.setLength(0);
+        boolean entreGuillemets = false;
+        boolean champEntoure = false;
+        while (true) {
+            if (entreGuillemets) {
+                if (c == -1) {
+                    throw new IOException("Guillemet non fermé dans l'enregistrement " + (enregistrementsLus + 1));
+                }
+                if (c == '"') {
+                    int suivant = lire();
+                    if (suivant != '"') { // Fin du champ entre guillemets
+                        entreGuillemets = false;
+                        c = suivant;
+                        continue;
+                    }
+                }
+                champ.append((char) c);
+            } else if (c == '"' && champ.length() == 0 && !champEntoure) {
+                entreGuillemets = true;
+                champEntoure = true;
+            } else if (c == separateur) {
+                champs.add(champ.toString());
+                champ.setLength(0);
+                champEntoure = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && lire() != '\n' && limite > 0) {
+                    position--; // Fin de ligne CR seule : le caractère lu appartient à l'enregistrement suivant
+                }
+                break;
+            } else {
+                champ.append((char) c);
+            }
+            c = lire();
+        }
+        champs.add(champ.toString());
+        enregistrementsLus++;
+        return champs.toArray(new String[0]);
+    }
+
+    /**
+     * @return Le nombre d'enregistrements lus depuis la création (en-tête compris).
+     */
+    public long getEnregistrementsLus() {
+        return enregistrementsLus;
+    }
+
+    private int lire() throws IOException {
+        if (position == limite) {
+            int lus = reader.read(tampon, 0, tampon.length);
+            position = 0;
+            limite = Math.max(lus, 0);
+            if (lus <= 0) {
+                return -1;
+            }
+        }
+        return tampon[position++];
+    }
+}
@@ -0,0 +1,182 @@
+package main.java.com.miage.parcauto.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Écriture CSV en flux, ligne par ligne, sans conserver le document en mémoire.
+ * <p>
+ * Un champ est entouré de guillemets s'il contient le séparateur, un guillemet, un retour
+ * à la ligne ou des espaces en bordure ; les guillemets internes sont doublés (RFC 4180).
+ * Les lignes sont terminées par CRLF. Le flux sous-jacent n'est pas fermé par
+ * {@link #close()}, qui se contente de vider le tampon : il reste à la charge de l'appelant.
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    /** Séparateur attendu par Excel en configuration française. */
+    public static final char SEPARATEUR_DEFAUT = ';';
+
+    private static final String FIN_LIGNE = "\r\n";
+    private static final int TAILLE_TAMPON = 64 * 1024;
+
+    private final Writer writer;
+    private final char separateur;
+    private long lignesEcrites;
+
+    /**
+     * Crée un écrivain CSV UTF-8 avec le séparateur par défaut.
+     *
+     * @param out Le flux de destination.
+     */
+    public CsvWriter(OutputStream out) {
+        this(out, SEPARATEUR_DEFAUT, false);
+    }
+
+    /**
+     * Crée un écrivain CSV UTF-8.
+     *
+     * @param out        Le flux de destination.
+     * @param separateur Le séparateur de champs.
+     * @param avecBom    true pour écrire l'indicateur d'ordre des octets UTF-8 (détection de l'encodage par Excel).
+     */
+    public CsvWriter(OutputStream out, char separateur, boolean avecBom) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(new NonClosingOutputStream(out), StandardCharsets.UTF_8),
+                TAILLE_TAMPON);
+        this.separateur = separateur;
+        if (avecBom) {
+            try {
+                writer.write('\uFEFF');
+            } catch (IOException e) {
+                throw new IllegalStateException(e); // Ne peut pas échouer : écriture dans le tampon
+            }
+        }
+    }
+
+    /**
+     * Écrit une ligne à partir des valeurs fournies.
+     *
+     * @param valeurs Les valeurs de la ligne (null produit un champ vide).
+     * @throws IOException Si l'écriture échoue.
+     */
+    public void writeRow(Object... valeurs) throws IOException {
+        for (int i = 0; i < valeurs.length; i++) {
+            if (i > 0) {
+                writer.write(separateur);
+            }
+            writeField(formater(valeurs[i]));
+        }
+        writer.write(FIN_LIGNE);
+        lignesEcrites++;
+    }
+
+    /**
+     * Écrit une ligne vide (séparation de sections).
+     *
+     * @throws IOException Si l'écriture échoue.
+     */
+    public void writeEmptyLine() throws IOException {
+        writer.write(FIN_LIGNE);
+        lignesEcrites++;
+    }
+
+    /**
+     * Écrit l'en-tête (libellés des colonnes) puis chaque ligne d'un curseur, au fil de
+     * sa lecture. Le curseur est parcouru jusqu'à la fin mais n'est pas fermé.
+     *
+     * @param rs Le curseur, positionné avant la première ligne.
+     * @return Le nombre de lignes de données écrites.
+     * @throws SQLException Si la lecture du curseur échoue.
+     * @throws IOException  Si l'écriture échoue.
+     */
+    public long writeResultSet(ResultSet rs) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int colonnes = meta.getColumnCount();
+        Object[] ligne = new Object[colonnes];
+        for (int i = 0; i < colonnes; i++) {
+            ligne[i] = meta.getColumnLabel(i + 1);
+        }
+        writeRow(ligne);
+        long lignes = 0;
+        while (rs.next()) {
+            for (int i = 0; i < colonnes; i++) {
+                ligne[i] = rs.getObject(i + 1);
+            }
+            writeRow(ligne);
+            lignes++;
+        }
+        return lignes;
+    }
+
+    /**
+     * @return Le nombre de lignes écrites depuis la création (en-têtes et lignes vides compris).
+     */
+    public long getLignesEcrites() {
+        return lignesEcrites;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close(); // Vide le tampon ; le flux de l'appelant reste ouvert
+    }
+
+    private String formater(Object valeur) {
+        if (valeur == null) {
+            return "";
+        }
+        if (valeur instanceof BigDecimal) {
+            return ((BigDecimal) valeur).toPlainString();
+        }
+        if (valeur instanceof Timestamp) {
+            return ((Timestamp) valeur).toLocalDateTime().toString();
+        }
+        return valeur.toString();
+    }
+
+    private void writeField(String champ) throws IOException {
+        if (!doitEtreEntoure(champ)) {
+            writer.write(champ);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < champ.length(); i++) {
+            char c = champ.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private boolean doitEtreEntoure(String champ) {
+        if (champ.isEmpty()) {
+            return false;
+        }
+        if (Character.isWhitespace(champ.charAt(0)) || Character.isWhitespace(champ.charAt(champ.length() - 1))) {
+            return true;
+        }
+        for (int i = 0; i < champ.length(); i++) {
+            char c = champ.charAt(i);
+            if (c == separateur || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
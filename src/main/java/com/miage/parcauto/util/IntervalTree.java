@@ -0,0 +1,279 @@
+package main.java.com.miage.parcauto.util;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Arbre d'intervalles augmenté (AVL) sur des périodes {@code [debut, fin]} bornes incluses.
+ * Chaque nœud mémorise la fin maximale de son sous-arbre, ce qui permet de répondre aux
+ * recherches de chevauchement en O(log n + k). Les intervalles sont identifiés par une clé
+ * unique, ce qui autorise le remplacement et la suppression ciblée.
+ * <p>
+ * Cette classe n'est pas synchronisée.
+ *
+ * @param <K> Le type de la clé identifiant un intervalle.
+ * @param <V> Le type de la valeur associée.
+ */
+public class IntervalTree<K extends Comparable<? super K>, V> {
+
+    private Node<K, V> root;
+    private final Map<K, LocalDateTime> debutParCle = new HashMap<>();
+
+    /**
+     * Ajoute ou remplace l'intervalle associé à une clé.
+     *
+     * @param key   La clé unique de l'intervalle.
+     * @param debut Le début de l'intervalle.
+     * @param fin   La fin de l'intervalle (postérieure ou égale au début).
+     * @param value La valeur associée.
+     */
+    public void put(K key, LocalDateTime debut, LocalDateTime fin, V value) {
+        if (debut == null || fin == null || fin.isBefore(debut)) {
+            throw new IllegalArgumentException("Intervalle invalide: [" + debut + ", " + fin + "]");
+        }
+        remove(key);
+        root = insert(root, new Node<>(key, debut, fin, value));
+        debutParCle.put(key, debut);
+    }
+
+    /**
+     * Supprime l'intervalle associé à une clé.
+     *
+     * @param key La clé de l'intervalle.
+     * @return true si un intervalle a été supprimé.
+     */
+    public boolean remove(K key) {
+        LocalDateTime debut = debutParCle.remove(key);
+        if (debut == null) {
+            return false;
+        }
+        root = delete(root, debut, key);
+        return true;
+    }
+
+    /**
+     * @return le nombre d'intervalles de l'arbre.
+     */
+    public int size() {
+        return debutParCle.size();
+    }
+
+    /**
+     * @return true si l'arbre ne contient aucun intervalle.
+     */
+    public boolean isEmpty() {
+        return debutParCle.isEmpty();
+    }
+
+    /**
+     * Indique si au moins un intervalle chevauche la période, en ignorant ceux qui
+     * satisfont le prédicat d'exclusion.
+     *
+     * @param debut    Le début de la période.
+     * @param fin      La fin de la période.
+     * @param ignorer  Les valeurs à ignorer (peut être null).
+     * @return true si un chevauchement existe.
+     */
+    public boolean overlaps(LocalDateTime debut, LocalDateTime fin, Predicate<V> ignorer) {
+        return anyOverlap(root, debut, fin, ignorer);
+    }
+
+    /**
+     * Retourne les valeurs dont l'intervalle chevauche la période, triées par date de début.
+     *
+     * @param debut Le début de la période.
+     * @param fin   La fin de la période.
+     * @return les valeurs en chevauchement.
+     */
+    public List<V> findOverlapping(LocalDateTime debut, LocalDateTime fin) {
+        List<V> resultat = new ArrayList<>();
+        collectOverlapping(root, debut, fin, resultat);
+        return resultat;
+    }
+
+    /**
+     * Cherche le premier instant, à partir de {@code apres}, d'où démarre une plage libre
+     * d'au moins {@code dureeMinutes} minutes, sans dépasser {@code limite} (précision à la minute).
+     *
+     * @param apres        L'instant à partir duquel chercher.
+     * @param dureeMinutes La durée requise, en minutes.
+     * @param limite       La borne au-delà de laquelle la plage ne peut se terminer.
+     * @param ignorer      Les valeurs à ignorer (peut être null).
+     * @return le début de la première plage libre, ou null si aucune avant la limite.
+     */
+    public LocalDateTime findFirstGap(LocalDateTime apres, long dureeMinutes, LocalDateTime limite, Predicate<V> ignorer) {
+        // Parcours infixe (ordre des débuts) limité aux sous-arbres finissant après « apres »,
+        // interrompu dès la première plage libre : O(log n + k) pour k réservations franchies.
+        Deque<Node<K, V>> pile = new ArrayDeque<>();
+        Node<K, V> courant = root;
+        LocalDateTime candidat = apres;
+        while (courant != null || !pile.isEmpty()) {
+            while (courant != null && !courant.maxFin.isBefore(apres)) {
+                pile.push(courant);
+                courant = courant.left;
+            }
+            if (pile.isEmpty()) {
+                break;
+            }
+            Node<K, V> node = pile.pop();
+            courant = node.right;
+            if (node.fin.isBefore(candidat) || (ignorer != null && ignorer.test(node.value))) {
+                continue;
+            }
+            if (candidat.plusMinutes(dureeMinutes).isBefore(node.debut)) {
+                break;
+            }
+            candidat = node.fin.plusMinutes(1); // Bornes incluses : la plage libre débute la minute suivante
+        }
+        return candidat.plusMinutes(dureeMinutes).isAfter(limite) ? null : candidat;
+    }
+
+    private boolean anyOverlap(Node<K, V> node, LocalDateTime debut, LocalDateTime fin, Predicate<V> ignorer) {
+        if (node == null || node.maxFin.isBefore(debut)) {
+            return false;
+        }
+        if (!node.debut.isAfter(fin) && !node.fin.isBefore(debut)
+                && (ignorer == null || !ignorer.test(node.value))) {
+            return true;
+        }
+        if (anyOverlap(node.left, debut, fin, ignorer)) {
+            return true;
+        }
+        return !node.debut.isAfter(fin) && anyOverlap(node.right, debut, fin, ignorer);
+    }
+
+    private void collectOverlapping(Node<K, V> node, LocalDateTime debut, LocalDateTime fin, List<V> resultat) {
+        if (node == null || node.maxFin.isBefore(debut)) {
+            return;
+        }
+        collectOverlapping(node.left, debut, fin, resultat);
+        if (!node.debut.isAfter(fin)) {
+            if (!node.fin.isBefore(debut)) {
+                resultat.add(node.value);
+            }
+            collectOverlapping(node.right, debut, fin, resultat);
+        }
+    }
+
+    private int compare(LocalDateTime debut, K key, Node<K, V> node) {
+        int c = debut.compareTo(node.debut);
+        return c != 0 ? c : key.compareTo(node.key);
+    }
+
+    private Node<K, V> insert(Node<K, V> node, Node<K, V> nouveau) {
+        if (node == null) {
+            return nouveau;
+        }
+        if (compare(nouveau.debut, nouveau.key, node) < 0) {
+            node.left = insert(node.left, nouveau);
+        } else {
+            node.right = insert(node.right, nouveau);
+        }
+        return rebalance(node);
+    }
+
+    private Node<K, V> delete(Node<K, V> node, LocalDateTime debut, K key) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(debut, key, node);
+        if (c < 0) {
+            node.left = delete(node.left, debut, key);
+        } else if (c > 0) {
+            node.right = delete(node.right, debut, key);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<K, V> successeur = node.right;
+            while (successeur.left != null) {
+                successeur = successeur.left;
+            }
+            Node<K, V> droite = delete(node.right, successeur.debut, successeur.key);
+            successeur.left = node.left;
+            successeur.right = droite;
+            node = successeur;
+        }
+        return rebalance(node);
+    }
+
+    private Node<K, V> rebalance(Node<K, V> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<K, V> rotateRight(Node<K, V> node) {
+        Node<K, V> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<K, V> rotateLeft(Node<K, V> node) {
+        Node<K, V> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Node<K, V> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime max = node.fin;
+        if (node.left != null && node.left.maxFin.isAfter(max)) {
+            max = node.left.maxFin;
+        }
+        if (node.right != null && node.right.maxFin.isAfter(max)) {
+            max = node.right.maxFin;
+        }
+        node.maxFin = max;
+    }
+
+    private int height(Node<K, V> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final LocalDateTime debut;
+        private final LocalDateTime fin;
+        private final V value;
+        private LocalDateTime maxFin;
+        private int height = 1;
+        private Node<K, V> left;
+        private Node<K, V> right;
+
+        private Node(K key, LocalDateTime debut, LocalDateTime fin, V value) {
+            this.key = key;
+            this.debut = debut;
+            this.fin = fin;
+            this.value = value;
+            this.maxFin = fin;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package main.java.com.miage.parcauto.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Protège le flux de l'appelant contre la fermeture en cascade des flux qui l'enveloppent :
+ * {@link #close()} se contente de vider le flux délégué.
+ */
+final class NonClosingOutputStream extends OutputStream {
+
+    private final OutputStream delegue;
+
+    NonClosingOutputStream(OutputStream delegue) {
+        this.delegue = delegue;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        delegue.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        delegue.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        delegue.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegue.flush();
+    }
+}
@@ -0,0 +1,691 @@
+package main.java.com.miage.parcauto.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Écriture de documents PDF 1.4 en flux, sans bibliothèque externe ni environnement graphique.
+ * <p>
+ * Le document est composé de haut en bas : titres, paragraphes, paires clé/valeur, tableaux
+ * et graphiques en courbe, avec saut de page automatique (l'en-tête d'un tableau est répété
+ * sur chaque page). Chaque page est écrite et vidée dans le flux dès qu'elle est terminée ;
+ * seules les positions des objets, nécessaires à la table de références croisées finale,
+ * sont conservées. La mémoire consommée ne dépend donc pas du nombre de pages.
+ * <p>
+ * Les polices standard Helvetica et Helvetica-Bold sont utilisées avec l'encodage
+ * WinAnsi (les caractères accentués français sont pris en charge, les autres sont remplacés
+ * par « ? »). Le flux sous-jacent n'est pas fermé par {@link #close()}, qui termine le document.
+ * <p>
+ * Cette classe n'est pas synchronisée.
+ */
+public class PdfWriter implements Closeable {
+
+    // Format A4 portrait, en points
+    private static final float LARGEUR_PAGE = 595.28f;
+    private static final float HAUTEUR_PAGE = 841.89f;
+    private static final float MARGE = 50f;
+    private static final float HAUTEUR_PIED = 24f;
+    private static final float LARGEUR_UTILE = LARGEUR_PAGE - 2 * MARGE;
+
+    private static final float TAILLE_TITRE = 16f;
+    private static final float TAILLE_SECTION = 12.5f;
+    private static final float TAILLE_TEXTE = 10f;
+    private static final float TAILLE_TABLEAU = 8.5f;
+    private static final float TAILLE_PIED = 8f;
+    private static final float HAUTEUR_LIGNE_TABLEAU = TAILLE_TABLEAU * 1.9f;
+    private static final float RETRAIT_CELLULE = 3f;
+
+    private static final int OBJ_CATALOGUE = 1;
+    private static final int OBJ_PAGES = 2;
+    private static final int OBJ_POLICE = 3;
+    private static final int OBJ_POLICE_GRAS = 4;
+
+    private static final Charset WIN_ANSI = Charset.forName("windows-1252");
+    private static final DateTimeFormatter FORMAT_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter FORMAT_DATE_HEURE = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final String POINTS_SUSPENSION = "…";
+
+    private final CompteurOctets out;
+    private final String titreDocument;
+    private final StringBuilder contenu = new StringBuilder(8 * 1024);
+    private final List<Integer> pages = new ArrayList<>();
+    private long[] positions = new long[64];
+    private int prochainObjet = OBJ_POLICE_GRAS + 1;
+    private boolean pageOuverte;
+    private boolean termine;
+    private float y;
+
+    private String[] entetesTableau;
+    private float[] largeursColonnes;
+    private int lignesTableau;
+
+    /**
+     * Commence un document PDF écrit dans le flux fourni.
+     *
+     * @param out   Le flux de destination.
+     * @param titre Le titre du document (métadonnées et pied de page).
+     * @throws IOException Si l'écriture de l'en-tête échoue.
+     */
+    public PdfWriter(OutputStream out, String titre) throws IOException {
+        this.out = new CompteurOctets(new BufferedOutputStream(new NonClosingOutputStream(out), 64 * 1024));
+        this.titreDocument = titre != null ? titre : "";
+        // Le commentaire binaire signale aux outils de transfert que le fichier n'est pas du texte
+        this.out.write("%PDF-1.4\n%âãÏÓ\n".getBytes(StandardCharsets.ISO_8859_1));
+        ecrireObjet(OBJ_POLICE, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>");
+        ecrireObjet(OBJ_POLICE_GRAS, "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>");
+    }
+
+    /**
+     * Écrit le titre principal.
+     *
+     * @param texte Le titre.
+     * @throws IOException Si l'écriture d'une page échoue.
+     */
+    public void title(String texte) throws IOException {
+        reserver(TAILLE_TITRE * 1.8f);
+        texte(MARGE, y - TAILLE_TITRE, true, TAILLE_TITRE, tronquer(texte, LARGEUR_UTILE, true, TAILLE_TITRE));
+        y -= TAILLE_TITRE * 1.8f;
+    }
+
+    /**
+     * Écrit un titre de section, souligné.
+     *
+     * @param texte Le titre de la section.
+     * @throws IOException Si l'écriture d'une page échoue.
+     */
+    public void heading(String texte) throws IOException {
+        // La section et au moins quelques lignes de contenu doivent tenir sur la page
+        reserver(TAILLE_SECTION * 2.2f + HAUTEUR_LIGNE_TABLEAU * 3);
+        y -= TAILLE_SECTION * 0.6f;
+        texte(MARGE, y - TAILLE_SECTION, true, TAILLE_SECTION, tronquer(texte, LARGEUR_UTILE, true, TAILLE_SECTION));
+        y -= TAILLE_SECTION * 1.3f;
+        contenu.append("0.5 w 0.6 G ");
+        trait(MARGE, y, LARGEUR_PAGE - MARGE, y);
+        contenu.append("0 G\n");
+        y -= TAILLE_SECTION * 0.3f;
+    }
+
+    /**
+     * Écrit un paragraphe, avec retour à la ligne automatique sur la largeur de la page.
+     *
+     * @param texte Le texte (les sauts de ligne sont respectés).
+     * @throws IOException Si l'écriture d'une page échoue.
+     */
+    public void paragraph(String texte) throws IOException {
+        float interligne = TAILLE_TEXTE * 1.4f;
+        for (String ligne : couper(texte != null ? texte : "", LARGEUR_UTILE, false, TAILLE_TEXTE)) {
+            reserver(interligne);
+            texte(MARGE, y - TAILLE_TEXTE, false, TAILLE_TEXTE, ligne);
+            y -= interligne;
+        }
+    }
+
+    /**
+     * Écrit une paire libellé (en gras) / valeur.
+     *
+     * @param cle    Le libellé.
+     * @param valeur La valeur.
+     * @throws IOException Si l'écriture d'une page échoue.
+     */
+    public void keyValue(String cle, Object valeur) throws IOException {
+        float interligne = TAILLE_TEXTE * 1.4f;
+        float colonne = 160f;
+        reserver(interligne);
+        texte(MARGE, y - TAILLE_TEXTE, true, TAILLE_TEXTE, tronquer(cle, colonne - 8, true, TAILLE_TEXTE));
+        texte(MARGE + colonne, y - TAILLE_TEXTE, false, TAILLE_TEXTE,
+                tronquer(formater(valeur), LARGEUR_UTILE - colonne, false, TAILLE_TEXTE));
+        y -= interligne;
+    }
+
+    /**
+     * Ajoute un espace vertical.
+     *
+     * @param hauteur La hauteur, en points.
+     * @throws IOException Si l'écriture d'une page échoue.
+     */
+    public void spacer(float hauteur) throws IOException {
+        ouvrirPageSiNecessaire();
+        y -= Math.min(hauteur, y - MARGE - HAUTEUR_PIED);
+    }
+
+    /**
+     * Termine la page en cours ; le contenu suivant commencera sur une nouvelle page.
+     *
+     * @throws IOException Si l'écriture de la page échoue.
+     */
+    public void newPage() throws IOException {
+        if (pageOuverte) {
+            fermerPage();
+        }
+    }
+
+    /**
+     * Commence un tableau. Les lignes sont écrites par {@link #tableRow(Object...)} ; l'en-tête
+     * est répété en haut de chaque nouvelle page jusqu'à {@link #endTable()}.
+     *
+     * @param entetes Les libellés des colonnes.
+     * @param poids   Les largeurs relatives des colonnes (colonnes égales si absent).
+     * @throws IOException Si l'écriture d'une page échoue.
+     */
+    public void startTable(String[] entetes, float... poids) throws IOException {
+        float[] p = poids.length == entetes.length ? poids : remplir(entetes.length);
+        float total = 0;
+        for (float v : p) {
+            total += v;
+        }
+        largeursColonnes = new float[entetes.length];
+        for (int i = 0; i < entetes.length; i++) {
+            largeursColonnes[i] = LARGEUR_UTILE * p[i] / total;
+        }
+        reserver(HAUTEUR_LIGNE_TABLEAU * 2);
+        entetesTableau = entetes.clone();
+        lignesTableau = 0;
+        ecrireEnteteTableau();
+    }
+
+    /**
+     * Écrit une ligne du tableau en cours. Les nombres sont alignés à droite ; les valeurs
+     * trop longues sont tronquées.
+     *
+     * @param valeurs Les valeurs de la ligne.
+     * @throws IOException Si l'écriture d'une page échoue.
+     */
+    public void tableRow(Object... valeurs) throws IOException {
+        if (entetesTableau == null) {
+            throw new IllegalStateException("Aucun tableau en cours : appeler startTable avant d'écrire des lignes.");
+        }
+        reserver(HAUTEUR_LIGNE_TABLEAU);
+        if (lignesTableau++ % 2 == 1) {
+            contenu.append("0.96 g ");
+            rectangle(MARGE, y - HAUTEUR_LIGNE_TABLEAU, LARGEUR_UTILE, HAUTEUR_LIGNE_TABLEAU);
+            contenu.append("f 0 g\n");
+        }
+        float x = MARGE;
+        for (int i = 0; i < largeursColonnes.length; i++) {
+            Object valeur = i < valeurs.length ? valeurs[i] : null;
+            String texte = tronquer(formater(valeur), largeursColonnes[i] - 2 * RETRAIT_CELLULE, false, TAILLE_TABLEAU);
+            float xTexte = valeur instanceof Number
+                    ? x + largeursColonnes[i] - RETRAIT_CELLULE - largeurTexte(texte, false, TAILLE_TABLEAU)
+                    : x + RETRAIT_CELLULE;
+            texte(xTexte, y - HAUTEUR_LIGNE_TABLEAU + TAILLE_TABLEAU * 0.6f, false, TAILLE_TABLEAU, texte);
+            x += largeursColonnes[i];
+        }
+        y -= HAUTEUR_LIGNE_TABLEAU;
+    }
+
+    /**
+     * Termine le tableau en cours.
+     *
+     * @throws IOException Si l'écriture d'une page échoue.
+     */
+    public void endTable() throws IOException {
+        if (entetesTableau == null) {
+            return;
+        }
+        if (lignesTableau == 0) {
+            reserver(HAUTEUR_LIGNE_TABLEAU);
+            texte(MARGE + RETRAIT_CELLULE, y - HAUTEUR_LIGNE_TABLEAU + TAILLE_TABLEAU * 0.6f, false, TAILLE_TABLEAU,
+                    "Aucune donnée.");
+            y -= HAUTEUR_LIGNE_TABLEAU;
+        }
+        entetesTableau = null;
+        largeursColonnes = null;
+        spacer(TAILLE_TEXTE);
+    }
+
+    /**
+     * Écrit un tableau à partir d'un curseur (en-tête tiré des libellés des colonnes), au fil
+     * de sa lecture. Le curseur est parcouru jusqu'à la fin mais n'est pas fermé.
+     *
+     * @param rs    Le curseur, positionné avant la première ligne.
+     * @param poids Les largeurs relatives des colonnes (colonnes égales si absent).
+     * @return Le nombre de lignes de données écrites.
+     * @throws SQLException Si la lecture du curseur échoue.
+     * @throws IOException  Si l'écriture échoue.
+     */
+    public long writeResultSet(ResultSet rs, float... poids) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int nbColonnes = meta.getColumnCount();
+        String[] libelles = new String[nbColonnes];
+        for (int i = 0; i < nbColonnes; i++) {
+            libelles[i] = meta.getColumnLabel(i + 1);
+        }
+        startTable(libelles, poids);
+        Object[] ligne = new Object[nbColonnes];
+        long lignes = 0;
+        while (rs.next()) {
+            for (int i = 0; i < nbColonnes; i++) {
+                ligne[i] = rs.getObject(i + 1);
+            }
+            tableRow(ligne);
+            lignes++;
+        }
+        endTable();
+        return lignes;
+    }
+
+    /**
+     * Dessine un graphique en courbe simple : une série de valeurs, avec quadrillage et
+     * graduations de l'axe vertical.
+     *
+     * @param titre    Le titre du graphique.
+     * @param libelles Les libellés de l'axe horizontal (un par valeur).
+     * @param valeurs  Les valeurs (null est compté comme zéro).
+     * @param hauteur  La hauteur totale du graphique, en points.
+     * @throws IOException Si l'écriture d'une page échoue.
+     */
+    public void lineChart(String titre, List<String> libelles, List<? extends Number> valeurs, float hauteur)
+            throws IOException {
+        reserver(hauteur + TAILLE_TEXTE * 2);
+        texte(MARGE, y - TAILLE_TEXTE, true, TAILLE_TEXTE, tronquer(titre, LARGEUR_UTILE, true, TAILLE_TEXTE));
+        y -= TAILLE_TEXTE * 1.8f;
+        if (valeurs == null || valeurs.isEmpty()) {
+            paragraph("Aucune donnée.");
+            return;
+        }
+
+        float x0 = MARGE + 48;
+        float x1 = LARGEUR_PAGE - MARGE;
+        float y0 = y - hauteur + TAILLE_TABLEAU * 2.5f;
+        float y1 = y - 4;
+        double min = 0;
+        double max = 0;
+        for (Number v : valeurs) {
+            double d = v != null ? v.doubleValue() : 0;
+            min = Math.min(min, d);
+            max = Math.max(max, d);
+        }
+        if (max == min) {
+            max = min + 1;
+        }
+
+        // Quadrillage et graduations
+        int graduations = 4;
+        contenu.append("0.4 w 0.85 G\n");
+        for (int i = 0; i <= graduations; i++) {
+            float yg = y0 + (y1 - y0) * i / graduations;
+            trait(x0, yg, x1, yg);
+            String libelle = formater(BigDecimal.valueOf(min + (max - min) * i / graduations).setScale(0, java.math.RoundingMode.HALF_UP));
+            texte(x0 - 4 - largeurTexte(libelle, false, TAILLE_TABLEAU), yg - TAILLE_TABLEAU / 3, false, TAILLE_TABLEAU, libelle);
+        }
+        contenu.append("0.8 w 0.3 G\n");
+        trait(x0, y0, x1, y0);
+        trait(x0, y0, x0, y1);
+
+        // Courbe
+        int n = valeurs.size();
+        float pas = n > 1 ? (x1 - x0) / (n - 1) : 0;
+        contenu.append("1.2 w 0.12 0.38 0.72 RG\n");
+        for (int i = 0; i < n; i++) {
+            Number v = valeurs.get(i);
+            float xp = n > 1 ? x0 + pas * i : (x0 + x1) / 2;
+            float yp = (float) (y0 + (y1 - y0) * ((v != null ? v.doubleValue() : 0) - min) / (max - min));
+            contenu.append(nombre(xp)).append(' ').append(nombre(yp)).append(i == 0 ? " m\n" : " l\n");
+        }
+        contenu.append("S\n0.12 0.38 0.72 rg\n");
+        for (int i = 0; i < n; i++) {
+            Number v = valeurs.get(i);
+            float xp = n > 1 ? x0 + pas * i : (x0 + x1) / 2;
+            float yp = (float) (y0 + (y1 - y0) * ((v != null ? v.doubleValue() : 0) - min) / (max - min));
+            rectangle(xp - 1.5f, yp - 1.5f, 3, 3);
+            contenu.append("f\n");
+        }
+        contenu.append("0 g 0 G 1 w\n");
+
+        // Libellés de l'axe horizontal, espacés pour ne pas se chevaucher
+        if (libelles != null && !libelles.isEmpty()) {
+            int saut = Math.max(1, (int) Math.ceil(n / 12.0));
+            for (int i = 0; i < n && i < libelles.size(); i += saut) {
+                String libelle = libelles.get(i) != null ? libelles.get(i) : "";
+                float xp = n > 1 ? x0 + pas * i : (x0 + x1) / 2;
+                float largeur = largeurTexte(libelle, false, TAILLE_TABLEAU);
+                texte(Math.min(Math.max(xp - largeur / 2, MARGE), x1 - largeur), y0 - TAILLE_TABLEAU * 1.6f, false,
+                        TAILLE_TABLEAU, libelle);
+            }
+        }
+        y -= hauteur;
+    }
+
+    /**
+     * @return Le nombre de pages terminées.
+     */
+    public int getNombrePages() {
+        return pages.size();
+    }
+
+    /**
+     * Termine la page en cours puis écrit l'arbre des pages, le catalogue, les métadonnées,
+     * la table de références croisées et la fin du document.
+     *
+     * @throws IOException Si l'écriture échoue.
+     */
+    @Override
+    public void close() throws IOException {
+        if (termine) {
+            return;
+        }
+        termine = true;
+        if (pageOuverte || pages.isEmpty()) {
+            ouvrirPageSiNecessaire();
+            fermerPage();
+        }
+
+        StringBuilder kids = new StringBuilder();
+        for (Integer page : pages) {
+            kids.append(page).append(" 0 R ");
+        }
+        ecrireObjet(OBJ_PAGES, "<< /Type /Pages /Kids [" + kids + "] /Count " + pages.size() + " >>");
+        ecrireObjet(OBJ_CATALOGUE, "<< /Type /Catalog /Pages " + OBJ_PAGES + " 0 R >>");
+        int objInfo = prochainObjet++;
+        ecrireObjet(objInfo, "<< /Title " + chaine(titreDocument) + " /Producer (ParcAuto) /CreationDate (D:"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")) + ") >>");
+
+        long debutXref = out.position;
+        StringBuilder xref = new StringBuilder("xref\n0 ").append(prochainObjet).append('\n');
+        xref.append("0000000000 65535 f \n");
+        for (int i = 1; i < prochainObjet; i++) {
+            String position = Long.toString(positions[i]);
+            xref.append("0000000000", position.length(), 10).append(position).append(" 00000 n \n");
+        }
+        xref.append("trailer\n<< /Size ").append(prochainObjet).append(" /Root ").append(OBJ_CATALOGUE)
+                .append(" 0 R /Info ").append(objInfo).append(" 0 R >>\nstartxref\n").append(debutXref).append("\n%%EOF\n");
+        out.write(xref.toString().getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private void reserver(float hauteur) throws IOException {
+        ouvrirPageSiNecessaire();
+        if (y - hauteur < MARGE + HAUTEUR_PIED && y < HAUTEUR_PAGE - MARGE) {
+            fermerPage();
+            ouvrirPageSiNecessaire();
+        }
+    }
+
+    private void ouvrirPageSiNecessaire() throws IOException {
+        if (pageOuverte) {
+            return;
+        }
+        if (termine && !pages.isEmpty()) {
+            throw new IllegalStateException("Le document PDF est terminé.");
+        }
+        contenu.setLength(0);
+        pageOuverte = true;
+        y = HAUTEUR_PAGE - MARGE;
+        if (entetesTableau != null) {
+            ecrireEnteteTableau();
+        }
+    }
+
+    private void ecrireEnteteTableau() {
+        contenu.append("0.88 g ");
+        rectangle(MARGE, y - HAUTEUR_LIGNE_TABLEAU, LARGEUR_UTILE, HAUTEUR_LIGNE_TABLEAU);
+        contenu.append("f 0 g\n");
+        float x = MARGE;
+        for (int i = 0; i < largeursColonnes.length; i++) {
+            texte(x + RETRAIT_CELLULE, y - HAUTEUR_LIGNE_TABLEAU + TAILLE_TABLEAU * 0.6f, true, TAILLE_TABLEAU,
+                    tronquer(entetesTableau[i], largeursColonnes[i] - 2 * RETRAIT_CELLULE, true, TAILLE_TABLEAU));
+            x += largeursColonnes[i];
+        }
+        y -= HAUTEUR_LIGNE_TABLEAU;
+    }
+
+    private void fermerPage() throws IOException {
+        String pied = (titreDocument.isEmpty() ? "" : titreDocument + " - ") + "Page " + (pages.size() + 1);
+        texte(LARGEUR_PAGE - MARGE - largeurTexte(pied, false, TAILLE_PIED), MARGE - TAILLE_PIED, false, TAILLE_PIED, pied);
+
+        byte[] brut = contenu.toString().getBytes(StandardCharsets.US_ASCII);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        byte[] compresse;
+        try {
+            deflater.setInput(brut);
+            deflater.finish();
+            byte[] tampon = new byte[Math.max(64, brut.length / 2)];
+            int longueur = 0;
+            while (!deflater.finished()) {
+                if (longueur == tampon.length) {
+                    tampon = Arrays.copyOf(tampon, tampon.length * 2);
+                }
+                longueur += deflater.deflate(tampon, longueur, tampon.length - longueur);
+            }
+            compresse = Arrays.copyOf(tampon, longueur);
+        } finally {
+            deflater.end();
+        }
+
+        int objContenu = prochainObjet++;
+        commencerObjet(objContenu);
+        out.write(("<< /Length " + compresse.length + " /Filter /FlateDecode >>\nstream\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(compresse);
+        out.write("\nendstream\nendobj\n".getBytes(StandardCharsets.US_ASCII));
+
+        int objPage = prochainObjet++;
+        ecrireObjet(objPage, "<< /Type /Page /Parent " + OBJ_PAGES + " 0 R /MediaBox [0 0 " + nombre(LARGEUR_PAGE) + " "
+                + nombre(HAUTEUR_PAGE) + "] /Resources << /Font << /F1 " + OBJ_POLICE + " 0 R /F2 " + OBJ_POLICE_GRAS
+                + " 0 R >> >> /Contents " + objContenu + " 0 R >>");
+        pages.add(objPage);
+        out.flush();
+
+        contenu.setLength(0);
+        pageOuverte = false;
+    }
+
+    private void commencerObjet(int numero) throws IOException {
+        if (numero >= positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(positions.length * 2, numero + 1));
+        }
+        positions[numero] = out.position;
+        out.write((numero + " 0 obj\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void ecrireObjet(int numero, String dictionnaire) throws IOException {
+        commencerObjet(numero);
+        out.write((dictionnaire + "\nendobj\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void texte(float x, float yTexte, boolean gras, float taille, String texte) {
+        if (texte == null || texte.isEmpty()) {
+            return;
+        }
+        contenu.append("BT /").append(gras ? "F2 " : "F1 ").append(nombre(taille)).append(" Tf ")
+                .append(nombre(x)).append(' ').append(nombre(yTexte)).append(" Td ")
+                .append(chaine(texte)).append(" Tj ET\n");
+    }
+
+    private void trait(float xa, float ya, float xb, float yb) {
+        contenu.append(nombre(xa)).append(' ').append(nombre(ya)).append(" m ")
+                .append(nombre(xb)).append(' ').append(nombre(yb)).append(" l S\n");
+    }
+
+    private void rectangle(float x, float yRect, float largeur, float hauteur) {
+        contenu.append(nombre(x)).append(' ').append(nombre(yRect)).append(' ')
+                .append(nombre(largeur)).append(' ').append(nombre(hauteur)).append(" re ");
+    }
+
+    /**
+     * Chaîne littérale PDF : caractères encodés en WinAnsi, octets non ASCII en octal.
+     */
+    private static String chaine(String texte) {
+        StringBuilder sb = new StringBuilder(texte.length() + 2).append('(');
+        for (int i = 0; i < texte.length(); i++) {
+            char c = texte.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c >= 32 && c < 127) {
+                sb.append(c);
+            } else if (c == '\t' || c == '\n' || c == '\r') {
+                sb.append(' ');
+            } else if (c < 32) {
+                continue;
+            } else {
+                byte[] octets = String.valueOf(c).getBytes(WIN_ANSI); // '?' si non représentable
+                int octet = octets.length > 0 ? octets[0] & 0xFF : '?';
+                sb.append('\\').append((char) ('0' + (octet >> 6))).append((char) ('0' + ((octet >> 3) & 7)))
+                        .append((char) ('0' + (octet & 7)));
+            }
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Nombre au format PDF : deux décimales au plus, jamais de notation scientifique.
+     */
+    private static String nombre(float valeur) {
+        long centiemes = Math.round(valeur * 100d);
+        StringBuilder sb = new StringBuilder();
+        if (centiemes < 0) {
+            sb.append('-');
+            centiemes = -centiemes;
+        }
+        sb.append(centiemes / 100);
+        long reste = centiemes % 100;
+        if (reste != 0) {
+            sb.append('.').append(reste / 10);
+            if (reste % 10 != 0) {
+                sb.append(reste % 10);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static float[] remplir(int n) {
+        float[] poids = new float[n];
+        Arrays.fill(poids, 1f);
+        return poids;
+    }
+
+    private static String formater(Object valeur) {
+        if (valeur == null) {
+            return "";
+        }
+        if (valeur instanceof LocalDateTime) {
+            return ((LocalDateTime) valeur).format(FORMAT_DATE_HEURE);
+        }
+        if (valeur instanceof Timestamp) {
+            return ((Timestamp) valeur).toLocalDateTime().format(FORMAT_DATE_HEURE);
+        }
+        if (valeur instanceof LocalDate) {
+            return ((LocalDate) valeur).format(FORMAT_DATE);
+        }
+        if (valeur instanceof java.sql.Date) {
+            return ((java.sql.Date) valeur).toLocalDate().format(FORMAT_DATE);
+        }
+        if (valeur instanceof BigDecimal) {
+            return ((BigDecimal) valeur).toPlainString();
+        }
+        if (valeur instanceof Boolean) {
+            return (Boolean) valeur ? "Oui" : "Non";
+        }
+        return valeur.toString();
+    }
+
+    private static List<String> couper(String texte, float largeurMax, boolean gras, float taille) {
+        List<String> lignes = new ArrayList<>();
+        for (String paragraphe : texte.split("\r?\n", -1)) {
+            StringBuilder ligne = new StringBuilder();
+            for (String mot : paragraphe.split(" +")) {
+                String candidat = ligne.length() == 0 ? mot : ligne + " " + mot;
+                if (ligne.length() > 0 && largeurTexte(candidat, gras, taille) > largeurMax) {
+                    lignes.add(ligne.toString());
+                    ligne.setLength(0);
+                    ligne.append(mot);
+                } else {
+                    ligne.setLength(0);
+                    ligne.append(candidat);
+                }
+            }
+            lignes.add(tronquer(ligne.toString(), largeurMax, gras, taille));
+        }
+        return lignes;
+    }
+
+    private static String tronquer(String texte, float largeurMax, boolean gras, float taille) {
+        if (texte == null || largeurTexte(texte, gras, taille) <= largeurMax) {
+            return texte;
+        }
+        float disponible = largeurMax - largeurTexte(POINTS_SUSPENSION, gras, taille);
+        int fin = texte.length();
+        while (fin > 0 && largeurTexte(texte.substring(0, fin), gras, taille) > disponible) {
+            fin--;
+        }
+        return texte.substring(0, fin) + POINTS_SUSPENSION;
+    }
+
+    private static float largeurTexte(String texte, boolean gras, float taille) {
+        int[] chasses = gras ? CHASSES_HELVETICA_GRAS : CHASSES_HELVETICA;
+        int total = 0;
+        for (int i = 0; i < texte.length(); i++) {
+            char c = texte.charAt(i);
+            if (c >= 32 && c < 127) {
+                total += chasses[c - 32];
+            } else if (c == '…') {
+                total += 1000;
+            } else {
+                // Lettre accentuée : chasse de la lettre de base
+                char base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0);
+                total += base >= 32 && base < 127 ? chasses[base - 32] : 556;
+            }
+        }
+        return total * taille / 1000f;
+    }
+
+    /** Chasses (1/1000 em) des caractères 32 à 126 de Helvetica, d'après les métriques AFM standard. */
+    private static final int[] CHASSES_HELVETICA = {
+            278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278,
+            556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556,
+            1015, 667, 667, 722, 722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778,
+            667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 278, 278, 278, 469, 556,
+            333, 556, 556, 500, 556, 556, 278, 556, 556, 222, 222, 500, 222, 833, 556, 556,
+            556, 556, 333, 500, 278, 556, 500, 722, 500, 500, 500, 334, 260, 334, 584
+    };
+
+    /** Chasses (1/1000 em) des caractères 32 à 126 de Helvetica-Bold. */
+    private static final int[] CHASSES_HELVETICA_GRAS = {
+            278, 333, 474, 556, 556, 889, 722, 238, 333, 333, 389, 584, 278, 333, 278, 278,
+            556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 333, 333, 584, 584, 584, 611,
+            975, 722, 722, 722, 722, 667, 611, 778, 722, 278, 556, 722, 611, 833, 722, 778,
+            667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 333, 278, 333, 584, 556,
+            333, 556, 611, 556, 611, 556, 333, 611, 611, 278, 278, 556, 278, 889, 611, 611,
+            611, 611, 389, 556, 333, 611, 556, 778, 556, 556, 500, 389, 280, 389, 584
+    };
+
+    /**
+     * Flux comptant les octets écrits, pour les positions de la table de références croisées.
+     */
+    private static final class CompteurOctets extends FilterOutputStream {
+        private long position;
+
+        private CompteurOctets(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            position++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            position += len;
+        }
+    }
+}
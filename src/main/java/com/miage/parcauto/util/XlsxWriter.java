@@ -0,0 +1,444 @@
+package main.java.com.miage.parcauto.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Écriture de classeurs Excel (XLSX, SpreadsheetML) en flux, sans bibliothèque externe.
+ * <p>
+ * Chaque feuille est écrite ligne par ligne directement dans l'archive ZIP : la mémoire
+ * consommée ne dépend pas du nombre de lignes. Les chaînes sont écrites en ligne dans les
+ * cellules (inlineStr) plutôt que dans une table de chaînes partagées, qui imposerait de
+ * conserver toutes les valeurs distinctes jusqu'à la fin du classeur.
+ * <p>
+ * Les cellules sont typées selon la valeur : nombre, booléen, date (LocalDate, java.sql.Date)
+ * ou date-heure (LocalDateTime, Timestamp) au format français, texte sinon. La première ligne
+ * de chaque feuille est figée. Le flux sous-jacent n'est pas fermé par {@link #close()}, qui
+ * termine l'archive.
+ * <p>
+ * Cette classe n'est pas synchronisée.
+ */
+public class XlsxWriter implements Closeable {
+
+    /** Nombre maximal de lignes d'une feuille Excel. */
+    public static final int MAX_LIGNES_FEUILLE = 1_048_576;
+
+    private static final int MAX_LONGUEUR_CELLULE = 32_767;
+    private static final int MAX_LONGUEUR_NOM_FEUILLE = 31;
+    private static final int TAILLE_TAMPON = 64 * 1024;
+    private static final LocalDate ORIGINE_EXCEL = LocalDate.of(1899, 12, 30);
+
+    // Index des styles déclarés dans styles.xml (cellXfs)
+    private static final int STYLE_DATE = 1;
+    private static final int STYLE_DATE_HEURE = 2;
+    private static final int STYLE_ENTETE = 3;
+    private static final int STYLE_MONTANT = 4;
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private final List<String> feuilles = new ArrayList<>();
+    private final List<String> colonnes = new ArrayList<>();
+    private boolean feuilleOuverte;
+    private boolean termine;
+    private int ligneCourante;
+    private long lignesEcrites;
+
+    /**
+     * Crée un classeur écrit dans le flux fourni.
+     *
+     * @param out Le flux de destination.
+     */
+    public XlsxWriter(OutputStream out) {
+        this.zip = new ZipOutputStream(new NonClosingOutputStream(out), StandardCharsets.UTF_8);
+        // Le XML se compresse très bien : la compression rapide suffit et réduit nettement le temps d'écriture
+        this.zip.setLevel(Deflater.BEST_SPEED);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), TAILLE_TAMPON);
+    }
+
+    /**
+     * Termine la feuille en cours et en commence une nouvelle.
+     *
+     * @param nom      Le nom de la feuille (tronqué à 31 caractères, caractères interdits remplacés).
+     * @param largeurs Les largeurs des premières colonnes, en nombre de caractères (facultatif).
+     * @throws IOException Si l'écriture échoue.
+     */
+    public void startSheet(String nom, int... largeurs) throws IOException {
+        terminerFeuille();
+        feuilles.add(nomFeuilleUnique(nom));
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + feuilles.size() + ".xml"));
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                + "<sheetViews><sheetView workbookViewId=\"0\">"
+                + "<pane ySplit=\"1\" topLeftCell=\"A2\" activePane=\"bottomLeft\" state=\"frozen\"/>"
+                + "</sheetView></sheetViews>");
+        if (largeurs.length > 0) {
+            writer.write("<cols>");
+            for (int i = 0; i < largeurs.length; i++) {
+                writer.write("<col min=\"" + (i + 1) + "\" max=\"" + (i + 1) + "\" width=\"" + largeurs[i]
+                        + "\" customWidth=\"1\"/>");
+            }
+            writer.write("</cols>");
+        }
+        writer.write("<sheetData>");
+        feuilleOuverte = true;
+        ligneCourante = 0;
+    }
+
+    /**
+     * Écrit une ligne d'en-tête (texte en gras).
+     *
+     * @param libelles Les libellés des colonnes.
+     * @throws IOException Si l'écriture échoue.
+     */
+    public void writeHeader(String... libelles) throws IOException {
+        ouvrirLigne();
+        for (int i = 0; i < libelles.length; i++) {
+            ecrireTexte(i, libelles[i], STYLE_ENTETE);
+        }
+        fermerLigne();
+    }
+
+    /**
+     * Écrit une ligne de valeurs typées.
+     *
+     * @param valeurs Les valeurs de la ligne (null produit une cellule vide).
+     * @throws IOException Si l'écriture échoue.
+     */
+    public void writeRow(Object... valeurs) throws IOException {
+        ouvrirLigne();
+        for (int i = 0; i < valeurs.length; i++) {
+            ecrireCellule(i, valeurs[i]);
+        }
+        fermerLigne();
+    }
+
+    /**
+     * Écrit l'en-tête (libellés des colonnes) puis chaque ligne d'un curseur dans la feuille
+     * en cours, au fil de sa lecture. Le curseur est parcouru jusqu'à la fin mais n'est pas fermé.
+     *
+     * @param rs Le curseur, positionné avant la première ligne.
+     * @return Le nombre de lignes de données écrites.
+     * @throws SQLException Si la lecture du curseur échoue.
+     * @throws IOException  Si l'écriture échoue.
+     */
+    public long writeResultSet(ResultSet rs) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int nbColonnes = meta.getColumnCount();
+        String[] libelles = new String[nbColonnes];
+        for (int i = 0; i < nbColonnes; i++) {
+            libelles[i] = meta.getColumnLabel(i + 1);
+        }
+        writeHeader(libelles);
+        long lignes = 0;
+        while (rs.next()) {
+            ouvrirLigne();
+            for (int i = 0; i < nbColonnes; i++) {
+                ecrireCellule(i, rs.getObject(i + 1));
+            }
+            fermerLigne();
+            lignes++;
+        }
+        return lignes;
+    }
+
+    /**
+     * @return Le nombre de lignes écrites dans le classeur, toutes feuilles confondues.
+     */
+    public long getLignesEcrites() {
+        return lignesEcrites;
+    }
+
+    /**
+     * Termine la feuille en cours puis écrit les parties communes du classeur (classeur,
+     * styles, relations, types de contenu) et la fin de l'archive. Un classeur sans feuille
+     * reçoit une feuille vide, Excel refusant d'ouvrir un classeur qui n'en contient aucune.
+     *
+     * @throws IOException Si l'écriture échoue.
+     */
+    @Override
+    public void close() throws IOException {
+        if (termine) {
+            return;
+        }
+        termine = true;
+        if (feuilles.isEmpty()) {
+            startSheet("Feuil1");
+        }
+        terminerFeuille();
+        ecrireEntree("[Content_Types].xml", contentTypes());
+        ecrireEntree("_rels/.rels", "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+        ecrireEntree("xl/workbook.xml", workbook());
+        ecrireEntree("xl/_rels/workbook.xml.rels", workbookRels());
+        ecrireEntree("xl/styles.xml", STYLES);
+        writer.flush();
+        zip.finish();
+        zip.flush();
+    }
+
+    private void ouvrirLigne() throws IOException {
+        if (!feuilleOuverte) {
+            throw new IllegalStateException("Aucune feuille en cours : appeler startSheet avant d'écrire des lignes.");
+        }
+        if (ligneCourante >= MAX_LIGNES_FEUILLE) {
+            throw new IllegalStateException("La feuille '" + feuilles.get(feuilles.size() - 1)
+                    + "' dépasse le nombre maximal de lignes Excel (" + MAX_LIGNES_FEUILLE + ").");
+        }
+        ligneCourante++;
+        writer.write("<row r=\"");
+        writer.write(Integer.toString(ligneCourante));
+        writer.write("\">");
+    }
+
+    private void fermerLigne() throws IOException {
+        writer.write("</row>");
+        lignesEcrites++;
+    }
+
+    private void ecrireCellule(int colonne, Object valeur) throws IOException {
+        if (valeur == null) {
+            return;
+        }
+        if (valeur instanceof BigDecimal) {
+            ecrireNombre(colonne, ((BigDecimal) valeur).toPlainString(), STYLE_MONTANT);
+        } else if (valeur instanceof Integer || valeur instanceof Long || valeur instanceof Short
+                || valeur instanceof Byte || valeur instanceof BigInteger) {
+            ecrireNombre(colonne, valeur.toString(), 0);
+        } else if (valeur instanceof Double || valeur instanceof Float) {
+            double d = ((Number) valeur).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                ecrireTexte(colonne, valeur.toString(), 0);
+            } else {
+                ecrireNombre(colonne, valeur.toString(), STYLE_MONTANT);
+            }
+        } else if (valeur instanceof Boolean) {
+            debutCellule(colonne, 0);
+            writer.write(" t=\"b\"><v>");
+            writer.write((Boolean) valeur ? "1" : "0");
+            writer.write("</v></c>");
+        } else if (valeur instanceof LocalDateTime) {
+            ecrireNombre(colonne, serialExcel((LocalDateTime) valeur), STYLE_DATE_HEURE);
+        } else if (valeur instanceof Timestamp) {
+            ecrireNombre(colonne, serialExcel(((Timestamp) valeur).toLocalDateTime()), STYLE_DATE_HEURE);
+        } else if (valeur instanceof LocalDate) {
+            ecrireNombre(colonne, Long.toString(ChronoUnit.DAYS.between(ORIGINE_EXCEL, (LocalDate) valeur)), STYLE_DATE);
+        } else if (valeur instanceof java.sql.Date) {
+            ecrireNombre(colonne, Long.toString(ChronoUnit.DAYS.between(ORIGINE_EXCEL,
+                    ((java.sql.Date) valeur).toLocalDate())), STYLE_DATE);
+        } else {
+            ecrireTexte(colonne, valeur.toString(), 0);
+        }
+    }
+
+    private void ecrireNombre(int colonne, String nombre, int style) throws IOException {
+        debutCellule(colonne, style);
+        writer.write("><v>");
+        writer.write(nombre);
+        writer.write("</v></c>");
+    }
+
+    private void ecrireTexte(int colonne, String texte, int style) throws IOException {
+        if (texte == null) {
+            return;
+        }
+        if (texte.length() > MAX_LONGUEUR_CELLULE) {
+            texte = texte.substring(0, MAX_LONGUEUR_CELLULE);
+        }
+        debutCellule(colonne, style);
+        boolean preserver = !texte.isEmpty()
+                && (Character.isWhitespace(texte.charAt(0)) || Character.isWhitespace(texte.charAt(texte.length() - 1)));
+        writer.write(preserver ? " t=\"inlineStr\"><is><t xml:space=\"preserve\">" : " t=\"inlineStr\"><is><t>");
+        echapper(texte);
+        writer.write("</t></is></c>");
+    }
+
+    private void debutCellule(int colonne, int style) throws IOException {
+        writer.write("<c r=\"");
+        writer.write(referenceColonne(colonne));
+        writer.write(Integer.toString(ligneCourante));
+        writer.write('"');
+        if (style != 0) {
+            writer.write(" s=\"");
+            writer.write(Integer.toString(style));
+            writer.write('"');
+        }
+    }
+
+    private String referenceColonne(int colonne) {
+        while (colonnes.size() <= colonne) {
+            int n = colonnes.size() + 1;
+            StringBuilder sb = new StringBuilder();
+            while (n > 0) {
+                int reste = (n - 1) % 26;
+                sb.insert(0, (char) ('A' + reste));
+                n = (n - 1) / 26;
+            }
+            colonnes.add(sb.toString());
+        }
+        return colonnes.get(colonne);
+    }
+
+    private String serialExcel(LocalDateTime dateHeure) {
+        long jours = ChronoUnit.DAYS.between(ORIGINE_EXCEL, dateHeure.toLocalDate());
+        int secondes = dateHeure.toLocalTime().toSecondOfDay();
+        if (secondes == 0) {
+            return Long.toString(jours);
+        }
+        return Double.toString(jours + secondes / 86_400d);
+    }
+
+    private void echapper(String texte) throws IOException {
+        for (int i = 0; i < texte.length(); i++) {
+            char c = texte.charAt(i);
+            switch (c) {
+                case '&':
+                    writer.write("&amp;");
+                    break;
+                case '<':
+                    writer.write("&lt;");
+                    break;
+                case '>':
+                    writer.write("&gt;");
+                    break;
+                case '"':
+                    writer.write("&quot;");
+                    break;
+                default:
+                    // Les caractères de contrôle sont interdits en XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        if (c != 0xFFFE && c != 0xFFFF) {
+                            writer.write(c);
+                        }
+                    }
+            }
+        }
+    }
+
+    private void terminerFeuille() throws IOException {
+        if (!feuilleOuverte) {
+            return;
+        }
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+        feuilleOuverte = false;
+    }
+
+    private void ecrireEntree(String chemin, String contenu) throws IOException {
+        zip.putNextEntry(new ZipEntry(chemin));
+        writer.write(contenu);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private String nomFeuilleUnique(String nom) {
+        String base = nom == null || nom.isBlank() ? "Feuil" + (feuilles.size() + 1) : nom.replaceAll("[\\[\\]:*?/\\\\]", "_");
+        if (base.length() > MAX_LONGUEUR_NOM_FEUILLE) {
+            base = base.substring(0, MAX_LONGUEUR_NOM_FEUILLE);
+        }
+        String candidat = base;
+        int suffixe = 2;
+        while (nomExiste(candidat)) {
+            String fin = " (" + suffixe++ + ")";
+            candidat = base.substring(0, Math.min(base.length(), MAX_LONGUEUR_NOM_FEUILLE - fin.length())) + fin;
+        }
+        return candidat;
+    }
+
+    private boolean nomExiste(String nom) {
+        for (String feuille : feuilles) {
+            if (feuille.equalsIgnoreCase(nom)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String contentTypes() {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int i = 1; i <= feuilles.size(); i++) {
+            sb.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return sb.append("</Types>").toString();
+    }
+
+    private String workbook() {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+                + "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\"><sheets>");
+        for (int i = 1; i <= feuilles.size(); i++) {
+            sb.append("<sheet name=\"").append(echapperAttribut(feuilles.get(i - 1))).append("\" sheetId=\"").append(i)
+                    .append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        return sb.append("</sheets></workbook>").toString();
+    }
+
+    private String workbookRels() {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+        for (int i = 1; i <= feuilles.size(); i++) {
+            sb.append("<Relationship Id=\"rId").append(i)
+                    .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet")
+                    .append(i).append(".xml\"/>");
+        }
+        sb.append("<Relationship Id=\"rId").append(feuilles.size() + 1)
+                .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" Target=\"styles.xml\"/>");
+        return sb.append("</Relationships>").toString();
+    }
+
+    private static String echapperAttribut(String valeur) {
+        return valeur.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * Styles : 0 standard, 1 date, 2 date-heure, 3 en-tête en gras, 4 montant (#,##0.00).
+     */
+    private static final String STYLES = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+            + "<numFmts count=\"2\">"
+            + "<numFmt numFmtId=\"164\" formatCode=\"dd/mm/yyyy\"/>"
+            + "<numFmt numFmtId=\"165\" formatCode=\"dd/mm/yyyy hh:mm\"/>"
+            + "</numFmts>"
+            + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+            + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+            + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+            + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+            + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            + "<cellXfs count=\"5\">"
+            + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+            + "<xf numFmtId=\"164\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+            + "<xf numFmtId=\"165\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+            + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>"
+            + "<xf numFmtId=\"4\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+            + "</cellXfs>"
+            + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+            + "</styleSheet>";
+}
@@ -1,9 +1,12 @@
 package main.java.com.miage.parcauto.viewmodel;
 
 import javafx.beans.property.*;
+import main.java.com.miage.parcauto.dao.TriCurseur;
 import main.java.com.miage.parcauto.dto.EntretienDTO;
+import main.java.com.miage.parcauto.dto.EntretienResumeDTO;
 import main.java.com.miage.parcauto.model.entretien.Entretien.StatutOT;
 import main.java.com.miage.parcauto.model.entretien.Entretien.TypeEntretien;
+import main.java.com.miage.parcauto.service.EntretienService;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -61,6 +64,40 @@ public class EntretienViewModel {
         updateFromDTO(dto);
     }
 
+    /**
+     * Constructeur à partir d'un résumé de liste. Le type et le statut sont affichés tels que
+     * lus en base ; le détail complet est chargé à la sélection.
+     *
+     * @param resume Résumé source pour l'initialisation
+     */
+    public EntretienViewModel(EntretienResumeDTO resume) {
+        idEntretien.set(resume.getIdEntretien() != null ? resume.getIdEntretien() : 0);
+        idVehicule.set(resume.getIdVehicule() != null ? resume.getIdVehicule() : 0);
+        immatriculation.set(resume.getImmatriculation());
+        dateEntree.set(resume.getDateEntree());
+        dateSortie.set(resume.getDateSortie());
+        motif.set(resume.getMotif());
+        cout.set(resume.getCout());
+
+        updateFormattedProperties();
+        typeLibelle.set(resume.getType() != null ? resume.getType() : "");
+        statutLibelle.set(resume.getStatutOT() != null ? resume.getStatutOT() : "");
+    }
+
+    /**
+     * Crée la liste paginée des entretiens pour une table : les résumés sont lus page par page au fil
+     * du défilement et les ViewModels créés pour les seules lignes affichées.
+     *
+     * @param service    le service des entretiens.
+     * @param tri        l'ordre d'affichage.
+     * @param taillePage le nombre de lignes par page.
+     * @return la liste à passer à la table.
+     */
+    public static ListePaginee<EntretienResumeDTO, EntretienViewModel> listePaginee(EntretienService service, TriCurseur tri, int taillePage) {
+        return new ListePaginee<EntretienResumeDTO, EntretienViewModel>(
+                (jeton, taille) -> service.getPageEntretiens(jeton, taille, tri), EntretienViewModel::new, taillePage);
+    }
+
     /**
      * Met à jour ce ViewModel avec les données d'un DTO.
      *
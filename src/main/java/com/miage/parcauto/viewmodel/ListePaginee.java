@@ -0,0 +1,312 @@
+package main.java.com.miage.parcauto.viewmodel;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.ObservableListBase;
+import main.java.com.miage.parcauto.dao.PageCurseur;
+import main.java.com.miage.parcauto.exception.OperationFailedException;
+import main.java.com.miage.parcauto.service.ServicesAsynchrones;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Liste observable paginée et matérialisée à la demande, destinée aux {@code TableView} des
+ * écrans de liste (véhicules, missions, entretiens, mouvements).
+ * <p>
+ * Les lignes sont lues par pages de résumés (projection et pagination par curseur, voir
+ * {@link PageCurseur}) en arrière-plan, au fil du défilement : la taille de la liste croît à
+ * mesure que la table approche de la fin des lignes connues. Seules quelques pages de résumés
+ * sont conservées ; une page évincée est relue avec son jeton lorsqu'elle redevient visible.
+ * Les ViewModels ne sont créés que pour les lignes demandées par la table (lignes visibles et
+ * voisines) et sont eux-mêmes évincés au-delà d'un plafond. La mémoire et le temps d'ouverture
+ * ne dépendent donc que de la taille de page, pas du nombre de lignes en base.
+ * <p>
+ * Une ligne dont la page n'est pas en mémoire est retournée à {@code null} le temps de sa
+ * lecture, puis remplacée (changement de type « remplacement ») : la table affiche une ligne
+ * vide pendant ce court délai. Le détail complet d'une ligne se charge à sa sélection via
+ * {@link #getResume(int)} et le {@code getXxxById} du service.
+ * <p>
+ * Cette liste n'est pas thread-safe : elle s'utilise depuis le thread JavaFX, les lectures
+ * étant remises sur ce thread par {@link Platform#runLater}.
+ *
+ * @param <R> Le type de résumé lu par page.
+ * @param <V> Le type de ViewModel présenté à la table.
+ */
+public class ListePaginee<R, V> extends ObservableListBase<V> {
+
+    private static final Logger LOGGER = Logger.getLogger(ListePaginee.class.getName());
+
+    /** Nombre de pages de résumés conservées en mémoire. */
+    private static final int PAGES_EN_MEMOIRE = 4;
+    /** Nombre de pages de ViewModels conservés (lignes visibles et voisines). */
+    private static final int PAGES_DE_VUES = 2;
+
+    /**
+     * Lecture d'une page de résumés auprès de la couche service.
+     *
+     * @param <R> Le type de résumé.
+     */
+    @FunctionalInterface
+    public interface ChargeurPage<R> {
+        /**
+         * @param jeton  le jeton de la page à lire, ou null pour la première page.
+         * @param taille le nombre maximal de lignes.
+         * @return la page lue et le jeton de la suivante.
+         * @throws OperationFailedException si la lecture échoue.
+         */
+        PageCurseur<R> charger(String jeton, int taille) throws OperationFailedException;
+    }
+
+    private final ChargeurPage<R> chargeur;
+    private final Function<R, V> fabrique;
+    private final int taillePage;
+    private final Executor executeur;
+
+    /** Jeton de chaque page connue : l'élément k permet de (re)lire la page k. */
+    private final List<String> jetons = new ArrayList<>();
+    private final Map<Integer, List<R>> pages;
+    private final Map<Integer, V> vues;
+    private final Set<Integer> pagesEnLecture = new HashSet<>();
+    private int taille;
+    private boolean complete;
+    private long generation;
+
+    private final ReadOnlyBooleanWrapper chargement = new ReadOnlyBooleanWrapper(this, "chargement");
+    private final ReadOnlyObjectWrapper<Throwable> erreur = new ReadOnlyObjectWrapper<>(this, "erreur");
+
+    /**
+     * Crée la liste et lance la lecture de la première page sur l'exécuteur des services
+     * ({@link ServicesAsynchrones}).
+     *
+     * @param chargeur   la lecture d'une page auprès du service.
+     * @param fabrique   la création du ViewModel d'une ligne.
+     * @param taillePage le nombre de lignes par page.
+     */
+    public ListePaginee(ChargeurPage<R> chargeur, Function<R, V> fabrique, int taillePage) {
+        this(chargeur, fabrique, taillePage, ServicesAsynchrones.getInstance().getExecuteur());
+    }
+
+    /**
+     * Crée la liste et lance la lecture de la première page.
+     *
+     * @param chargeur   la lecture d'une page auprès du service.
+     * @param fabrique   la création du ViewModel d'une ligne.
+     * @param taillePage le nombre de lignes par page.
+     * @param executeur  l'exécuteur des lectures (hors thread JavaFX).
+     */
+    public ListePaginee(ChargeurPage<R> chargeur, Function<R, V> fabrique, int taillePage, Executor executeur) {
+        if (taillePage <= 0) {
+            throw new IllegalArgumentException("La taille de page doit être positive: " + taillePage);
+        }
+        this.chargeur = chargeur;
+        this.fabrique = fabrique;
+        this.taillePage = taillePage;
+        this.executeur = executeur;
+        this.pages = new LinkedHashMap<Integer, List<R>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<R>> eldest) {
+                return size() > PAGES_EN_MEMOIRE;
+            }
+        };
+        this.vues = new LinkedHashMap<Integer, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+                return size() > PAGES_DE_VUES * ListePaginee.this.taillePage;
+            }
+        };
+        jetons.add(null);
+        lirePage(0);
+    }
+
+    @Override
+    public int size() {
+        return taille;
+    }
+
+    /**
+     * Retourne le ViewModel d'une ligne, créé à la demande.
+     *
+     * @param index l'index de la ligne.
+     * @return le ViewModel, ou null si la page de la ligne est en cours de lecture.
+     */
+    @Override
+    public V get(int index) {
+        if (index < 0 || index >= taille) {
+            throw new IndexOutOfBoundsException("Index " + index + ", taille " + taille);
+        }
+        int numeroPage = index / taillePage;
+        anticiper(index, numeroPage);
+        V vue = vues.get(index);
+        if (vue != null) {
+            return vue;
+        }
+        R resume = getResume(index);
+        if (resume == null) {
+            lirePage(numeroPage);
+            return null;
+        }
+        vue = fabrique.apply(resume);
+        vues.put(index, vue);
+        return vue;
+    }
+
+    /**
+     * Retourne le résumé d'une ligne s'il est en mémoire, par exemple pour charger le détail
+     * complet de la ligne sélectionnée.
+     *
+     * @param index l'index de la ligne.
+     * @return le résumé, ou null si sa page n'est pas en mémoire.
+     */
+    public R getResume(int index) {
+        List<R> lignes = pages.get(index / taillePage);
+        int position = index % taillePage;
+        return lignes != null && position < lignes.size() ? lignes.get(position) : null;
+    }
+
+    /**
+     * @return true tant que toutes les lignes n'ont pas été découvertes.
+     */
+    public boolean hasLignesSuivantes() {
+        return !complete;
+    }
+
+    /**
+     * Oublie les lignes lues et relit la première page (après une création ou une suppression).
+     * Les lectures en cours sont ignorées à leur retour.
+     */
+    public void rafraichir() {
+        generation++;
+        int ancienneTaille = taille;
+        jetons.clear();
+        jetons.add(null);
+        pages.clear();
+        vues.clear();
+        pagesEnLecture.clear();
+        taille = 0;
+        complete = false;
+        erreur.set(null);
+        if (ancienneTaille > 0) {
+            beginChange();
+            nextRemove(0, Collections.nCopies(ancienneTaille, null));
+            endChange();
+        }
+        lirePage(0);
+    }
+
+    /**
+     * @return vrai pendant la lecture d'au moins une page.
+     */
+    public ReadOnlyBooleanProperty chargementProperty() {
+        return chargement.getReadOnlyProperty();
+    }
+
+    /**
+     * @return la dernière erreur de lecture, ou null.
+     */
+    public ReadOnlyObjectProperty<Throwable> erreurProperty() {
+        return erreur.getReadOnlyProperty();
+    }
+
+    /**
+     * Lit à l'avance la page voisine lorsque la ligne demandée approche d'une limite de page :
+     * la page suivante connue, ou la découverte de nouvelles lignes en fin de liste.
+     */
+    private void anticiper(int index, int numeroPage) {
+        int position = index % taillePage;
+        if (position >= taillePage - taillePage / 4) {
+            int suivante = numeroPage + 1;
+            if (suivante < jetons.size() && !pages.containsKey(suivante)) {
+                lirePage(suivante);
+            }
+        } else if (position < taillePage / 4 && numeroPage > 0 && !pages.containsKey(numeroPage - 1)) {
+            lirePage(numeroPage - 1);
+        }
+        if (!complete && index >= taille - taillePage / 2) {
+            lirePage(jetons.size() - 1);
+        }
+    }
+
+    private void lirePage(int numeroPage) {
+        if (erreur.get() != null) {
+            return; // Pas de relecture automatique après un échec : voir rafraichir()
+        }
+        if (numeroPage >= jetons.size() || pages.containsKey(numeroPage) || !pagesEnLecture.add(numeroPage)) {
+            return;
+        }
+        String jeton = jetons.get(numeroPage);
+        long generationLecture = generation;
+        chargement.set(true);
+        executeur.execute(() -> {
+            try {
+                PageCurseur<R> page = chargeur.charger(jeton, taillePage);
+                Platform.runLater(() -> recevoir(generationLecture, numeroPage, page));
+            } catch (Exception e) {
+                Platform.runLater(() -> echouer(generationLecture, numeroPage, e));
+            }
+        });
+    }
+
+    private void recevoir(long generationLecture, int numeroPage, PageCurseur<R> page) {
+        if (generationLecture != generation) {
+            return; // Liste rafraîchie entre-temps
+        }
+        pagesEnLecture.remove(numeroPage);
+        chargement.set(!pagesEnLecture.isEmpty());
+        List<R> lignes = page.getElements();
+        pages.put(numeroPage, lignes);
+        int debut = numeroPage * taillePage;
+
+        if (numeroPage == jetons.size() - 1 && !complete) {
+            // Découverte de nouvelles lignes en fin de liste
+            if (page.hasPageSuivante()) {
+                jetons.add(page.getJetonSuivant());
+            } else {
+                complete = true;
+            }
+            int ancienneTaille = taille;
+            taille = Math.max(taille, debut + lignes.size());
+            if (taille > ancienneTaille) {
+                beginChange();
+                nextAdd(ancienneTaille, taille);
+                endChange();
+            }
+            return;
+        }
+
+        // Relecture d'une page évincée : les lignes affichées vides sont remplacées
+        int fin = Math.min(debut + taillePage, taille);
+        if (fin > debut) {
+            for (int i = debut; i < fin; i++) {
+                vues.remove(i);
+            }
+            beginChange();
+            for (int i = debut; i < fin; i++) {
+                nextSet(i, null);
+            }
+            endChange();
+        }
+    }
+
+    private void echouer(long generationLecture, int numeroPage, Exception e) {
+        if (generationLecture != generation) {
+            return;
+        }
+        pagesEnLecture.remove(numeroPage);
+        chargement.set(!pagesEnLecture.isEmpty());
+        LOGGER.log(Level.WARNING, "Échec de la lecture de la page " + numeroPage, e);
+        erreur.set(e);
+    }
+}
@@ -6,8 +6,11 @@ import javafx.beans.property.StringProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import main.java.com.miage.parcauto.dao.TriCurseur;
 import main.java.com.miage.parcauto.dto.DepenseDTO;
 import main.java.com.miage.parcauto.dto.MissionDTO;
+import main.java.com.miage.parcauto.dto.MissionResumeDTO;
+import main.java.com.miage.parcauto.service.MissionService;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -68,6 +71,35 @@ public class MissionViewModel {
         }
     }
 
+    /**
+     * Constructeur à partir d'un résumé de liste (sans conducteur ni dépenses).
+     *
+     * @param resume Résumé source pour l'initialisation
+     */
+    public MissionViewModel(MissionResumeDTO resume) {
+        this.idMission.set(resume.getIdMission());
+        this.immatriculation.set(resume.getImmatriculation());
+        this.destination.set(resume.getSite());
+        this.motif.set(resume.getLibMission());
+        this.dateDepart.set(resume.getDateDebut() != null ? resume.getDateDebut().format(DATE_FORMATTER) : "");
+        this.dateRetourPrevue.set(resume.getDateFin() != null ? resume.getDateFin().format(DATE_FORMATTER) : "");
+        this.statut.set(resume.getStatus() != null ? resume.getStatus() : "");
+    }
+
+    /**
+     * Crée la liste paginée des missions pour une table : les résumés sont lus page par page au fil
+     * du défilement et les ViewModels créés pour les seules lignes affichées.
+     *
+     * @param service    le service des missions.
+     * @param tri        l'ordre d'affichage.
+     * @param taillePage le nombre de lignes par page.
+     * @return la liste à passer à la table.
+     */
+    public static ListePaginee<MissionResumeDTO, MissionViewModel> listePaginee(MissionService service, TriCurseur tri, int taillePage) {
+        return new ListePaginee<MissionResumeDTO, MissionViewModel>(
+                (jeton, taille) -> service.getPageMissions(jeton, taille, tri), MissionViewModel::new, taillePage);
+    }
+
     /**
      * Met à jour ce ViewModel avec les données d'un DTO.
      *
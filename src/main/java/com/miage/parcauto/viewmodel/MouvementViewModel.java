@@ -1,6 +1,9 @@
 package main.java.com.miage.parcauto.viewmodel;
 
+import main.java.com.miage.parcauto.dao.TriCurseur;
 import main.java.com.miage.parcauto.dto.MouvementDTO;
+import main.java.com.miage.parcauto.dto.MouvementResumeDTO;
+import main.java.com.miage.parcauto.service.MouvementService;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -58,6 +61,40 @@ public class MouvementViewModel {
         updateFromDTO(mouvementDTO);
     }
 
+    /**
+     * Constructeur à partir d'un résumé de liste (sans rattachement mission ou entretien).
+     *
+     * @param resume Le résumé à utiliser pour initialiser le ViewModel
+     */
+    public MouvementViewModel(MouvementResumeDTO resume) {
+        LocalDate date = resume.getDate() != null ? resume.getDate().toLocalDate() : null;
+        idMouvement.set(resume.getIdMouvement() != null ? resume.getIdMouvement().toString() : "");
+        idCompte.set(resume.getIdSocietaire() != null ? resume.getIdSocietaire().toString() : "");
+        numeroCompte.set(resume.getNumeroCompte());
+        libelleCompte.set(resume.getNomSocietaire());
+        dateMouvement.set(date);
+        dateMouvementFormatee.set(formatDate(date));
+        montant.set(resume.getMontant());
+        montantFormate.set(formatMontant(resume.getMontant()));
+        typeMouvement.set(resume.getType());
+        idMission.set("");
+        idEntretien.set("");
+    }
+
+    /**
+     * Crée la liste paginée des mouvements pour une table : les résumés sont lus page par page au fil
+     * du défilement et les ViewModels créés pour les seules lignes affichées.
+     *
+     * @param service    le service des mouvements.
+     * @param tri        l'ordre d'affichage.
+     * @param taillePage le nombre de lignes par page.
+     * @return la liste à passer à la table.
+     */
+    public static ListePaginee<MouvementResumeDTO, MouvementViewModel> listePaginee(MouvementService service, TriCurseur tri, int taillePage) {
+        return new ListePaginee<MouvementResumeDTO, MouvementViewModel>(
+                (jeton, taille) -> service.getPageMouvements(jeton, taille, tri), MouvementViewModel::new, taillePage);
+    }
+
     /**
      * Met à jour le ViewModel à partir d'un DTO.
      *
@@ -1,7 +1,10 @@
 package main.java.com.miage.parcauto.viewmodel;
 
+import main.java.com.miage.parcauto.dao.TriCurseur;
 import main.java.com.miage.parcauto.dto.VehiculeDTO;
+import main.java.com.miage.parcauto.dto.VehiculeResumeDTO;
 import main.java.com.miage.parcauto.model.vehicule.EtatVoiture;
+import main.java.com.miage.parcauto.service.VehiculeService;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
@@ -56,6 +59,35 @@ public class VehiculeViewModel {
         this.dateAcquisition.set(dto.getDateAcquisition());
     }
 
+    /**
+     * Constructeur à partir d'un résumé de liste (sans prix ni indicateur de mission).
+     *
+     * @param resume VehiculeResumeDTO source
+     */
+    public VehiculeViewModel(VehiculeResumeDTO resume) {
+        this.idVehicule.set(resume.getIdVehicule());
+        this.marque.set(resume.getMarque());
+        this.modele.set(resume.getModele());
+        this.immatriculation.set(resume.getImmatriculation());
+        this.etat.set(new EtatVoiture(resume.getIdEtatVoiture(), resume.getLibelleEtatVoiture()));
+        this.kilometrage.set(resume.getKmActuels() != null ? resume.getKmActuels() : 0);
+        this.dateAcquisition.set(resume.getDateAcquisition());
+    }
+
+    /**
+     * Crée la liste paginée des véhicules pour une table : les résumés sont lus page par page au fil
+     * du défilement et les ViewModels créés pour les seules lignes affichées.
+     *
+     * @param service    le service des véhicules.
+     * @param tri        l'ordre d'affichage.
+     * @param taillePage le nombre de lignes par page.
+     * @return la liste à passer à la table.
+     */
+    public static ListePaginee<VehiculeResumeDTO, VehiculeViewModel> listePaginee(VehiculeService service, TriCurseur tri, int taillePage) {
+        return new ListePaginee<VehiculeResumeDTO, VehiculeViewModel>(
+                (jeton, taille) -> service.getPageVehicules(jeton, taille, tri), VehiculeViewModel::new, taillePage);
+    }
+
     public IntegerProperty idVehiculeProperty() {
         return idVehicule;
     }